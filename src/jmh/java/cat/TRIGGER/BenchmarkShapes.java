@@ -0,0 +1,104 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import cat.TRIGGER.quickhull3d.Point3d;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.minestom.server.coordinate.Vec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Synthetic geometry shared by the benchmarks. Everything is seeded so runs are comparable.
+ */
+final class BenchmarkShapes {
+
+    /**
+     * How input points of a hull are spread.
+     */
+    enum Distribution {
+        /**
+         * Uniformly inside a cube, most points end up inside the hull.
+         */
+        UNIFORM,
+        /**
+         * On the surface of a sphere, every point ends up on the hull.
+         */
+        SPHERE,
+        /**
+         * Normally distributed around the origin, a few outliers make up the hull.
+         */
+        GAUSSIAN
+    }
+
+    private BenchmarkShapes() {
+    }
+
+    /**
+     * Generate anchors, a cube for 8 anchors and points on a sphere otherwise.
+     * @param count The amount of anchors.
+     * @param size The edge length of the cube or the diameter of the sphere.
+     * @param random The random source.
+     * @return The anchors.
+     */
+    static List<Vec> anchors(int count, double size, Random random) {
+        if (count == 8) {
+            List<Vec> cube = new ArrayList<>(8);
+            for (int i = 0; i < 8; i++) {
+                cube.add(new Vec((i & 1) * size, ((i >> 1) & 1) * size, ((i >> 2) & 1) * size));
+            }
+            return cube;
+        }
+        List<Vec> anchors = new ArrayList<>(count);
+        for (Point3d point : points(count, Distribution.SPHERE, random)) {
+            anchors.add(new Vec(point.x * size / 2, point.y * size / 2, point.z * size / 2));
+        }
+        return anchors;
+    }
+
+    /**
+     * Generate hull input points roughly within the unit sphere.
+     * @param count The amount of points.
+     * @param distribution How the points are spread.
+     * @param random The random source.
+     * @return The points.
+     */
+    static Point3d[] points(int count, Distribution distribution, Random random) {
+        Point3d[] points = new Point3d[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = switch (distribution) {
+                case UNIFORM -> new Point3d(random.nextDouble() * 2 - 1, random.nextDouble() * 2 - 1, random.nextDouble() * 2 - 1);
+                case GAUSSIAN -> new Point3d(random.nextGaussian() / 3, random.nextGaussian() / 3, random.nextGaussian() / 3);
+                case SPHERE -> {
+                    double z = random.nextDouble() * 2 - 1;
+                    double angle = random.nextDouble() * Math.PI * 2;
+                    double r = Math.sqrt(1 - z * z);
+                    yield new Point3d(r * Math.cos(angle), r * Math.sin(angle), z);
+                }
+            };
+        }
+        return points;
+    }
+
+    /**
+     * Create a trigger without a callback.
+     * @param anchors The anchors.
+     * @param position The position.
+     * @return The trigger.
+     */
+    static Trigger trigger(List<Vec> anchors, Vec position) {
+        return new Trigger(anchors, position, UUID.randomUUID(), Component.text("benchmark"), NamedTextColor.RED, callback -> {});
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Pos;
+import net.minestom.server.coordinate.Vec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Narrowphase cost of {@link Trigger#contains} and {@link Trigger#containsSwept} for a player sized hitbox near hulls of different sizes.
+ * Roughly half of the hitboxes overlap the hull.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ContainsBenchmark {
+
+    private static final int HITBOXES = 1024;
+    private static final double HALF_WIDTH = 0.3;
+    private static final double HEIGHT = 1.8;
+
+    @Param({"8", "32", "128", "512"})
+    public int anchors;
+
+    @Param({"PLANES", "EXACT_SAT"})
+    public Trigger.ContainmentMode mode;
+
+    private Trigger trigger;
+    private double[] hitboxes;
+    private List<List<Vec>> hitboxPoints;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        trigger = BenchmarkShapes.trigger(BenchmarkShapes.anchors(anchors, 8, random), new Vec(100, 64, 100));
+        trigger.setContainmentMode(mode);
+
+        hitboxes = new double[HITBOXES * 3];
+        hitboxPoints = new ArrayList<>(HITBOXES);
+        for (int i = 0; i < HITBOXES; i++) {
+            Pos pos = new Pos(96 + random.nextDouble() * 16, 60 + random.nextDouble() * 16, 96 + random.nextDouble() * 16);
+            hitboxes[i * 3] = pos.x();
+            hitboxes[i * 3 + 1] = pos.y();
+            hitboxes[i * 3 + 2] = pos.z();
+            hitboxPoints.add(hitboxCorners(pos));
+        }
+    }
+
+    private static List<Vec> hitboxCorners(Pos pos) {
+        return List.of(
+                new Vec(pos.x() - HALF_WIDTH, pos.y(), pos.z() - HALF_WIDTH),
+                new Vec(pos.x() - HALF_WIDTH, pos.y(), pos.z() + HALF_WIDTH),
+                new Vec(pos.x() - HALF_WIDTH, pos.y() + HEIGHT, pos.z() - HALF_WIDTH),
+                new Vec(pos.x() - HALF_WIDTH, pos.y() + HEIGHT, pos.z() + HALF_WIDTH),
+                new Vec(pos.x() + HALF_WIDTH, pos.y(), pos.z() - HALF_WIDTH),
+                new Vec(pos.x() + HALF_WIDTH, pos.y(), pos.z() + HALF_WIDTH),
+                new Vec(pos.x() + HALF_WIDTH, pos.y() + HEIGHT, pos.z() - HALF_WIDTH),
+                new Vec(pos.x() + HALF_WIDTH, pos.y() + HEIGHT, pos.z() + HALF_WIDTH)
+        );
+    }
+
+    @Benchmark
+    public boolean containsBox() {
+        final int i = cursor++ & (HITBOXES - 1);
+        final double x = hitboxes[i * 3], y = hitboxes[i * 3 + 1], z = hitboxes[i * 3 + 2];
+        return trigger.contains(x - HALF_WIDTH, y, z - HALF_WIDTH, x + HALF_WIDTH, y + HEIGHT, z + HALF_WIDTH);
+    }
+
+    @Benchmark
+    public boolean containsPoints() {
+        return trigger.contains(hitboxPoints.get(cursor++ & (HITBOXES - 1)));
+    }
+
+    @Benchmark
+    public boolean containsSwept() {
+        // From one hitbox to the next, the paths cross the hull in all directions
+        final int i = cursor++ & (HITBOXES - 1), j = (i + 1) & (HITBOXES - 1);
+        final double x = hitboxes[i * 3], y = hitboxes[i * 3 + 1], z = hitboxes[i * 3 + 2];
+        return trigger.containsSwept(x - HALF_WIDTH, y, z - HALF_WIDTH, x + HALF_WIDTH, y + HEIGHT, z + HALF_WIDTH,
+                hitboxes[j * 3] - x, hitboxes[j * 3 + 1] - y, hitboxes[j * 3 + 2] - z);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import cat.TRIGGER.quickhull3d.Point3d;
+import cat.TRIGGER.quickhull3d.QuickHull3D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hull construction cost of {@link QuickHull3D#build(Point3d[])} across point counts and distributions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuickHullBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int points;
+
+    @Param({"UNIFORM", "SPHERE", "GAUSSIAN"})
+    public BenchmarkShapes.Distribution distribution;
+
+    private Point3d[] input;
+    private QuickHull3D reused;
+
+    @Setup
+    public void setup() {
+        input = BenchmarkShapes.points(points, distribution, new Random(42));
+        reused = new QuickHull3D();
+    }
+
+    @Benchmark
+    public int build() {
+        QuickHull3D hull = new QuickHull3D();
+        hull.build(input);
+        return hull.getNumFaces();
+    }
+
+    @Benchmark
+    public int buildReused() {
+        reused.build(input);
+        return reused.getNumFaces();
+    }
+}
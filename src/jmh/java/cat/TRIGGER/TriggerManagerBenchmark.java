@@ -0,0 +1,154 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.coordinate.Pos;
+import net.minestom.server.coordinate.Vec;
+import net.minestom.server.entity.Player;
+import net.minestom.server.event.player.PlayerMoveEvent;
+import net.minestom.server.network.packet.server.SendablePacket;
+import net.minestom.server.network.player.GameProfile;
+import net.minestom.server.network.player.PlayerConnection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of one {@link TriggerManager#playerMoveEvent(PlayerMoveEvent)} for every player, with N synthetic players walking around M triggers.
+ * Triggers are boxes of 2 to 18 blocks spread over a 2000x2000 area, players step back and forth between two nearby positions.
+ * {@link TriggerManagerBenchmark#playerMoveEventParallel()} does the same with {@link TriggerManager#setParallelEvaluation(boolean)} and evaluates the batch right away.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TriggerManagerBenchmark {
+
+    /**
+     * The {@link TriggerIndex} implementations to compare.
+     */
+    public enum Index {
+        LINEAR(LinearTriggerIndex::new),
+        GRID(GridTriggerIndex::new),
+        BVH(BvhTriggerIndex::new),
+        CHUNK(ChunkTriggerIndex::new);
+
+        private final Supplier<TriggerIndex> factory;
+
+        Index(Supplier<TriggerIndex> factory) {
+            this.factory = factory;
+        }
+    }
+
+    private static final double AREA = 2000;
+
+    @Param({"1", "50", "200"})
+    public int players;
+
+    @Param({"100", "1000", "20000"})
+    public int triggers;
+
+    @Param({"LINEAR", "GRID", "BVH", "CHUNK"})
+    public Index index;
+
+    private TriggerManager manager;
+    private TriggerManager coalescedManager;
+    private TriggerManager parallelManager;
+    private PlayerMoveEvent[][] events;
+    private int step;
+
+    @Setup
+    public void setup() {
+        MinecraftServer.init();
+        Random random = new Random(42);
+
+        List<Trigger> created = new ArrayList<>(triggers);
+        for (int i = 0; i < triggers; i++) {
+            List<Vec> anchors = BenchmarkShapes.anchors(8, 2 + random.nextDouble() * 16, random);
+            created.add(BenchmarkShapes.trigger(anchors, new Vec(random.nextDouble() * AREA, 60 + random.nextDouble() * 8, random.nextDouble() * AREA)));
+        }
+        manager = new TriggerManager(false, index.factory);
+        manager.addAll(created);
+        coalescedManager = new TriggerManager(false, index.factory);
+        coalescedManager.addAll(created);
+        coalescedManager.setCoalescedEvaluation(true);
+        parallelManager = new TriggerManager(false, index.factory);
+        parallelManager.addAll(created);
+        manager.publishChanges();
+        coalescedManager.publishChanges();
+        parallelManager.publishChanges();
+        parallelManager.setParallelEvaluation(true);
+
+        events = new PlayerMoveEvent[players][2];
+        for (int i = 0; i < players; i++) {
+            Player player = new Player(new BenchmarkConnection(), new GameProfile(UUID.randomUUID(), "bench" + i));
+            Pos pos = new Pos(random.nextDouble() * AREA, 62, random.nextDouble() * AREA);
+            events[i][0] = new PlayerMoveEvent(player, pos, true);
+            events[i][1] = new PlayerMoveEvent(player, pos.add(0.3, 0, 0.3), true);
+        }
+    }
+
+    @Benchmark
+    public void playerMoveEvent() {
+        final int side = step++ & 1;
+        for (PlayerMoveEvent[] event : events) {
+            manager.playerMoveEvent(event[side]);
+        }
+    }
+
+    @Benchmark
+    public void playerMoveEventCoalesced() {
+        final int side = step++ & 1;
+        for (PlayerMoveEvent[] event : events) {
+            coalescedManager.playerMoveEvent(event[side]);
+        }
+        coalescedManager.flush();
+    }
+
+    @Benchmark
+    public void playerMoveEventParallel() {
+        final int side = step++ & 1;
+        for (PlayerMoveEvent[] event : events) {
+            parallelManager.playerMoveEvent(event[side]);
+        }
+        parallelManager.flush();
+    }
+
+    /**
+     * A connection that drops every packet.
+     */
+    private static final class BenchmarkConnection extends PlayerConnection {
+        private static final SocketAddress ADDRESS = new InetSocketAddress("localhost", 25565);
+
+        @Override
+        public void sendPacket(SendablePacket packet) {
+        }
+
+        @Override
+        public SocketAddress getRemoteAddress() {
+            return ADDRESS;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Vec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON throughput of {@link TriggerTypeAdapter} through {@link TriggerGlobals#GSON}.
+ * Reading includes the hull computation of the new trigger.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TriggerTypeAdapterBenchmark {
+
+    @Param({"8", "128"})
+    public int anchors;
+
+    private Trigger trigger;
+    private String json;
+
+    @Setup
+    public void setup() {
+        // Every read would be a cache hit otherwise
+        TriggerGlobals.SHAPE_CACHE = new TriggerShapeCache(0);
+        trigger = BenchmarkShapes.trigger(BenchmarkShapes.anchors(anchors, 8, new Random(42)), new Vec(100, 64, 100));
+        json = trigger.toJSON();
+    }
+
+    @Benchmark
+    public String write() {
+        return trigger.toJSON();
+    }
+
+    @Benchmark
+    public Trigger read() {
+        return Trigger.fromJSON(json);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Vec;
+
+import java.util.List;
+
+/**
+ * An axis-aligned box {@link TriggerShape}, create one with {@link TriggerShape#box(Vec, Vec)}.
+ * The box is its own bounds, so the bounds check of {@link Trigger#contains(double, double, double, double, double, double)} is already the whole containment check.
+ */
+public final class BoxShape extends TriggerShape {
+
+    private static final double[] NO_AXES = new double[0];
+
+    BoxShape(Vec min, Vec max) {
+        super(NO_AXES, NO_AXES, min.min(max), min.max(max), 0);
+    }
+
+    @Override
+    public Type getType() {
+        return Type.BOX;
+    }
+
+    /**
+     * Get the 8 corners of the box.
+     * @return The corners relative to the position of a trigger.
+     */
+    @Override
+    public List<Vec> getAnchors() {
+        return List.of(corners());
+    }
+
+    @Override
+    public List<Trigger.Triangle> getTriangles() {
+        return new TriangleView(boxMesh(corners(), getBoundsMin().add(getBoundsMax()).mul(0.5)));
+    }
+
+    @Override
+    public int getTriangleCount() {
+        return 12;
+    }
+
+    @Override
+    boolean overlaps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Trigger.ContainmentMode mode) {
+        return true;
+    }
+
+    @Override
+    boolean overlaps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, List<Vec> points, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Trigger.ContainmentMode mode) {
+        return true;
+    }
+
+    /**
+     * Internal part of the swept collision check, the bounds check of the path is already exact for a box.
+     */
+    @Override
+    boolean sweeps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, double cx, double cy, double cz, double hx, double hy, double hz, double dx, double dy, double dz, Trigger.ContainmentMode mode) {
+        return true;
+    }
+
+    @Override
+    double[] parameters() {
+        final Vec min = getBoundsMin(), max = getBoundsMax();
+        return new double[]{min.x(), min.y(), min.z(), max.x(), max.y(), max.z()};
+    }
+
+    private Vec[] corners() {
+        final Vec min = getBoundsMin(), max = getBoundsMax();
+        final Vec[] corners = new Vec[8];
+        for (int i = 0; i < 8; i++) {
+            corners[i] = new Vec((i & 1) == 0 ? min.x() : max.x(), (i & 2) == 0 ? min.y() : max.y(), (i & 4) == 0 ? min.z() : max.z());
+        }
+        return corners;
+    }
+}
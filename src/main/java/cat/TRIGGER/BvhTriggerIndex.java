@@ -0,0 +1,518 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minestom.server.coordinate.Vec;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link TriggerIndex} backed by a bounding volume hierarchy over the world space bounds of the triggers.
+ * Adapts to uneven trigger density, dense areas get a deep hierarchy while empty areas cost nothing.
+ * <p>
+ * {@link BvhTriggerIndex#insertAll(Collection)} builds the whole tree at once using the surface area heuristic (SAH),
+ * which gives the best trees and should be used for initial loading.
+ * Single insertions descend the tree along the cheapest surface area increase and rebalance it with tree rotations,
+ * removals and bound changes only touch the path from the leaf to the root.
+ */
+public class BvhTriggerIndex implements TriggerIndex {
+
+    /**
+     * Amount of buckets the centroids are sorted into when evaluating split candidates during a bulk build.
+     */
+    private static final int SAH_BUCKETS = 12;
+
+    private Node root;
+    private final Reference2ObjectMap<Trigger, Node> leaves = new Reference2ObjectOpenHashMap<>();
+
+    @Override
+    public void insert(Trigger trigger) {
+        if (leaves.containsKey(trigger)) {
+            throw new IllegalStateException("Trigger is already indexed");
+        }
+        Node leaf = new Node();
+        leaf.trigger = trigger;
+        leaf.setBounds(trigger);
+        leaves.put(trigger, leaf);
+        insertLeaf(leaf);
+    }
+
+    /**
+     * Insert many triggers at once by rebuilding the whole tree with the surface area heuristic.
+     * The already indexed triggers are included in the rebuild.
+     * @param triggers The triggers to insert.
+     */
+    @Override
+    public void insertAll(Collection<? extends Trigger> triggers) {
+        List<Node> all = new ArrayList<>(leaves.size() + triggers.size());
+        for (Node leaf : leaves.values()) {
+            leaf.setBounds(leaf.trigger);
+            all.add(leaf);
+        }
+        for (Trigger trigger : triggers) {
+            if (leaves.containsKey(trigger)) {
+                throw new IllegalStateException("Trigger is already indexed");
+            }
+            Node leaf = new Node();
+            leaf.trigger = trigger;
+            leaf.setBounds(trigger);
+            leaves.put(trigger, leaf);
+            all.add(leaf);
+        }
+        if (all.isEmpty()) return;
+
+        Node[] nodes = all.toArray(new Node[0]);
+        root = build(nodes, 0, nodes.length);
+        root.parent = null;
+    }
+
+    @Override
+    public boolean remove(Trigger trigger) {
+        Node leaf = leaves.remove(trigger);
+        if (leaf == null) return false;
+        removeLeaf(leaf);
+        return true;
+    }
+
+    /**
+     * Refit the leaf of a trigger after its bounds changed.
+     * If the leaf still fits into its parent only the bounds of the leaf are updated, otherwise it is reinserted.
+     * @param trigger The trigger that changed.
+     */
+    @Override
+    public void update(Trigger trigger) {
+        Node leaf = leaves.get(trigger);
+        if (leaf == null) return;
+        leaf.setBounds(trigger);
+        Node parent = leaf.parent;
+        if (parent == null || parent.containsBounds(leaf)) {
+            return;
+        }
+        removeLeaf(leaf);
+        insertLeaf(leaf);
+    }
+
+    @Override
+    public void query(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Collection<? super Trigger> out) {
+        if (root != null) {
+            query(root, minX, minY, minZ, maxX, maxY, maxZ, out);
+        }
+    }
+
+    private static void query(Node node, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Collection<? super Trigger> out) {
+        if (!node.overlaps(minX, minY, minZ, maxX, maxY, maxZ)) return;
+        if (node.isLeaf()) {
+            out.add(node.trigger);
+            return;
+        }
+        query(node.child1, minX, minY, minZ, maxX, maxY, maxZ, out);
+        query(node.child2, minX, minY, minZ, maxX, maxY, maxZ, out);
+    }
+
+    /**
+     * Copy the whole tree node by node, the copy keeps the shape of this tree instead of being rebuilt.
+     * @return The copy.
+     */
+    @Override
+    public BvhTriggerIndex copy() {
+        BvhTriggerIndex copy = new BvhTriggerIndex();
+        if (root != null) {
+            copy.root = copy.copyNode(root, null);
+        }
+        return copy;
+    }
+
+    private Node copyNode(Node node, Node parent) {
+        Node copy = new Node();
+        copy.setUnion(node, node);
+        copy.height = node.height;
+        copy.parent = parent;
+        if (node.isLeaf()) {
+            copy.trigger = node.trigger;
+            leaves.put(node.trigger, copy);
+        } else {
+            copy.child1 = copyNode(node.child1, copy);
+            copy.child2 = copyNode(node.child2, copy);
+        }
+        return copy;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        leaves.clear();
+    }
+
+    @Override
+    public int size() {
+        return leaves.size();
+    }
+
+    /**
+     * Get the height of the tree, mostly useful for debugging.
+     * @return The height of the tree, zero if it is empty or only has one trigger.
+     */
+    public int getHeight() {
+        return root == null ? 0 : root.height;
+    }
+
+    /**
+     * Recursively build a subtree over a range of leaves, splitting at the cheapest bucket boundary according to the surface area heuristic.
+     * @param nodes The leaves, reordered in place.
+     * @param start The first leaf of the range.
+     * @param end The end of the range, exclusive.
+     * @return The root of the subtree.
+     */
+    private static Node build(Node[] nodes, int start, int end) {
+        final int count = end - start;
+        if (count == 1) {
+            nodes[start].height = 0;
+            return nodes[start];
+        }
+
+        // Bounds of the centroids, the split axis is chosen based on their extent
+        double[] centroidMin = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] centroidMax = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = start; i < end; i++) {
+            for (int axis = 0; axis < 3; axis++) {
+                double c = nodes[i].centroid(axis);
+                centroidMin[axis] = Math.min(centroidMin[axis], c);
+                centroidMax[axis] = Math.max(centroidMax[axis], c);
+            }
+        }
+
+        int bestAxis = -1;
+        int bestBucket = -1;
+        double bestCost = Double.POSITIVE_INFINITY;
+        Node[] bucketBounds = new Node[SAH_BUCKETS];
+        int[] bucketCounts = new int[SAH_BUCKETS];
+        double[] rightAreas = new double[SAH_BUCKETS];
+        for (int axis = 0; axis < 3; axis++) {
+            final double extent = centroidMax[axis] - centroidMin[axis];
+            if (extent <= 0) continue;
+
+            for (int b = 0; b < SAH_BUCKETS; b++) {
+                bucketBounds[b] = Node.empty();
+                bucketCounts[b] = 0;
+            }
+            for (int i = start; i < end; i++) {
+                int b = bucket(nodes[i].centroid(axis), centroidMin[axis], extent);
+                bucketCounts[b]++;
+                bucketBounds[b].include(nodes[i]);
+            }
+
+            // Sweep from the right to get the area right of every boundary, then from the left to evaluate the cost
+            Node right = Node.empty();
+            for (int b = SAH_BUCKETS - 1; b > 0; b--) {
+                right.include(bucketBounds[b]);
+                rightAreas[b] = right.surfaceArea();
+            }
+            Node left = Node.empty();
+            int leftCount = 0;
+            for (int b = 0; b < SAH_BUCKETS - 1; b++) {
+                left.include(bucketBounds[b]);
+                leftCount += bucketCounts[b];
+                final int rightCount = count - leftCount;
+                if (leftCount == 0 || rightCount == 0) continue;
+                double cost = leftCount * left.surfaceArea() + rightCount * rightAreas[b + 1];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestBucket = b;
+                }
+            }
+        }
+
+        int mid;
+        if (bestAxis == -1) {
+            // All centroids are in the same spot, any split is as good as another
+            mid = start + count / 2;
+        } else {
+            mid = start;
+            final double extent = centroidMax[bestAxis] - centroidMin[bestAxis];
+            for (int i = start; i < end; i++) {
+                if (bucket(nodes[i].centroid(bestAxis), centroidMin[bestAxis], extent) <= bestBucket) {
+                    Node swap = nodes[i];
+                    nodes[i] = nodes[mid];
+                    nodes[mid] = swap;
+                    mid++;
+                }
+            }
+        }
+
+        Node node = new Node();
+        node.child1 = build(nodes, start, mid);
+        node.child2 = build(nodes, mid, end);
+        node.child1.parent = node;
+        node.child2.parent = node;
+        node.refit();
+        return node;
+    }
+
+    private static int bucket(double centroid, double min, double extent) {
+        int b = (int) (SAH_BUCKETS * ((centroid - min) / extent));
+        return Math.min(b, SAH_BUCKETS - 1);
+    }
+
+    /**
+     * Insert a leaf by descending the tree along the cheapest surface area increase, then rebalance the path back up.
+     * @param leaf The leaf to insert.
+     */
+    private void insertLeaf(Node leaf) {
+        if (root == null) {
+            root = leaf;
+            leaf.parent = null;
+            return;
+        }
+
+        Node sibling = root;
+        Node combined = new Node();
+        while (!sibling.isLeaf()) {
+            final double area = sibling.surfaceArea();
+            combined.setUnion(sibling, leaf);
+            final double combinedArea = combined.surfaceArea();
+
+            // Cost of creating a new parent for this node and the new leaf
+            final double cost = 2 * combinedArea;
+            // Minimum cost of pushing the leaf further down the tree
+            final double inheritanceCost = 2 * (combinedArea - area);
+
+            final double cost1 = descendCost(sibling.child1, leaf, combined) + inheritanceCost;
+            final double cost2 = descendCost(sibling.child2, leaf, combined) + inheritanceCost;
+
+            if (cost < cost1 && cost < cost2) break;
+            sibling = cost1 < cost2 ? sibling.child1 : sibling.child2;
+        }
+
+        Node oldParent = sibling.parent;
+        Node newParent = new Node();
+        newParent.parent = oldParent;
+        newParent.child1 = sibling;
+        newParent.child2 = leaf;
+        newParent.setUnion(sibling, leaf);
+        newParent.height = sibling.height + 1;
+        sibling.parent = newParent;
+        leaf.parent = newParent;
+
+        if (oldParent == null) {
+            root = newParent;
+        } else if (oldParent.child1 == sibling) {
+            oldParent.child1 = newParent;
+        } else {
+            oldParent.child2 = newParent;
+        }
+
+        refitUpwards(leaf.parent);
+    }
+
+    private static double descendCost(Node child, Node leaf, Node scratch) {
+        scratch.setUnion(child, leaf);
+        if (child.isLeaf()) {
+            return scratch.surfaceArea();
+        }
+        return scratch.surfaceArea() - child.surfaceArea();
+    }
+
+    /**
+     * Detach a leaf from the tree, its sibling takes the place of the shared parent.
+     * @param leaf The leaf to remove.
+     */
+    private void removeLeaf(Node leaf) {
+        if (leaf == root) {
+            root = null;
+            return;
+        }
+
+        Node parent = leaf.parent;
+        Node grandParent = parent.parent;
+        Node sibling = parent.child1 == leaf ? parent.child2 : parent.child1;
+        leaf.parent = null;
+
+        if (grandParent == null) {
+            root = sibling;
+            sibling.parent = null;
+            return;
+        }
+
+        if (grandParent.child1 == parent) {
+            grandParent.child1 = sibling;
+        } else {
+            grandParent.child2 = sibling;
+        }
+        sibling.parent = grandParent;
+        refitUpwards(grandParent);
+    }
+
+    /**
+     * Rebalance and refit every node from the given one up to the root.
+     */
+    private void refitUpwards(Node node) {
+        while (node != null) {
+            node = balance(node);
+            node.refit();
+            node = node.parent;
+        }
+    }
+
+    /**
+     * Perform a left or right rotation if the subtree of a node is imbalanced.
+     * @param a The node to balance.
+     * @return The new root of the subtree.
+     */
+    private Node balance(Node a) {
+        if (a.isLeaf() || a.height < 2) return a;
+
+        Node b = a.child1;
+        Node c = a.child2;
+        final int balance = c.height - b.height;
+
+        if (balance > 1) {
+            // Rotate c up
+            Node f = c.child1;
+            Node g = c.child2;
+            c.child1 = a;
+            c.parent = a.parent;
+            a.parent = c;
+            replaceChild(c.parent, a, c);
+
+            if (f.height > g.height) {
+                c.child2 = f;
+                a.child2 = g;
+                g.parent = a;
+            } else {
+                c.child2 = g;
+                a.child2 = f;
+                f.parent = a;
+            }
+            a.refit();
+            c.refit();
+            return c;
+        }
+
+        if (balance < -1) {
+            // Rotate b up
+            Node d = b.child1;
+            Node e = b.child2;
+            b.child1 = a;
+            b.parent = a.parent;
+            a.parent = b;
+            replaceChild(b.parent, a, b);
+
+            if (d.height > e.height) {
+                b.child2 = d;
+                a.child1 = e;
+                e.parent = a;
+            } else {
+                b.child2 = e;
+                a.child1 = d;
+                d.parent = a;
+            }
+            a.refit();
+            b.refit();
+            return b;
+        }
+
+        return a;
+    }
+
+    private void replaceChild(Node parent, Node oldChild, Node newChild) {
+        if (parent == null) {
+            root = newChild;
+        } else if (parent.child1 == oldChild) {
+            parent.child1 = newChild;
+        } else {
+            parent.child2 = newChild;
+        }
+    }
+
+    /**
+     * A node of the tree, either a leaf holding a trigger or an inner node with exactly two children.
+     */
+    private static final class Node {
+        double minX, minY, minZ, maxX, maxY, maxZ;
+        Node parent;
+        Node child1;
+        Node child2;
+        Trigger trigger;
+        int height;
+
+        static Node empty() {
+            Node node = new Node();
+            node.minX = node.minY = node.minZ = Double.POSITIVE_INFINITY;
+            node.maxX = node.maxY = node.maxZ = Double.NEGATIVE_INFINITY;
+            return node;
+        }
+
+        boolean isLeaf() {
+            return child1 == null;
+        }
+
+        void setBounds(Trigger trigger) {
+            Vec min = trigger.getBoundsMin();
+            Vec max = trigger.getBoundsMax();
+            minX = min.x();
+            minY = min.y();
+            minZ = min.z();
+            maxX = max.x();
+            maxY = max.y();
+            maxZ = max.z();
+        }
+
+        void setUnion(Node a, Node b) {
+            minX = Math.min(a.minX, b.minX);
+            minY = Math.min(a.minY, b.minY);
+            minZ = Math.min(a.minZ, b.minZ);
+            maxX = Math.max(a.maxX, b.maxX);
+            maxY = Math.max(a.maxY, b.maxY);
+            maxZ = Math.max(a.maxZ, b.maxZ);
+        }
+
+        void include(Node other) {
+            setUnion(this, other);
+        }
+
+        void refit() {
+            setUnion(child1, child2);
+            height = 1 + Math.max(child1.height, child2.height);
+        }
+
+        boolean containsBounds(Node other) {
+            return minX <= other.minX && minY <= other.minY && minZ <= other.minZ
+                    && maxX >= other.maxX && maxY >= other.maxY && maxZ >= other.maxZ;
+        }
+
+        boolean overlaps(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+            return this.minX <= maxX && this.maxX >= minX
+                    && this.minY <= maxY && this.maxY >= minY
+                    && this.minZ <= maxZ && this.maxZ >= minZ;
+        }
+
+        double surfaceArea() {
+            if (minX > maxX) return 0;
+            final double dx = maxX - minX;
+            final double dy = maxY - minY;
+            final double dz = maxZ - minZ;
+            return 2 * (dx * dy + dy * dz + dz * dx);
+        }
+
+        double centroid(int axis) {
+            return switch (axis) {
+                case 0 -> (minX + maxX) * 0.5;
+                case 1 -> (minY + maxY) * 0.5;
+                default -> (minZ + maxZ) * 0.5;
+            };
+        }
+    }
+}
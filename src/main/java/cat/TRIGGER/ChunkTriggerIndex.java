@@ -0,0 +1,53 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import java.util.List;
+
+/**
+ * A {@link TriggerIndex} that maps Minestom chunks to the triggers overlapping them.
+ * It is a flat {@link GridTriggerIndex} with 16 block cells that ignores y, so every cell is one chunk column
+ * and a player hitbox usually only has to look at one, sometimes two or four chunks.
+ * <p>
+ * Triggers spanning many chunks are registered in all of them.
+ * Moving a trigger only touches the chunks it left or newly entered. A {@link ChunkTriggerIndex#copy() copy} shares all chunks with the original
+ * until either of them changes a chunk.
+ */
+public class ChunkTriggerIndex extends GridTriggerIndex {
+
+    /**
+     * Create an empty chunk index.
+     */
+    public ChunkTriggerIndex() {
+        super(16, true);
+    }
+
+    /**
+     * Copy this index, the chunks are shared until the copy or this index changes them.
+     * @return The copy.
+     */
+    @Override
+    public ChunkTriggerIndex copy() {
+        ChunkTriggerIndex copy = new ChunkTriggerIndex();
+        copyInto(copy);
+        return copy;
+    }
+
+    /**
+     * Get the triggers registered in a chunk.
+     * @param chunkX The x coordinate of the chunk.
+     * @param chunkZ The z coordinate of the chunk.
+     * @return An unmodifiable copy of the triggers overlapping that chunk, empty if there are none.
+     */
+    public List<Trigger> getTriggers(int chunkX, int chunkZ) {
+        return getCellTriggers(chunkX, 0, chunkZ);
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Vec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link TriggerShape} made of several convex parts, for areas like L or U shapes that a single hull would "shrink wrap".
+ * Create one with {@link TriggerShape#compound(List)} from explicit parts or with {@link TriggerShape#decompose(List, double, int)} from a mesh.
+ * <p>
+ * The compound is still a single trigger: it has one bounding box around all parts for the broadphase and a player inside two overlapping parts
+ * is inside the trigger once, so the callback only gets one ENTERED and one EXITED for the whole compound.
+ * After the bounds check the parts are found through a small bounding volume hierarchy, only parts whose own bounds overlap the hitbox are tested.
+ */
+public final class CompoundShape extends TriggerShape {
+
+    private static final double[] NO_AXES = new double[0];
+    // Parts per leaf of the hierarchy
+    private static final int LEAF_SIZE = 2;
+    private static final int BOUNDS_STRIDE = 6;
+
+    private final TriggerShape[] parts;
+    // Min x, y, z and max x, y, z of every node
+    private final double[] nodeBounds;
+    // For leaves the first index into partOrder, for inner nodes the index of the second child (the first child always follows its parent)
+    private final int[] nodeIndex;
+    // The amount of parts of leaves, 0 for inner nodes
+    private final int[] nodeCount;
+    private final int[] partOrder;
+    private int nodes = 0;
+
+    CompoundShape(List<TriggerShape> parts, double computationTime) {
+        this(flatten(parts), computationTime);
+    }
+
+    private CompoundShape(TriggerShape[] parts, double computationTime) {
+        super(NO_AXES, NO_AXES, boundsMin(parts), boundsMax(parts), computationTime);
+        this.parts = parts;
+        this.partOrder = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            partOrder[i] = i;
+        }
+        final int maxNodes = 2 * parts.length;
+        this.nodeBounds = new double[maxNodes * BOUNDS_STRIDE];
+        this.nodeIndex = new int[maxNodes];
+        this.nodeCount = new int[maxNodes];
+        build(0, parts.length);
+    }
+
+    /**
+     * Internal method for collecting the parts, nested compounds are replaced by their parts.
+     * @param parts The parts.
+     * @return The flat parts.
+     * @throws IllegalArgumentException If there are no parts.
+     */
+    private static TriggerShape[] flatten(List<TriggerShape> parts) {
+        final List<TriggerShape> flat = new ArrayList<>(parts.size());
+        for (TriggerShape part : parts) {
+            if (part instanceof CompoundShape compound) {
+                Collections.addAll(flat, compound.parts);
+            } else {
+                flat.add(part);
+            }
+        }
+        if (flat.isEmpty()) {
+            throw new IllegalArgumentException("A compound needs at least one part");
+        }
+        return flat.toArray(new TriggerShape[0]);
+    }
+
+    private static Vec boundsMin(TriggerShape[] parts) {
+        Vec min = parts[0].getBoundsMin();
+        for (TriggerShape part : parts) {
+            min = min.min(part.getBoundsMin());
+        }
+        return min;
+    }
+
+    private static Vec boundsMax(TriggerShape[] parts) {
+        Vec max = parts[0].getBoundsMax();
+        for (TriggerShape part : parts) {
+            max = max.max(part.getBoundsMax());
+        }
+        return max;
+    }
+
+    /**
+     * Internal method for building the hierarchy over a range of {@link CompoundShape#partOrder}, split at the median of the longest axis of the part centers.
+     * @param start The first index of the range.
+     * @param end The index after the last one of the range.
+     * @return The index of the created node.
+     */
+    private int build(int start, int end) {
+        final int node = nodes++;
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        double centerMinX = Double.POSITIVE_INFINITY, centerMinY = Double.POSITIVE_INFINITY, centerMinZ = Double.POSITIVE_INFINITY;
+        double centerMaxX = Double.NEGATIVE_INFINITY, centerMaxY = Double.NEGATIVE_INFINITY, centerMaxZ = Double.NEGATIVE_INFINITY;
+        for (int i = start; i < end; i++) {
+            final TriggerShape part = parts[partOrder[i]];
+            final Vec min = part.getBoundsMin(), max = part.getBoundsMax();
+            minX = Math.min(minX, min.x());
+            minY = Math.min(minY, min.y());
+            minZ = Math.min(minZ, min.z());
+            maxX = Math.max(maxX, max.x());
+            maxY = Math.max(maxY, max.y());
+            maxZ = Math.max(maxZ, max.z());
+            centerMinX = Math.min(centerMinX, min.x() + max.x());
+            centerMinY = Math.min(centerMinY, min.y() + max.y());
+            centerMinZ = Math.min(centerMinZ, min.z() + max.z());
+            centerMaxX = Math.max(centerMaxX, min.x() + max.x());
+            centerMaxY = Math.max(centerMaxY, min.y() + max.y());
+            centerMaxZ = Math.max(centerMaxZ, min.z() + max.z());
+        }
+        final int o = node * BOUNDS_STRIDE;
+        nodeBounds[o] = minX;
+        nodeBounds[o + 1] = minY;
+        nodeBounds[o + 2] = minZ;
+        nodeBounds[o + 3] = maxX;
+        nodeBounds[o + 4] = maxY;
+        nodeBounds[o + 5] = maxZ;
+
+        if (end - start <= LEAF_SIZE) {
+            nodeIndex[node] = start;
+            nodeCount[node] = end - start;
+            return node;
+        }
+
+        final double extentX = centerMaxX - centerMinX, extentY = centerMaxY - centerMinY, extentZ = centerMaxZ - centerMinZ;
+        final int axis = extentX >= extentY && extentX >= extentZ ? 0 : extentY >= extentZ ? 1 : 2;
+        sortByCenter(start, end, axis);
+        final int middle = (start + end) >>> 1;
+        build(start, middle);
+        nodeIndex[node] = build(middle, end);
+        return node;
+    }
+
+    /**
+     * Internal method for sorting a range of {@link CompoundShape#partOrder} by the center of the parts along an axis, insertion sort since there are only a few parts.
+     */
+    private void sortByCenter(int start, int end, int axis) {
+        for (int i = start + 1; i < end; i++) {
+            final int part = partOrder[i];
+            final double center = center(part, axis);
+            int j = i - 1;
+            while (j >= start && center(partOrder[j], axis) > center) {
+                partOrder[j + 1] = partOrder[j];
+                j--;
+            }
+            partOrder[j + 1] = part;
+        }
+    }
+
+    private double center(int part, int axis) {
+        final Vec min = parts[part].getBoundsMin(), max = parts[part].getBoundsMax();
+        return switch (axis) {
+            case 0 -> min.x() + max.x();
+            case 1 -> min.y() + max.y();
+            default -> min.z() + max.z();
+        };
+    }
+
+    /**
+     * Get the convex parts.
+     * @return A read-only list of the parts.
+     */
+    public List<TriggerShape> getParts() {
+        return List.of(parts);
+    }
+
+    @Override
+    public Type getType() {
+        return Type.COMPOUND;
+    }
+
+    /**
+     * Get the anchors of all parts.
+     * @return A read-only list of the anchors of every part in order.
+     */
+    @Override
+    public List<Vec> getAnchors() {
+        final List<Vec> anchors = new ArrayList<>();
+        for (TriggerShape part : parts) {
+            anchors.addAll(part.getAnchors());
+        }
+        return Collections.unmodifiableList(anchors);
+    }
+
+    /**
+     * Get the triangles of all parts.
+     * @return A read-only list of the triangles of every part in order.
+     */
+    @Override
+    public List<Trigger.Triangle> getTriangles() {
+        final List<Trigger.Triangle> triangles = new ArrayList<>(getTriangleCount());
+        for (TriggerShape part : parts) {
+            triangles.addAll(part.getTriangles());
+        }
+        return Collections.unmodifiableList(triangles);
+    }
+
+    @Override
+    public int getTriangleCount() {
+        int count = 0;
+        for (TriggerShape part : parts) {
+            count += part.getTriangleCount();
+        }
+        return count;
+    }
+
+    @Override
+    public double getRadius() {
+        double radius = 0;
+        for (TriggerShape part : parts) {
+            radius = Math.max(radius, part.getRadius());
+        }
+        return radius;
+    }
+
+    @Override
+    double[] parameters() {
+        return new double[0];
+    }
+
+    @Override
+    CompoundShape recompute() {
+        final long startTime = System.nanoTime();
+        final TriggerShape[] recomputed = new TriggerShape[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            recomputed[i] = parts[i].recompute();
+        }
+        return new CompoundShape(recomputed, (System.nanoTime() - startTime) / 1000000.0);
+    }
+
+    @Override
+    boolean overlaps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Trigger.ContainmentMode mode) {
+        // The parts only know their local axes, so the box is moved to local space instead of moving every part to the position
+        return overlapsNode(0, minX - position.x(), minY - position.y(), minZ - position.z(), maxX - position.x(), maxY - position.y(), maxZ - position.z(), mode);
+    }
+
+    /**
+     * Internal part of the collision check for a set of points, tests the box around the points.
+     * That is exact for the corners of a hitbox, which is what {@link Trigger#contains(List)} gets.
+     */
+    @Override
+    boolean overlaps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, List<Vec> points, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Trigger.ContainmentMode mode) {
+        return overlaps(worldFaceAxes, worldEdgeAxes, position, minX, minY, minZ, maxX, maxY, maxZ, mode);
+    }
+
+    @Override
+    boolean sweeps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, double cx, double cy, double cz, double hx, double hy, double hz, double dx, double dy, double dz, Trigger.ContainmentMode mode) {
+        return sweepsNode(0, cx - position.x(), cy - position.y(), cz - position.z(), hx, hy, hz, dx, dy, dz, mode);
+    }
+
+    /**
+     * Internal method for walking the hierarchy with a moving box, a part is only tested if the path touches its own bounds.
+     * @return true if any part below the node touches the local box anywhere along the movement.
+     */
+    private boolean sweepsNode(int node, double cx, double cy, double cz, double hx, double hy, double hz, double dx, double dy, double dz, Trigger.ContainmentMode mode) {
+        final int o = node * BOUNDS_STRIDE;
+        if (!sweepOverlapsBox(nodeBounds[o], nodeBounds[o + 1], nodeBounds[o + 2], nodeBounds[o + 3], nodeBounds[o + 4], nodeBounds[o + 5], cx, cy, cz, hx, hy, hz, dx, dy, dz)) {
+            return false;
+        }
+        final int count = nodeCount[node];
+        if (count == 0) {
+            return sweepsNode(node + 1, cx, cy, cz, hx, hy, hz, dx, dy, dz, mode)
+                    || sweepsNode(nodeIndex[node], cx, cy, cz, hx, hy, hz, dx, dy, dz, mode);
+        }
+        for (int i = nodeIndex[node]; i < nodeIndex[node] + count; i++) {
+            final TriggerShape part = parts[partOrder[i]];
+            final Vec min = part.getBoundsMin(), max = part.getBoundsMax();
+            if (sweepOverlapsBox(min.x(), min.y(), min.z(), max.x(), max.y(), max.z(), cx, cy, cz, hx, hy, hz, dx, dy, dz)
+                    && part.sweeps(part.faceAxes(), part.edgeAxes(), Vec.ZERO, cx, cy, cz, hx, hy, hz, dx, dy, dz, mode)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Internal method for walking the hierarchy, a part is only tested if its own bounds overlap the box.
+     * @return true if any part below the node overlaps the local box.
+     */
+    private boolean overlapsNode(int node, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Trigger.ContainmentMode mode) {
+        final int o = node * BOUNDS_STRIDE;
+        if (nodeBounds[o] > maxX || nodeBounds[o + 3] < minX
+                || nodeBounds[o + 1] > maxY || nodeBounds[o + 4] < minY
+                || nodeBounds[o + 2] > maxZ || nodeBounds[o + 5] < minZ) {
+            return false;
+        }
+        final int count = nodeCount[node];
+        if (count == 0) {
+            return overlapsNode(node + 1, minX, minY, minZ, maxX, maxY, maxZ, mode)
+                    || overlapsNode(nodeIndex[node], minX, minY, minZ, maxX, maxY, maxZ, mode);
+        }
+        for (int i = nodeIndex[node]; i < nodeIndex[node] + count; i++) {
+            final TriggerShape part = parts[partOrder[i]];
+            final Vec min = part.getBoundsMin(), max = part.getBoundsMax();
+            if (min.x() <= maxX && max.x() >= minX && min.y() <= maxY && max.y() >= minY && min.z() <= maxZ && max.z() >= minZ
+                    && part.overlaps(part.faceAxes(), part.edgeAxes(), Vec.ZERO, minX, minY, minZ, maxX, maxY, maxZ, mode)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Vec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Internal approximate convex decomposition of a closed triangle mesh, used by {@link TriggerShape#decompose(List, double, int)}.
+ * <p>
+ * The mesh is cut by axis-aligned planes until the hull of every piece is close enough to the piece itself.
+ * How concave a piece is gets measured by volume: the hull volume minus the volume the mesh actually encloses, relative to the hull volume.
+ * The piece with the most excess volume is cut first, at the plane that leaves the smallest total hull volume.
+ * The planes tried are a few evenly spread ones per axis and, for pieces with few distinct vertex coordinates like blocky areas, the planes through the vertices.
+ * <p>
+ * Every piece stays closed: the holes left by a cut are covered by caps, fans over the cut edges on the cutting plane.
+ * Caps of non-convex cuts overlap themselves, but they are only used for signed volumes where the overlaps cancel out.
+ * The hull of a piece is built from its clipped mesh surface, not from the caps. The only extreme points the caps can add are the
+ * corners of the cell (the box between the cuts) of the piece that lie inside the mesh, those are added through a winding number test.
+ */
+final class ConvexDecomposition {
+
+    // Cut positions tried per axis, evenly spread over the bounds of the piece
+    private static final int CANDIDATES = 5;
+    // Planes through vertices are only tried if there are at most this many distinct coordinates on an axis
+    private static final int MAX_VERTEX_CANDIDATES = 16;
+    private static final double EPSILON = 1e-9;
+
+    // The whole mesh, packed like the triangles of a piece
+    private final double[] mesh;
+    // The sign of the volume of the mesh, flips the volumes of inward wound meshes
+    private final double sign;
+
+    private ConvexDecomposition(double[] mesh) {
+        this.mesh = mesh;
+        // Works for either winding as long as it is consistent
+        this.sign = Math.signum(volume(mesh));
+    }
+
+    /**
+     * A part of the mesh with its hull.
+     * @param triangles The packed triangles of the mesh surface, 9 doubles each.
+     * @param caps The packed triangles covering the cuts, 9 doubles each.
+     * @param cell Min x, y, z and max x, y, z of the box between the cuts.
+     * @param hull The hull of the triangles.
+     * @param volume The volume the triangles and caps enclose.
+     * @param hullVolume The volume of the hull.
+     */
+    private record Piece(double[] triangles, double[] caps, double[] cell, HullShape hull, double volume, double hullVolume) {
+        double excess() {
+            return hullVolume - volume;
+        }
+
+        double concavity() {
+            return hullVolume > EPSILON ? excess() / hullVolume : 0;
+        }
+    }
+
+    /**
+     * Decompose a closed mesh into convex parts.
+     * @param mesh The triangles of the mesh, closed and consistently wound.
+     * @param maxConcavity The highest accepted concavity of a part between 0 and 1, lower values give more and tighter parts.
+     * @param maxParts The highest amount of parts.
+     * @return The hulls of the parts.
+     * @throws IllegalArgumentException If the mesh has no volume.
+     */
+    static List<TriggerShape> decompose(List<Trigger.Triangle> mesh, double maxConcavity, int maxParts) {
+        if (maxParts < 1) {
+            throw new IllegalArgumentException("A decomposition needs at least one part");
+        }
+        final double[] triangles = new double[mesh.size() * 9];
+        for (int i = 0; i < mesh.size(); i++) {
+            final Trigger.Triangle triangle = mesh.get(i);
+            put(triangles, i * 9, triangle.a().x(), triangle.a().y(), triangle.a().z());
+            put(triangles, i * 9 + 3, triangle.b().x(), triangle.b().y(), triangle.b().z());
+            put(triangles, i * 9 + 6, triangle.c().x(), triangle.c().y(), triangle.c().z());
+        }
+        final ConvexDecomposition decomposition = new ConvexDecomposition(triangles);
+        final double[] cell = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = 0; i < triangles.length; i++) {
+            cell[i % 3] = Math.min(cell[i % 3], triangles[i]);
+            cell[3 + i % 3] = Math.max(cell[3 + i % 3], triangles[i]);
+        }
+        final Piece whole = decomposition.piece(triangles, new double[0], cell);
+        if (whole == null) {
+            throw new IllegalArgumentException("The mesh has no volume");
+        }
+
+        final PriorityQueue<Piece> open = new PriorityQueue<>((a, b) -> Double.compare(b.excess(), a.excess()));
+        final List<Piece> done = new ArrayList<>();
+        open.add(whole);
+        while (!open.isEmpty() && open.size() + done.size() < maxParts) {
+            final Piece worst = open.poll();
+            if (worst.concavity() <= maxConcavity) {
+                done.add(worst);
+                continue;
+            }
+            final Piece[] halves = decomposition.bestCut(worst);
+            if (halves == null) {
+                done.add(worst);
+                continue;
+            }
+            open.add(halves[0]);
+            open.add(halves[1]);
+        }
+        done.addAll(open);
+
+        final List<TriggerShape> parts = new ArrayList<>(done.size());
+        for (Piece piece : done) {
+            // Only keep the hull vertices as anchors, the clipped surface has lots of points inside the hull
+            final Set<Vec> corners = new LinkedHashSet<>();
+            for (Trigger.Triangle triangle : piece.hull().getTriangles()) {
+                corners.add(Vec.fromPoint(triangle.a()));
+                corners.add(Vec.fromPoint(triangle.b()));
+                corners.add(Vec.fromPoint(triangle.c()));
+            }
+            parts.add(HullShape.compute(List.copyOf(corners)));
+        }
+        return parts;
+    }
+
+    /**
+     * Internal method for finding the cut that leaves the smallest total hull volume.
+     * @return The two halves, or null if no cut gives two pieces with volume.
+     */
+    private Piece[] bestCut(Piece piece) {
+        final Vec min = piece.hull().getBoundsMin(), max = piece.hull().getBoundsMax();
+        Piece[] best = null;
+        double bestVolume = Double.POSITIVE_INFINITY;
+        for (int axis = 0; axis < 3; axis++) {
+            final double low = axis == 0 ? min.x() : axis == 1 ? min.y() : min.z();
+            final double high = axis == 0 ? max.x() : axis == 1 ? max.y() : max.z();
+            for (double value : candidates(piece.triangles(), axis, low, high)) {
+                final Piece below = cut(piece, axis, value, -1);
+                if (below == null) continue;
+                final Piece above = cut(piece, axis, value, 1);
+                if (above == null) continue;
+                final double volume = below.hullVolume() + above.hullVolume();
+                if (volume < bestVolume) {
+                    bestVolume = volume;
+                    best = new Piece[]{below, above};
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Internal method for getting the plane positions to try on an axis.
+     * @return The evenly spread positions, followed by the distinct vertex coordinates between low and high if there are few enough.
+     */
+    private static double[] candidates(double[] triangles, int axis, double low, double high) {
+        final double[] coordinates = new double[triangles.length / 3];
+        for (int i = 0; i < coordinates.length; i++) {
+            coordinates[i] = triangles[i * 3 + axis];
+        }
+        Arrays.sort(coordinates);
+        final double[] candidates = new double[CANDIDATES + MAX_VERTEX_CANDIDATES];
+        for (int i = 0; i < CANDIDATES; i++) {
+            candidates[i] = low + (high - low) * (i + 1) / (CANDIDATES + 1);
+        }
+        int count = CANDIDATES;
+        for (int i = 0; i < coordinates.length; i++) {
+            final double coordinate = coordinates[i];
+            if (coordinate <= low + EPSILON || coordinate >= high - EPSILON || (i > 0 && coordinate == coordinates[i - 1])) continue;
+            if (count == candidates.length) {
+                return Arrays.copyOf(candidates, CANDIDATES);
+            }
+            candidates[count++] = coordinate;
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    /**
+     * Internal method for cutting a piece and closing the cut with a cap.
+     * @param side -1 to keep everything below the plane, 1 to keep everything above.
+     * @return The closed half, or null if it has no volume.
+     */
+    private Piece cut(Piece piece, int axis, double value, int side) {
+        final Packed edges = new Packed(64);
+        final double[] triangles = clip(piece.triangles(), axis, value, side, edges).toArray();
+        final Packed caps = clip(piece.caps(), axis, value, side, edges);
+        // A fan from any point on the plane closes the hole, the edges already go around it in order
+        for (int i = 0; i < edges.size; i += 6) {
+            caps.add(edges.values[0], edges.values[1], edges.values[2]);
+            caps.add(edges.values[i + 3], edges.values[i + 4], edges.values[i + 5]);
+            caps.add(edges.values[i], edges.values[i + 1], edges.values[i + 2]);
+        }
+        final double[] cell = piece.cell().clone();
+        cell[side < 0 ? 3 + axis : axis] = value;
+        return piece(triangles, caps.toArray(), cell);
+    }
+
+    /**
+     * Internal method for creating a piece from closed clipped triangles.
+     * @return The piece, or null if it has no volume.
+     */
+    private Piece piece(double[] triangles, double[] caps, double[] cell) {
+        final double volume = sign * (volume(triangles) + volume(caps));
+        if (volume <= EPSILON) {
+            return null;
+        }
+        final Set<Vec> points = new LinkedHashSet<>();
+        for (int i = 0; i < triangles.length; i += 3) {
+            points.add(new Vec(triangles[i], triangles[i + 1], triangles[i + 2]));
+        }
+        for (int corner = 0; corner < 8; corner++) {
+            final double x = cell[(corner & 1) == 0 ? 0 : 3], y = cell[(corner & 2) == 0 ? 1 : 4], z = cell[(corner & 4) == 0 ? 2 : 5];
+            if (sign * winding(x, y, z) > 0.5) {
+                points.add(new Vec(x, y, z));
+            }
+        }
+        final HullShape hull;
+        try {
+            hull = HullShape.compute(List.copyOf(points));
+        } catch (RuntimeException e) {
+            return null;
+        }
+        final double[] hullTriangles = hull.triangleCoords();
+        double hullVolume = 0;
+        for (int i = 0; i < hullTriangles.length; i += TriggerShape.TRIANGLE_STRIDE) {
+            hullVolume += tetrahedron(hullTriangles, i);
+        }
+        return new Piece(triangles, caps, cell, hull, volume, Math.abs(hullVolume));
+    }
+
+    /**
+     * Internal method for the generalized winding number of the mesh around a point, the sum of the solid angles of all triangles.
+     * @return About 1 inside an outward wound mesh, -1 inside an inward wound one and 0 outside.
+     */
+    private double winding(double x, double y, double z) {
+        double angle = 0;
+        for (int i = 0; i < mesh.length; i += 9) {
+            final double ax = mesh[i] - x, ay = mesh[i + 1] - y, az = mesh[i + 2] - z;
+            final double bx = mesh[i + 3] - x, by = mesh[i + 4] - y, bz = mesh[i + 5] - z;
+            final double cx = mesh[i + 6] - x, cy = mesh[i + 7] - y, cz = mesh[i + 8] - z;
+            final double a = Math.sqrt(ax * ax + ay * ay + az * az), b = Math.sqrt(bx * bx + by * by + bz * bz), c = Math.sqrt(cx * cx + cy * cy + cz * cz);
+            final double determinant = ax * (by * cz - bz * cy) - ay * (bx * cz - bz * cx) + az * (bx * cy - by * cx);
+            final double divisor = a * b * c + (ax * bx + ay * by + az * bz) * c + (ax * cx + ay * cy + az * cz) * b + (bx * cx + by * cy + bz * cz) * a;
+            angle += 2 * Math.atan2(determinant, divisor);
+        }
+        return angle / (4 * Math.PI);
+    }
+
+    /**
+     * Internal method for the signed volume of packed triangles.
+     * @return The sum of the signed volumes of the tetrahedra between the origin and every triangle.
+     */
+    private static double volume(double[] triangles) {
+        double volume = 0;
+        for (int i = 0; i < triangles.length; i += 9) {
+            volume += tetrahedron(triangles, i);
+        }
+        return volume;
+    }
+
+    private static double tetrahedron(double[] coords, int o) {
+        final double ax = coords[o], ay = coords[o + 1], az = coords[o + 2];
+        final double bx = coords[o + 3], by = coords[o + 4], bz = coords[o + 5];
+        final double cx = coords[o + 6], cy = coords[o + 7], cz = coords[o + 8];
+        return (ax * (by * cz - bz * cy) - ay * (bx * cz - bz * cx) + az * (bx * cy - by * cx)) / 6;
+    }
+
+    /**
+     * Internal method for clipping triangles to one side of an axis-aligned plane, keeping their winding.
+     * @param axis 0 for x, 1 for y, 2 for z.
+     * @param value Where the plane is on the axis.
+     * @param side -1 to keep everything below the plane, 1 to keep everything above.
+     * @param edges Gets the edges of the clipped triangles that lie on the plane, 6 doubles each.
+     * @return The clipped triangles.
+     */
+    private static Packed clip(double[] triangles, int axis, double value, int side, Packed edges) {
+        final Packed out = new Packed(triangles.length);
+        final double[] polygon = new double[4 * 3];
+        for (int t = 0; t < triangles.length; t += 9) {
+            // Triangles in the plane would end up in both halves, the caps cover them already
+            if (triangles[t + axis] == value && triangles[t + 3 + axis] == value && triangles[t + 6 + axis] == value) continue;
+            int count = 0;
+            for (int i = 0; i < 3; i++) {
+                final int current = t + i * 3, next = t + ((i + 1) % 3) * 3;
+                final double currentDistance = side * (triangles[current + axis] - value);
+                final double nextDistance = side * (triangles[next + axis] - value);
+                if (currentDistance >= 0) {
+                    System.arraycopy(triangles, current, polygon, count * 3, 3);
+                    count++;
+                }
+                // Only strict crossings, a vertex on the plane is kept as it is and doesn't leave slivers on the other side
+                if ((currentDistance > 0 && nextDistance < 0) || (currentDistance < 0 && nextDistance > 0)) {
+                    final double f = currentDistance / (currentDistance - nextDistance);
+                    for (int k = 0; k < 3; k++) {
+                        polygon[count * 3 + k] = triangles[current + k] + f * (triangles[next + k] - triangles[current + k]);
+                    }
+                    // Exactly on the plane, so the cut edges can be found and the caps of both halves line up
+                    polygon[count * 3 + axis] = value;
+                    count++;
+                }
+            }
+            // Anything less is a point or a line, whose edges cancel out
+            if (count < 3) continue;
+            for (int i = 0; i < count; i++) {
+                final int next = (i + 1) % count;
+                if (polygon[i * 3 + axis] == value && polygon[next * 3 + axis] == value) {
+                    edges.add(polygon[i * 3], polygon[i * 3 + 1], polygon[i * 3 + 2]);
+                    edges.add(polygon[next * 3], polygon[next * 3 + 1], polygon[next * 3 + 2]);
+                }
+            }
+            // A clipped triangle is a triangle or a quad, fan it into triangles
+            for (int i = 1; i < count - 1; i++) {
+                out.add(polygon[0], polygon[1], polygon[2]);
+                out.add(polygon[i * 3], polygon[i * 3 + 1], polygon[i * 3 + 2]);
+                out.add(polygon[(i + 1) * 3], polygon[(i + 1) * 3 + 1], polygon[(i + 1) * 3 + 2]);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Internal growable array of packed points.
+     */
+    private static final class Packed {
+        private double[] values;
+        private int size = 0;
+
+        Packed(int capacity) {
+            this.values = new double[Math.max(capacity, 9)];
+        }
+
+        void add(double x, double y, double z) {
+            if (size + 3 > values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            put(values, size, x, y, z);
+            size += 3;
+        }
+
+        double[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private static void put(double[] target, int offset, double x, double y, double z) {
+        target[offset] = x;
+        target[offset + 1] = y;
+        target[offset + 2] = z;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Vec;
+
+import java.util.List;
+
+/**
+ * A vertical cylinder {@link TriggerShape}, create one with {@link TriggerShape#cylinder(Vec, double, double)}.
+ * The bounds check already covers the height, so only the circle is left: a box touches it if the point of the box closest to the axis is within the radius.
+ * The debug render is an approximation made of 16 segments.
+ */
+public final class CylinderShape extends TriggerShape {
+
+    private static final double[] NO_AXES = new double[0];
+    private static final int SEGMENTS = 16;
+
+    private final Vec baseCenter;
+    private final double radius;
+    private final double height;
+
+    CylinderShape(Vec baseCenter, double radius, double height) {
+        super(NO_AXES, NO_AXES, baseCenter.sub(radius, 0, radius), baseCenter.add(radius, height, radius), 0);
+        if (!(radius > 0) || !(height > 0)) {
+            throw new IllegalArgumentException("Radius and height must be positive");
+        }
+        this.baseCenter = baseCenter;
+        this.radius = radius;
+        this.height = height;
+    }
+
+    /**
+     * Get the center of the bottom face.
+     * @return The center of the bottom face relative to the position of a trigger.
+     */
+    public Vec getBaseCenter() {
+        return baseCenter;
+    }
+
+    /**
+     * Get the radius of the cylinder itself.
+     * @return The radius.
+     */
+    public double getCylinderRadius() {
+        return radius;
+    }
+
+    /**
+     * Get the height of the cylinder.
+     * @return The height.
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    @Override
+    public Type getType() {
+        return Type.CYLINDER;
+    }
+
+    /**
+     * A cylinder has no anchors.
+     * @return An empty list.
+     */
+    @Override
+    public List<Vec> getAnchors() {
+        return List.of();
+    }
+
+    @Override
+    public List<Trigger.Triangle> getTriangles() {
+        final Vec[] bottom = new Vec[SEGMENTS];
+        final Vec[] top = new Vec[SEGMENTS];
+        for (int segment = 0; segment < SEGMENTS; segment++) {
+            final double angle = 2 * Math.PI * segment / SEGMENTS;
+            bottom[segment] = baseCenter.add(radius * Math.cos(angle), 0, radius * Math.sin(angle));
+            top[segment] = bottom[segment].add(0, height, 0);
+        }
+
+        final Vec center = baseCenter.add(0, height * 0.5, 0);
+        final double[] mesh = new double[getTriangleCount() * TRIANGLE_STRIDE];
+        int offset = 0;
+        for (int segment = 0; segment < SEGMENTS; segment++) {
+            final int next = (segment + 1) % SEGMENTS;
+            putOutwardTriangle(mesh, offset, bottom[segment], bottom[next], top[segment], center);
+            putOutwardTriangle(mesh, offset + TRIANGLE_STRIDE, bottom[next], top[next], top[segment], center);
+            offset += 2 * TRIANGLE_STRIDE;
+        }
+        // The caps are fans around the first point
+        for (int segment = 1; segment < SEGMENTS - 1; segment++) {
+            putOutwardTriangle(mesh, offset, bottom[0], bottom[segment], bottom[segment + 1], center);
+            putOutwardTriangle(mesh, offset + TRIANGLE_STRIDE, top[0], top[segment], top[segment + 1], center);
+            offset += 2 * TRIANGLE_STRIDE;
+        }
+        return new TriangleView(mesh);
+    }
+
+    @Override
+    public int getTriangleCount() {
+        return 4 * SEGMENTS - 4;
+    }
+
+    @Override
+    boolean overlaps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Trigger.ContainmentMode mode) {
+        final double cx = position.x() + baseCenter.x(), cz = position.z() + baseCenter.z();
+        final double dx = cx - Math.max(minX, Math.min(cx, maxX));
+        final double dz = cz - Math.max(minZ, Math.min(cz, maxZ));
+        return dx * dx + dz * dz <= radius * radius;
+    }
+
+    /**
+     * Internal part of the collision check for a set of points, tests the box around the points.
+     * That is exact for the corners of a hitbox, which is what {@link Trigger#contains(List)} gets.
+     */
+    @Override
+    boolean overlaps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, List<Vec> points, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Trigger.ContainmentMode mode) {
+        return overlaps(worldFaceAxes, worldEdgeAxes, position, minX, minY, minZ, maxX, maxY, maxZ, mode);
+    }
+
+    /**
+     * Internal part of the swept collision check.
+     * Only the part of the movement in which the box overlaps the y range of the cylinder counts, within it the closest moment is found on the x/z plane.
+     */
+    @Override
+    boolean sweeps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, double cx, double cy, double cz, double hx, double hy, double hz, double dx, double dy, double dz, Trigger.ContainmentMode mode) {
+        final double bottom = position.y() + getBoundsMin().y(), top = position.y() + getBoundsMax().y();
+        final double from = Math.max(0, sweepStart(bottom - hy, top + hy, cy, dy));
+        final double to = Math.min(1, sweepEnd(bottom - hy, top + hy, cy, dy));
+        if (from > to) return false;
+        // The point is put at the height of the box, so only x and z add to the distance
+        return sweepDistanceSquared(position.x() + baseCenter.x(), cy, position.z() + baseCenter.z(), cx, cy, cz, hx, hy, hz, dx, 0, dz, from, to) <= radius * radius;
+    }
+
+    @Override
+    double[] parameters() {
+        return new double[]{baseCenter.x(), baseCenter.y(), baseCenter.z(), radius, height};
+    }
+}
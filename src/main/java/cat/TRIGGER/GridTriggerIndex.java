@@ -0,0 +1,272 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minestom.server.coordinate.Vec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link TriggerIndex} backed by a uniform spatial hash grid.
+ * Every trigger is registered in all cells its bounds overlap, a query only visits the cells touched by the query box.
+ * <p>
+ * The cell size should be roughly the size of a typical trigger.
+ * Too small cells make large triggers occupy a lot of cells, too large cells put many triggers into the same cell.
+ * <p>
+ * Moving a trigger only touches the cells it left or newly entered. A {@link GridTriggerIndex#copy() copy} shares all cells with the original
+ * until either of them changes a cell, so copying costs one entry per cell and trigger instead of the lists of all cells.
+ * <p>
+ * A flat grid ignores y and uses columns instead of cells, see {@link ChunkTriggerIndex}.
+ */
+public class GridTriggerIndex implements TriggerIndex {
+
+    /**
+     * The default cell size in blocks, one chunk section.
+     */
+    public static final double DEFAULT_CELL_SIZE = 16;
+
+    private final double cellSize;
+    private final double inverseCellSize;
+    // Flat grids keep every trigger in the cells of layer y = 0
+    private final boolean flat;
+    private final Long2ObjectMap<Cell> cells = new Long2ObjectOpenHashMap<>();
+    // The cell range each trigger was registered with, needed to find it again after its bounds changed, never changed in place
+    private final Reference2ObjectMap<Trigger, int[]> ranges = new Reference2ObjectOpenHashMap<>();
+    // Cells created by another owner are shared with a copy and have to be copied before they are changed
+    private Object owner = new Object();
+
+    /**
+     * Create a grid with the {@link GridTriggerIndex#DEFAULT_CELL_SIZE default cell size}.
+     */
+    public GridTriggerIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Create a grid with a custom cell size.
+     * @param cellSize The edge length of a cell in blocks.
+     */
+    public GridTriggerIndex(double cellSize) {
+        this(cellSize, false);
+    }
+
+    /**
+     * Internal constructor for grids that may ignore y.
+     * @param cellSize The edge length of a cell in blocks.
+     * @param flat Whether the cells are columns spanning all y.
+     */
+    GridTriggerIndex(double cellSize, boolean flat) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1.0 / cellSize;
+        this.flat = flat;
+    }
+
+    @Override
+    public void insert(Trigger trigger) {
+        int[] range = cellRange(trigger);
+        if (ranges.put(trigger, range) != null) {
+            throw new IllegalStateException("Trigger is already indexed");
+        }
+        for (int x = range[0]; x <= range[3]; x++) {
+            for (int y = range[1]; y <= range[4]; y++) {
+                for (int z = range[2]; z <= range[5]; z++) {
+                    addToCell(key(x, y, z), trigger);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean remove(Trigger trigger) {
+        int[] range = ranges.remove(trigger);
+        if (range == null) return false;
+        for (int x = range[0]; x <= range[3]; x++) {
+            for (int y = range[1]; y <= range[4]; y++) {
+                for (int z = range[2]; z <= range[5]; z++) {
+                    removeFromCell(key(x, y, z), trigger);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Move a trigger to the cells its new bounds overlap, cells covered by both the old and the new bounds are left untouched.
+     * @param trigger The trigger that changed.
+     */
+    @Override
+    public void update(Trigger trigger) {
+        int[] oldRange = ranges.get(trigger);
+        if (oldRange == null) return;
+        int[] newRange = cellRange(trigger);
+        if (Arrays.equals(oldRange, newRange)) return;
+        ranges.put(trigger, newRange);
+
+        for (int x = oldRange[0]; x <= oldRange[3]; x++) {
+            for (int y = oldRange[1]; y <= oldRange[4]; y++) {
+                for (int z = oldRange[2]; z <= oldRange[5]; z++) {
+                    if (!inRange(newRange, x, y, z)) removeFromCell(key(x, y, z), trigger);
+                }
+            }
+        }
+        for (int x = newRange[0]; x <= newRange[3]; x++) {
+            for (int y = newRange[1]; y <= newRange[4]; y++) {
+                for (int z = newRange[2]; z <= newRange[5]; z++) {
+                    if (!inRange(oldRange, x, y, z)) addToCell(key(x, y, z), trigger);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void query(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Collection<? super Trigger> out) {
+        if (cells.isEmpty()) return;
+        int minCellX = cell(minX), minCellY = cellY(minY), minCellZ = cell(minZ);
+        int maxCellX = cell(maxX), maxCellY = cellY(maxY), maxCellZ = cell(maxZ);
+
+        for (int x = minCellX; x <= maxCellX; x++) {
+            for (int y = minCellY; y <= maxCellY; y++) {
+                for (int z = minCellZ; z <= maxCellZ; z++) {
+                    Cell cell = cells.get(key(x, y, z));
+                    if (cell == null) continue;
+                    final List<Trigger> triggers = cell.triggers();
+                    for (int i = 0; i < triggers.size(); i++) {
+                        Trigger trigger = triggers.get(i);
+                        // A trigger spanning multiple visited cells is only reported by the first of them
+                        int[] range = ranges.get(trigger);
+                        if (x != Math.max(range[0], minCellX) || y != Math.max(range[1], minCellY) || z != Math.max(range[2], minCellZ)) {
+                            continue;
+                        }
+                        if (trigger.boundsOverlap(minX, minY, minZ, maxX, maxY, maxZ)) {
+                            out.add(trigger);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy this grid, the cells are shared until the copy or this grid changes them.
+     * @return The copy.
+     */
+    @Override
+    public GridTriggerIndex copy() {
+        GridTriggerIndex copy = new GridTriggerIndex(cellSize, flat);
+        copyInto(copy);
+        return copy;
+    }
+
+    /**
+     * Internal method for sharing the cells of this grid with an empty grid of the same configuration.
+     * @param copy The empty grid.
+     */
+    void copyInto(GridTriggerIndex copy) {
+        copy.cells.putAll(cells);
+        copy.ranges.putAll(ranges);
+        // Neither side owns the shared cells anymore
+        owner = new Object();
+    }
+
+    @Override
+    public void clear() {
+        cells.clear();
+        ranges.clear();
+    }
+
+    @Override
+    public int size() {
+        return ranges.size();
+    }
+
+    /**
+     * Get the cell size of this grid.
+     * @return The edge length of a cell in blocks.
+     */
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Internal method for getting the triggers registered in a cell.
+     * @param x The x coordinate of the cell.
+     * @param y The y coordinate of the cell, 0 for flat grids.
+     * @param z The z coordinate of the cell.
+     * @return An unmodifiable copy of the triggers overlapping that cell, empty if there are none.
+     */
+    List<Trigger> getCellTriggers(int x, int y, int z) {
+        Cell cell = cells.get(key(x, y, z));
+        return cell == null ? List.of() : List.copyOf(cell.triggers());
+    }
+
+    private void addToCell(long key, Trigger trigger) {
+        Cell cell = cells.get(key);
+        if (cell == null || cell.owner() != owner) {
+            cell = cell == null ? new Cell(owner, new ArrayList<>(4)) : new Cell(owner, new ArrayList<>(cell.triggers()));
+            cells.put(key, cell);
+        }
+        cell.triggers().add(trigger);
+    }
+
+    private void removeFromCell(long key, Trigger trigger) {
+        Cell cell = cells.get(key);
+        if (cell == null) return;
+        if (cell.owner() != owner) {
+            cell = new Cell(owner, new ArrayList<>(cell.triggers()));
+            cells.put(key, cell);
+        }
+        cell.triggers().remove(trigger);
+        if (cell.triggers().isEmpty()) cells.remove(key);
+    }
+
+    private int[] cellRange(Trigger trigger) {
+        Vec min = trigger.getBoundsMin();
+        Vec max = trigger.getBoundsMax();
+        return new int[]{
+                cell(min.x()), cellY(min.y()), cell(min.z()),
+                cell(max.x()), cellY(max.y()), cell(max.z())
+        };
+    }
+
+    private static boolean inRange(int[] range, int x, int y, int z) {
+        return x >= range[0] && x <= range[3] && y >= range[1] && y <= range[4] && z >= range[2] && z <= range[5];
+    }
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate * inverseCellSize);
+    }
+
+    private int cellY(double y) {
+        return flat ? 0 : cell(y);
+    }
+
+    /**
+     * Pack three cell coordinates into one key, 21 bits per axis.
+     */
+    private static long key(int x, int y, int z) {
+        return ((long) (x & 0x1FFFFF) << 42) | ((long) (y & 0x1FFFFF) << 21) | (z & 0x1FFFFF);
+    }
+
+    /**
+     * The triggers of one cell, remembering which grid may change it.
+     */
+    private record Cell(Object owner, List<Trigger> triggers) {}
+}
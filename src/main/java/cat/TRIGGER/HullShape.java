@@ -0,0 +1,369 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import cat.TRIGGER.quickhull3d.Point3d;
+import cat.TRIGGER.quickhull3d.QuickHull3D;
+import net.minestom.server.coordinate.Vec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link TriggerShape} made of the convex hull of a set of anchors, computed by the {@link QuickHull3D} algorithm.
+ * Containment is tested with the Separating Axis Theorem against the compiled face (and edge) axes of the hull.
+ * <p>
+ * Anchors and triangles are stored in packed double arrays instead of one {@link Vec} or {@link Trigger.Triangle} object per entry,
+ * {@link HullShape#getAnchors()} and {@link HullShape#getTriangles()} are read-only views that create those objects on access.
+ */
+public final class HullShape extends TriggerShape {
+
+    /**
+     * Maximum deviation of the absolute dot product from 1 for two unit axes to be considered the same.
+     */
+    private static final double AXIS_TOLERANCE = 1e-9;
+
+    /**
+     * Very small value used as a minimum length threshold
+     */
+    private static final double EPSILON = 1e-6;
+
+    // One hull builder per thread, its buffers are reused so recomputing a trigger does not allocate a new hull every time
+    private static final ThreadLocal<QuickHull3D> HULLS = ThreadLocal.withInitial(QuickHull3D::new);
+
+    // x, y, z of every anchor
+    private final double[] anchorCoords;
+    // See TRIANGLE_STRIDE for the layout
+    private final double[] triangleCoords;
+
+    // The face axes hold the unique face normals, the max offset is the face plane itself, the min offset the opposite side of the hull.
+    // The edge axes are the cross products of the unique hull edge directions with the hitbox axes.
+    private HullShape(double[] anchorCoords, double[] triangleCoords, double[] faceAxes, double[] edgeAxes, Vec localMin, Vec localMax, double computationTime) {
+        super(faceAxes, edgeAxes, localMin, localMax, computationTime);
+        this.anchorCoords = anchorCoords;
+        this.triangleCoords = triangleCoords;
+    }
+
+    /**
+     * Create a shape from geometry that was computed earlier, e.g. read by {@link TriggerBinaryFormat}, without building the hull again.
+     * The geometry is trusted to belong to the anchors.
+     * @param anchorCoords The x, y, z of every anchor of the hull.
+     * @param triangleCoords The hull triangles relative to the position in the {@link TriggerShape#TRIANGLE_STRIDE} layout.
+     * @param faceAxes The face axes in the {@link TriggerShape#AXIS_STRIDE} layout.
+     * @param edgeAxes The edge axes in the {@link TriggerShape#AXIS_STRIDE} layout.
+     * @param localMin The minimum corner of the local bounds.
+     * @param localMax The maximum corner of the local bounds.
+     * @param computationTime How long restoring the shape took in milliseconds.
+     * @return The restored shape.
+     */
+    static HullShape precomputed(double[] anchorCoords, double[] triangleCoords, double[] faceAxes, double[] edgeAxes, Vec localMin, Vec localMax, double computationTime) {
+        if (anchorCoords.length % 3 != 0 || triangleCoords.length % TRIANGLE_STRIDE != 0) {
+            throw new IllegalArgumentException("Anchor or triangle data is incomplete");
+        }
+        if (faceAxes.length % AXIS_STRIDE != 0 || edgeAxes.length % AXIS_STRIDE != 0) {
+            throw new IllegalArgumentException("Axis data is not a multiple of " + AXIS_STRIDE);
+        }
+        return new HullShape(anchorCoords, triangleCoords, faceAxes, edgeAxes, localMin, localMax, computationTime);
+    }
+
+    /**
+     * Compute the hull of a set of anchors without looking at the cache, {@link TriggerShape#of(List)} is usually preferred. Safe to call from any thread.
+     * @param anchors The anchors to "shrink wrap", at least 4.
+     * @return The computed shape.
+     */
+    static HullShape compute(List<Vec> anchors) {
+        long startTime = System.nanoTime();
+        if (anchors.size() < 4) {
+            throw new IllegalArgumentException("Insufficient anchors to compute");
+        }
+        double[] coords = new double[anchors.size() * 3];
+        for (int i = 0; i < anchors.size(); i++) {
+            Vec anchor = anchors.get(i);
+            coords[i * 3] = anchor.x();
+            coords[i * 3 + 1] = anchor.y();
+            coords[i * 3 + 2] = anchor.z();
+        }
+
+        QuickHull3D hull = HULLS.get();
+        hull.build(coords);
+
+        Point3d[] vertices = hull.getVertices();
+        int[][] faceIndices = hull.getFaces();
+
+        int triangleCount = 0;
+        for (int[] face : faceIndices) {
+            if (face.length >= 3) triangleCount += face.length - 2;
+        }
+        double[] triangleCoords = new double[triangleCount * TRIANGLE_STRIDE];
+        int offset = 0;
+        for (int[] face : faceIndices) {
+            if (face.length < 3) continue;
+
+            Point3d a = vertices[face[0]];
+            for (int i = 1; i < face.length - 1; i++) {
+                putTriangle(triangleCoords, offset, a, vertices[face[i]], vertices[face[i + 1]]);
+                offset += TRIANGLE_STRIDE;
+            }
+        }
+
+        List<double[]> seen = new ArrayList<>(List.of(new double[]{1, 0, 0}, new double[]{0, 1, 0}, new double[]{0, 0, 1}));
+        double[] faceAxes = compileFaceAxes(vertices, faceIndices, seen);
+        double[] edgeAxes = compileEdgeAxes(vertices, faceIndices, seen);
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < coords.length; i += 3) {
+            minX = Math.min(minX, coords[i]);
+            minY = Math.min(minY, coords[i + 1]);
+            minZ = Math.min(minZ, coords[i + 2]);
+            maxX = Math.max(maxX, coords[i]);
+            maxY = Math.max(maxY, coords[i + 1]);
+            maxZ = Math.max(maxZ, coords[i + 2]);
+        }
+
+        double computationTime = (System.nanoTime() - startTime) / 1000000.0;
+        return new HullShape(coords, triangleCoords, faceAxes, edgeAxes, new Vec(minX, minY, minZ), new Vec(maxX, maxY, maxZ), computationTime);
+    }
+
+    /**
+     * Internal method for compiling the hull faces into unique face axes.
+     * Parallel and antiparallel axes (e.g. coplanar faces or the opposite faces of a box) give the same projection interval, so only one of them is kept.
+     * Axes parallel to the world axes are dropped entirely since the bounds check already covers them.
+     * @param vertices The hull vertices.
+     * @param faceIndices The counter-clockwise vertex indices of every hull face.
+     * @param seen The axes that are already covered, new axes get added to it.
+     * @return The face axes in the {@link TriggerShape#AXIS_STRIDE} layout.
+     */
+    private static double[] compileFaceAxes(Point3d[] vertices, int[][] faceIndices, List<double[]> seen) {
+        double[] faceAxes = new double[faceIndices.length * AXIS_STRIDE];
+        int faceAxisCount = 0;
+        for (int[] face : faceIndices) {
+            if (face.length < 3) continue;
+
+            // Newell's method, robust against nearly collinear first vertices of a polygon
+            double nx = 0, ny = 0, nz = 0;
+            for (int i = 0; i < face.length; i++) {
+                Point3d current = vertices[face[i]];
+                Point3d next = vertices[face[(i + 1) % face.length]];
+                nx += (current.y - next.y) * (current.z + next.z);
+                ny += (current.z - next.z) * (current.x + next.x);
+                nz += (current.x - next.x) * (current.y + next.y);
+            }
+            double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (length < EPSILON) continue;
+            nx /= length;
+            ny /= length;
+            nz /= length;
+            if (isNewAxis(seen, nx, ny, nz)) {
+                seen.add(new double[]{nx, ny, nz});
+                faceAxisCount = putAxis(faceAxes, faceAxisCount, nx, ny, nz, vertices);
+            }
+        }
+        return Arrays.copyOf(faceAxes, faceAxisCount * AXIS_STRIDE);
+    }
+
+    /**
+     * Internal method for compiling the unique hull edge directions crossed with the hitbox axes.
+     * @param vertices The hull vertices.
+     * @param faceIndices The counter-clockwise vertex indices of every hull face.
+     * @param seen The axes that are already covered, new axes get added to it.
+     * @return The edge axes in the {@link TriggerShape#AXIS_STRIDE} layout.
+     */
+    private static double[] compileEdgeAxes(Point3d[] vertices, int[][] faceIndices, List<double[]> seen) {
+        List<double[]> edgeDirections = new ArrayList<>();
+        for (int[] face : faceIndices) {
+            if (face.length < 3) continue;
+            for (int i = 0; i < face.length; i++) {
+                Point3d current = vertices[face[i]];
+                Point3d next = vertices[face[(i + 1) % face.length]];
+                double ex = next.x - current.x, ey = next.y - current.y, ez = next.z - current.z;
+                double edgeLength = Math.sqrt(ex * ex + ey * ey + ez * ez);
+                if (edgeLength >= EPSILON && isNewAxis(edgeDirections, ex / edgeLength, ey / edgeLength, ez / edgeLength)) {
+                    edgeDirections.add(new double[]{ex / edgeLength, ey / edgeLength, ez / edgeLength});
+                }
+            }
+        }
+
+        // The hitbox is axis aligned, so its own axes are the world axes
+        double[] axes = new double[edgeDirections.size() * 3 * AXIS_STRIDE];
+        int axisCount = 0;
+        for (double[] edge : edgeDirections) {
+            double[][] crosses = {
+                    {0, edge[2], -edge[1]},  // edge x (1, 0, 0)
+                    {-edge[2], 0, edge[0]},  // edge x (0, 1, 0)
+                    {edge[1], -edge[0], 0}   // edge x (0, 0, 1)
+            };
+            for (double[] cross : crosses) {
+                double length = Math.sqrt(cross[0] * cross[0] + cross[1] * cross[1] + cross[2] * cross[2]);
+                if (length < EPSILON) continue; // edge is parallel to that axis
+                double x = cross[0] / length, y = cross[1] / length, z = cross[2] / length;
+                if (isNewAxis(seen, x, y, z)) {
+                    seen.add(new double[]{x, y, z});
+                    axisCount = putAxis(axes, axisCount, x, y, z, vertices);
+                }
+            }
+        }
+        return Arrays.copyOf(axes, axisCount * AXIS_STRIDE);
+    }
+
+    /**
+     * Internal method for checking if a unit axis is neither parallel nor antiparallel to any of the given unit axes within {@link HullShape#AXIS_TOLERANCE}.
+     * @return true if the axis is new, false if an equivalent one exists.
+     */
+    private static boolean isNewAxis(List<double[]> axes, double x, double y, double z) {
+        for (double[] axis : axes) {
+            if (Math.abs(axis[0] * x + axis[1] * y + axis[2] * z) > 1 - AXIS_TOLERANCE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Internal method for writing an axis and the projection interval of the hull onto it into a flat array.
+     * @return The new amount of axes in the array.
+     */
+    private static int putAxis(double[] target, int count, double x, double y, double z, Point3d[] vertices) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (Point3d vertex : vertices) {
+            double projection = vertex.x * x + vertex.y * y + vertex.z * z;
+            if (projection < min) min = projection;
+            if (projection > max) max = projection;
+        }
+        int offset = count * AXIS_STRIDE;
+        target[offset] = x;
+        target[offset + 1] = y;
+        target[offset + 2] = z;
+        target[offset + 3] = min;
+        target[offset + 4] = max;
+        return count + 1;
+    }
+
+    /**
+     * Internal method for writing a triangle and its normal into the {@link TriggerShape#TRIANGLE_STRIDE} layout.
+     * @param target The packed triangles.
+     * @param offset The index of the first double of the triangle.
+     * @param a First corner of the triangle.
+     * @param b Second corner of the triangle.
+     * @param c Third corner of the triangle.
+     */
+    private static void putTriangle(double[] target, int offset, Point3d a, Point3d b, Point3d c) {
+        putTriangle(target, offset, a.x, a.y, a.z, b.x, b.y, b.z, c.x, c.y, c.z);
+    }
+
+    /**
+     * Create a copy of this shape that renders different triangles, the collision geometry stays the same.
+     * @param triangles The new triangles.
+     * @return The new shape.
+     */
+    @Override
+    HullShape withTriangles(List<Trigger.Triangle> triangles) {
+        double[] packed = new double[triangles.size() * TRIANGLE_STRIDE];
+        for (int i = 0; i < triangles.size(); i++) {
+            Trigger.Triangle triangle = triangles.get(i);
+            int offset = i * TRIANGLE_STRIDE;
+            packed[offset] = triangle.a().x();
+            packed[offset + 1] = triangle.a().y();
+            packed[offset + 2] = triangle.a().z();
+            packed[offset + 3] = triangle.b().x();
+            packed[offset + 4] = triangle.b().y();
+            packed[offset + 5] = triangle.b().z();
+            packed[offset + 6] = triangle.c().x();
+            packed[offset + 7] = triangle.c().y();
+            packed[offset + 8] = triangle.c().z();
+            packed[offset + 9] = triangle.normal().x();
+            packed[offset + 10] = triangle.normal().y();
+            packed[offset + 11] = triangle.normal().z();
+        }
+        return new HullShape(anchorCoords, packed, faceAxes(), edgeAxes(), getBoundsMin(), getBoundsMax(), getComputationTime());
+    }
+
+    /**
+     * Get a read-only view of the anchors, every access creates a new {@link Vec}.
+     * @return The anchors.
+     */
+    @Override
+    public List<Vec> getAnchors() {
+        return new AnchorView(anchorCoords);
+    }
+
+    /**
+     * Get a read-only view of the triangles, every access creates a new {@link Trigger.Triangle}.
+     * @return The triangles relative to the position.
+     */
+    @Override
+    public List<Trigger.Triangle> getTriangles() {
+        return new TriangleView(triangleCoords);
+    }
+
+    /**
+     * Get the packed anchors, must not be modified.
+     * @return The x, y, z of every anchor.
+     */
+    double[] anchorCoords() {
+        return anchorCoords;
+    }
+
+    /**
+     * Get the packed triangles, must not be modified.
+     * @return The triangles in the {@link TriggerShape#TRIANGLE_STRIDE} layout.
+     */
+    double[] triangleCoords() {
+        return triangleCoords;
+    }
+
+    /**
+     * Get the amount of anchors.
+     * @return The amount of anchors.
+     */
+    public int getAnchorCount() {
+        return anchorCoords.length / 3;
+    }
+
+    /**
+     * Get the amount of hull triangles.
+     * @return The amount of hull triangles.
+     */
+    @Override
+    public int getTriangleCount() {
+        return triangleCoords.length / TRIANGLE_STRIDE;
+    }
+
+    @Override
+    public Type getType() {
+        return Type.HULL;
+    }
+
+    /**
+     * Get the distance from the position of a trigger to the furthest anchor.
+     * @return The distance to the furthest anchor.
+     */
+    @Override
+    public double getRadius() {
+        double maxSquared = 0;
+        for (int i = 0; i < anchorCoords.length; i += 3) {
+            maxSquared = Math.max(maxSquared, anchorCoords[i] * anchorCoords[i] + anchorCoords[i + 1] * anchorCoords[i + 1] + anchorCoords[i + 2] * anchorCoords[i + 2]);
+        }
+        return Math.sqrt(maxSquared);
+    }
+
+    @Override
+    double[] parameters() {
+        return new double[0];
+    }
+
+    @Override
+    HullShape recompute() {
+        return compute(getAnchors());
+    }
+}
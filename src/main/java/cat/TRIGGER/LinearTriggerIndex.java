@@ -0,0 +1,66 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The simplest {@link TriggerIndex}, checks the bounds of every single trigger on each query.
+ * This is what {@link TriggerManager} has always done and is kept around as a fallback and for comparing the other indices against it.
+ */
+public class LinearTriggerIndex implements TriggerIndex {
+
+    private final List<Trigger> triggers = new ArrayList<>();
+
+    @Override
+    public void insert(Trigger trigger) {
+        triggers.add(trigger);
+    }
+
+    @Override
+    public boolean remove(Trigger trigger) {
+        return triggers.remove(trigger);
+    }
+
+    @Override
+    public void update(Trigger trigger) {
+        // Nothing to do, bounds are read on every query
+    }
+
+    @Override
+    public void query(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Collection<? super Trigger> out) {
+        for (int i = 0; i < triggers.size(); i++) {
+            Trigger trigger = triggers.get(i);
+            if (trigger.boundsOverlap(minX, minY, minZ, maxX, maxY, maxZ)) {
+                out.add(trigger);
+            }
+        }
+    }
+
+    @Override
+    public LinearTriggerIndex copy() {
+        LinearTriggerIndex copy = new LinearTriggerIndex();
+        copy.triggers.addAll(triggers);
+        return copy;
+    }
+
+    @Override
+    public void clear() {
+        triggers.clear();
+    }
+
+    @Override
+    public int size() {
+        return triggers.size();
+    }
+}
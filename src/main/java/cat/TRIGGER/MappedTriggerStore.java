@@ -0,0 +1,592 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package cat.TRIGGER;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMaps;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.coordinate.Pos;
+import net.minestom.server.coordinate.Vec;
+import net.minestom.server.entity.EntityType;
+import net.minestom.server.entity.Player;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.timer.Task;
+import net.minestom.server.timer.TaskSchedule;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * A read-mostly store of a very large amount of triggers backed by a memory-mapped file.
+ * <p>
+ * The file starts with a fixed-stride index holding the world bounds, the instance and where the data of every trigger is,
+ * followed by a table of the vertical columns of the world and the triggers overlapping each of them,
+ * followed by the entity types of every trigger and the trigger itself in the {@link TriggerBinaryFormat} layout including its precomputed hull.
+ * Opening a store only reads the header, a {@link Trigger} object is only created (materialized) once it is needed,
+ * so triggers nobody is near never take up heap space and opening takes the same time no matter how many triggers there are.
+ * <p>
+ * The usual way to use it is {@link MappedTriggerStore#attach(TriggerManager, double)}, which keeps the triggers near online players materialized and added to a {@link TriggerManager}
+ * and removes them again once no player has been near for a while.
+ * The instance and the entity types of a trigger are stored, and changing them with {@link Trigger#setInstance(Instance)} or {@link Trigger#setEntityTypes(Set)}
+ * is remembered when the trigger is evicted. Other changes (e.g. {@link Trigger#setPosition(net.minestom.server.coordinate.Pos)}) are not written back and get lost when it is evicted.
+ * <p>
+ * The whole file is mapped into one {@link MappedByteBuffer}, which is indexed by int, so a store file can be at most 2GB ({@link Integer#MAX_VALUE} bytes) large.
+ * {@link MappedTriggerStore#write(Path, Collection)} rejects triggers that don't fit with an {@link IllegalArgumentException}, split them over multiple stores instead.
+ * <p>
+ * Not thread safe, use it from the tick thread like the {@link TriggerManager} itself.
+ */
+public final class MappedTriggerStore {
+
+    /**
+     * The first 4 bytes of every store file, "TRGM" in ASCII.
+     */
+    public static final int MAGIC = 0x5452474D;
+
+    /**
+     * The current version of the store layout, bumped whenever it or the {@link TriggerBinaryFormat} layout the triggers are stored in changes.
+     * Only files of exactly this version can be opened.
+     */
+    public static final short VERSION = 4;
+
+    /**
+     * The default edge length of the columns the index is bucketed into, in blocks.
+     */
+    public static final double DEFAULT_CELL_SIZE = 64;
+
+    /**
+     * The default amount of ticks without any player nearby after which a materialized trigger is evicted again.
+     */
+    public static final int DEFAULT_EVICT_TICKS = 200;
+
+    // int magic, short version, short reserved, int count, int record stride, double cell size, long cell table offset, int cell count, int reserved
+    private static final int HEADER_BYTES = 40;
+    // double min x, y, z, double max x, y, z, long data offset, int data length, int reserved, long instance uuid most, least (both 0 for every instance)
+    private static final int RECORD_STRIDE = 80;
+    private static final int OFFSET_FIELD = 48;
+    private static final int LENGTH_FIELD = 56;
+    private static final int INSTANCE_FIELD = 64;
+    // long column key, int index of the first slot in the slot table, int slot count, sorted by key
+    private static final int CELL_STRIDE = 16;
+
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final Consumer<TriggeredCallback> triggeredCallback;
+    private final double inverseCellSize;
+    private final int cellTable;
+    private final int cellCount;
+    // The slot table follows the cell table, every column lists the slots overlapping it
+    private final int slotTable;
+    private final Int2ObjectMap<Trigger> materialized = new Int2ObjectOpenHashMap<>();
+    // The tick each materialized trigger was last near a player
+    private final Int2IntMap lastNear = new Int2IntOpenHashMap();
+    // The slots that were added to the manager by stream
+    private final IntSet added = new IntOpenHashSet();
+    // Instances and entity types that were changed on triggers that got evicted since
+    private final Int2ObjectMap<Overrides> overrides = new Int2ObjectOpenHashMap<>();
+    private final IntArrayList near = new IntArrayList();
+    // The triggers stream adds to and removes from the manager, handed over in one batch each
+    private final List<Trigger> entering = new ArrayList<>();
+    private final List<Trigger> leaving = new ArrayList<>();
+    private int evictAfterTicks = DEFAULT_EVICT_TICKS;
+    private int tick = 0;
+
+    private MappedTriggerStore(MappedByteBuffer buffer, Consumer<TriggeredCallback> triggeredCallback) {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a TRIGGER store file");
+        }
+        final short version = buffer.getShort(4);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported TRIGGER store version " + version + ", expected " + VERSION);
+        }
+        this.count = buffer.getInt(8);
+        final double cellSize = buffer.getDouble(16);
+        final long cellTable = buffer.getLong(24);
+        this.cellCount = buffer.getInt(32);
+        if (count < 0 || buffer.getInt(12) != RECORD_STRIDE || !(cellSize > 0) || cellCount < 0
+                || cellTable < HEADER_BYTES + (long) count * RECORD_STRIDE || cellTable + (long) cellCount * CELL_STRIDE > buffer.capacity()) {
+            throw new IllegalArgumentException("Corrupt TRIGGER store file");
+        }
+        this.buffer = buffer;
+        this.triggeredCallback = triggeredCallback;
+        this.inverseCellSize = 1.0 / cellSize;
+        this.cellTable = (int) cellTable;
+        this.slotTable = this.cellTable + cellCount * CELL_STRIDE;
+    }
+
+    /**
+     * Write triggers to a store file with the {@link MappedTriggerStore#DEFAULT_CELL_SIZE default cell size}, replacing it if it exists.
+     * @param path The file to write to.
+     * @param triggers The triggers to store.
+     * @throws IOException If writing the file fails.
+     * @throws IllegalArgumentException If the triggers do not fit into 2GB.
+     */
+    public static void write(Path path, Collection<Trigger> triggers) throws IOException {
+        write(path, triggers, DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Write triggers to a store file, replacing it if it exists.
+     * @param path The file to write to.
+     * @param triggers The triggers to store.
+     * @param cellSize The edge length of the columns the index is bucketed into, should be at least the size of a typical trigger.
+     * @throws IOException If writing the file fails.
+     * @throws IllegalArgumentException If the triggers do not fit into 2GB.
+     */
+    public static void write(Path path, Collection<Trigger> triggers, double cellSize) throws IOException {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        final double inverseCellSize = 1.0 / cellSize;
+        final List<byte[]> names = new ArrayList<>(triggers.size());
+        final List<byte[][]> entityTypes = new ArrayList<>(triggers.size());
+        final Long2ObjectMap<IntArrayList> cells = new Long2ObjectOpenHashMap<>();
+        long slots = 0;
+        long data = 0;
+        int slot = 0;
+        for (Trigger trigger : triggers) {
+            byte[] name = TriggerBinaryFormat.encodeName(trigger.getName());
+            names.add(name);
+            byte[][] types = encodeEntityTypes(trigger.getEntityTypes());
+            entityTypes.add(types);
+            data += sizeOf(types) + TriggerBinaryFormat.sizeOf(trigger, name);
+
+            final Vec min = trigger.getBoundsMin();
+            final Vec max = trigger.getBoundsMax();
+            final int maxCellX = cell(max.x(), inverseCellSize), maxCellZ = cell(max.z(), inverseCellSize);
+            for (int x = cell(min.x(), inverseCellSize); x <= maxCellX; x++) {
+                for (int z = cell(min.z(), inverseCellSize); z <= maxCellZ; z++) {
+                    cells.computeIfAbsent(key(x, z), k -> new IntArrayList(4)).add(slot);
+                    slots++;
+                }
+            }
+            slot++;
+        }
+        final long cellTable = HEADER_BYTES + (long) triggers.size() * RECORD_STRIDE;
+        final long dataStart = cellTable + (long) cells.size() * CELL_STRIDE + slots * Integer.BYTES;
+        final long size = dataStart + data;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Triggers take up " + size + " bytes but a TRIGGER store file can be at most " + Integer.MAX_VALUE + " bytes large, split them over multiple stores");
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.putInt(MAGIC);
+            out.putShort(VERSION);
+            out.putShort((short) 0);
+            out.putInt(triggers.size());
+            out.putInt(RECORD_STRIDE);
+            out.putDouble(cellSize);
+            out.putLong(cellTable);
+            out.putInt(cells.size());
+            out.putInt(0);
+
+            // The columns are sorted so opening the store doesn't have to build a map of them
+            final long[] keys = cells.keySet().toLongArray();
+            Arrays.sort(keys);
+            out.position((int) cellTable);
+            int first = 0;
+            for (long key : keys) {
+                out.putLong(key);
+                out.putInt(first);
+                out.putInt(cells.get(key).size());
+                first += cells.get(key).size();
+            }
+            for (long key : keys) {
+                final IntArrayList cell = cells.get(key);
+                for (int i = 0; i < cell.size(); i++) {
+                    out.putInt(cell.getInt(i));
+                }
+            }
+
+            slot = 0;
+            for (Trigger trigger : triggers) {
+                final int offset = out.position();
+                putEntityTypes(out, entityTypes.get(slot));
+                TriggerBinaryFormat.writeTrigger(out, trigger, names.get(slot));
+
+                final int record = record(slot);
+                final Vec min = trigger.getBoundsMin();
+                final Vec max = trigger.getBoundsMax();
+                out.putDouble(record, min.x());
+                out.putDouble(record + 8, min.y());
+                out.putDouble(record + 16, min.z());
+                out.putDouble(record + 24, max.x());
+                out.putDouble(record + 32, max.y());
+                out.putDouble(record + 40, max.z());
+                out.putLong(record + OFFSET_FIELD, offset);
+                out.putInt(record + LENGTH_FIELD, out.position() - offset);
+                final Instance instance = trigger.getInstance();
+                out.putLong(record + INSTANCE_FIELD, instance == null ? 0 : instance.getUuid().getMostSignificantBits());
+                out.putLong(record + INSTANCE_FIELD + 8, instance == null ? 0 : instance.getUuid().getLeastSignificantBits());
+                slot++;
+            }
+            out.force();
+        }
+    }
+
+    /**
+     * Open a store file.
+     * @param path The file written by {@link MappedTriggerStore#write(Path, Collection, double)}.
+     * @param triggeredCallback The {@link Consumer<TriggeredCallback>} every materialized trigger gets.
+     * @return The opened store.
+     * @throws IOException If mapping the file fails.
+     * @throws IllegalArgumentException If the file is not a store file, has an unsupported version or is larger than 2GB.
+     */
+    public static MappedTriggerStore open(Path path, Consumer<TriggeredCallback> triggeredCallback) throws IOException {
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("TRIGGER store file is " + channel.size() + " bytes large, at most " + Integer.MAX_VALUE + " bytes can be mapped");
+            }
+            return new MappedTriggerStore(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), triggeredCallback);
+        }
+    }
+
+    /**
+     * Get a trigger, materializing it if it isn't already.
+     * @param slot The position of the trigger in the collection it was written from.
+     * @return The trigger, always the same instance until it is evicted.
+     * @throws IllegalStateException If the trigger is in an instance that is not registered.
+     */
+    public Trigger get(int slot) {
+        return get(slot, null);
+    }
+
+    /**
+     * Internal method for getting a trigger, materializing it if it isn't already.
+     * @param slot The position of the trigger in the collection it was written from.
+     * @param known An instance the trigger may be in, saves looking it up. May be null.
+     * @return The trigger.
+     */
+    private Trigger get(int slot, Instance known) {
+        Objects.checkIndex(slot, count);
+        Trigger trigger = materialized.get(slot);
+        if (trigger == null) {
+            final int record = record(slot);
+            final int offset = (int) buffer.getLong(record + OFFSET_FIELD);
+            final int length = buffer.getInt(record + LENGTH_FIELD);
+            final ByteBuffer data = buffer.slice(offset, length);
+            final Set<EntityType> entityTypes = getEntityTypes(data);
+            trigger = TriggerBinaryFormat.readTrigger(data, triggeredCallback);
+
+            final Overrides changed = overrides.get(slot);
+            final UUID instance = changed == null ? getInstanceUuid(slot) : changed.instance();
+            if (instance != null) {
+                trigger.setInstance(known != null && known.getUuid().equals(instance) ? known : resolve(instance, slot));
+            }
+            trigger.setEntityTypes(changed == null ? entityTypes : changed.entityTypes());
+
+            materialized.put(slot, trigger);
+            lastNear.put(slot, tick);
+        }
+        return trigger;
+    }
+
+    /**
+     * Check if a trigger is currently materialized.
+     * @param slot The position of the trigger in the collection it was written from.
+     * @return true if the trigger exists on the heap, false if it only exists in the file.
+     */
+    public boolean isMaterialized(int slot) {
+        return materialized.containsKey(slot);
+    }
+
+    /**
+     * Find and materialize all triggers whose world space bounds overlap a box, no matter which instance they are in.
+     * Only the index is read for triggers that don't overlap.
+     * @param out The collection the triggers get added to.
+     * @throws IllegalStateException If one of the triggers is in an instance that is not registered.
+     */
+    public void query(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Collection<? super Trigger> out) {
+        try {
+            querySlots(minX, minY, minZ, maxX, maxY, maxZ, near);
+            for (int i = 0; i < near.size(); i++) {
+                out.add(get(near.getInt(i)));
+            }
+        } finally {
+            near.clear();
+        }
+    }
+
+    /**
+     * Materialize the triggers near players and add them to a manager, and evict triggers no player has been near for {@link MappedTriggerStore#getEvictAfterTicks()} ticks.
+     * Only triggers in the instance of a player (or in every instance) count as near that player.
+     * Evicted triggers are removed from the manager and dropped from the heap. Meant to be called once per tick, {@link MappedTriggerStore#attach(TriggerManager, double)} does that for you.
+     * The triggers are handed to the manager in one {@link TriggerManager#addAll(Collection)} and one {@link TriggerManager#removeAll(Collection)} call per tick.
+     * @param manager The manager the triggers are added to and removed from.
+     * @param players The players to materialize triggers around.
+     * @param radius How far around a player triggers are materialized, should be larger than the distance a player can move in one tick.
+     */
+    public void stream(TriggerManager manager, Collection<? extends Player> players, double radius) {
+        tick++;
+        for (Player player : players) {
+            final Pos pos = player.getPosition();
+            final Instance instance = player.getInstance();
+            try {
+                querySlots(pos.x() - radius, pos.y() - radius, pos.z() - radius, pos.x() + radius, pos.y() + radius, pos.z() + radius, near);
+                for (int i = 0; i < near.size(); i++) {
+                    final int slot = near.getInt(i);
+                    if (!isIn(slot, instance)) continue;
+                    if (added.add(slot)) {
+                        entering.add(get(slot, instance));
+                    }
+                    lastNear.put(slot, tick);
+                }
+            } finally {
+                near.clear();
+            }
+        }
+
+        for (ObjectIterator<Int2IntMap.Entry> iterator = Int2IntMaps.fastIterator(lastNear); iterator.hasNext(); ) {
+            final Int2IntMap.Entry entry = iterator.next();
+            if (tick - entry.getIntValue() <= evictAfterTicks) continue;
+            final int slot = entry.getIntKey();
+            final Trigger trigger = materialized.remove(slot);
+            iterator.remove();
+            if (added.remove(slot)) {
+                leaving.add(trigger);
+            }
+            remember(slot, trigger);
+        }
+
+        try {
+            if (!leaving.isEmpty()) manager.removeAll(leaving);
+            if (!entering.isEmpty()) manager.addAll(entering);
+        } finally {
+            leaving.clear();
+            entering.clear();
+        }
+    }
+
+    /**
+     * Schedule {@link MappedTriggerStore#stream(TriggerManager, Collection, double)} with all online players every tick.
+     * @param manager The manager the triggers are added to and removed from.
+     * @param radius How far around a player triggers are materialized.
+     * @return The scheduled task, cancel it to stop streaming.
+     */
+    public Task attach(TriggerManager manager, double radius) {
+        return MinecraftServer.getSchedulerManager().buildTask(() -> stream(manager, MinecraftServer.getConnectionManager().getOnlinePlayers(), radius)).repeat(TaskSchedule.nextTick()).schedule();
+    }
+
+    /**
+     * Internal method for collecting the slots of the triggers whose stored bounds overlap a box.
+     */
+    private void querySlots(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, IntArrayList out) {
+        final int minCellX = cell(minX, inverseCellSize), minCellZ = cell(minZ, inverseCellSize);
+        final int maxCellX = cell(maxX, inverseCellSize), maxCellZ = cell(maxZ, inverseCellSize);
+        for (int x = minCellX; x <= maxCellX; x++) {
+            for (int z = minCellZ; z <= maxCellZ; z++) {
+                final int cell = findCell(key(x, z));
+                if (cell < 0) continue;
+                final int first = slotTable + buffer.getInt(cell + 8) * Integer.BYTES;
+                final int length = buffer.getInt(cell + 12);
+                for (int i = 0; i < length; i++) {
+                    final int slot = buffer.getInt(first + i * Integer.BYTES);
+                    final int record = record(slot);
+                    final double slotMinX = buffer.getDouble(record), slotMinZ = buffer.getDouble(record + 16);
+                    // A trigger spanning multiple visited columns is only reported by the first of them
+                    if (x != Math.max(cell(slotMinX, inverseCellSize), minCellX) || z != Math.max(cell(slotMinZ, inverseCellSize), minCellZ)) {
+                        continue;
+                    }
+                    if (slotMinX <= maxX && buffer.getDouble(record + 24) >= minX
+                            && buffer.getDouble(record + 8) <= maxY && buffer.getDouble(record + 32) >= minY
+                            && slotMinZ <= maxZ && buffer.getDouble(record + 40) >= minZ) {
+                        out.add(slot);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Internal method for finding a column in the sorted cell table.
+     * @param key The key of the column.
+     * @return The position of the column entry in the file, -1 if no trigger overlaps the column.
+     */
+    private int findCell(long key) {
+        int low = 0, high = cellCount - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int position = cellTable + middle * CELL_STRIDE;
+            final long middleKey = buffer.getLong(position);
+            if (middleKey < key) {
+                low = middle + 1;
+            } else if (middleKey > key) {
+                high = middle - 1;
+            } else {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Internal method for checking if a trigger fires for players in an instance, without materializing it.
+     * @param slot The slot of the trigger.
+     * @param instance The instance, may be null.
+     * @return true if the trigger is in every instance or in the given one.
+     */
+    private boolean isIn(int slot, Instance instance) {
+        final Trigger trigger = materialized.get(slot);
+        if (trigger != null) {
+            return trigger.getInstance() == null || trigger.getInstance() == instance;
+        }
+        final Overrides changed = overrides.get(slot);
+        final UUID uuid = changed == null ? getInstanceUuid(slot) : changed.instance();
+        return uuid == null || instance != null && uuid.equals(instance.getUuid());
+    }
+
+    /**
+     * Internal method for remembering the instance and entity types of an evicted trigger if they differ from the stored ones.
+     * @param slot The slot of the trigger.
+     * @param trigger The evicted trigger.
+     */
+    private void remember(int slot, Trigger trigger) {
+        final UUID instance = trigger.getInstance() == null ? null : trigger.getInstance().getUuid();
+        final int offset = (int) buffer.getLong(record(slot) + OFFSET_FIELD);
+        final Set<EntityType> stored = getEntityTypes(buffer.slice(offset, buffer.getInt(record(slot) + LENGTH_FIELD)));
+        if (Objects.equals(instance, getInstanceUuid(slot)) && trigger.getEntityTypes().equals(stored)) {
+            overrides.remove(slot);
+        } else {
+            overrides.put(slot, new Overrides(instance, trigger.getEntityTypes()));
+        }
+    }
+
+    private UUID getInstanceUuid(int slot) {
+        final int record = record(slot);
+        final long most = buffer.getLong(record + INSTANCE_FIELD), least = buffer.getLong(record + INSTANCE_FIELD + 8);
+        return most == 0 && least == 0 ? null : new UUID(most, least);
+    }
+
+    private static Instance resolve(UUID uuid, int slot) {
+        final Instance instance = MinecraftServer.getInstanceManager().getInstance(uuid);
+        if (instance == null) {
+            throw new IllegalStateException("Stored trigger " + slot + " is in instance " + uuid + " which is not registered");
+        }
+        return instance;
+    }
+
+    /**
+     * Get the amount of triggers in this store.
+     * @return The amount of triggers in this store.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Get the amount of triggers that are currently materialized.
+     * @return The amount of triggers that currently exist on the heap.
+     */
+    public int getMaterializedCount() {
+        return materialized.size();
+    }
+
+    /**
+     * Get after how many ticks without any player nearby a materialized trigger is evicted.
+     * @return The amount of ticks.
+     */
+    public int getEvictAfterTicks() {
+        return evictAfterTicks;
+    }
+
+    /**
+     * Set after how many ticks without any player nearby a materialized trigger is evicted.
+     * @param evictAfterTicks The amount of ticks.
+     */
+    public void setEvictAfterTicks(int evictAfterTicks) {
+        this.evictAfterTicks = evictAfterTicks;
+    }
+
+    private static byte[][] encodeEntityTypes(Set<EntityType> entityTypes) {
+        final byte[][] encoded = new byte[entityTypes.size()][];
+        int i = 0;
+        for (EntityType type : entityTypes) {
+            encoded[i++] = type.name().getBytes(StandardCharsets.UTF_8);
+        }
+        return encoded;
+    }
+
+    private static int sizeOf(byte[][] entityTypes) {
+        int size = Integer.BYTES;
+        for (byte[] type : entityTypes) {
+            size += Short.BYTES + type.length;
+        }
+        return size;
+    }
+
+    private static void putEntityTypes(ByteBuffer buffer, byte[][] entityTypes) {
+        buffer.putInt(entityTypes.length);
+        for (byte[] type : entityTypes) {
+            buffer.putShort((short) type.length);
+            buffer.put(type);
+        }
+    }
+
+    private static Set<EntityType> getEntityTypes(ByteBuffer buffer) {
+        final int size = buffer.getInt();
+        if (size == 0) return Set.of();
+        final Set<EntityType> entityTypes = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            final byte[] name = new byte[buffer.getShort()];
+            buffer.get(name);
+            final EntityType type = EntityType.fromKey(new String(name, StandardCharsets.UTF_8));
+            if (type == null) {
+                throw new IllegalArgumentException("Unknown entity type " + new String(name, StandardCharsets.UTF_8) + " in TRIGGER store file");
+            }
+            entityTypes.add(type);
+        }
+        return entityTypes;
+    }
+
+    private static int record(int slot) {
+        return HEADER_BYTES + slot * RECORD_STRIDE;
+    }
+
+    private static int cell(double coordinate, double inverseCellSize) {
+        return (int) Math.floor(coordinate * inverseCellSize);
+    }
+
+    private static long key(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The instance and entity types a trigger had when it was evicted.
+     * @param instance The uuid of the instance, null for every instance.
+     * @param entityTypes The entity types.
+     */
+    private record Overrides(UUID instance, Set<EntityType> entityTypes) {}
+}
@@ -0,0 +1,235 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Vec;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A rotated box {@link TriggerShape}, create one with {@link TriggerShape#orientedBox(Vec, Vec, double)} or {@link TriggerShape#orientedBox(Vec, Vec, Vec, Vec)}.
+ * Two boxes are separated along one of at most 15 axes: the 3 world axes (the bounds check), the 3 axes of this box and the 9 cross products between them.
+ * All of them are tested regardless of the {@link Trigger.ContainmentMode}, axes that are parallel to a world axis are skipped since the bounds check already covers them.
+ */
+public final class OrientedBoxShape extends TriggerShape {
+
+    private static final double AXIS_TOLERANCE = 1e-9;
+    private static final double EPSILON = 1e-6;
+
+    private final Vec center;
+    private final Vec halfExtents;
+    private final Vec axisX;
+    private final Vec axisY;
+    private final Vec axisZ;
+
+    OrientedBoxShape(Vec center, Vec halfExtents, Vec axisX, Vec axisY) {
+        this(center, halfExtents, basis(axisX, axisY));
+    }
+
+    private OrientedBoxShape(Vec center, Vec halfExtents, Vec[] basis) {
+        super(compileAxes(center, halfExtents, basis, basis),
+                compileAxes(center, halfExtents, basis, edgeCandidates(basis)),
+                center.sub(extent(halfExtents, basis, 1, 0, 0), extent(halfExtents, basis, 0, 1, 0), extent(halfExtents, basis, 0, 0, 1)),
+                center.add(extent(halfExtents, basis, 1, 0, 0), extent(halfExtents, basis, 0, 1, 0), extent(halfExtents, basis, 0, 0, 1)),
+                0);
+        if (!(halfExtents.x() > 0) || !(halfExtents.y() > 0) || !(halfExtents.z() > 0)) {
+            throw new IllegalArgumentException("Half extents must be positive");
+        }
+        this.center = center;
+        this.halfExtents = halfExtents;
+        this.axisX = basis[0];
+        this.axisY = basis[1];
+        this.axisZ = basis[2];
+    }
+
+    /**
+     * Internal method for building the axes of the box. The y axis is made perpendicular to the x axis, the z axis is their cross product.
+     * @param axisX The x axis as given.
+     * @param axisY The y axis as given.
+     * @return The normalized x, y and z axis.
+     */
+    private static Vec[] basis(Vec axisX, Vec axisY) {
+        final Vec u = normalize(axisX);
+        final double dot = u.dot(axisY);
+        final Vec v = Math.abs(dot) < AXIS_TOLERANCE ? axisY : axisY.sub(u.mul(dot));
+        if (!(v.length() >= EPSILON)) {
+            throw new IllegalArgumentException("The axes of an oriented box must not be parallel");
+        }
+        final Vec normalizedV = normalize(v);
+        return new Vec[]{u, normalizedV, u.cross(normalizedV)};
+    }
+
+    // Axes that are already unit length are kept as they are, so reading a serialized box gives exactly the same axes
+    private static Vec normalize(Vec axis) {
+        return Math.abs(axis.lengthSquared() - 1) < AXIS_TOLERANCE ? axis : axis.normalize();
+    }
+
+    /**
+     * Internal method for projecting the half extents of the box onto an axis.
+     * @return Half the length of the projection of the box onto the axis.
+     */
+    private static double extent(Vec halfExtents, Vec[] basis, double ax, double ay, double az) {
+        return halfExtents.x() * Math.abs(basis[0].x() * ax + basis[0].y() * ay + basis[0].z() * az)
+                + halfExtents.y() * Math.abs(basis[1].x() * ax + basis[1].y() * ay + basis[1].z() * az)
+                + halfExtents.z() * Math.abs(basis[2].x() * ax + basis[2].y() * ay + basis[2].z() * az);
+    }
+
+    /**
+     * Internal method for collecting the cross products of the axes of the box with the world axes.
+     * @param basis The axes of the box.
+     * @return The 9 cross products, some of them may be degenerate.
+     */
+    private static Vec[] edgeCandidates(Vec[] basis) {
+        final Vec[] candidates = new Vec[9];
+        int i = 0;
+        for (Vec axis : basis) {
+            candidates[i++] = axis.cross(new Vec(1, 0, 0));
+            candidates[i++] = axis.cross(new Vec(0, 1, 0));
+            candidates[i++] = axis.cross(new Vec(0, 0, 1));
+        }
+        return candidates;
+    }
+
+    /**
+     * Internal method for turning candidate axes into the {@link TriggerShape#AXIS_STRIDE} layout.
+     * Degenerate axes, axes parallel to a world axis and duplicates are skipped.
+     * @param candidates The axes to compile, not necessarily normalized.
+     * @return The compiled axes with local intervals.
+     */
+    private static double[] compileAxes(Vec center, Vec halfExtents, Vec[] basis, Vec[] candidates) {
+        final double[] axes = new double[candidates.length * AXIS_STRIDE];
+        int count = 0;
+        for (Vec candidate : candidates) {
+            final double length = candidate.length();
+            if (length < EPSILON) continue;
+            final double ax = candidate.x() / length, ay = candidate.y() / length, az = candidate.z() / length;
+            if (Math.max(Math.abs(ax), Math.max(Math.abs(ay), Math.abs(az))) > 1 - AXIS_TOLERANCE) continue;
+            boolean duplicate = false;
+            for (int i = 0; i < count; i += AXIS_STRIDE) {
+                if (Math.abs(axes[i] * ax + axes[i + 1] * ay + axes[i + 2] * az) > 1 - AXIS_TOLERANCE) {
+                    duplicate = true;
+                    break;
+                }
+            }
+            if (duplicate) continue;
+
+            final double projectedCenter = center.x() * ax + center.y() * ay + center.z() * az;
+            final double extent = extent(halfExtents, basis, ax, ay, az);
+            axes[count] = ax;
+            axes[count + 1] = ay;
+            axes[count + 2] = az;
+            axes[count + 3] = projectedCenter - extent;
+            axes[count + 4] = projectedCenter + extent;
+            count += AXIS_STRIDE;
+        }
+        return Arrays.copyOf(axes, count);
+    }
+
+    /**
+     * Get the center of the box.
+     * @return The center relative to the position of a trigger.
+     */
+    public Vec getCenter() {
+        return center;
+    }
+
+    /**
+     * Get half the size of the box along its own axes.
+     * @return The half extents.
+     */
+    public Vec getHalfExtents() {
+        return halfExtents;
+    }
+
+    /**
+     * Get the normalized x axis of the box.
+     * @return The x axis.
+     */
+    public Vec getAxisX() {
+        return axisX;
+    }
+
+    /**
+     * Get the normalized y axis of the box, perpendicular to the x axis.
+     * @return The y axis.
+     */
+    public Vec getAxisY() {
+        return axisY;
+    }
+
+    /**
+     * Get the z axis of the box, the cross product of the x and y axis.
+     * @return The z axis.
+     */
+    public Vec getAxisZ() {
+        return axisZ;
+    }
+
+    @Override
+    public Type getType() {
+        return Type.ORIENTED_BOX;
+    }
+
+    /**
+     * Get the 8 corners of the box.
+     * @return The corners relative to the position of a trigger.
+     */
+    @Override
+    public List<Vec> getAnchors() {
+        return List.of(corners());
+    }
+
+    @Override
+    public List<Trigger.Triangle> getTriangles() {
+        return new TriangleView(boxMesh(corners(), center));
+    }
+
+    @Override
+    public int getTriangleCount() {
+        return 12;
+    }
+
+    @Override
+    boolean overlaps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Trigger.ContainmentMode mode) {
+        return super.overlaps(worldFaceAxes, worldEdgeAxes, position, minX, minY, minZ, maxX, maxY, maxZ, Trigger.ContainmentMode.EXACT_SAT);
+    }
+
+    @Override
+    boolean overlaps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, List<Vec> points, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Trigger.ContainmentMode mode) {
+        return super.overlaps(worldFaceAxes, worldEdgeAxes, position, points, minX, minY, minZ, maxX, maxY, maxZ, Trigger.ContainmentMode.EXACT_SAT);
+    }
+
+    @Override
+    boolean sweeps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, double cx, double cy, double cz, double hx, double hy, double hz, double dx, double dy, double dz, Trigger.ContainmentMode mode) {
+        return super.sweeps(worldFaceAxes, worldEdgeAxes, position, cx, cy, cz, hx, hy, hz, dx, dy, dz, Trigger.ContainmentMode.EXACT_SAT);
+    }
+
+    @Override
+    double[] parameters() {
+        return new double[]{
+                center.x(), center.y(), center.z(),
+                halfExtents.x(), halfExtents.y(), halfExtents.z(),
+                axisX.x(), axisX.y(), axisX.z(),
+                axisY.x(), axisY.y(), axisY.z()};
+    }
+
+    private Vec[] corners() {
+        final Vec[] corners = new Vec[8];
+        for (int i = 0; i < 8; i++) {
+            corners[i] = center
+                    .add(axisX.mul((i & 1) == 0 ? -halfExtents.x() : halfExtents.x()))
+                    .add(axisY.mul((i & 2) == 0 ? -halfExtents.y() : halfExtents.y()))
+                    .add(axisZ.mul((i & 4) == 0 ? -halfExtents.z() : halfExtents.z()));
+        }
+        return corners;
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Vec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A vertical prism {@link TriggerShape}: a 2D polygon on the x/z plane extended over a y range, create one with {@link TriggerShape#prism(List, double, double)}.
+ * Unlike a hull the polygon may be concave, so footprints like region claims keep their outline instead of being "shrink wrapped".
+ * <p>
+ * The bounds check already covers the y range, the rest is 2D: a box touches the prism if its center is inside the polygon (even-odd crossing test)
+ * or if any polygon edge crosses the box. Both tests only look at the edges of the rows of a grid the box overlaps,
+ * polygons with fewer than {@value PrismShape#GRID_THRESHOLD} edges use a single row.
+ */
+public final class PrismShape extends TriggerShape {
+
+    /**
+     * Amount of edges from which on the edges are bucketed into rows.
+     */
+    public static final int GRID_THRESHOLD = 32;
+
+    private static final double[] NO_AXES = new double[0];
+    private static final int EDGE_STRIDE = 4;
+
+    private final double minY;
+    private final double maxY;
+    // x, z of every polygon vertex in order
+    private final double[] vertices;
+    // Start x, z and end x, z of every edge
+    private final double[] edges;
+    // The edges whose z range overlaps each row, row i holds rowEdges[rowStart[i]] to rowEdges[rowStart[i + 1] - 1]
+    private final int[] rowStart;
+    private final int[] rowEdges;
+    private final double rowOrigin;
+    private final double inverseRowHeight;
+
+    PrismShape(double[] vertices, double minY, double maxY) {
+        super(NO_AXES, NO_AXES, footprintMin(vertices, minY), footprintMax(vertices, maxY), 0);
+        if (vertices.length < 6 || vertices.length % 2 != 0) {
+            throw new IllegalArgumentException("A prism needs at least 3 vertices");
+        }
+        if (!(maxY > minY)) {
+            throw new IllegalArgumentException("The max y of a prism must be greater than its min y");
+        }
+        this.minY = minY;
+        this.maxY = maxY;
+        this.vertices = vertices;
+
+        final int count = vertices.length / 2;
+        this.edges = new double[count * EDGE_STRIDE];
+        for (int i = 0; i < count; i++) {
+            final int next = (i + 1) % count;
+            edges[i * EDGE_STRIDE] = vertices[i * 2];
+            edges[i * EDGE_STRIDE + 1] = vertices[i * 2 + 1];
+            edges[i * EDGE_STRIDE + 2] = vertices[next * 2];
+            edges[i * EDGE_STRIDE + 3] = vertices[next * 2 + 1];
+        }
+
+        final int rows = count < GRID_THRESHOLD ? 1 : (int) Math.ceil(Math.sqrt(count));
+        final double height = getBoundsMax().z() - getBoundsMin().z();
+        this.rowOrigin = getBoundsMin().z();
+        this.inverseRowHeight = height > 0 ? rows / height : 0;
+        this.rowStart = new int[rows + 1];
+        // Counting pass, then filling pass, so the rows end up in one flat array
+        for (int i = 0; i < count; i++) {
+            final int first = row(Math.min(edges[i * EDGE_STRIDE + 1], edges[i * EDGE_STRIDE + 3]));
+            final int last = row(Math.max(edges[i * EDGE_STRIDE + 1], edges[i * EDGE_STRIDE + 3]));
+            for (int row = first; row <= last; row++) {
+                rowStart[row + 1]++;
+            }
+        }
+        for (int row = 0; row < rows; row++) {
+            rowStart[row + 1] += rowStart[row];
+        }
+        this.rowEdges = new int[rowStart[rows]];
+        final int[] fill = rowStart.clone();
+        for (int i = 0; i < count; i++) {
+            final int first = row(Math.min(edges[i * EDGE_STRIDE + 1], edges[i * EDGE_STRIDE + 3]));
+            final int last = row(Math.max(edges[i * EDGE_STRIDE + 1], edges[i * EDGE_STRIDE + 3]));
+            for (int row = first; row <= last; row++) {
+                rowEdges[fill[row]++] = i;
+            }
+        }
+    }
+
+    private static Vec footprintMin(double[] vertices, double minY) {
+        double x = Double.POSITIVE_INFINITY, z = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < vertices.length; i += 2) {
+            x = Math.min(x, vertices[i]);
+            z = Math.min(z, vertices[i + 1]);
+        }
+        return new Vec(x, minY, z);
+    }
+
+    private static Vec footprintMax(double[] vertices, double maxY) {
+        double x = Double.NEGATIVE_INFINITY, z = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < vertices.length; i += 2) {
+            x = Math.max(x, vertices[i]);
+            z = Math.max(z, vertices[i + 1]);
+        }
+        return new Vec(x, maxY, z);
+    }
+
+    /**
+     * Internal method for finding the row of a local z coordinate, clamped to the grid.
+     * @param z The local z coordinate.
+     * @return The index of the row.
+     */
+    private int row(double z) {
+        final int row = (int) ((z - rowOrigin) * inverseRowHeight);
+        return Math.max(0, Math.min(rowStart.length - 2, row));
+    }
+
+    /**
+     * Get the amount of polygon vertices.
+     * @return The amount of vertices.
+     */
+    public int getVertexCount() {
+        return vertices.length / 2;
+    }
+
+    /**
+     * Get the polygon on the x/z plane, the y of every vertex is the min y of the prism.
+     * @return A read-only list of the polygon vertices in order.
+     */
+    public List<Vec> getFootprint() {
+        final List<Vec> footprint = new ArrayList<>(getVertexCount());
+        for (int i = 0; i < vertices.length; i += 2) {
+            footprint.add(new Vec(vertices[i], minY, vertices[i + 1]));
+        }
+        return Collections.unmodifiableList(footprint);
+    }
+
+    /**
+     * Get the bottom of the prism.
+     * @return The min y relative to the position of a trigger.
+     */
+    public double getMinY() {
+        return minY;
+    }
+
+    /**
+     * Get the top of the prism.
+     * @return The max y relative to the position of a trigger.
+     */
+    public double getMaxY() {
+        return maxY;
+    }
+
+    @Override
+    public Type getType() {
+        return Type.PRISM;
+    }
+
+    /**
+     * Get the corners of the prism, the footprint at the min y followed by the footprint at the max y.
+     * @return The corners relative to the position of a trigger.
+     */
+    @Override
+    public List<Vec> getAnchors() {
+        final List<Vec> anchors = new ArrayList<>(vertices.length);
+        for (double y : new double[]{minY, maxY}) {
+            for (int i = 0; i < vertices.length; i += 2) {
+                anchors.add(new Vec(vertices[i], y, vertices[i + 1]));
+            }
+        }
+        return Collections.unmodifiableList(anchors);
+    }
+
+    /**
+     * Get the triangles of the walls of the prism, the top and bottom are left open.
+     * @return A read-only list of the triangles.
+     */
+    @Override
+    public List<Trigger.Triangle> getTriangles() {
+        // The normals point outwards for counterclockwise polygons when looking down, flip clockwise ones
+        double area = 0;
+        for (int i = 0; i < edges.length; i += EDGE_STRIDE) {
+            area += edges[i] * edges[i + 3] - edges[i + 2] * edges[i + 1];
+        }
+        final boolean flip = area > 0;
+
+        final double[] mesh = new double[getTriangleCount() * TRIANGLE_STRIDE];
+        int offset = 0;
+        for (int i = 0; i < edges.length; i += EDGE_STRIDE) {
+            double ax = edges[i], az = edges[i + 1], bx = edges[i + 2], bz = edges[i + 3];
+            if (flip) {
+                ax = edges[i + 2];
+                az = edges[i + 3];
+                bx = edges[i];
+                bz = edges[i + 1];
+            }
+            putTriangle(mesh, offset, ax, minY, az, bx, minY, bz, bx, maxY, bz);
+            putTriangle(mesh, offset + TRIANGLE_STRIDE, ax, minY, az, bx, maxY, bz, ax, maxY, az);
+            offset += 2 * TRIANGLE_STRIDE;
+        }
+        return new TriangleView(mesh);
+    }
+
+    @Override
+    public int getTriangleCount() {
+        return 2 * getVertexCount();
+    }
+
+    @Override
+    boolean overlaps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Trigger.ContainmentMode mode) {
+        // The y range is already covered by the bounds check, the rest is done in local 2D coordinates
+        final double x0 = minX - position.x(), z0 = minZ - position.z();
+        final double x1 = maxX - position.x(), z1 = maxZ - position.z();
+        return containsPoint((x0 + x1) * 0.5, (z0 + z1) * 0.5) || edgeCrosses(x0, z0, x1, z1);
+    }
+
+    /**
+     * Internal part of the collision check for a set of points, tests the box around the points.
+     * That is exact for the corners of a hitbox, which is what {@link Trigger#contains(List)} gets.
+     */
+    @Override
+    boolean overlaps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, List<Vec> points, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Trigger.ContainmentMode mode) {
+        return overlaps(worldFaceAxes, worldEdgeAxes, position, minX, minY, minZ, maxX, maxY, maxZ, mode);
+    }
+
+    /**
+     * Internal part of the swept collision check.
+     * Only the part of the movement in which the box overlaps the y range counts. On the x/z plane the box covers a convex hexagon while moving,
+     * which touches the polygon if its start is inside the polygon or if any polygon edge crosses it.
+     */
+    @Override
+    boolean sweeps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, double cx, double cy, double cz, double hx, double hy, double hz, double dx, double dy, double dz, Trigger.ContainmentMode mode) {
+        final double bottom = position.y() + minY, top = position.y() + maxY;
+        final double from = Math.max(0, sweepStart(bottom - hy, top + hy, cy, dy));
+        final double to = Math.min(1, sweepEnd(bottom - hy, top + hy, cy, dy));
+        if (from > to) return false;
+        final double x = cx + from * dx - position.x(), z = cz + from * dz - position.z();
+        final double mx = (to - from) * dx, mz = (to - from) * dz;
+        return containsPoint(x, z) || edgeCrossesSwept(x, z, hx, hz, mx, mz);
+    }
+
+    /**
+     * Internal method for checking if any edge touches a moving rectangle.
+     * Separating axis test of the edge against the hexagon the rectangle covers: the x and z axes, the normal of the movement and the normal of the edge.
+     * @param x The local center x of the rectangle at the start.
+     * @param z The local center z of the rectangle at the start.
+     * @param hx Half the size of the rectangle along x.
+     * @param hz Half the size of the rectangle along z.
+     * @param mx Movement along x.
+     * @param mz Movement along z.
+     * @return true if any edge touches the rectangle anywhere along the movement.
+     */
+    private boolean edgeCrossesSwept(double x, double z, double hx, double hz, double mx, double mz) {
+        final double minX = x - hx + Math.min(0, mx), maxX = x + hx + Math.max(0, mx);
+        final double minZ = z - hz + Math.min(0, mz), maxZ = z + hz + Math.max(0, mz);
+        // Along the normal of the movement the hexagon is as wide as the rectangle
+        final double moveCenter = mx * z - mz * x;
+        final double moveRadius = hx * Math.abs(mz) + hz * Math.abs(mx);
+        final int lastRow = row(maxZ);
+        for (int row = row(minZ); row <= lastRow; row++) {
+            for (int i = rowStart[row]; i < rowStart[row + 1]; i++) {
+                final int o = rowEdges[i] * EDGE_STRIDE;
+                final double ax = edges[o], az = edges[o + 1], bx = edges[o + 2], bz = edges[o + 3];
+                if (Math.max(ax, bx) < minX || Math.min(ax, bx) > maxX || Math.max(az, bz) < minZ || Math.min(az, bz) > maxZ) {
+                    continue;
+                }
+                final double a = mx * az - mz * ax, b = mx * bz - mz * bx;
+                if (Math.max(a, b) < moveCenter - moveRadius || Math.min(a, b) > moveCenter + moveRadius) {
+                    continue;
+                }
+                // Along the normal of the edge the edge is a single value, the hexagon is the rectangle stretched by the movement
+                final double ex = bx - ax, ez = bz - az;
+                final double edge = ex * az - ez * ax;
+                final double center = ex * z - ez * x;
+                final double speed = ex * mz - ez * mx;
+                final double radius = hx * Math.abs(ez) + hz * Math.abs(ex);
+                if (edge >= center + Math.min(0, speed) - radius && edge <= center + Math.max(0, speed) + radius) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Internal method for the even-odd crossing test: count the edges a ray from the point towards +x crosses.
+     * Only the edges of the row of the point can cross it, the half-open z check makes sure a vertex on the ray is only counted once.
+     * @param x The local x of the point.
+     * @param z The local z of the point.
+     * @return true if the point is inside the polygon.
+     */
+    private boolean containsPoint(double x, double z) {
+        final int row = row(z);
+        boolean inside = false;
+        for (int i = rowStart[row]; i < rowStart[row + 1]; i++) {
+            final int o = rowEdges[i] * EDGE_STRIDE;
+            final double ax = edges[o], az = edges[o + 1], bx = edges[o + 2], bz = edges[o + 3];
+            if ((az > z) != (bz > z) && x < ax + (z - az) / (bz - az) * (bx - ax)) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Internal method for checking if any edge touches a rectangle.
+     * An edge touches the rectangle if their bounds overlap and the corners of the rectangle are not all on the same side of the edge.
+     * Edges that span several rows may be tested more than once, which doesn't change the result.
+     * @return true if any edge touches the rectangle.
+     */
+    private boolean edgeCrosses(double minX, double minZ, double maxX, double maxZ) {
+        final int lastRow = row(maxZ);
+        for (int row = row(minZ); row <= lastRow; row++) {
+            for (int i = rowStart[row]; i < rowStart[row + 1]; i++) {
+                final int o = rowEdges[i] * EDGE_STRIDE;
+                final double ax = edges[o], az = edges[o + 1], bx = edges[o + 2], bz = edges[o + 3];
+                if (Math.max(ax, bx) < minX || Math.min(ax, bx) > maxX || Math.max(az, bz) < minZ || Math.min(az, bz) > maxZ) {
+                    continue;
+                }
+                final double dx = bx - ax, dz = bz - az;
+                final double s0 = dx * (minZ - az) - dz * (minX - ax);
+                final double s1 = dx * (minZ - az) - dz * (maxX - ax);
+                final double s2 = dx * (maxZ - az) - dz * (minX - ax);
+                final double s3 = dx * (maxZ - az) - dz * (maxX - ax);
+                if (Math.min(Math.min(s0, s1), Math.min(s2, s3)) <= 0 && Math.max(Math.max(s0, s1), Math.max(s2, s3)) >= 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Internal method for getting the parameters: the min y, the max y and the x, z of every vertex.
+     * @return The parameters.
+     */
+    @Override
+    double[] parameters() {
+        final double[] parameters = new double[2 + vertices.length];
+        parameters[0] = minY;
+        parameters[1] = maxY;
+        System.arraycopy(vertices, 0, parameters, 2, vertices.length);
+        return parameters;
+    }
+}
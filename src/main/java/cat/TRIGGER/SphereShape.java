@@ -0,0 +1,149 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Vec;
+
+import java.util.List;
+
+/**
+ * A sphere {@link TriggerShape}, create one with {@link TriggerShape#sphere(Vec, double)}.
+ * A box touches the sphere if the point of the box closest to the center is within the radius, which is exact and only takes a few comparisons.
+ * The debug render is an approximation made of 16 segments and 8 rings.
+ */
+public final class SphereShape extends TriggerShape {
+
+    private static final double[] NO_AXES = new double[0];
+    private static final int SEGMENTS = 16;
+    private static final int RINGS = 8;
+
+    private final Vec center;
+    private final double radius;
+
+    SphereShape(Vec center, double radius) {
+        super(NO_AXES, NO_AXES, center.sub(radius, radius, radius), center.add(radius, radius, radius), 0);
+        if (!(radius > 0)) {
+            throw new IllegalArgumentException("Radius must be positive");
+        }
+        this.center = center;
+        this.radius = radius;
+    }
+
+    /**
+     * Get the center of the sphere.
+     * @return The center relative to the position of a trigger.
+     */
+    public Vec getCenter() {
+        return center;
+    }
+
+    /**
+     * Get the distance from the position of a trigger to the furthest point of the sphere.
+     * @return The distance from the position to the center plus the radius.
+     */
+    @Override
+    public double getRadius() {
+        return center.length() + radius;
+    }
+
+    /**
+     * Get the radius of the sphere itself.
+     * @return The radius.
+     */
+    public double getSphereRadius() {
+        return radius;
+    }
+
+    @Override
+    public Type getType() {
+        return Type.SPHERE;
+    }
+
+    /**
+     * A sphere has no anchors.
+     * @return An empty list.
+     */
+    @Override
+    public List<Vec> getAnchors() {
+        return List.of();
+    }
+
+    @Override
+    public List<Trigger.Triangle> getTriangles() {
+        final Vec[][] rings = new Vec[RINGS + 1][SEGMENTS];
+        for (int ring = 0; ring <= RINGS; ring++) {
+            final double polar = Math.PI * ring / RINGS;
+            for (int segment = 0; segment < SEGMENTS; segment++) {
+                final double azimuth = 2 * Math.PI * segment / SEGMENTS;
+                rings[ring][segment] = center.add(
+                        radius * Math.sin(polar) * Math.cos(azimuth),
+                        radius * Math.cos(polar),
+                        radius * Math.sin(polar) * Math.sin(azimuth));
+            }
+        }
+
+        final double[] mesh = new double[getTriangleCount() * TRIANGLE_STRIDE];
+        int offset = 0;
+        for (int ring = 0; ring < RINGS; ring++) {
+            for (int segment = 0; segment < SEGMENTS; segment++) {
+                final int next = (segment + 1) % SEGMENTS;
+                final Vec a = rings[ring][segment], b = rings[ring][next];
+                final Vec c = rings[ring + 1][segment], d = rings[ring + 1][next];
+                // The first and last ring collapse into the poles, so they only have one triangle per segment
+                if (ring != 0) {
+                    putOutwardTriangle(mesh, offset, a, b, c, center);
+                    offset += TRIANGLE_STRIDE;
+                }
+                if (ring != RINGS - 1) {
+                    putOutwardTriangle(mesh, offset, b, d, c, center);
+                    offset += TRIANGLE_STRIDE;
+                }
+            }
+        }
+        return new TriangleView(mesh);
+    }
+
+    @Override
+    public int getTriangleCount() {
+        return SEGMENTS * (2 * RINGS - 2);
+    }
+
+    @Override
+    boolean overlaps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Trigger.ContainmentMode mode) {
+        final double cx = position.x() + center.x(), cy = position.y() + center.y(), cz = position.z() + center.z();
+        final double dx = cx - Math.max(minX, Math.min(cx, maxX));
+        final double dy = cy - Math.max(minY, Math.min(cy, maxY));
+        final double dz = cz - Math.max(minZ, Math.min(cz, maxZ));
+        return dx * dx + dy * dy + dz * dz <= radius * radius;
+    }
+
+    /**
+     * Internal part of the collision check for a set of points, tests the box around the points.
+     * That is exact for the corners of a hitbox, which is what {@link Trigger#contains(List)} gets.
+     */
+    @Override
+    boolean overlaps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, List<Vec> points, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Trigger.ContainmentMode mode) {
+        return overlaps(worldFaceAxes, worldEdgeAxes, position, minX, minY, minZ, maxX, maxY, maxZ, mode);
+    }
+
+    /**
+     * Internal part of the swept collision check, the box touches the sphere if it comes within the radius of the center at its closest moment.
+     */
+    @Override
+    boolean sweeps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, double cx, double cy, double cz, double hx, double hy, double hz, double dx, double dy, double dz, Trigger.ContainmentMode mode) {
+        return sweepDistanceSquared(position.x() + center.x(), position.y() + center.y(), position.z() + center.z(), cx, cy, cz, hx, hy, hz, dx, dy, dz, 0, 1) <= radius * radius;
+    }
+
+    @Override
+    double[] parameters() {
+        return new double[]{center.x(), center.y(), center.z(), radius};
+    }
+}
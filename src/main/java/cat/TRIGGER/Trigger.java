@@ -10,7 +10,6 @@
 
 package cat.TRIGGER;
 
-import cat.TRIGGER.quickhull3d.Point3d;
 import cat.TRIGGER.quickhull3d.QuickHull3D;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.util.RGBLike;
@@ -18,8 +17,10 @@ import net.minestom.server.collision.BoundingBox;
 import net.minestom.server.coordinate.Point;
 import net.minestom.server.coordinate.Pos;
 import net.minestom.server.coordinate.Vec;
+import net.minestom.server.entity.EntityType;
 import net.minestom.server.entity.Player;
 import net.minestom.server.event.player.PlayerMoveEvent;
+import net.minestom.server.instance.Instance;
 import net.minestom.server.network.packet.server.play.ParticlePacket;
 import net.minestom.server.particle.Particle;
 import org.slf4j.Logger;
@@ -27,7 +28,12 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
@@ -37,6 +43,8 @@ import java.util.function.Consumer;
  * Simply put, the shape of a trigger is constructed by "shrink wrapping" all anchors, which is done by the {@link QuickHull3D} algorithm.
  * The resulting triangles make up the shape and are used for the collision detection and debug rendering.
  * Collision detection is based on the Separating Axis Theorem (SAT).
+ * Simple zones can use a {@link TriggerShape#box(Vec, Vec) box}, {@link TriggerShape#sphere(Vec, double) sphere}, {@link TriggerShape#cylinder(Vec, double, double) cylinder}
+ * or {@link TriggerShape#orientedBox(Vec, Vec, double) rotated box} instead, which skip the hull and are checked with a closed form test.
  * 2D shapes (where all anchors are coplanar, meaning they lie on the same plane) are slightly extruded to create a more functional trigger.
  * Should be used with {@link TriggerManager} and not by itself.
  * <p>
@@ -46,16 +54,26 @@ public class Trigger {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Trigger.class);
     private final UUID uuid;
-    private final List<Vec> anchors;
-    private Vec position;
     private double checkRadius = 0;
 
     private Consumer<TriggeredCallback> triggeredCallback;
 
     private final Component name;
     private RGBLike color; // Debug render color
-    private List<Triangle> triangles;
-    private double lastComputationTime = 0.0;
+
+    // The current shape moved to the current position. Always replaced as a whole, so a reader never sees the old hull with the new bounds or the other way around
+    private volatile Placement placement;
+    // Bumped by every recomputation, an async result that got overtaken by a newer recomputation is dropped
+    private final AtomicInteger shapeVersion = new AtomicInteger();
+
+    // The managers this trigger is registered in, notified when the bounds change, managers may add and remove it from any thread
+    private final List<TriggerManager> managers = new CopyOnWriteArrayList<>();
+    // The instance this trigger is in, null for every instance
+    private volatile Instance instance;
+    // The types of non-player entities this trigger fires for, players always do
+    private volatile Set<EntityType> entityTypes = Set.of();
+
+    private ContainmentMode containmentMode = ContainmentMode.PLANES;
 
     /**
      *
@@ -67,80 +85,139 @@ public class Trigger {
      * @param triggeredCallback The {@link Consumer<TriggeredCallback>} that gets called when a trigger is triggered.
      */
     public Trigger(List<Vec> anchors, Vec position, UUID uuid, Component name, RGBLike color, Consumer<TriggeredCallback> triggeredCallback) {
-        this.anchors = anchors;
-        this.position = position;
+        this(TriggerGlobals.SHAPE_CACHE.get(anchors), position, uuid, name, color, triggeredCallback);
+    }
+
+    /**
+     * Constructor for a trigger whose hull has already been computed, e.g. a {@link TriggerShape#of(List) template} shared with other triggers or one computed on another thread.
+     * @param shape The computed shape.
+     * @param position The origin of the anchors, used to place the trigger in the world.
+     * @param uuid The UUID used to identify the shape.
+     * @param name The {@link Component} that holds the display name of the trigger.
+     * @param color The {@link RGBLike} used for debug rendering.
+     * @param triggeredCallback The {@link Consumer<TriggeredCallback>} that gets called when a trigger is triggered.
+     */
+    public Trigger(TriggerShape shape, Vec position, UUID uuid, Component name, RGBLike color, Consumer<TriggeredCallback> triggeredCallback) {
         this.uuid = uuid;
         this.name = name;
         this.color = color;
         this.triggeredCallback = triggeredCallback;
-        compute();
+        this.placement = Placement.of(shape, position);
+        this.checkRadius = 1.5 * shape.getRadius();
     }
 
     /**
-     *  Internal method for the initial computation of the hull/shape.
-     *  Call {@link Trigger#recompute()} to recompute the hull.
+     * A shape placed at a position, with everything the containment check needs already moved to world space.
+     * @param shape The shape.
+     * @param position The position of the shape.
+     * @param boundsMin The minimum corner of the world space bounds.
+     * @param boundsMax The maximum corner of the world space bounds.
+     * @param faceAxes The face axes of the shape with world space intervals.
+     * @param edgeAxes The edge axes of the shape with world space intervals.
      */
-    private void compute() {
-        long startTime = System.nanoTime();
-        if (anchors.size() < 4) {
-            throw new IllegalArgumentException("Insufficient anchors to compute");
+    private record Placement(TriggerShape shape, Vec position, Vec boundsMin, Vec boundsMax, double[] faceAxes, double[] edgeAxes) {
+        static Placement of(TriggerShape shape, Vec position) {
+            return new Placement(shape, position,
+                    shape.getBoundsMin().add(position), shape.getBoundsMax().add(position),
+                    TriggerShape.translateIntervals(shape.faceAxes(), position),
+                    TriggerShape.translateIntervals(shape.edgeAxes(), position));
         }
-        Point3d[] points = anchors.stream()
-                .map(v -> new Point3d(v.x(), v.y(), v.z()))
-                .toArray(Point3d[]::new);
-
-        QuickHull3D hull = new QuickHull3D();
-        hull.build(points);
-
-        Point3d[] vertices = hull.getVertices();
-        int[][] faceIndices = hull.getFaces();
-
-        List<Triangle> tris = new ArrayList<>();
-        for (int[] face : faceIndices) {
-            if (face.length < 3) continue;
-
-            Vec a = toVec(vertices[face[0]]);
-            for (int i = 1; i < face.length - 1; i++) {
-                Vec b = toVec(vertices[face[i]]);
-                Vec c = toVec(vertices[face[i + 1]]);
-                Vec normal = computeNormal(a, b, c);
-                tris.add(new Triangle(a, b, c, normal));
-            }
+    }
+
+    /**
+     * Compute the hull again on the calling thread. Don't call too often. Primitive shapes have nothing to compute.
+     */
+    public void recompute() {
+        shapeVersion.incrementAndGet();
+        applyShape(placement.shape().recompute());
+    }
+
+    /**
+     * Compute the hull again without blocking the calling thread, see {@link Trigger#recomputeAsync(List)}.
+     * @return A future that completes with this trigger once the new hull is in use, already completed for primitive shapes.
+     */
+    public CompletableFuture<Trigger> recomputeAsync() {
+        if (placement.shape().getType() != TriggerShape.Type.HULL) {
+            return CompletableFuture.completedFuture(this);
         }
-        this.triangles = tris;
-        this.checkRadius = 1.5 * computeBoundingRadius(anchors, position);
+        return recomputeAsync(getAnchors());
+    }
 
-        long endTime = System.nanoTime();
-        long durationInNs = endTime - startTime;
-        this.lastComputationTime = durationInNs / 1000000.0;
+    /**
+     * Replace the anchors and compute the new hull without blocking the calling thread.
+     * The hull is built on {@link TriggerGlobals#HULL_EXECUTOR}, the old hull stays in use until the new one is swapped in on the next tick.
+     * If another recomputation is started in the meantime, the older result is dropped.
+     * Coplanar anchors are extruded like in {@link TriggerManager#create(List, Vec, UUID, Component, RGBLike, Consumer)}.
+     * @param anchors The new anchors.
+     * @return A future that completes with this trigger once the new hull is in use, or exceptionally if the hull could not be computed.
+     */
+    public CompletableFuture<Trigger> recomputeAsync(List<Vec> anchors) {
+        final List<Vec> snapshot = List.copyOf(anchors);
+        final int version = shapeVersion.incrementAndGet();
+        try {
+            return CompletableFuture.supplyAsync(() -> TriggerShape.of(snapshot), TriggerGlobals.HULL_EXECUTOR)
+                    .thenApplyAsync(shape -> {
+                        if (shapeVersion.get() == version) applyShape(shape);
+                        return this;
+                    }, TriggerGlobals.NEXT_TICK);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
     }
 
     /**
-     * {@link Trigger#compute() Compute} the hull again. Don't call too often.
+     * Internal method for swapping in a new shape and letting the managers know.
+     * @param shape The new shape.
      */
-    public void recompute() {
-        compute();
+    private void applyShape(TriggerShape shape) {
+        final Placement current = placement;
+        placement = Placement.of(shape, current.position());
+        checkRadius = 1.5 * shape.getRadius();
+        notifyManagers(shape.getTriangleCount() - current.shape().getTriangleCount());
+    }
+
+    /**
+     * Internal method for letting all managers that hold this trigger know that its bounds have changed.
+     * @param triangleDelta By how much the triangle count changed.
+     */
+    private void notifyManagers(int triangleDelta) {
+        for (TriggerManager manager : managers) {
+            manager.update(this, triangleDelta);
+        }
     }
 
     /**
-     * Internal method for calculating the distance between {@link Trigger#position} and the furthest {@link Trigger#anchors anchor}.
-     * The {@link Trigger#checkRadius radius} used to check if you're near a trigger or not in order to skip more expensive calculations.
-     * @param anchors The list of anchors to search through.
-     * @param position The position to calculate distance to the furthest anchor from.
-     * @return The distance from the position to the furthest anchor.
+     * Check if the world space bounds of this trigger overlap a box. Used for cheaply skipping triggers that are nowhere near.
+     * @param minX Minimum x of the box.
+     * @param minY Minimum y of the box.
+     * @param minZ Minimum z of the box.
+     * @param maxX Maximum x of the box.
+     * @param maxY Maximum y of the box.
+     * @param maxZ Maximum z of the box.
+     * @return true if the bounds overlap the box, false if not.
      */
-    private double computeBoundingRadius(List<Vec> anchors, Vec position) {
-        return anchors.stream().mapToDouble(anchor -> anchor.distance(position)).max().orElse(0);
+    public boolean boundsOverlap(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        return boundsOverlap(placement, minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    private static boolean boundsOverlap(Placement placement, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        final Vec min = placement.boundsMin();
+        final Vec max = placement.boundsMax();
+        return min.x() <= maxX && max.x() >= minX
+                && min.y() <= maxY && max.y() >= minY
+                && min.z() <= maxZ && max.z() >= minZ;
     }
 
     /**
-     * Iterate through all {@link Trigger#triangles} of the hull and draw them.
+     * Iterate through all triangles of the hull and draw them.
      * <p>
      * This can cause a LOT of LAG.
      * @param player The player to render the hull for.
      */
     public void render(Player player) {
-        for (Triangle tri : triangles) {
+        final Placement placement = this.placement;
+        final Vec position = placement.position();
+        for (Triangle tri : placement.shape().getTriangles()) {
             drawLine(player, tri.a().add(position), tri.b().add(position), color);
             drawLine(player, tri.b().add(position), tri.c().add(position), color);
             drawLine(player, tri.c().add(position), tri.a().add(position), color);
@@ -149,79 +226,74 @@ public class Trigger {
 
     /**
      * Internal part of the collision check.
+     * Tests the world axes first, then lets the shape do the rest: hulls test their unique face normals and, in {@link ContainmentMode#EXACT_SAT}, the edge axes.
+     * Does not allocate.
      * @param points The points to check containment for.
      * @return Result of the containment check.
      */
     protected boolean contains(List<Vec> points) {
-        List<Vec> axes = new ArrayList<>();
-        for (Triangle tri : triangles) {
-            axes.add(tri.normal());
+        final int count = points.size();
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            Vec p = points.get(i);
+            minX = Math.min(minX, p.x());
+            minY = Math.min(minY, p.y());
+            minZ = Math.min(minZ, p.z());
+            maxX = Math.max(maxX, p.x());
+            maxY = Math.max(maxY, p.y());
+            maxZ = Math.max(maxZ, p.z());
         }
-        axes.add(new Vec(1, 0, 0));
-        axes.add(new Vec(0, 1, 0));
-        axes.add(new Vec(0, 0, 1));
-
-        for (Vec axis : axes) {
-            double[] hullProj = projectOntoAxis(axis, anchors.stream()
-                    .map(p -> p.add(position))
-                    .toList());
-            double[] boxProj = projectOntoAxis(axis, points);
-            if (!overlaps(hullProj, boxProj)) {
-                return false;
-            }
+        final Placement placement = this.placement;
+        if (!boundsOverlap(placement, minX, minY, minZ, maxX, maxY, maxZ)) {
+            return false;
         }
-        return true;
+        return placement.shape().overlaps(placement.faceAxes(), placement.edgeAxes(), placement.position(), points, minX, minY, minZ, maxX, maxY, maxZ, containmentMode);
     }
 
     /**
-     * I don't remember what this does. Open a pull request to correct this if you know.
-     * @param a double array.
-     * @param b double array.
-     * @return something about the two arrays.
-     */
-    private boolean overlaps(double[] a, double[] b) {
-        return a[0] <= b[1] && b[0] <= a[1];
-    }
-
-    /**
-     * Convert minestom's {@link Vec} to {@link QuickHull3D}'s {@link Point3d}.
-     * @param p The {@link Point3d} to convert.
-     * @return The converted {@link Vec}.
-     */
-    private static Vec toVec(Point3d p) {
-        return new Vec(p.x, p.y, p.z);
-    }
-
-    /**
-     * Internally used to compute the normal of a {@link Triangle}.
-     * @param a First corner of the {@link Triangle}.
-     * @param b Second corner of the {@link Triangle}.
-     * @param c Third corner of the {@link Triangle}.
-     * @return The normal {@link Vec vector} of the {@link Triangle}.
+     * Check if an axis-aligned box, usually a player hitbox, overlaps the shape.
+     * The allocation-free counterpart of {@link Trigger#contains(List)} with {@link Trigger#getHitboxPoints(Pos, Player)}.
+     * @param minX Minimum x of the box.
+     * @param minY Minimum y of the box.
+     * @param minZ Minimum z of the box.
+     * @param maxX Maximum x of the box.
+     * @param maxY Maximum y of the box.
+     * @param maxZ Maximum z of the box.
+     * @return Result of the containment check.
      */
-    private static Vec computeNormal(Vec a, Vec b, Vec c) {
-        Vec ab = b.sub(a);
-        Vec ac = c.sub(a);
-        return ab.cross(ac).normalize();
+    public boolean contains(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        final Placement placement = this.placement;
+        if (!boundsOverlap(placement, minX, minY, minZ, maxX, maxY, maxZ)) {
+            return false;
+        }
+        return placement.shape().overlaps(placement.faceAxes(), placement.edgeAxes(), placement.position(), minX, minY, minZ, maxX, maxY, maxZ, containmentMode);
     }
 
     /**
-     * Internally used to project a {@link List} of points onto an axis.
-     * @param axis The axis {@link Vec} to project the points onto.
-     * @param points The points to project onto the axis.
-     * @return The projected points.
+     * Check if an axis-aligned box, usually a player hitbox, touches the shape anywhere along a straight movement.
+     * Catches fast movements that skip over thin triggers, which {@link Trigger#contains(double, double, double, double, double, double)} at the start and end would miss.
+     * The path of the center is first checked against the bounds grown by the box, the exact check against the shape only runs if that hits.
+     * @param minX Minimum x of the box at the start.
+     * @param minY Minimum y of the box at the start.
+     * @param minZ Minimum z of the box at the start.
+     * @param maxX Maximum x of the box at the start.
+     * @param maxY Maximum y of the box at the start.
+     * @param maxZ Maximum z of the box at the start.
+     * @param dx Movement along x.
+     * @param dy Movement along y.
+     * @param dz Movement along z.
+     * @return Result of the swept containment check.
      */
-    private double[] projectOntoAxis(Vec axis, List<Vec> points) {
-        double min = Double.POSITIVE_INFINITY;
-        double max = Double.NEGATIVE_INFINITY;
-
-        for (Vec p : points) {
-            double proj = p.dot(axis);
-            if (proj < min) min = proj;
-            if (proj > max) max = proj;
+    public boolean containsSwept(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, double dx, double dy, double dz) {
+        final Placement placement = this.placement;
+        final double hx = (maxX - minX) * 0.5, hy = (maxY - minY) * 0.5, hz = (maxZ - minZ) * 0.5;
+        final double cx = minX + hx, cy = minY + hy, cz = minZ + hz;
+        final Vec min = placement.boundsMin(), max = placement.boundsMax();
+        if (!TriggerShape.sweepOverlapsBox(min.x(), min.y(), min.z(), max.x(), max.y(), max.z(), cx, cy, cz, hx, hy, hz, dx, dy, dz)) {
+            return false;
         }
-
-        return new double[]{min, max};
+        return placement.shape().sweeps(placement.faceAxes(), placement.edgeAxes(), placement.position(), cx, cy, cz, hx, hy, hz, dx, dy, dz, containmentMode);
     }
 
     /**
@@ -258,6 +330,7 @@ public class Trigger {
 
     /**
      * Calculates the corners of a players hitbox.
+     * Convenience wrapper for use with {@link Trigger#contains(List)}, the {@link TriggerManager} passes the hitbox bounds to {@link Trigger#contains(double, double, double, double, double, double)} instead.
      * @param basePos The position of the player.
      * @param player The player.
      * @return A list of the hitbox corners.
@@ -289,7 +362,7 @@ public class Trigger {
     private static final double EPSILON = 1e-6;
 
     /**
-     * Checks a list of points for any that might be too close together. Used for validating {@link Trigger#anchors}.
+     * Checks a list of points for any that might be too close together. Used for validating {@link Trigger#getAnchors() anchors}.
      * @param points The points to validate.
      * @return true if all points are sufficiently spaced, false if they are too close.
      */
@@ -398,6 +471,32 @@ public class Trigger {
         return rank <= 3;
     }
 
+    /**
+     * Slightly extrude 2D shapes into 3D.
+     * Since 2D shapes projected onto 3D directly would be infinitely thin, extruding them slightly allows for good collision detection.
+     * @param anchors The anchors to extrude.
+     * @return Both sides of the extruded anchors if they are coplanar, otherwise the anchors themselves.
+     */
+    static List<Vec> extrudeCoplanar(List<Vec> anchors) {
+        if (!arePointsCoplanar(anchors)) {
+            return anchors;
+        }
+        double thickness = 0.1;
+        List<Vec> extrudedPoints = new ArrayList<>();
+        Vec origin = anchors.get(0);
+
+        // Calculate normal of the plane
+        Vec edge1 = anchors.get(1).sub(origin);
+        Vec edge2 = anchors.get(2).sub(origin);
+        Vec normal = edge1.cross(edge2).normalize();
+
+        for (Vec point : anchors) {
+            extrudedPoints.add(point.add(normal.mul(thickness / 2)));
+            extrudedPoints.add(point.sub(normal.mul(thickness / 2)));
+        }
+        return List.copyOf(extrudedPoints);
+    }
+
     /**
      * A representation of a simple triangle and its normal used for calculations in 3D space.
      * @param a The first {@link Point} of the triangle.
@@ -412,11 +511,25 @@ public class Trigger {
     }
 
     /**
-     * Get how long the last {@link Trigger#compute()} or {@link Trigger#recompute()} call took in milliseconds.
-     * @return How long the last {@link Trigger#compute()} or {@link Trigger#recompute()} call took in milliseconds, returns zero if there was no last call.
+     * How the player hitbox is tested against the hull.
+     */
+    public enum ContainmentMode {
+        /**
+         * Test the world axes and the face planes of the hull. Fast and exact except for some edge-on-edge cases near the corners of the hull.
+         */
+        PLANES,
+        /**
+         * Additionally test the cross products of the hull edges with the hitbox axes, which is the complete separating axis test.
+         */
+        EXACT_SAT
+    }
+
+    /**
+     * Get how long computing the current hull took in milliseconds.
+     * @return How long computing the current hull took in milliseconds, measured on whichever thread computed it.
      */
     public double getLastComputationTime() {
-        return lastComputationTime;
+        return placement.shape().getComputationTime();
     }
 
     /**
@@ -424,7 +537,7 @@ public class Trigger {
      * @return The base position of the hull.
      */
     public Vec getPosition() {
-        return position;
+        return placement.position();
     }
 
     /**
@@ -433,7 +546,84 @@ public class Trigger {
      * @param newPos The new hull position.
      */
     public void setPosition(Pos newPos) {
-        position = newPos.asVec();
+        placement = Placement.of(placement.shape(), newPos.asVec());
+        notifyManagers(0);
+    }
+
+    /**
+     * Get the minimum corner of the world space axis-aligned bounds of the hull.
+     * @return The minimum corner of the world space bounds.
+     */
+    public Vec getBoundsMin() {
+        return placement.boundsMin();
+    }
+
+    /**
+     * Get the maximum corner of the world space axis-aligned bounds of the hull.
+     * @return The maximum corner of the world space bounds.
+     */
+    public Vec getBoundsMax() {
+        return placement.boundsMax();
+    }
+
+    /**
+     * Get the instance this trigger is in.
+     * @return The {@link Instance}, or null if the trigger is in every instance.
+     */
+    public Instance getInstance() {
+        return instance;
+    }
+
+    /**
+     * Put this trigger into an instance, it then only fires for players in that instance.
+     * Triggers without an instance fire for players in every instance, which is the default.
+     * Players that are inside of this trigger get an EXITED on their next movement if they are not in the new instance.
+     * @param instance The new {@link Instance}, or null for every instance.
+     */
+    public void setInstance(Instance instance) {
+        final Instance previous = this.instance;
+        if (previous == instance) return;
+        this.instance = instance;
+        for (TriggerManager manager : managers) {
+            manager.changeInstance(this);
+        }
+    }
+
+    /**
+     * Get the types of entities other than players this trigger fires for.
+     * @return A read-only set of the entity types, empty if only players trigger it.
+     */
+    public Set<EntityType> getEntityTypes() {
+        return entityTypes;
+    }
+
+    /**
+     * Let entities other than players trigger this trigger, for example mobs for a pressure zone or items and projectiles for a kill volume.
+     * Players always trigger it. Entities are not tracked through events but checked once per tick by the {@link TriggerManager},
+     * and only triggers with entity types are checked for them, so triggers without any cost nothing.
+     * @param entityTypes The entity types, empty for players only which is the default.
+     */
+    public void setEntityTypes(Set<EntityType> entityTypes) {
+        this.entityTypes = Set.copyOf(entityTypes);
+        for (TriggerManager manager : managers) {
+            manager.changeEntityTypes(this);
+        }
+    }
+
+    /**
+     * Let entities other than players trigger this trigger, see {@link Trigger#setEntityTypes(Set)}.
+     * @param entityTypes The entity types.
+     */
+    public void setEntityTypes(EntityType... entityTypes) {
+        setEntityTypes(Set.of(entityTypes));
+    }
+
+    /**
+     * Internal list of the managers this trigger is registered in.
+     * @return The mutable list of managers.
+     */
+    List<TriggerManager> getManagers() {
+        return managers;
     }
 
     /**
@@ -446,18 +636,21 @@ public class Trigger {
 
     /**
      * Get all computed triangles of the hull.
+     * The triangles are stored packed, this is a read-only view that creates a new {@link Triangle} on every access.
      * @return The {@link List} of {@link Triangle Triangles} of the hull.
      */
     public List<Triangle> getTriangles() {
-        return triangles;
+        return placement.shape().getTriangles();
     }
 
     /**
-     * Replace the current hull triangles.
+     * Replace the current hull triangles. Only affects rendering, the collision geometry stays the same.
      * @param triangles The new hull triangles.
+     * @throws UnsupportedOperationException If the trigger uses a primitive shape.
      */
     public void setTriangles(List<Triangle> triangles) {
-        this.triangles = triangles;
+        final Placement current = placement;
+        placement = Placement.of(current.shape().withTriangles(triangles), current.position());
     }
 
     /**
@@ -477,7 +670,7 @@ public class Trigger {
     }
 
     /**
-     * Serialize this triggers' {@link Trigger#anchors}, {@link Trigger#name} and {@link Trigger#position} to a JSON object that can be deserialized using {@link Trigger#fromJSON(String)}.
+     * Serialize this triggers' {@link Trigger#getAnchors() anchors}, {@link Trigger#name} and {@link Trigger#getPosition() position} to a JSON object that can be deserialized using {@link Trigger#fromJSON(String)}.
      * @return The serialized JSON String that contains the important data of this trigger.
      */
     public String toJSON() {
@@ -519,6 +712,22 @@ public class Trigger {
         return checkRadius;
     }
 
+    /**
+     * Get how the hitbox is tested against the hull.
+     * @return The {@link ContainmentMode} of this trigger.
+     */
+    public ContainmentMode getContainmentMode() {
+        return containmentMode;
+    }
+
+    /**
+     * Set how the hitbox is tested against the hull.
+     * @param containmentMode The new {@link ContainmentMode}.
+     */
+    public void setContainmentMode(ContainmentMode containmentMode) {
+        this.containmentMode = containmentMode;
+    }
+
     /**
      * Get the {@link Component} that represents the display name of the trigger.
      * @return The {@link Component} that represents the display name of the trigger.
@@ -529,10 +738,28 @@ public class Trigger {
 
     /**
      * Get the base anchors of the hull.
+     * The anchors are stored packed, this is a read-only view that creates a new {@link Vec} on every access.
      * @return The base anchors of the hull.
      */
     public List<Vec> getAnchors() {
-        return anchors;
+        return placement.shape().getAnchors();
+    }
+
+    /**
+     * Get the current computed geometry, which may be shared with other triggers.
+     * @return The current {@link TriggerShape}.
+     */
+    public TriggerShape getShape() {
+        return placement.shape();
+    }
+
+    /**
+     * Replace the hull with an already computed shape, e.g. a {@link TriggerShape#of(List) template}. Drops the result of any pending {@link Trigger#recomputeAsync()}.
+     * @param shape The new shape.
+     */
+    public void setShape(TriggerShape shape) {
+        shapeVersion.incrementAndGet();
+        applyShape(shape);
     }
 }
 
@@ -0,0 +1,372 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.serializer.json.JSONComponentSerializer;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import net.kyori.adventure.util.RGBLike;
+import net.minestom.server.coordinate.Point;
+import net.minestom.server.coordinate.Vec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * A compact, versioned binary format for {@link Trigger triggers} based on {@link ByteBuffer}.
+ * <p>
+ * Unlike {@link TriggerTypeAdapter} this stores the uuid, the color and the computed hull (triangles, containment axes and bounds) too,
+ * so reading a trigger does not need to build its hull again.
+ * The anchors are stored with a CRC32 checksum, if it doesn't match anymore (e.g. the anchors were edited by an external tool) the stored hull is ignored and recomputed.
+ * Primitive shapes like {@link BoxShape} only store their parameters, they are cheap to create. Compounds store each of their parts as a shape of its own.
+ * <p>
+ * Layout, big endian:
+ * <pre>
+ * header:  int magic "TRGR", short version, short reserved, int trigger count
+ * trigger: long uuid most significant bits, long uuid least significant bits,
+ *          int name length, name as UTF-8 JSON component,
+ *          int rgb color,
+ *          double x, y, z position,
+ *          shape
+ * shape:   byte shape type ordinal, then a hull, compound or other
+ * hull:    int anchor count, double x, y, z per anchor,
+ *          int anchor checksum,
+ *          double x, y, z local bounds min, double x, y, z local bounds max,
+ *          int triangle count, double a, b, c and normal x, y, z per triangle,
+ *          int face axis length, doubles of the face axes,
+ *          int edge axis length, doubles of the edge axes
+ * compound: int part count, shape per part
+ * other:   int parameter count, doubles of the parameters
+ * </pre>
+ */
+public final class TriggerBinaryFormat {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TriggerBinaryFormat.class);
+
+    /**
+     * The first 4 bytes of every buffer written by this format, "TRGR" in ASCII.
+     */
+    public static final int MAGIC = 0x54524752;
+
+    /**
+     * The current version of the format, bumped whenever the layout or the meaning of the stored hull data changes.
+     * Only buffers of exactly this version can be read.
+     */
+    public static final short VERSION = 3;
+
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES + Short.BYTES + Integer.BYTES;
+
+    private TriggerBinaryFormat() {}
+
+    /**
+     * Write triggers to a new buffer.
+     * @param triggers The triggers to write.
+     * @return A buffer ready to be read from, e.g. written to a file with {@link java.nio.channels.FileChannel#write(ByteBuffer)}.
+     */
+    public static ByteBuffer write(Collection<Trigger> triggers) {
+        final List<byte[]> names = new ArrayList<>(triggers.size());
+        int size = HEADER_BYTES;
+        for (Trigger trigger : triggers) {
+            byte[] name = encodeName(trigger.getName());
+            names.add(name);
+            size += sizeOf(trigger, name);
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort((short) 0);
+        buffer.putInt(triggers.size());
+        int i = 0;
+        for (Trigger trigger : triggers) {
+            writeTrigger(buffer, trigger, names.get(i++));
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Read triggers from a buffer that was written with {@link TriggerBinaryFormat#write(Collection)}, starting at its current position.
+     * <p>
+     * THE TRIGGERS NEED TO BE ADDED TO A {@link TriggerManager} IN ORDER TO WORK PROPERLY
+     * @param buffer The buffer to read from, its position is moved past the read data.
+     * @param triggeredCallback The {@link Consumer<TriggeredCallback>} every read trigger gets, can be replaced per trigger later on.
+     * @return The read triggers.
+     * @throws IllegalArgumentException If the buffer is not in this format, has an unsupported version or is truncated.
+     */
+    public static List<Trigger> read(ByteBuffer buffer, Consumer<TriggeredCallback> triggeredCallback) {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a TRIGGER binary buffer");
+        }
+        final short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported TRIGGER binary version " + version + ", expected " + VERSION);
+        }
+        buffer.getShort(); // reserved
+        final int count = readCount(buffer, 1);
+
+        final List<Trigger> triggers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            triggers.add(readTrigger(buffer, triggeredCallback));
+        }
+        return triggers;
+    }
+
+    /**
+     * Internal method for getting the amount of bytes a single trigger takes up.
+     * @param trigger The trigger.
+     * @param name The encoded name of the trigger.
+     * @return The size in bytes.
+     */
+    static int sizeOf(Trigger trigger, byte[] name) {
+        final int common = 2 * Long.BYTES
+                + Integer.BYTES + name.length
+                + Integer.BYTES
+                + 3 * Double.BYTES;
+        return common + sizeOf(trigger.getShape());
+    }
+
+    /**
+     * Internal method for getting the amount of bytes a shape takes up, including its type.
+     * @param shape The shape.
+     * @return The size in bytes.
+     */
+    private static int sizeOf(TriggerShape shape) {
+        if (shape instanceof CompoundShape compound) {
+            int size = 1 + Integer.BYTES;
+            for (TriggerShape part : compound.getParts()) {
+                size += sizeOf(part);
+            }
+            return size;
+        }
+        if (!(shape instanceof HullShape hull)) {
+            return 1 + Integer.BYTES + shape.parameters().length * Double.BYTES;
+        }
+        return 1
+                + Integer.BYTES + hull.anchorCoords().length * Double.BYTES
+                + Integer.BYTES
+                + 6 * Double.BYTES
+                + Integer.BYTES + hull.triangleCoords().length * Double.BYTES
+                + Integer.BYTES + hull.faceAxes().length * Double.BYTES
+                + Integer.BYTES + hull.edgeAxes().length * Double.BYTES;
+    }
+
+    /**
+     * Internal method for encoding the name of a trigger.
+     * @param name The name.
+     * @return The name as UTF-8 JSON component.
+     */
+    static byte[] encodeName(Component name) {
+        return JSONComponentSerializer.json().serializeOr(name, "\"NameSerializerError\"").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Internal method for writing a single trigger without header.
+     * @param buffer The buffer to write to, needs at least {@link TriggerBinaryFormat#sizeOf(Trigger, byte[])} bytes remaining.
+     * @param trigger The trigger to write.
+     * @param name The encoded name of the trigger.
+     */
+    static void writeTrigger(ByteBuffer buffer, Trigger trigger, byte[] name) {
+        final UUID uuid = trigger.getUuid();
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+
+        buffer.putInt(name.length);
+        buffer.put(name);
+
+        final RGBLike color = trigger.getColor();
+        buffer.putInt(color.red() << 16 | color.green() << 8 | color.blue());
+
+        putPoint(buffer, trigger.getPosition());
+
+        writeShape(buffer, trigger.getShape());
+    }
+
+    /**
+     * Internal method for writing a shape with its type.
+     * @param buffer The buffer to write to.
+     * @param shape The shape to write.
+     */
+    private static void writeShape(ByteBuffer buffer, TriggerShape shape) {
+        buffer.put((byte) shape.getType().ordinal());
+        if (shape instanceof CompoundShape compound) {
+            final List<TriggerShape> parts = compound.getParts();
+            buffer.putInt(parts.size());
+            for (TriggerShape part : parts) {
+                writeShape(buffer, part);
+            }
+            return;
+        }
+        if (!(shape instanceof HullShape hull)) {
+            putDoubles(buffer, shape.parameters());
+            return;
+        }
+
+        buffer.putInt(hull.getAnchorCount());
+        final int anchorStart = buffer.position();
+        putRawDoubles(buffer, hull.anchorCoords());
+        buffer.putInt(checksum(buffer, anchorStart, buffer.position() - anchorStart));
+
+        putPoint(buffer, hull.getBoundsMin());
+        putPoint(buffer, hull.getBoundsMax());
+
+        buffer.putInt(hull.getTriangleCount());
+        putRawDoubles(buffer, hull.triangleCoords());
+
+        putDoubles(buffer, hull.faceAxes());
+        putDoubles(buffer, hull.edgeAxes());
+    }
+
+    /**
+     * Internal method for reading a single trigger without header.
+     * If the anchor checksum doesn't match, the stored hull is skipped and computed from the anchors instead.
+     * @param buffer The buffer to read from, positioned at the start of a trigger written with the current {@link TriggerBinaryFormat#VERSION}.
+     * @param triggeredCallback The {@link Consumer<TriggeredCallback>} of the trigger.
+     * @return The read trigger.
+     */
+    static Trigger readTrigger(ByteBuffer buffer, Consumer<TriggeredCallback> triggeredCallback) {
+        final long startTime = System.nanoTime();
+        if (buffer.remaining() < 2 * Long.BYTES) {
+            throw new IllegalArgumentException("Truncated TRIGGER binary buffer");
+        }
+        final UUID uuid = new UUID(buffer.getLong(), buffer.getLong());
+
+        final byte[] nameBytes = new byte[readCount(buffer, 1)];
+        buffer.get(nameBytes);
+        final Component name = JSONComponentSerializer.json().deserializeOr(new String(nameBytes, StandardCharsets.UTF_8), Component.text("DeserializerError"));
+
+        final int rgb = buffer.getInt();
+        final Vec position = getVec(buffer);
+
+        final TriggerShape shape = readShape(buffer, name, startTime);
+        return new Trigger(shape, position, uuid, name, TextColor.color(rgb), triggeredCallback);
+    }
+
+    /**
+     * Internal method for reading a shape with its type.
+     * @param buffer The buffer to read from, positioned at the start of a shape.
+     * @param name The name of the trigger, for logging.
+     * @param startTime When reading the trigger started, see {@link System#nanoTime()}.
+     * @return The read shape.
+     */
+    private static TriggerShape readShape(ByteBuffer buffer, Component name, long startTime) {
+        final TriggerShape.Type type = getType(buffer);
+        if (type == TriggerShape.Type.COMPOUND) {
+            final int count = readCount(buffer, 1 + Integer.BYTES);
+            final List<TriggerShape> parts = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                parts.add(readShape(buffer, name, startTime));
+            }
+            return new CompoundShape(parts, (System.nanoTime() - startTime) / 1000000.0);
+        }
+        if (type != TriggerShape.Type.HULL) {
+            return TriggerShape.fromParameters(type, getDoubles(buffer));
+        }
+
+        final int anchorCount = readCount(buffer, 3 * Double.BYTES);
+        final int anchorStart = buffer.position();
+        final double[] anchorCoords = getRawDoubles(buffer, anchorCount * 3);
+        final boolean stale = checksum(buffer, anchorStart, buffer.position() - anchorStart) != buffer.getInt();
+
+        final Vec localMin = getVec(buffer);
+        final Vec localMax = getVec(buffer);
+
+        final int triangleCount = readCount(buffer, TriggerShape.TRIANGLE_STRIDE * Double.BYTES);
+        final double[] triangleCoords = getRawDoubles(buffer, triangleCount * TriggerShape.TRIANGLE_STRIDE);
+
+        final double[] faceAxes = getDoubles(buffer);
+        final double[] edgeAxes = getDoubles(buffer);
+
+        if (stale) {
+            LOGGER.warn("Stored hull of {} does not match its anchors, recomputing", PlainTextComponentSerializer.plainText().serialize(name));
+            final List<Vec> anchors = new ArrayList<>(anchorCount);
+            for (int i = 0; i < anchorCoords.length; i += 3) {
+                anchors.add(new Vec(anchorCoords[i], anchorCoords[i + 1], anchorCoords[i + 2]));
+            }
+            return HullShape.compute(Trigger.extrudeCoplanar(anchors));
+        }
+        return HullShape.precomputed(anchorCoords, triangleCoords, faceAxes, edgeAxes, localMin, localMax, (System.nanoTime() - startTime) / 1000000.0);
+    }
+
+    /**
+     * Internal method for computing the CRC32 checksum of a region of a buffer without moving its position.
+     * @return The checksum.
+     */
+    private static int checksum(ByteBuffer buffer, int start, int length) {
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.slice(start, length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Internal method for reading a count and checking that the buffer can actually hold that many entries.
+     * @param bytesPerEntry The minimum size of a single entry.
+     * @return The count.
+     */
+    private static int readCount(ByteBuffer buffer, int bytesPerEntry) {
+        if (buffer.remaining() < Integer.BYTES) {
+            throw new IllegalArgumentException("Truncated TRIGGER binary buffer");
+        }
+        final int count = buffer.getInt();
+        if (count < 0 || (long) count * bytesPerEntry > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupt TRIGGER binary buffer, count " + count + " exceeds the remaining " + buffer.remaining() + " bytes");
+        }
+        return count;
+    }
+
+    private static TriggerShape.Type getType(ByteBuffer buffer) {
+        final TriggerShape.Type[] types = TriggerShape.Type.values();
+        final int ordinal = buffer.hasRemaining() ? buffer.get() : -1;
+        if (ordinal < 0 || ordinal >= types.length) {
+            throw new IllegalArgumentException("Corrupt TRIGGER binary buffer, unknown shape type " + ordinal);
+        }
+        return types[ordinal];
+    }
+
+    private static void putPoint(ByteBuffer buffer, Point point) {
+        buffer.putDouble(point.x());
+        buffer.putDouble(point.y());
+        buffer.putDouble(point.z());
+    }
+
+    private static Vec getVec(ByteBuffer buffer) {
+        return new Vec(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+    }
+
+    private static void putDoubles(ByteBuffer buffer, double[] values) {
+        buffer.putInt(values.length);
+        putRawDoubles(buffer, values);
+    }
+
+    private static void putRawDoubles(ByteBuffer buffer, double[] values) {
+        buffer.asDoubleBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Double.BYTES);
+    }
+
+    private static double[] getDoubles(ByteBuffer buffer) {
+        return getRawDoubles(buffer, readCount(buffer, Double.BYTES));
+    }
+
+    private static double[] getRawDoubles(ByteBuffer buffer, int length) {
+        final double[] values = new double[length];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + length * Double.BYTES);
+        return values;
+    }
+}
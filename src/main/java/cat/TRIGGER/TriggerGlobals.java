@@ -15,10 +15,19 @@ import com.google.gson.GsonBuilder;
 import net.kyori.adventure.text.*;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.util.RGBLike;
+import net.minestom.server.MinecraftServer;
 import net.minestom.server.codec.Codec;
 import net.minestom.server.codec.StructCodec;
 import net.minestom.server.coordinate.Vec;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * A collection of global objects that are used across the system.
  */
@@ -26,6 +35,36 @@ public final class TriggerGlobals {
     public static TriggerTypeAdapter triggerTypeAdapter = new TriggerTypeAdapter();
     public static Gson GSON = new GsonBuilder().setPrettyPrinting().registerTypeAdapter(Trigger.class, triggerTypeAdapter).create();
 
+    /**
+     * The executor hulls are computed on by {@link Trigger#recomputeAsync()} and {@link TriggerManager#createAsync}.
+     * A few daemon threads with a bounded queue, once the queue is full new computations fail with a {@link java.util.concurrent.RejectedExecutionException}.
+     * Can be replaced, e.g. to share an existing pool.
+     */
+    public static Executor HULL_EXECUTOR = createHullExecutor();
+
+    /**
+     * The cache triggers created from anchors share their {@link TriggerShape shapes} through, see {@link TriggerShape#of(java.util.List)}.
+     * Can be replaced, e.g. with a larger one or with {@code new TriggerShapeCache(0)} to turn sharing off.
+     */
+    public static TriggerShapeCache SHAPE_CACHE = new TriggerShapeCache(4096);
+
+    /**
+     * Runs tasks at the start of the next server tick, used to swap in asynchronously computed hulls on the tick thread.
+     */
+    static final Executor NEXT_TICK = task -> MinecraftServer.getSchedulerManager().scheduleNextTick(task);
+
+    private static Executor createHullExecutor() {
+        final int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        final AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1024), task -> {
+            Thread thread = new Thread(task, "TRIGGER-Hull-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * A note about RGB_CODEC, since it is using an interface it needs to
      * boiled down to one of the implementations, I have chosen TextColor
@@ -45,13 +84,38 @@ public final class TriggerGlobals {
             Vec::new
     );
 
+    // A part of a compound, compounds are flattened so parts are never compounds themselves
+    private static final Codec<TriggerShape> PART_CODEC = StructCodec.struct(
+            "type", Codec.Enum(TriggerShape.Type.class).optional(TriggerShape.Type.HULL), TriggerShape::getType,
+            "anchors", VEC_CODEC.list().optional(List.of()), shape -> shape.getType() == TriggerShape.Type.HULL ? shape.getAnchors() : List.of(),
+            "parameters", Codec.DOUBLE.list().optional(List.of()), shape -> Arrays.stream(shape.parameters()).boxed().toList(),
+            (type, anchors, parameters) -> shape(type, anchors, parameters, List.of())
+    );
+
+    // Hulls are stored as their anchors, primitive shapes as their parameters and compounds as their parts
     public static Codec<Trigger> TRIGGER_CODEC = StructCodec.struct(
-            "anchors", VEC_CODEC.list(), Trigger::getAnchors,
+            "type", Codec.Enum(TriggerShape.Type.class).optional(TriggerShape.Type.HULL), trigger -> trigger.getShape().getType(),
+            "anchors", VEC_CODEC.list().optional(List.of()), trigger -> trigger.getShape().getType() == TriggerShape.Type.HULL ? trigger.getAnchors() : List.of(),
+            "parameters", Codec.DOUBLE.list().optional(List.of()), trigger -> Arrays.stream(trigger.getShape().parameters()).boxed().toList(),
+            "parts", PART_CODEC.list().optional(List.of()), trigger -> trigger.getShape() instanceof CompoundShape compound ? compound.getParts() : List.of(),
             "position", VEC_CODEC, Trigger::getPosition,
             "uuid", Codec.UUID, Trigger::getUuid,
             "name", Codec.COMPONENT, Trigger::getName,
             "color", RGB_CODEC, Trigger::getColor,
             "callback", null, null,
-            Trigger::new
+            // Callbacks can't be serialized
+            (type, anchors, parameters, parts, position, uuid, name, color, callback) ->
+                    new Trigger(shape(type, anchors, parameters, parts), position, uuid, name, color, null)
     );
+
+    /**
+     * Internal method for creating a decoded shape, hulls go through {@link TriggerGlobals#SHAPE_CACHE}.
+     */
+    private static TriggerShape shape(TriggerShape.Type type, List<Vec> anchors, List<Double> parameters, List<TriggerShape> parts) {
+        return switch (type) {
+            case HULL -> TriggerShape.of(anchors);
+            case COMPOUND -> TriggerShape.compound(parts);
+            default -> TriggerShape.fromParameters(type, parameters.stream().mapToDouble(Double::doubleValue).toArray());
+        };
+    }
 }
@@ -0,0 +1,87 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import java.util.Collection;
+
+/**
+ * A broadphase structure that finds the triggers whose world-space bounds overlap a box.
+ * Used by {@link TriggerManager} to skip the expensive containment check for triggers that are nowhere near a player.
+ * <p>
+ * Implementations only look at {@link Trigger#getBoundsMin()} and {@link Trigger#getBoundsMax()},
+ * the actual collision detection is still done by {@link Trigger#contains(java.util.List)}.
+ */
+public interface TriggerIndex {
+
+    /**
+     * Add a trigger to the index.
+     * @param trigger The trigger to add.
+     */
+    void insert(Trigger trigger);
+
+    /**
+     * Add many triggers at once. Indices that can build a better structure when they know all triggers up front override this.
+     * @param triggers The triggers to add.
+     */
+    default void insertAll(Collection<? extends Trigger> triggers) {
+        for (Trigger trigger : triggers) {
+            insert(trigger);
+        }
+    }
+
+    /**
+     * Remove a trigger from the index.
+     * @param trigger The trigger to remove.
+     * @return true if the trigger was removed, false if it was not indexed.
+     */
+    boolean remove(Trigger trigger);
+
+    /**
+     * Called after the bounds of an indexed trigger have changed, e.g. through {@link Trigger#setPosition(net.minestom.server.coordinate.Pos)} or {@link Trigger#recompute()}.
+     * @param trigger The trigger that changed.
+     */
+    default void update(Trigger trigger) {
+        if (remove(trigger)) insert(trigger);
+    }
+
+    /**
+     * Collect all triggers whose bounds overlap the given world-space box.
+     * Every overlapping trigger is added to the output exactly once per call.
+     * @param minX Minimum x of the box.
+     * @param minY Minimum y of the box.
+     * @param minZ Minimum z of the box.
+     * @param maxX Maximum x of the box.
+     * @param maxY Maximum y of the box.
+     * @param maxZ Maximum z of the box.
+     * @param out The collection the candidates get added to.
+     */
+    void query(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Collection<? super Trigger> out);
+
+    /**
+     * Create an independent copy of this index holding the same triggers, changing one of them must not affect the other.
+     * {@link TriggerManager} never changes an index that was published to the event hooks, it applies the changes of the next tick to a copy instead.
+     * @return The copy, or null if this index can not be copied, it is then built from scratch with {@link TriggerIndex#insertAll(Collection)} whenever its triggers change.
+     */
+    default TriggerIndex copy() {
+        return null;
+    }
+
+    /**
+     * Remove all triggers from the index.
+     */
+    void clear();
+
+    /**
+     * Get the amount of indexed triggers.
+     * @return The amount of indexed triggers.
+     */
+    int size();
+}
@@ -0,0 +1,45 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import java.util.List;
+
+/**
+ * A record that contains the outcome of a bulk load, e.g. {@link TriggerManager#loadJSON(java.io.Reader, java.util.function.Consumer)}.
+ * All times are wall clock times in milliseconds.
+ * @param triggers The loaded triggers, in the order they were read.
+ * @param failed The amount of triggers that were skipped because their shape could not be created.
+ * @param readTime How long reading the input took.
+ * @param hullTime How long computing all hulls in parallel took.
+ * @param insertTime How long adding the triggers to the manager took, including building its indices.
+ * @param totalTime How long the whole load took.
+ */
+public record TriggerLoadReport(List<Trigger> triggers, int failed, double readTime, double hullTime, double insertTime, double totalTime) {
+
+    /**
+     * Get the sum of the {@link Trigger#getLastComputationTime() computation times} of all loaded hulls.
+     * Compared to {@link TriggerLoadReport#hullTime()} this shows how well the hull computation was spread across threads.
+     * @return The summed computation time of all hulls in milliseconds.
+     */
+    public double summedComputationTime() {
+        double sum = 0;
+        for (Trigger trigger : triggers) {
+            sum += trigger.getLastComputationTime();
+        }
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Loaded %d triggers (%d failed) in %.3fms: read %.3fms, hulls %.3fms (%.3fms summed), insert %.3fms",
+                triggers.size(), failed, totalTime, readTime, hullTime, summedComputationTime(), insertTime);
+    }
+}
@@ -10,196 +10,550 @@
 
 package cat.TRIGGER;
 
+import com.google.gson.stream.JsonReader;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import net.kyori.adventure.util.RGBLike;
 import net.minestom.server.MinecraftServer;
+import net.minestom.server.ServerProcess;
+import net.minestom.server.collision.BoundingBox;
+import net.minestom.server.coordinate.Point;
 import net.minestom.server.coordinate.Pos;
 import net.minestom.server.coordinate.Vec;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.entity.EntityType;
 import net.minestom.server.entity.Player;
 import net.minestom.server.event.Event;
 import net.minestom.server.event.EventNode;
 import net.minestom.server.event.entity.EntitySpawnEvent;
 import net.minestom.server.event.entity.EntityTeleportEvent;
+import net.minestom.server.event.player.PlayerDisconnectEvent;
 import net.minestom.server.event.player.PlayerMoveEvent;
 import net.minestom.server.event.player.PlayerSpawnEvent;
 import net.minestom.server.event.player.PlayerTickEvent;
+import net.minestom.server.instance.Instance;
 import net.minestom.server.timer.TaskSchedule;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 
 /**
  * A utility class for managing a collection of triggers.
  * Standalone use of the {@link Trigger} class is not recommended since it does not contain any event hooks.
+ * <p>
+ * Triggers with an {@link Trigger#setInstance(Instance) instance} are kept in a separate {@link TriggerIndex} per instance and only fire for players in that instance,
+ * triggers without one fire in every instance.
+ * <p>
+ * All methods are safe to call from any thread. The event hooks and the debug rendering read an immutable snapshot of the triggers and indices and never lock,
+ * changes like {@link TriggerManager#add(Trigger)} and {@link TriggerManager#remove(Trigger)} are collected and published together at the start of the next tick.
  */
 public class TriggerManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TriggerManager.class);
-    private final List<Trigger> triggers;
+    // Reused candidate buffer of collectInside, the event hooks may run on multiple instance threads
+    private static final ThreadLocal<List<Trigger>> CANDIDATES = ThreadLocal.withInitial(ArrayList::new);
+    // Smaller batches are evaluated on the tick thread, splitting them up costs more than it saves
+    private static final int PARALLEL_THRESHOLD = 16;
+    // An index is built from scratch instead of copied once more than a quarter of its triggers changed, a fresh build also gives the better tree
+    private static final int REBUILD_FRACTION = 4;
+    private final Supplier<? extends TriggerIndex> indexFactory;
+    // Guards the pending state below, only writers take it
+    private final Object lock = new Object();
+    // The triggers including changes that are not published yet, in the order they were added
+    private final Set<Trigger> triggers = new LinkedHashSet<>();
+    // The triggers that were added, removed or changed since the last publish
+    private final Set<Trigger> changed = new LinkedHashSet<>();
+    // Where every trigger is in the published indices, compared against the triggers on the next publish to find out what to change
+    private final Map<Trigger, Placement> placements = new HashMap<>();
     private int totalTriangles = 0;
+    // What the event hooks read, replaced as a whole on every publish
+    private volatile Snapshot snapshot;
+    private final AtomicBoolean publishScheduled = new AtomicBoolean();
+    // The triggers each player is currently inside of
+    private final Map<UUID, Set<Trigger>> memberships = new ConcurrentHashMap<>();
+    // The last position and the triggers of every non-player entity the scan found inside of a trigger
+    private final Map<UUID, TrackedEntity> entities = new ConcurrentHashMap<>();
+    private final AtomicBoolean entityScanScheduled = new AtomicBoolean();
+    // The players queued for the end of the tick in coalesced or parallel mode
+    private final Map<UUID, PendingPlayer> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private volatile boolean coalesced = false;
+    private volatile boolean parallel = false;
+    private volatile boolean continuous = false;
     private final boolean debug;
 
     /**
-     * The default constructor
+     * The published state of a manager, never changed after creation.
+     * @param triggers All triggers.
+     * @param players The indices of all triggers, checked for players.
+     * @param entities The indices of the triggers with {@link Trigger#getEntityTypes() entity types}, checked for other entities.
+     * @param entityTypes The entity types any trigger fires for.
+     * @param totalTriangles The combined triangle count of all triggers.
+     */
+    private record Snapshot(List<Trigger> triggers, Partitions players, Partitions entities, Set<EntityType> entityTypes, int totalTriangles) {}
+
+    /**
+     * Triggers split up by instance.
+     * @param index The triggers without an instance, they are candidates in every instance.
+     * @param instanceIndices The triggers of every instance that has any, an instance is dropped again once its last trigger is removed.
+     */
+    private record Partitions(TriggerIndex index, Map<Instance, TriggerIndex> instanceIndices) {
+
+        /**
+         * Internal method for creating new partitions that share the indices of all instances that did not change.
+         * The changes of an instance are applied to a {@link TriggerIndex#copy() copy} of its published index,
+         * the index is only built from scratch for new instances, indices that can not be copied and large batches of changes.
+         * @param deltas The changes of every changed instance, null for the triggers without an instance.
+         * @param triggers All triggers of the manager, only needed when an index is built from scratch.
+         * @param entities If these are the partitions of the triggers with entity types.
+         * @param indexFactory Creates the new indices.
+         * @return The new partitions.
+         */
+        Partitions apply(Map<Instance, Delta> deltas, Collection<Trigger> triggers, boolean entities, Supplier<? extends TriggerIndex> indexFactory) {
+            TriggerIndex index = this.index;
+            final Map<Instance, TriggerIndex> instanceIndices = new HashMap<>(this.instanceIndices);
+            Map<Instance, List<Trigger>> grouped = null;
+            for (Map.Entry<Instance, Delta> entry : deltas.entrySet()) {
+                final Instance instance = entry.getKey();
+                final Delta delta = entry.getValue();
+                final TriggerIndex previous = instance == null ? index : instanceIndices.get(instance);
+                TriggerIndex next = null;
+                if (previous != null && delta.size() * REBUILD_FRACTION <= previous.size()) {
+                    next = previous.copy();
+                    if (next != null) delta.applyTo(next);
+                }
+                if (next == null) {
+                    if (grouped == null) grouped = group(triggers, entities);
+                    next = indexFactory.get();
+                    next.insertAll(grouped.getOrDefault(instance, List.of()));
+                }
+                if (instance == null) {
+                    index = next;
+                } else if (next.size() == 0) {
+                    instanceIndices.remove(instance);
+                } else {
+                    instanceIndices.put(instance, next);
+                }
+            }
+            return new Partitions(index, Map.copyOf(instanceIndices));
+        }
+
+        /**
+         * Internal method for grouping triggers by instance.
+         * @param triggers The triggers.
+         * @param entities If only the triggers with entity types are grouped.
+         * @return The triggers of every instance, null for the triggers without an instance.
+         */
+        private static Map<Instance, List<Trigger>> group(Collection<Trigger> triggers, boolean entities) {
+            final Map<Instance, List<Trigger>> grouped = new HashMap<>();
+            for (Trigger trigger : triggers) {
+                if (entities && trigger.getEntityTypes().isEmpty()) continue;
+                grouped.computeIfAbsent(trigger.getInstance(), key -> new ArrayList<>()).add(trigger);
+            }
+            return grouped;
+        }
+    }
+
+    /**
+     * Where a trigger is in the published indices.
+     * @param instance The instance whose index holds the trigger, null for the index of the triggers without an instance.
+     * @param entities If the trigger is in the indices checked for other entities as well.
+     */
+    private record Placement(Instance instance, boolean entities) {}
+
+    /**
+     * The changes to the index of one instance since the last publish.
+     * @param removed The triggers to remove.
+     * @param inserted The triggers to insert.
+     * @param updated The triggers that stay but may have changed their bounds.
+     */
+    private record Delta(List<Trigger> removed, List<Trigger> inserted, List<Trigger> updated) {
+
+        Delta() {
+            this(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        }
+
+        int size() {
+            return removed.size() + inserted.size() + updated.size();
+        }
+
+        void applyTo(TriggerIndex index) {
+            removed.forEach(index::remove);
+            updated.forEach(index::update);
+            inserted.forEach(index::insert);
+        }
+    }
+
+    /**
+     * A player queued for evaluation at the end of the tick.
+     * @param player The player.
+     * @param from The position the movement of the player in this tick started at.
+     * @param pos The latest position of the player.
+     * @param tick If the player ticked, so TICK callbacks are due.
+     */
+    private record PendingPlayer(Player player, Pos from, Pos pos, boolean tick) {}
+
+    /**
+     * A non-player entity as of the last scan.
+     * @param entity The entity.
+     * @param pos The position of the entity.
+     * @param inside The triggers the entity is inside of.
+     */
+    private record TrackedEntity(Entity entity, Pos pos, Set<Trigger> inside) {}
+
+    /**
+     * The result of checking a queued player or a scanned entity.
+     * @param inside The triggers the player or entity is inside of.
+     * @param passed The triggers the player or entity moved through, null without continuous collision.
+     */
+    private record Evaluation(Set<Trigger> inside, List<Trigger> passed) {}
+
+    /**
+     * The default constructor, uses a {@link LinearTriggerIndex}.
      * @param debug Debug mode, enables rendering. <p> DEBUG RENDERING CAN CAUSE BIG LAG.
      */
     public TriggerManager(boolean debug) {
-        this.debug = debug;
-        this.triggers = new ArrayList<>();
+        this(debug, new ArrayList<>(), LinearTriggerIndex::new);
+    }
 
-        if (debug) {
-            MinecraftServer.getSchedulerManager().buildTask(() -> MinecraftServer.getConnectionManager().getOnlinePlayers().forEach(player -> triggers.forEach(trigger -> trigger.render(player)))).repeat(TaskSchedule.nextTick()).schedule();
-        }
+    /**
+     * Constructor that allows you to choose the {@link TriggerIndex} used for finding triggers near a player.
+     * For example {@code new TriggerManager(false, () -> new GridTriggerIndex(16))}.
+     * @param debug Debug mode, enables rendering. <p> DEBUG RENDERING CAN CAUSE BIG LAG.
+     * @param indexFactory Creates the {@link TriggerIndex} of this manager.
+     */
+    public TriggerManager(boolean debug, Supplier<? extends TriggerIndex> indexFactory) {
+        this(debug, new ArrayList<>(), indexFactory);
     }
 
     /**
-     * Alternate constructor that allows you to pass a list of existing triggers.
+     * Alternate constructor that allows you to pass a list of existing triggers, uses a {@link LinearTriggerIndex}.
      * @param debug Debug mode, enables rendering. <p> DEBUG RENDERING CAN CAUSE BIG LAG.
      * @param triggers The existing triggers.
      */
     public TriggerManager(boolean debug, List<Trigger> triggers) {
+        this(debug, triggers, LinearTriggerIndex::new);
+    }
+
+    /**
+     * Alternate constructor that allows you to pass a list of existing triggers and choose the {@link TriggerIndex}.
+     * @param debug Debug mode, enables rendering. <p> DEBUG RENDERING CAN CAUSE BIG LAG.
+     * @param triggers The existing triggers, the list is copied.
+     * @param indexFactory Creates the {@link TriggerIndex} of this manager, one for the triggers without an instance and one for every instance with triggers.
+     *                     Changes are applied to a {@link TriggerIndex#copy() copy} of the published index, indices that can not be copied are built from scratch whenever their triggers change.
+     */
+    public TriggerManager(boolean debug, List<Trigger> triggers, Supplier<? extends TriggerIndex> indexFactory) {
         this.debug = debug;
-        this.triggers = triggers;
+        this.indexFactory = indexFactory;
+        this.snapshot = new Snapshot(List.of(), new Partitions(indexFactory.get(), Map.of()), new Partitions(indexFactory.get(), Map.of()), Set.of(), 0);
+
+        synchronized (lock) {
+            for (Trigger trigger : triggers) {
+                stage(trigger);
+            }
+        }
+        publishChanges();
 
         if (debug) {
-            MinecraftServer.getSchedulerManager().buildTask(() -> MinecraftServer.getConnectionManager().getOnlinePlayers().forEach(player -> triggers.forEach(trigger -> trigger.render(player)))).repeat(TaskSchedule.nextTick()).schedule();
+            MinecraftServer.getSchedulerManager().buildTask(() -> MinecraftServer.getConnectionManager().getOnlinePlayers().forEach(player -> snapshot.triggers().forEach(trigger -> {
+                if (trigger.getInstance() == null || trigger.getInstance() == player.getInstance()) trigger.render(player);
+            }))).repeat(TaskSchedule.nextTick()).schedule();
         }
     }
 
+    /**
+     * Create a trigger and add it to this manager. The hull is computed on the calling thread.
+     * Coplanar anchors are slightly extruded, see {@link Trigger#arePointsCoplanar(List)}. Use {@link TriggerShape#prism(List, double, double)} for flat footprints with a height instead.
+     * @param anchors The points (corners) in 3D space that define the shape of the trigger.
+     * @param position The origin of the anchors, used to place the trigger in the world.
+     * @param uuid The UUID used to identify the shape.
+     * @param name The {@link Component} that holds the display name of the trigger.
+     * @param color The {@link RGBLike} used for debug rendering.
+     * @param triggeredCallback The {@link Consumer<TriggeredCallback>} that gets called when a trigger is triggered.
+     * @return The new trigger.
+     */
     public Trigger create(List<Vec> anchors, Vec position, UUID uuid, Component name, RGBLike color, Consumer<TriggeredCallback> triggeredCallback) {
+        final Trigger trigger = new Trigger(prepareAnchors(anchors, name), position, uuid, name, color, triggeredCallback);
+        logComputation(trigger);
+        add(trigger);
+        return trigger;
+    }
+
+    /**
+     * Create a trigger from an already computed shape and add it to this manager.
+     * Nothing is computed, so this is the cheapest way to place many triggers of the same shape.
+     * @param shape The shape, e.g. from {@link TriggerShape#of(List)}.
+     * @param position The origin of the anchors, used to place the trigger in the world.
+     * @param uuid The UUID used to identify the shape.
+     * @param name The {@link Component} that holds the display name of the trigger.
+     * @param color The {@link RGBLike} used for debug rendering.
+     * @param triggeredCallback The {@link Consumer<TriggeredCallback>} that gets called when a trigger is triggered.
+     * @return The new trigger.
+     */
+    public Trigger create(TriggerShape shape, Vec position, UUID uuid, Component name, RGBLike color, Consumer<TriggeredCallback> triggeredCallback) {
+        final Trigger trigger = new Trigger(shape, position, uuid, name, color, triggeredCallback);
+        add(trigger);
+        return trigger;
+    }
+
+    /**
+     * Create a trigger without blocking the calling thread.
+     * The hull is computed on {@link TriggerGlobals#HULL_EXECUTOR}, the trigger is added to this manager (and starts triggering) on the next tick after that.
+     * @param anchors The points (corners) in 3D space that define the shape of the trigger.
+     * @param position The origin of the anchors, used to place the trigger in the world.
+     * @param uuid The UUID used to identify the shape.
+     * @param name The {@link Component} that holds the display name of the trigger.
+     * @param color The {@link RGBLike} used for debug rendering.
+     * @param triggeredCallback The {@link Consumer<TriggeredCallback>} that gets called when a trigger is triggered.
+     * @return A future that completes with the trigger once it has been added, or exceptionally if the hull could not be computed.
+     */
+    public CompletableFuture<Trigger> createAsync(List<Vec> anchors, Vec position, UUID uuid, Component name, RGBLike color, Consumer<TriggeredCallback> triggeredCallback) {
+        final List<Vec> snapshot = List.copyOf(anchors);
+        try {
+            return CompletableFuture.supplyAsync(() -> new Trigger(prepareAnchors(snapshot, name), position, uuid, name, color, triggeredCallback), TriggerGlobals.HULL_EXECUTOR)
+                    .thenApplyAsync(trigger -> {
+                        logComputation(trigger);
+                        add(trigger);
+                        // Already on the tick thread, so it does not have to wait for another tick
+                        publishChanges();
+                        return trigger;
+                    }, TriggerGlobals.NEXT_TICK);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Internal method for validating the anchors of a new trigger and extruding them if they are 2D.
+     * @param anchors The anchors.
+     * @param name The name of the trigger, for logging.
+     * @return The anchors to compute the hull from.
+     */
+    private static List<Vec> prepareAnchors(List<Vec> anchors, Component name) {
         if (!Trigger.validatePoints(anchors)) LOGGER.warn("Detected very close points for {}, collision and/or rendering may break due to numerical instability, use at your own risk", PlainTextComponentSerializer.plainText().serialize(name));
+        return Trigger.extrudeCoplanar(anchors);
+    }
 
-        /*---------------< EXTRUDE 2D INTO 3D >---------------*/
-        // since 2D shapes projected onto 3D directly would be infinitely thin, extruding them slightly allows for good collision detection.
-        if (Trigger.arePointsCoplanar(anchors)) {
+    private void logComputation(Trigger trigger) {
+        if (debug) {
+            DecimalFormat df = new DecimalFormat("###.###");
+            LOGGER.info("Hull computation of {} took {}ms", PlainTextComponentSerializer.plainText().serialize(trigger.getName()), df.format(trigger.getLastComputationTime()));
+        }
+    }
 
+    /**
+     * Collect the triggers the hitbox of a player at a position is inside of.
+     * The hitbox is passed around as plain min and max coordinates and the candidates are gathered in a reused per-thread buffer, so this does not allocate.
+     * @param partitions The published triggers to check against.
+     * @param pos The position of the player.
+     * @param player The player.
+     * @param out The collection the triggers get added to.
+     */
+    private static void collectInside(Partitions partitions, Pos pos, Player player, Collection<Trigger> out) {
+        collectInside(partitions, pos, pos, player, out, null);
+    }
 
-            double thickness = 0.1;
-            List<Vec> extrudedPoints = new ArrayList<>();
-            Vec origin = anchors.get(0);
+    /**
+     * Collect the triggers the hitbox of an entity is inside of at the end of a movement, and optionally the triggers it only touched on the way.
+     * For the swept check the candidates are gathered from the box around the hitbox at the start and at the end.
+     * Entities other than players only count for triggers that fire for their {@link Trigger#getEntityTypes() type}.
+     * @param partitions The published triggers to check against.
+     * @param from The position the movement started at.
+     * @param pos The position of the entity.
+     * @param entity The entity.
+     * @param out The collection the triggers get added to.
+     * @param passed The collection the triggers the hitbox only touched during the movement get added to, null to skip the swept check.
+     */
+    private static void collectInside(Partitions partitions, Pos from, Pos pos, Entity entity, Collection<Trigger> out, Collection<Trigger> passed) {
+        // Resolved once, instances without triggers are skipped entirely
+        final Instance instance = entity.getInstance();
+        final Map<Instance, TriggerIndex> instanceIndices = partitions.instanceIndices();
+        final TriggerIndex instanceIndex = instance == null || instanceIndices.isEmpty() ? null : instanceIndices.get(instance);
+        final TriggerIndex index = partitions.index();
+        if (instanceIndex == null && index.size() == 0) return;
+        final EntityType type = entity instanceof Player ? null : entity.getEntityType();
 
-            // Calculate normal of the plane
-            Vec edge1 = anchors.get(1).sub(origin);
-            Vec edge2 = anchors.get(2).sub(origin);
-            Vec normal = edge1.cross(edge2).normalize();
+        final BoundingBox box = entity.getBoundingBox();
+        final double halfWidth = box.width() / 2;
+        final double halfDepth = box.depth() / 2;
+        final double minX = pos.x() - halfWidth, minY = pos.y(), minZ = pos.z() - halfDepth;
+        final double maxX = pos.x() + halfWidth, maxY = pos.y() + box.height(), maxZ = pos.z() + halfDepth;
+        final double dx = pos.x() - from.x(), dy = pos.y() - from.y(), dz = pos.z() - from.z();
+        final boolean swept = passed != null && (dx != 0 || dy != 0 || dz != 0);
 
-            for (Vec point : anchors) {
-                extrudedPoints.add(point.add(normal.mul(thickness / 2)));
-                extrudedPoints.add(point.sub(normal.mul(thickness / 2)));
+        // skip expensive checks for triggers the player is nowhere near
+        final double queryMinX = swept ? Math.min(minX, minX - dx) : minX, queryMaxX = swept ? Math.max(maxX, maxX - dx) : maxX;
+        final double queryMinY = swept ? Math.min(minY, minY - dy) : minY, queryMaxY = swept ? Math.max(maxY, maxY - dy) : maxY;
+        final double queryMinZ = swept ? Math.min(minZ, minZ - dz) : minZ, queryMaxZ = swept ? Math.max(maxZ, maxZ - dz) : maxZ;
+        final List<Trigger> candidates = CANDIDATES.get();
+        try {
+            index.query(queryMinX, queryMinY, queryMinZ, queryMaxX, queryMaxY, queryMaxZ, candidates);
+            if (instanceIndex != null) {
+                instanceIndex.query(queryMinX, queryMinY, queryMinZ, queryMaxX, queryMaxY, queryMaxZ, candidates);
             }
-
-            anchors = List.copyOf(extrudedPoints);
+            for (int i = 0; i < candidates.size(); i++) {
+                Trigger trigger = candidates.get(i);
+                if (type != null && !trigger.getEntityTypes().contains(type)) continue;
+                if (trigger.contains(minX, minY, minZ, maxX, maxY, maxZ)) {
+                    out.add(trigger);
+                } else if (swept && trigger.containsSwept(minX - dx, minY - dy, minZ - dz, maxX - dx, maxY - dy, maxZ - dz, dx, dy, dz)) {
+                    passed.add(trigger);
+                }
+            }
+        } finally {
+            candidates.clear();
         }
+    }
 
-        final Trigger trigger = new Trigger(anchors, position, uuid, name, color, triggeredCallback);
+    /**
+     * Resolve which triggers a player is inside of at a position, and fire ENTERED and EXITED callbacks by comparing it to the triggers the player was inside of before.
+     * Every candidate only needs one containment check, triggers the player left entirely (even in one large move) are no longer candidates and therefore get an EXITED.
+     * @param player The player.
+     * @param from The position the movement started at, the same as pos if the player did not move continuously.
+     * @param pos The new position of the player.
+     */
+    private void updateMembership(Player player, Pos from, Pos pos) {
+        final Set<Trigger> current = new LinkedHashSet<>();
+        final List<Trigger> passed = continuous ? new ArrayList<>() : null;
+        collectInside(snapshot.players(), from, pos, player, current, passed);
+        applyMembership(player, current, passed);
+    }
 
-        if (debug) {
-            DecimalFormat df = new DecimalFormat("###.###");
-            LOGGER.info("Hull computation of {} took {}ms", PlainTextComponentSerializer.plainText().serialize(trigger.getName()), df.format(trigger.getLastComputationTime()));
-        }
+    /**
+     * Internal method for storing the triggers a player is inside of and firing ENTERED and EXITED callbacks for the difference to the triggers the player was inside of before.
+     * The triggers were found in a snapshot that may be outdated by now, triggers removed in the meantime are dropped in the same atomic step that stores them,
+     * so a concurrent {@link TriggerManager#publishChanges()} can not miss them.
+     * @param player The player.
+     * @param current The triggers the player is inside of now, triggers that were removed are taken out of it.
+     * @param passed The triggers the player moved through, or null.
+     */
+    private void applyMembership(Player player, Set<Trigger> current, List<Trigger> passed) {
+        final AtomicReference<Set<Trigger>> previous = new AtomicReference<>(Set.of());
+        memberships.compute(player.getUuid(), (uuid, inside) -> {
+            if (inside != null) previous.set(inside);
+            retainRegistered(current);
+            return current.isEmpty() ? null : current;
+        });
+        fireChanges(player, previous.get(), current, passed);
+    }
 
-        triggers.add(trigger);
-        totalTriangles += trigger.getTriangles().size();
-        return trigger;
+    /**
+     * Internal method for taking the triggers out of a set that are no longer registered in this manager.
+     * Removing a trigger unregisters it before the removal is published, so a set checked after the publish never holds a removed trigger.
+     * @param triggers The triggers, changed in place.
+     */
+    private void retainRegistered(Set<Trigger> triggers) {
+        triggers.removeIf(trigger -> !trigger.getManagers().contains(this));
+    }
+
+    /**
+     * Internal method for firing ENTERED and EXITED callbacks for the difference between the triggers an entity was inside of before and is inside of now.
+     * Triggers that were only touched during the movement get an ENTERED directly followed by an EXITED, between the EXITED and ENTERED callbacks of the other triggers.
+     * @param entity The entity.
+     * @param previous The triggers the entity was inside of before.
+     * @param current The triggers the entity is inside of now.
+     * @param passed The triggers the entity moved through, or null.
+     */
+    private static void fireChanges(Entity entity, Set<Trigger> previous, Set<Trigger> current, List<Trigger> passed) {
+        for (Trigger trigger : previous) {
+            if (!current.contains(trigger)) {
+                trigger.getTriggeredCallback().accept(new TriggeredCallback(entity, trigger, TriggeredCallback.Type.EXITED));
+            }
+        }
+        if (passed != null) {
+            for (Trigger trigger : passed) {
+                if (!previous.contains(trigger)) {
+                    trigger.getTriggeredCallback().accept(new TriggeredCallback(entity, trigger, TriggeredCallback.Type.ENTERED));
+                    trigger.getTriggeredCallback().accept(new TriggeredCallback(entity, trigger, TriggeredCallback.Type.EXITED));
+                }
+            }
+        }
+        for (Trigger trigger : current) {
+            if (!previous.contains(trigger)) {
+                trigger.getTriggeredCallback().accept(new TriggeredCallback(entity, trigger, TriggeredCallback.Type.ENTERED));
+            }
+        }
     }
 
     /**
      * The main movement event hook that glues the underlying collision logic together.
+     * With {@link TriggerManager#setContinuousCollision(boolean) continuous collision} the whole way from the current to the new position is checked.
      * @param event The {@link PlayerMoveEvent}.
      */
     public void playerMoveEvent(PlayerMoveEvent event) {
         final Player player = event.getPlayer();
-        final Pos oldPos = player.getPosition();
-        final Pos newPos = event.getNewPosition();
-
-        List<Vec> previousPoints = Trigger.getHitboxPoints(oldPos, player);
-        List<Vec> currentPoints = Trigger.getHitboxPoints(newPos, player);
-
-        for (Trigger trigger : triggers) {
-            // skip expensive checks if the player is nowhere near that trigger
-            final double checkRadius = trigger.getCheckRadius();
-            if (trigger.getPosition().distanceSquared(oldPos) > checkRadius * checkRadius) {
-                continue;
-            } else if (trigger.getPosition().distanceSquared(newPos) > checkRadius * checkRadius) {
-                continue;
-            }
-
-            boolean wasInside = trigger.contains(previousPoints);
-            boolean isInside = trigger.contains(currentPoints);
-
-            if (!wasInside && isInside) {
-                trigger.getTriggeredCallback().accept(new TriggeredCallback(player, trigger, TriggeredCallback.Type.ENTERED));
-            } else if (wasInside && !isInside) {
-                trigger.getTriggeredCallback().accept(new TriggeredCallback(player, trigger, TriggeredCallback.Type.EXITED));
-            }
+        if (isBatching()) {
+            queue(player, player.getPosition(), event.getNewPosition(), false);
+            return;
         }
+        updateMembership(player, player.getPosition(), event.getNewPosition());
     }
 
     /**
      * The main teleport event hook that glues the underlying collision logic together.
+     * A teleport is a jump, so only the new position is checked even with continuous collision.
+     * The player never was anywhere between the old and the new position, sweeping would fire ENTERED and EXITED for triggers it never touched.
+     * Other entities are picked up by the entity scan on the next tick, see {@link Trigger#setEntityTypes(Set)}.
      * @param event The {@link EntityTeleportEvent}.
      */
     public void entityTeleportEvent(EntityTeleportEvent event) {
         if (event.getEntity() instanceof Player player) {
-            final Pos oldPos = player.getPosition();
-            final Pos newPos = event.getNewPosition();
-
-            List<Vec> previousPoints = Trigger.getHitboxPoints(oldPos, player);
-            List<Vec> currentPoints = Trigger.getHitboxPoints(newPos, player);
-
-            for (Trigger trigger : triggers) {
-                // skip expensive checks if the player is nowhere near that trigger
-                final double checkRadius = trigger.getCheckRadius();
-                if (trigger.getPosition().distanceSquared(oldPos) > checkRadius * checkRadius) {
-                    continue;
-                } else if (trigger.getPosition().distanceSquared(newPos) > checkRadius * checkRadius) {
-                    continue;
-                }
-
-                boolean wasInside = trigger.contains(previousPoints);
-                boolean isInside = trigger.contains(currentPoints);
-
-                if (!wasInside && isInside) {
-                    trigger.getTriggeredCallback().accept(new TriggeredCallback(player, trigger, TriggeredCallback.Type.ENTERED));
-                } else if (wasInside && !isInside) {
-                    trigger.getTriggeredCallback().accept(new TriggeredCallback(player, trigger, TriggeredCallback.Type.EXITED));
-                }
+            if (isBatching()) {
+                queue(player, null, event.getNewPosition(), false);
+                return;
             }
+            updateMembership(player, event.getNewPosition(), event.getNewPosition());
         }
     }
 
     /**
      * The main spawn event hook that glues the underlying collision logic together.
+     * The player either spawns inside or not inside, triggers left behind by respawning elsewhere get an EXITED.
      * @param event The {@link EntitySpawnEvent}.
      */
     public void playerSpawnEvent(PlayerSpawnEvent event) {
         Player player = event.getEntity();
-        final Pos spawnPos = player.getPosition();
-
-        List<Vec> currentPoints = Trigger.getHitboxPoints(spawnPos, player);
-
-        for (Trigger trigger : triggers) {
-            // skip expensive checks if the player is nowhere near that trigger
-            final double checkRadius = trigger.getCheckRadius();
-            if (trigger.getPosition().distanceSquared(spawnPos) > checkRadius * checkRadius) {
-                continue;
-            }
-
-            boolean isInside = trigger.contains(currentPoints);
-
-            // The player either spawns inside or not inside
-            if (isInside) {
-                trigger.getTriggeredCallback().accept(new TriggeredCallback(player, trigger, TriggeredCallback.Type.ENTERED));
-            }
+        if (isBatching()) {
+            queue(player, null, player.getPosition(), false);
+            return;
         }
+        updateMembership(player, player.getPosition(), player.getPosition());
+    }
+
+    /**
+     * Disconnect event hook that frees the membership state of the player.
+     * No EXITED callbacks are fired.
+     * @param event The {@link PlayerDisconnectEvent}.
+     */
+    public void playerDisconnectEvent(PlayerDisconnectEvent event) {
+        pending.remove(event.getPlayer().getUuid());
+        memberships.remove(event.getPlayer().getUuid());
     }
 
     /**
@@ -209,82 +563,614 @@ public class TriggerManager {
     public void playerTickEvent(PlayerTickEvent event) {
         final Player player = event.getPlayer();
         final Pos pos = player.getPosition();
+        if (isBatching()) {
+            queue(player, pos, pos, true);
+            return;
+        }
 
-        List<Vec> currentPoints = Trigger.getHitboxPoints(pos, player);
+        List<Trigger> inside = new ArrayList<>();
+        collectInside(snapshot.players(), pos, player, inside);
 
-        for (Trigger trigger : triggers) {
-            // skip expensive checks if the player is nowhere near that trigger
-            final double checkRadius = trigger.getCheckRadius();
-            if (trigger.getPosition().distanceSquared(pos) > checkRadius * checkRadius) {
-                continue;
-            }
+        for (Trigger trigger : inside) {
+            trigger.getTriggeredCallback().accept(new TriggeredCallback(player, trigger, TriggeredCallback.Type.TICK));
+        }
+    }
+
+    /**
+     * Internal method for queueing a player for the end of the tick in coalesced or parallel mode, only the latest position of a player is kept.
+     * The start of the first movement in the tick is kept as well, so continuous collision checks one straight movement over the whole tick.
+     * @param player The player.
+     * @param from The position the movement started at, or null if the player jumped to the position.
+     * @param pos The latest position of the player.
+     * @param tick If this is the tick of the player.
+     */
+    private void queue(Player player, Pos from, Pos pos, boolean tick) {
+        pending.merge(player.getUuid(), new PendingPlayer(player, from == null ? pos : from, pos, tick),
+                (queued, latest) -> new PendingPlayer(player, from == null ? pos : queued.from(), pos, queued.tick() || tick));
+        if (flushScheduled.compareAndSet(false, true)) {
+            MinecraftServer.getSchedulerManager().scheduleEndOfTick(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
 
-            boolean isInside = trigger.contains(currentPoints);
+    /**
+     * Internal method for evaluating all queued players at the end of the tick, every player is checked once no matter how often it moved and ticked.
+     * In parallel mode the containment checks of all players run in parallel on the common {@link java.util.concurrent.ForkJoinPool}, all of them against the same snapshot.
+     * The callbacks are fired afterwards on the tick thread, players ordered by uuid and per player EXITED, ENTERED and then TICK, like the event hooks would.
+     */
+    void flush() {
+        final List<PendingPlayer> players = new ArrayList<>(pending.size());
+        for (UUID uuid : pending.keySet()) {
+            final PendingPlayer player = pending.remove(uuid);
+            if (player != null) players.add(player);
+        }
+        players.sort(Comparator.comparing(player -> player.player().getUuid()));
+        final Snapshot snapshot = this.snapshot;
+        final boolean continuous = this.continuous;
+
+        IntStream range = IntStream.range(0, players.size());
+        if (parallel && players.size() >= PARALLEL_THRESHOLD) {
+            range = range.parallel();
+        }
+        final List<Evaluation> evaluations = range.mapToObj(i -> {
+            final PendingPlayer player = players.get(i);
+            final Evaluation evaluation = new Evaluation(new LinkedHashSet<>(), continuous ? new ArrayList<>() : null);
+            collectInside(snapshot.players(), player.from(), player.pos(), player.player(), evaluation.inside(), evaluation.passed());
+            return evaluation;
+        }).toList();
 
-            if (isInside) {
-                trigger.getTriggeredCallback().accept(new TriggeredCallback(player, trigger, TriggeredCallback.Type.TICK));
+        for (int i = 0; i < players.size(); i++) {
+            final Player player = players.get(i).player();
+            final Evaluation evaluation = evaluations.get(i);
+            applyMembership(player, evaluation.inside(), evaluation.passed());
+            if (players.get(i).tick()) {
+                for (Trigger trigger : evaluation.inside()) {
+                    trigger.getTriggeredCallback().accept(new TriggeredCallback(player, trigger, TriggeredCallback.Type.TICK));
+                }
             }
         }
     }
 
+    /**
+     * Register the event hooks, and start the entity scan once per tick for triggers that fire for {@link Trigger#setEntityTypes(Set) other entities}.
+     * The scan does nothing as long as no trigger has entity types.
+     * @param handler The event node to listen on.
+     */
     public void registerEvents(EventNode<@NotNull Event> handler) {
         handler.addListener(PlayerMoveEvent.class, this::playerMoveEvent)
                 .addListener(EntityTeleportEvent.class, this::entityTeleportEvent)
                 .addListener(PlayerSpawnEvent.class, this::playerSpawnEvent)
-                .addListener(PlayerTickEvent.class, this::playerTickEvent);
+                .addListener(PlayerTickEvent.class, this::playerTickEvent)
+                .addListener(PlayerDisconnectEvent.class, this::playerDisconnectEvent);
+        if (entityScanScheduled.compareAndSet(false, true)) {
+            MinecraftServer.getSchedulerManager().buildTask(this::scanEntities).repeat(TaskSchedule.nextTick()).schedule();
+        }
     }
 
     /**
-     * Remove a trigger from {@link TriggerManager#triggers}.
+     * Internal method for checking all tracked entities against the triggers that fire for them, once per tick.
+     * Instead of listening to the movement of every entity, the entities of every instance with such triggers are collected in one pass
+     * and only the types any trigger fires for are checked, against indices that only hold the triggers with entity types.
+     * With {@link TriggerManager#setParallelEvaluation(boolean) parallel evaluation} the checks run in parallel, the callbacks are always fired on the calling thread ordered by entity id.
+     * Entities that are no longer scanned, for example because they changed to an instance without such triggers, get an EXITED. Removed entities are forgotten without one.
+     */
+    void scanEntities() {
+        final Snapshot snapshot = this.snapshot;
+        final Set<EntityType> types = snapshot.entityTypes();
+        if (types.isEmpty() && entities.isEmpty()) return;
+        final Partitions partitions = snapshot.entities();
+        final Collection<Instance> instances = partitions.index().size() > 0 ? MinecraftServer.getInstanceManager().getInstances() : partitions.instanceIndices().keySet();
+
+        final List<Entity> scanned = new ArrayList<>();
+        for (Instance instance : instances) {
+            for (Entity entity : instance.getEntities()) {
+                if (!(entity instanceof Player) && types.contains(entity.getEntityType())) {
+                    scanned.add(entity);
+                }
+            }
+        }
+        scanned.sort(Comparator.comparingInt(Entity::getEntityId));
+        final Pos[] positions = new Pos[scanned.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = scanned.get(i).getPosition();
+        }
+        final boolean continuous = this.continuous;
+
+        IntStream range = IntStream.range(0, scanned.size());
+        if (parallel && scanned.size() >= PARALLEL_THRESHOLD) {
+            range = range.parallel();
+        }
+        final List<Evaluation> evaluations = range.mapToObj(i -> {
+            final Entity entity = scanned.get(i);
+            final TrackedEntity tracked = entities.get(entity.getUuid());
+            final Evaluation evaluation = new Evaluation(new LinkedHashSet<>(), continuous ? new ArrayList<>() : null);
+            collectInside(partitions, tracked == null ? positions[i] : tracked.pos(), positions[i], entity, evaluation.inside(), evaluation.passed());
+            return evaluation;
+        }).toList();
+
+        final Set<UUID> seen = new HashSet<>(scanned.size());
+        for (int i = 0; i < scanned.size(); i++) {
+            final Entity entity = scanned.get(i);
+            final Evaluation evaluation = evaluations.get(i);
+            seen.add(entity.getUuid());
+            final Pos pos = positions[i];
+            final AtomicReference<Set<Trigger>> previous = new AtomicReference<>(Set.of());
+            // Atomic with the cleanup of removed triggers, like applyMembership
+            entities.compute(entity.getUuid(), (uuid, tracked) -> {
+                if (tracked != null) previous.set(tracked.inside());
+                retainRegistered(evaluation.inside());
+                // Entities outside of all triggers are only remembered for the start of the next sweep
+                return evaluation.inside().isEmpty() && !continuous ? null : new TrackedEntity(entity, pos, evaluation.inside());
+            });
+            fireChanges(entity, previous.get(), evaluation.inside(), evaluation.passed());
+            for (Trigger trigger : evaluation.inside()) {
+                trigger.getTriggeredCallback().accept(new TriggeredCallback(entity, trigger, TriggeredCallback.Type.TICK));
+            }
+        }
+
+        entities.values().removeIf(tracked -> {
+            if (seen.contains(tracked.entity().getUuid())) return false;
+            if (!tracked.entity().isRemoved()) {
+                fireChanges(tracked.entity(), tracked.inside(), Set.of(), null);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Remove a trigger from this manager, it stops triggering once the change is published at the start of the next tick.
      * @param trigger The trigger to remove.
      * @return True if the trigger was removed, false if it does not exist.
      */
     public boolean remove(Trigger trigger) {
-        if (!triggers.contains(trigger)) return false;
-        triggers.remove(trigger);
-        totalTriangles -= trigger.getTriangles().size();
+        synchronized (lock) {
+            if (!triggers.remove(trigger)) return false;
+            unstage(trigger);
+        }
+        schedulePublish();
+        return true;
+    }
+
+    /**
+     * Remove many triggers from this manager at once.
+     * Like {@link TriggerManager#addAll(Collection)} this takes the lock only once.
+     * @param triggers The triggers to remove.
+     * @return True if any trigger was removed, false if none of them exist.
+     */
+    public boolean removeAll(Collection<? extends Trigger> triggers) {
+        final Set<Trigger> removing = new HashSet<>(triggers);
+        final List<Trigger> removed = new ArrayList<>(removing.size());
+        synchronized (lock) {
+            for (Trigger trigger : removing) {
+                if (this.triggers.remove(trigger)) {
+                    removed.add(trigger);
+                    unstage(trigger);
+                }
+            }
+        }
+        if (removed.isEmpty()) return false;
+        schedulePublish();
         return true;
     }
 
     /**
-     * Add an existing trigger to {@link TriggerManager#triggers}.
+     * Add an existing trigger to this manager, it starts triggering once the change is published at the start of the next tick.
+     * Adding a trigger that is already in this manager does nothing.
      * @param trigger The trigger to add.
      */
     public void add(Trigger trigger) {
-        triggers.add(trigger);
+        synchronized (lock) {
+            stage(trigger);
+        }
+        schedulePublish();
     }
 
     /**
-     * Check if the list of {@link TriggerManager#triggers triggers} contains a trigger.
+     * Add many existing triggers to this manager at once.
+     * Changes are published together anyway, but this takes the lock only once and is preferred over calling {@link TriggerManager#add(Trigger)} in a loop when loading a lot of triggers.
+     * Triggers that are already in this manager are skipped.
+     * @param triggers The triggers to add.
+     */
+    public void addAll(Collection<? extends Trigger> triggers) {
+        synchronized (lock) {
+            for (Trigger trigger : triggers) {
+                stage(trigger);
+            }
+        }
+        schedulePublish();
+    }
+
+    /**
+     * Internal method for adding a trigger to the pending state, the lock has to be held.
+     * A trigger is only registered once, adding it again would index it twice and count its triangles twice.
+     * @param trigger The trigger.
+     */
+    private void stage(Trigger trigger) {
+        if (!triggers.add(trigger)) return;
+        trigger.getManagers().add(this);
+        changed.add(trigger);
+        totalTriangles += trigger.getShape().getTriangleCount();
+    }
+
+    /**
+     * Internal method for taking a trigger that was removed from the set out of the pending state, the lock has to be held.
+     * @param trigger The trigger.
+     */
+    private void unstage(Trigger trigger) {
+        trigger.getManagers().remove(this);
+        changed.add(trigger);
+        totalTriangles -= trigger.getShape().getTriangleCount();
+    }
+
+    /**
+     * Internal method called by a {@link Trigger} of this manager after it was moved to another instance.
+     * @param trigger The trigger that moved.
+     */
+    void changeInstance(Trigger trigger) {
+        synchronized (lock) {
+            changed.add(trigger);
+        }
+        schedulePublish();
+    }
+
+    /**
+     * Internal method called by a {@link Trigger} of this manager after the entity types it fires for changed.
+     * @param trigger The trigger that changed.
+     */
+    void changeEntityTypes(Trigger trigger) {
+        synchronized (lock) {
+            changed.add(trigger);
+        }
+        schedulePublish();
+    }
+
+    /**
+     * Internal method for publishing the pending changes at the start of the next tick, several changes in the same tick are published once.
+     * Before the server ticks nothing reads the snapshot on another thread, so changes are published right away.
+     */
+    private void schedulePublish() {
+        final ServerProcess process = MinecraftServer.process();
+        if (process == null || !process.isAlive()) {
+            publishChanges();
+            return;
+        }
+        if (publishScheduled.compareAndSet(false, true)) {
+            TriggerGlobals.NEXT_TICK.execute(() -> {
+                publishScheduled.set(false);
+                publishChanges();
+            });
+        }
+    }
+
+    /**
+     * Publish all pending changes right away instead of at the start of the next tick.
+     * Only the indices of instances whose triggers changed are replaced, by copies with the changes applied, the event hooks switch to the new snapshot on their next check.
+     * Players and entities that were inside of a removed trigger forget it without an EXITED.
+     */
+    public void publishChanges() {
+        final List<Trigger> dropped = new ArrayList<>();
+        synchronized (lock) {
+            if (changed.isEmpty()) return;
+            final Snapshot previous = snapshot;
+
+            final Map<Instance, Delta> players = new HashMap<>();
+            final Map<Instance, Delta> entities = new HashMap<>();
+            boolean entityTypesChanged = false;
+            for (Trigger trigger : changed) {
+                final Placement before = placements.get(trigger);
+                final Placement after = trigger.getManagers().contains(this) ? new Placement(trigger.getInstance(), !trigger.getEntityTypes().isEmpty()) : null;
+                diff(players, trigger, before != null, before == null ? null : before.instance(), after != null, after == null ? null : after.instance());
+                diff(entities, trigger, before != null && before.entities(), before == null ? null : before.instance(), after != null && after.entities(), after == null ? null : after.instance());
+                entityTypesChanged |= before != null && before.entities() || after != null && after.entities();
+                if (after != null) {
+                    placements.put(trigger, after);
+                } else if (before != null) {
+                    placements.remove(trigger);
+                    dropped.add(trigger);
+                }
+            }
+
+            Set<EntityType> entityTypes = previous.entityTypes();
+            if (entityTypesChanged) {
+                final Set<EntityType> types = new HashSet<>();
+                for (Trigger trigger : triggers) {
+                    types.addAll(trigger.getEntityTypes());
+                }
+                entityTypes = Set.copyOf(types);
+            }
+
+            snapshot = new Snapshot(List.copyOf(triggers), previous.players().apply(players, triggers, false, indexFactory),
+                    previous.entities().apply(entities, triggers, true, indexFactory), entityTypes, totalTriangles);
+            changed.clear();
+        }
+
+        if (!dropped.isEmpty()) {
+            // The sets may be read by the event hooks right now, so they are replaced instead of changed
+            for (UUID uuid : memberships.keySet()) {
+                memberships.computeIfPresent(uuid, (key, inside) -> {
+                    if (Collections.disjoint(inside, dropped)) return inside;
+                    final Set<Trigger> kept = new LinkedHashSet<>(inside);
+                    dropped.forEach(kept::remove);
+                    return kept.isEmpty() ? null : kept;
+                });
+            }
+            for (UUID uuid : entities.keySet()) {
+                entities.computeIfPresent(uuid, (key, tracked) -> {
+                    if (Collections.disjoint(tracked.inside(), dropped)) return tracked;
+                    final Set<Trigger> kept = new LinkedHashSet<>(tracked.inside());
+                    dropped.forEach(kept::remove);
+                    return new TrackedEntity(tracked.entity(), tracked.pos(), kept);
+                });
+            }
+        }
+    }
+
+    /**
+     * Internal method for recording how a trigger moves between the indices of one kind of partitions.
+     * @param deltas The changes of every instance.
+     * @param trigger The trigger.
+     * @param wasIndexed If the trigger is in the published indices.
+     * @param before The instance of the published index holding the trigger.
+     * @param isIndexed If the trigger belongs into the indices now.
+     * @param after The instance of the index the trigger belongs into now.
+     */
+    private static void diff(Map<Instance, Delta> deltas, Trigger trigger, boolean wasIndexed, Instance before, boolean isIndexed, Instance after) {
+        if (wasIndexed && isIndexed && before == after) {
+            deltas.computeIfAbsent(after, key -> new Delta()).updated().add(trigger);
+            return;
+        }
+        if (wasIndexed) {
+            deltas.computeIfAbsent(before, key -> new Delta()).removed().add(trigger);
+        }
+        if (isIndexed) {
+            deltas.computeIfAbsent(after, key -> new Delta()).inserted().add(trigger);
+        }
+    }
+
+    /**
+     * Load a JSON array of triggers, as written by {@link Trigger#toJSON()}, and add them all to this manager.
+     * The array is streamed through {@link TriggerTypeAdapter} without computing anything, then all hulls are computed in parallel on the common {@link java.util.concurrent.ForkJoinPool},
+     * and finally the triggers are added in one batch with {@link TriggerManager#addAll(Collection)} and {@link TriggerManager#publishChanges() published} right away,
+     * so the insert phase of the report includes building the indices.
+     * <p>
+     * Meant for loading zone files on startup, but like {@link TriggerManager#add(Trigger)} it can be called from any thread, the triggers trigger as soon as it returns.
+     * Triggers whose hull can not be computed are logged and skipped.
+     * @param reader The reader holding the JSON array, not closed by this method.
+     * @param triggeredCallback The {@link Consumer<TriggeredCallback>} every loaded trigger gets, can be replaced per trigger later on.
+     * @return The loaded triggers and how long each phase took.
+     * @throws IOException If reading fails or the JSON is malformed.
+     */
+    public TriggerLoadReport loadJSON(Reader reader, Consumer<TriggeredCallback> triggeredCallback) throws IOException {
+        final long start = System.nanoTime();
+
+        final List<TriggerTypeAdapter.TriggerData> data = new ArrayList<>();
+        final JsonReader in = new JsonReader(reader);
+        in.beginArray();
+        while (in.hasNext()) {
+            data.add(TriggerGlobals.triggerTypeAdapter.readData(in));
+        }
+        in.endArray();
+        final long read = System.nanoTime();
+
+        final TriggerShape[] shapes = new TriggerShape[data.size()];
+        Arrays.parallelSetAll(shapes, i -> {
+            TriggerTypeAdapter.TriggerData trigger = data.get(i);
+            try {
+                return trigger.shape();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Skipping {}, its shape could not be created: {}", PlainTextComponentSerializer.plainText().serialize(trigger.name()), e.getMessage());
+                return null;
+            }
+        });
+        final long computed = System.nanoTime();
+
+        final List<Trigger> loaded = new ArrayList<>(shapes.length);
+        for (int i = 0; i < shapes.length; i++) {
+            if (shapes[i] == null) continue;
+            TriggerTypeAdapter.TriggerData trigger = data.get(i);
+            loaded.add(new Trigger(shapes[i], trigger.position(), UUID.randomUUID(), trigger.name(), NamedTextColor.RED, triggeredCallback));
+        }
+        addAll(loaded);
+        // Published here instead of on the next tick, the index build is the expensive part of inserting
+        publishChanges();
+        final long end = System.nanoTime();
+
+        final TriggerLoadReport report = new TriggerLoadReport(List.copyOf(loaded), shapes.length - loaded.size(),
+                (read - start) / 1000000.0, (computed - read) / 1000000.0, (end - computed) / 1000000.0, (end - start) / 1000000.0);
+        if (debug) {
+            LOGGER.info(report.toString());
+        }
+        return report;
+    }
+
+    /**
+     * Find all triggers whose world space bounds overlap an arbitrary box, in any instance.
+     * These are only candidates, use {@link Trigger#contains(double, double, double, double, double, double)} for the exact check.
+     * @param min The minimum corner of the box.
+     * @param max The maximum corner of the box.
+     * @return The triggers whose bounds overlap the box.
+     */
+    public List<Trigger> query(Point min, Point max) {
+        final Partitions partitions = snapshot.players();
+        List<Trigger> candidates = new ArrayList<>();
+        partitions.index().query(min.x(), min.y(), min.z(), max.x(), max.y(), max.z(), candidates);
+        for (TriggerIndex instanceIndex : partitions.instanceIndices().values()) {
+            instanceIndex.query(min.x(), min.y(), min.z(), max.x(), max.y(), max.z(), candidates);
+        }
+        return candidates;
+    }
+
+    /**
+     * Find all triggers of an instance whose world space bounds overlap an arbitrary box, including the triggers without an instance.
+     * These are only candidates, use {@link Trigger#contains(double, double, double, double, double, double)} for the exact check.
+     * @param instance The instance.
+     * @param min The minimum corner of the box.
+     * @param max The maximum corner of the box.
+     * @return The triggers whose bounds overlap the box.
+     */
+    public List<Trigger> query(Instance instance, Point min, Point max) {
+        final Partitions partitions = snapshot.players();
+        List<Trigger> candidates = new ArrayList<>();
+        partitions.index().query(min.x(), min.y(), min.z(), max.x(), max.y(), max.z(), candidates);
+        final TriggerIndex instanceIndex = instance == null ? null : partitions.instanceIndices().get(instance);
+        if (instanceIndex != null) {
+            instanceIndex.query(min.x(), min.y(), min.z(), max.x(), max.y(), max.z(), candidates);
+        }
+        return candidates;
+    }
+
+    /**
+     * Internal method called by a {@link Trigger} of this manager after its bounds or hull changed.
+     * @param trigger The trigger that changed.
+     * @param triangleDelta By how much the triangle count of the trigger changed.
+     */
+    void update(Trigger trigger, int triangleDelta) {
+        synchronized (lock) {
+            changed.add(trigger);
+            totalTriangles += triangleDelta;
+        }
+        schedulePublish();
+    }
+
+    /**
+     * Check if this manager contains a trigger, as of the last publish.
      * @param trigger The trigger to check containment for.
-     * @return true if {@link TriggerManager#triggers triggers} contains the trigger, false if not.
+     * @return true if the published triggers contain the trigger, false if not.
      */
     public boolean contains(Trigger trigger) {
-        return triggers.contains(trigger);
+        return snapshot.triggers().contains(trigger);
     }
 
     /**
-     * Iterate over all registered triggers.
+     * Iterate over all registered triggers, as of the last publish.
      * @param trigger The consumer.
      */
     public void forEach(Consumer<Trigger> trigger) {
-        triggers.forEach(trigger);
+        snapshot.triggers().forEach(trigger);
     }
 
     /**
-     * Get an unmodifiable copy of the list containing all triggers of this manager.
-     * @return An unmodifiable copy of the list containing all triggers of this manager.
+     * Get an unmodifiable list containing all triggers of this manager, as of the last publish.
+     * The list is never changed afterwards, so it can be iterated while other threads add or remove triggers.
+     * @return An unmodifiable list containing all triggers of this manager.
      */
     public List<Trigger> getTriggers() {
-        return List.copyOf(triggers);
+        return snapshot.triggers();
     }
 
     /**
-     * Get the combined total triangle count of all registered triggers.
+     * Get the combined total triangle count of all registered triggers, as of the last publish.
      * @return Combined total triangle count of all registered triggers.
      */
     public int getTotalTriangles() {
-        return totalTriangles;
+        return snapshot.totalTriangles();
+    }
+
+    /**
+     * Get the triggers a player or another entity is currently inside of, as of the last movement of a player or the last entity scan.
+     * @param entity The player or entity.
+     * @return An unmodifiable copy of the triggers the entity is inside of.
+     */
+    public Set<Trigger> getTriggersInside(Entity entity) {
+        if (entity instanceof Player) {
+            return Set.copyOf(memberships.getOrDefault(entity.getUuid(), Set.of()));
+        }
+        final TrackedEntity tracked = entities.get(entity.getUuid());
+        return tracked == null ? Set.of() : Set.copyOf(tracked.inside());
+    }
+
+    /**
+     * Get the {@link TriggerIndex} of the triggers without an instance, as of the last publish.
+     * It is replaced by a changed copy whenever these triggers change, it must not be changed by the caller.
+     * @return The {@link TriggerIndex} of the triggers that fire in every instance.
+     */
+    public TriggerIndex getIndex() {
+        return snapshot.players().index();
+    }
+
+    /**
+     * Get the {@link TriggerIndex} of the triggers of an instance, as of the last publish.
+     * It is replaced by a changed copy whenever these triggers change, it must not be changed by the caller.
+     * @param instance The instance.
+     * @return The {@link TriggerIndex} of the instance, or null if it has no triggers.
+     */
+    public TriggerIndex getIndex(Instance instance) {
+        return snapshot.players().instanceIndices().get(instance);
+    }
+
+    /**
+     * Turn coalesced evaluation on or off, it is off by default.
+     * <p>
+     * Normally every movement is checked right away in the event listener of the player, and the tick of the player checks the same triggers again for the TICK callbacks.
+     * With coalesced evaluation the event hooks only remember the latest position of every player, and at the end of the tick every player is checked exactly once.
+     * ENTERED, EXITED and TICK are all derived from that one result and fired on the tick thread in a fixed order (by player uuid).
+     * This about halves the containment checks of moving players, but callbacks arrive at the end of the tick instead of during the movement,
+     * and several moves of one player in the same tick are checked as one move to the latest position.
+     * <p>
+     * The whole batch is checked against the snapshot that is published at that time, changes from other threads apply from the next batch on.
+     * @param coalesced true to evaluate every player once per tick, false to evaluate every movement and tick right away.
+     */
+    public void setCoalescedEvaluation(boolean coalesced) {
+        this.coalesced = coalesced;
+    }
+
+    /**
+     * Get if players are evaluated once per tick, see {@link TriggerManager#setCoalescedEvaluation(boolean)}.
+     * Parallel evaluation is coalesced as well, even if this returns false.
+     * @return true if coalesced evaluation is on.
+     */
+    public boolean isCoalescedEvaluation() {
+        return coalesced;
+    }
+
+    /**
+     * Internal method for checking if the event hooks queue players for the end of the tick instead of checking them right away.
+     * @return true in coalesced or parallel mode.
+     */
+    private boolean isBatching() {
+        return coalesced || parallel;
+    }
+
+    /**
+     * Turn parallel evaluation on or off, it is off by default.
+     * <p>
+     * Parallel evaluation is {@link TriggerManager#setCoalescedEvaluation(boolean) coalesced evaluation} where the checks of all players run at once in parallel,
+     * the callbacks are still fired on the tick thread in the same order. This pays off with a lot of players and triggers.
+     * @param parallel true to evaluate players in parallel batches, false to evaluate every movement right away or in coalesced batches.
+     */
+    public void setParallelEvaluation(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Get if players are evaluated in parallel batches at the end of the tick, see {@link TriggerManager#setParallelEvaluation(boolean)}.
+     * @return true if parallel evaluation is on.
+     */
+    public boolean isParallelEvaluation() {
+        return parallel;
+    }
+
+    /**
+     * Turn continuous collision on or off, it is off by default.
+     * <p>
+     * Normally only the hitbox at the new position is checked, so fast players (elytra, riptide, knockback) can skip over thin triggers without any callback.
+     * With continuous collision the hitbox is swept along the straight line from the current to the new position,
+     * a trigger it only touched on the way gets an ENTERED directly followed by an EXITED. Teleports and spawns are jumps and are not swept.
+     * The sweep is only tested for triggers near the path whose bounds it hits, see {@link Trigger#containsSwept(double, double, double, double, double, double, double, double, double)}.
+     * @param continuous true to check the whole movement, false to only check the new position.
+     */
+    public void setContinuousCollision(boolean continuous) {
+        this.continuous = continuous;
+    }
+
+    /**
+     * Get if movements are swept, see {@link TriggerManager#setContinuousCollision(boolean)}.
+     * @return true if continuous collision is on.
+     */
+    public boolean isContinuousCollision() {
+        return continuous;
     }
 
     /**
@@ -0,0 +1,688 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Vec;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * The geometry of a {@link Trigger} relative to its position: its local bounds, its debug triangles and how to test a box against it.
+ * <p>
+ * Shapes are immutable and know nothing about where they are placed, so any amount of triggers can share one shape and only store their own position.
+ * Use {@link TriggerShape#of(List)} to get a {@link HullShape hull} as a template for many triggers, e.g. with {@link TriggerManager#create(TriggerShape, Vec, java.util.UUID, net.kyori.adventure.text.Component, net.kyori.adventure.util.RGBLike, java.util.function.Consumer)}.
+ * Triggers created from anchors share their shapes automatically through {@link TriggerGlobals#SHAPE_CACHE}.
+ * <p>
+ * Zones that are just a box, a sphere or a cylinder don't need a hull at all.
+ * {@link TriggerShape#box(Vec, Vec)}, {@link TriggerShape#sphere(Vec, double)}, {@link TriggerShape#cylinder(Vec, double, double)} and {@link TriggerShape#orientedBox(Vec, Vec, double)}
+ * create shapes that are checked with a few comparisons instead of projecting onto every hull axis.
+ * Flat footprints with a height, even concave ones, are best described by {@link TriggerShape#prism(List, double, double)}.
+ * Other concave areas can be built from convex parts with {@link TriggerShape#compound(List)} or {@link TriggerShape#decompose(List, double, int)}.
+ * <p>
+ * A trigger swaps its whole shape at once when it is recomputed.
+ * That way {@link Trigger#recomputeAsync()} can build the new hull on another thread while the old one stays in use.
+ */
+public abstract class TriggerShape {
+
+    /**
+     * The kinds of shapes, used for serialization.
+     */
+    public enum Type {
+        /**
+         * The convex hull of a set of anchors, see {@link HullShape}.
+         */
+        HULL,
+        /**
+         * An axis-aligned box, see {@link BoxShape}.
+         */
+        BOX,
+        /**
+         * A sphere, see {@link SphereShape}.
+         */
+        SPHERE,
+        /**
+         * A vertical cylinder, see {@link CylinderShape}.
+         */
+        CYLINDER,
+        /**
+         * A rotated box, see {@link OrientedBoxShape}.
+         */
+        ORIENTED_BOX,
+        /**
+         * A 2D polygon extended over a y range, see {@link PrismShape}.
+         */
+        PRISM,
+        /**
+         * Several convex parts acting as one trigger, see {@link CompoundShape}.
+         */
+        COMPOUND
+    }
+
+    /**
+     * Amount of doubles per entry of {@link TriggerShape#faceAxes()} and {@link TriggerShape#edgeAxes()}: the axis x, y, z followed by the min and max offset of the shape along it.
+     */
+    static final int AXIS_STRIDE = 5;
+
+    /**
+     * Amount of doubles per packed triangle: the x, y, z of the corners a, b, c followed by the normal.
+     */
+    static final int TRIANGLE_STRIDE = 12;
+
+    // Steps of the ternary search of sweepDistanceSquared, each one keeps two thirds of the movement
+    private static final int SWEEP_ITERATIONS = 48;
+
+    // The compiled half-space form of the shape, see AXIS_STRIDE for the layout. Empty for shapes that check containment themselves
+    private final double[] faceAxes;
+    // Only used by ContainmentMode.EXACT_SAT
+    private final double[] edgeAxes;
+    private final Vec localMin;
+    private final Vec localMax;
+    private final double computationTime;
+
+    TriggerShape(double[] faceAxes, double[] edgeAxes, Vec localMin, Vec localMax, double computationTime) {
+        this.faceAxes = faceAxes;
+        this.edgeAxes = edgeAxes;
+        this.localMin = localMin;
+        this.localMax = localMax;
+        this.computationTime = computationTime;
+    }
+
+    /**
+     * Get the hull of a set of anchors, computed once and then shared through {@link TriggerGlobals#SHAPE_CACHE}.
+     * Coplanar anchors are slightly extruded, see {@link Trigger#arePointsCoplanar(List)}. Safe to call from any thread.
+     * @param anchors The anchors to "shrink wrap", at least 4.
+     * @return The shape, the same instance for every set of anchors with the same points.
+     */
+    public static TriggerShape of(List<Vec> anchors) {
+        return TriggerGlobals.SHAPE_CACHE.get(Trigger.extrudeCoplanar(anchors));
+    }
+
+    /**
+     * Create an axis-aligned box.
+     * @param min The minimum corner relative to the position of the trigger.
+     * @param max The maximum corner relative to the position of the trigger.
+     * @return The box.
+     */
+    public static BoxShape box(Vec min, Vec max) {
+        return new BoxShape(min, max);
+    }
+
+    /**
+     * Create a sphere centered on the position of the trigger.
+     * @param radius The radius.
+     * @return The sphere.
+     */
+    public static SphereShape sphere(double radius) {
+        return new SphereShape(Vec.ZERO, radius);
+    }
+
+    /**
+     * Create a sphere.
+     * @param center The center relative to the position of the trigger.
+     * @param radius The radius.
+     * @return The sphere.
+     */
+    public static SphereShape sphere(Vec center, double radius) {
+        return new SphereShape(center, radius);
+    }
+
+    /**
+     * Create a vertical cylinder.
+     * @param baseCenter The center of the bottom face relative to the position of the trigger.
+     * @param radius The radius.
+     * @param height The height.
+     * @return The cylinder.
+     */
+    public static CylinderShape cylinder(Vec baseCenter, double radius, double height) {
+        return new CylinderShape(baseCenter, radius, height);
+    }
+
+    /**
+     * Create a box that is rotated around the vertical axis.
+     * @param center The center relative to the position of the trigger.
+     * @param halfExtents Half the size of the box along its own axes.
+     * @param yaw The rotation around the vertical axis in degrees.
+     * @return The box.
+     */
+    public static OrientedBoxShape orientedBox(Vec center, Vec halfExtents, double yaw) {
+        final double radians = Math.toRadians(yaw);
+        return new OrientedBoxShape(center, halfExtents, new Vec(Math.cos(radians), 0, Math.sin(radians)), new Vec(0, 1, 0));
+    }
+
+    /**
+     * Create a box with any rotation.
+     * @param center The center relative to the position of the trigger.
+     * @param halfExtents Half the size of the box along its own axes.
+     * @param axisX The direction of the x axis of the box.
+     * @param axisY The direction of the y axis of the box, made perpendicular to axisX if it isn't. The z axis follows from the other two.
+     * @return The box.
+     */
+    public static OrientedBoxShape orientedBox(Vec center, Vec halfExtents, Vec axisX, Vec axisY) {
+        return new OrientedBoxShape(center, halfExtents, axisX, axisY);
+    }
+
+    /**
+     * Create a vertical prism from a polygon on the x/z plane, e.g. the footprint of a region claim.
+     * The polygon may be concave, its edges connect the vertices in order and the last vertex back to the first.
+     * @param footprint The vertices of the polygon relative to the position of the trigger, their y is ignored.
+     * @param minY The bottom of the prism relative to the position of the trigger.
+     * @param maxY The top of the prism relative to the position of the trigger.
+     * @return The prism.
+     */
+    public static PrismShape prism(List<Vec> footprint, double minY, double maxY) {
+        final double[] vertices = new double[footprint.size() * 2];
+        for (int i = 0; i < footprint.size(); i++) {
+            vertices[i * 2] = footprint.get(i).x();
+            vertices[i * 2 + 1] = footprint.get(i).z();
+        }
+        return new PrismShape(vertices, minY, maxY);
+    }
+
+    /**
+     * Combine several shapes into one concave shape, e.g. the two boxes of an L shape. Nested compounds are flattened.
+     * @param parts The parts relative to the position of the trigger, usually convex.
+     * @return The compound.
+     */
+    public static CompoundShape compound(List<TriggerShape> parts) {
+        return new CompoundShape(parts, 0);
+    }
+
+    /**
+     * Combine several shapes into one concave shape, see {@link TriggerShape#compound(List)}.
+     * @param parts The parts relative to the position of the trigger, usually convex.
+     * @return The compound.
+     */
+    public static CompoundShape compound(TriggerShape... parts) {
+        return compound(List.of(parts));
+    }
+
+    /**
+     * Split a closed mesh into convex hulls, an approximate convex decomposition.
+     * The mesh is cut with axis-aligned planes until every part is at most maxConcavity concave, measured as the volume its hull has on top of the mesh.
+     * This is expensive for big meshes, do it once and keep the result, e.g. with {@link TriggerBinaryFormat}.
+     * @param mesh The triangles of a closed mesh with consistent winding, relative to the position of the trigger. The normals are ignored.
+     * @param maxConcavity The highest accepted concavity of a part, between 0 (perfectly convex) and 1. Something like 0.05 works for most shapes.
+     * @param maxParts The highest amount of parts, the most concave parts are left as they are once this is reached.
+     * @return The compound of the hulls of all parts.
+     * @throws IllegalArgumentException If the mesh has no volume or maxParts is less than 1.
+     */
+    public static CompoundShape decompose(List<Trigger.Triangle> mesh, double maxConcavity, int maxParts) {
+        final long startTime = System.nanoTime();
+        final List<TriggerShape> parts = ConvexDecomposition.decompose(mesh, maxConcavity, maxParts);
+        return new CompoundShape(parts, (System.nanoTime() - startTime) / 1000000.0);
+    }
+
+    /**
+     * Internal method for creating a primitive shape from its {@link TriggerShape#parameters()}, used when reading triggers.
+     * @param type The type of the shape, hulls are made from anchors instead.
+     * @param parameters The parameters.
+     * @return The shape.
+     * @throws IllegalArgumentException If the type is {@link Type#HULL} or the amount of parameters does not match the type.
+     */
+    static TriggerShape fromParameters(Type type, double[] parameters) {
+        final int expected = switch (type) {
+            case HULL -> throw new IllegalArgumentException("Hulls are made from anchors, not parameters");
+            case COMPOUND -> throw new IllegalArgumentException("Compounds are made from parts, not parameters");
+            case BOX -> 6;
+            case SPHERE -> 4;
+            case CYLINDER -> 5;
+            case ORIENTED_BOX -> 12;
+            // min y, max y and at least 3 vertices
+            case PRISM -> Math.max(8, parameters.length + parameters.length % 2);
+        };
+        if (parameters.length != expected) {
+            throw new IllegalArgumentException(type + " needs " + expected + " parameters, got " + parameters.length);
+        }
+        final double[] p = parameters;
+        return switch (type) {
+            case BOX -> new BoxShape(new Vec(p[0], p[1], p[2]), new Vec(p[3], p[4], p[5]));
+            case SPHERE -> new SphereShape(new Vec(p[0], p[1], p[2]), p[3]);
+            case CYLINDER -> new CylinderShape(new Vec(p[0], p[1], p[2]), p[3], p[4]);
+            case ORIENTED_BOX -> new OrientedBoxShape(new Vec(p[0], p[1], p[2]), new Vec(p[3], p[4], p[5]), new Vec(p[6], p[7], p[8]), new Vec(p[9], p[10], p[11]));
+            case PRISM -> new PrismShape(Arrays.copyOfRange(p, 2, p.length), p[0], p[1]);
+            case HULL, COMPOUND -> throw new IllegalStateException();
+        };
+    }
+
+    /**
+     * Get what kind of shape this is.
+     * @return The {@link Type} of this shape.
+     */
+    public abstract Type getType();
+
+    /**
+     * Get the anchors relative to the position of a trigger.
+     * Hulls return the anchors they were computed from, boxes their corners and round shapes nothing.
+     * @return A read-only list of the anchors.
+     */
+    public abstract List<Vec> getAnchors();
+
+    /**
+     * Get the triangles used for debug rendering, relative to the position of a trigger. Round shapes are approximated.
+     * @return A read-only list of the triangles.
+     */
+    public abstract List<Trigger.Triangle> getTriangles();
+
+    /**
+     * Get how many triangles {@link TriggerShape#getTriangles()} returns, without creating them.
+     * @return The amount of triangles.
+     */
+    public abstract int getTriangleCount();
+
+    /**
+     * Get the distance from the position of a trigger to the furthest point of the shape.
+     * @return The distance to the furthest corner of the local bounds.
+     */
+    public double getRadius() {
+        final double x = Math.max(Math.abs(localMin.x()), Math.abs(localMax.x()));
+        final double y = Math.max(Math.abs(localMin.y()), Math.abs(localMax.y()));
+        final double z = Math.max(Math.abs(localMin.z()), Math.abs(localMax.z()));
+        return Math.sqrt(x * x + y * y + z * z);
+    }
+
+    /**
+     * Internal method for getting the numbers that define a primitive shape, see {@link TriggerShape#fromParameters(Type, double[])}.
+     * @return The parameters, empty for hulls.
+     */
+    abstract double[] parameters();
+
+    /**
+     * Internal method for computing the shape again, only hulls have anything to compute.
+     * @return The recomputed shape.
+     */
+    TriggerShape recompute() {
+        return this;
+    }
+
+    /**
+     * Internal method for replacing the rendered triangles, only hulls support it.
+     * @param triangles The new triangles.
+     * @return The new shape.
+     */
+    TriggerShape withTriangles(List<Trigger.Triangle> triangles) {
+        throw new UnsupportedOperationException("Only hulls can render custom triangles");
+    }
+
+    /**
+     * Internal part of the collision check for a box, called once the box overlaps the world space bounds.
+     * Projects the box onto the face axes and, in {@link Trigger.ContainmentMode#EXACT_SAT}, the edge axes. Primitive shapes override this with an exact closed form test.
+     * @param worldFaceAxes The face axes with world space intervals.
+     * @param worldEdgeAxes The edge axes with world space intervals.
+     * @param position The position of the trigger.
+     * @param minX Minimum x of the box.
+     * @param minY Minimum y of the box.
+     * @param minZ Minimum z of the box.
+     * @param maxX Maximum x of the box.
+     * @param maxY Maximum y of the box.
+     * @param maxZ Maximum z of the box.
+     * @param mode The {@link Trigger.ContainmentMode} of the trigger.
+     * @return Result of the containment check.
+     */
+    boolean overlaps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Trigger.ContainmentMode mode) {
+        final double cx = (minX + maxX) * 0.5, cy = (minY + maxY) * 0.5, cz = (minZ + maxZ) * 0.5;
+        final double hx = (maxX - minX) * 0.5, hy = (maxY - minY) * 0.5, hz = (maxZ - minZ) * 0.5;
+        if (!boxOverlapsAlong(worldFaceAxes, cx, cy, cz, hx, hy, hz)) {
+            return false;
+        }
+        return mode != Trigger.ContainmentMode.EXACT_SAT || boxOverlapsAlong(worldEdgeAxes, cx, cy, cz, hx, hy, hz);
+    }
+
+    /**
+     * Internal part of the collision check for a set of points, called once their bounds overlap the world space bounds.
+     * @param worldFaceAxes The face axes with world space intervals.
+     * @param worldEdgeAxes The edge axes with world space intervals.
+     * @param position The position of the trigger.
+     * @param points The points to check containment for.
+     * @param minX Minimum x of the points.
+     * @param minY Minimum y of the points.
+     * @param minZ Minimum z of the points.
+     * @param maxX Maximum x of the points.
+     * @param maxY Maximum y of the points.
+     * @param maxZ Maximum z of the points.
+     * @param mode The {@link Trigger.ContainmentMode} of the trigger.
+     * @return Result of the containment check.
+     */
+    boolean overlaps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, List<Vec> points, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Trigger.ContainmentMode mode) {
+        if (!pointsOverlapAlong(worldFaceAxes, points)) {
+            return false;
+        }
+        return mode != Trigger.ContainmentMode.EXACT_SAT || pointsOverlapAlong(worldEdgeAxes, points);
+    }
+
+    /**
+     * Internal part of the swept collision check, called once the path of the box passed the bounds check.
+     * The box touches the shape somewhere along the movement if its center passes through the shape grown by the box,
+     * which has the same separating axes as the static check. So the movement is clipped against the grown interval of every axis,
+     * starting with the world axes, and the box touches the shape if some part of the movement is left over.
+     * @param worldFaceAxes The face axes with world space intervals.
+     * @param worldEdgeAxes The edge axes with world space intervals.
+     * @param position The position of the trigger.
+     * @param cx Center x of the box at the start.
+     * @param cy Center y of the box at the start.
+     * @param cz Center z of the box at the start.
+     * @param hx Half the size of the box along x.
+     * @param hy Half the size of the box along y.
+     * @param hz Half the size of the box along z.
+     * @param dx Movement along x.
+     * @param dy Movement along y.
+     * @param dz Movement along z.
+     * @param mode The {@link Trigger.ContainmentMode} of the trigger.
+     * @return true if the box touches the shape anywhere along the movement.
+     */
+    boolean sweeps(double[] worldFaceAxes, double[] worldEdgeAxes, Vec position, double cx, double cy, double cz, double hx, double hy, double hz, double dx, double dy, double dz, Trigger.ContainmentMode mode) {
+        double from = 0, to = 1;
+        from = Math.max(from, sweepStart(localMin.x() + position.x() - hx, localMax.x() + position.x() + hx, cx, dx));
+        to = Math.min(to, sweepEnd(localMin.x() + position.x() - hx, localMax.x() + position.x() + hx, cx, dx));
+        from = Math.max(from, sweepStart(localMin.y() + position.y() - hy, localMax.y() + position.y() + hy, cy, dy));
+        to = Math.min(to, sweepEnd(localMin.y() + position.y() - hy, localMax.y() + position.y() + hy, cy, dy));
+        from = Math.max(from, sweepStart(localMin.z() + position.z() - hz, localMax.z() + position.z() + hz, cz, dz));
+        to = Math.min(to, sweepEnd(localMin.z() + position.z() - hz, localMax.z() + position.z() + hz, cz, dz));
+
+        final int faceLength = worldFaceAxes.length;
+        final int length = faceLength + (mode == Trigger.ContainmentMode.EXACT_SAT ? worldEdgeAxes.length : 0);
+        for (int i = 0; i < length && from <= to; i += AXIS_STRIDE) {
+            final double[] axes = i < faceLength ? worldFaceAxes : worldEdgeAxes;
+            final int o = i < faceLength ? i : i - faceLength;
+            final double ax = axes[o], ay = axes[o + 1], az = axes[o + 2];
+            final double center = ax * cx + ay * cy + az * cz;
+            final double speed = ax * dx + ay * dy + az * dz;
+            final double radius = hx * Math.abs(ax) + hy * Math.abs(ay) + hz * Math.abs(az);
+            from = Math.max(from, sweepStart(axes[o + 3] - radius, axes[o + 4] + radius, center, speed));
+            to = Math.min(to, sweepEnd(axes[o + 3] - radius, axes[o + 4] + radius, center, speed));
+        }
+        return from <= to;
+    }
+
+    /**
+     * Internal method for the quick reject of the swept collision check: the path of the center of a moving box against a box grown by its half extents.
+     * @return true if the moving box touches the box anywhere along the movement.
+     */
+    static boolean sweepOverlapsBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, double cx, double cy, double cz, double hx, double hy, double hz, double dx, double dy, double dz) {
+        final double from = Math.max(Math.max(0, sweepStart(minX - hx, maxX + hx, cx, dx)), Math.max(sweepStart(minY - hy, maxY + hy, cy, dy), sweepStart(minZ - hz, maxZ + hz, cz, dz)));
+        final double to = Math.min(Math.min(1, sweepEnd(minX - hx, maxX + hx, cx, dx)), Math.min(sweepEnd(minY - hy, maxY + hy, cy, dy), sweepEnd(minZ - hz, maxZ + hz, cz, dz)));
+        return from <= to;
+    }
+
+    /**
+     * Internal method for the moment a value moving at a speed enters an interval.
+     * @param min The start of the interval.
+     * @param max The end of the interval.
+     * @param value The value at the start of the movement.
+     * @param speed How much the value changes over the whole movement.
+     * @return The fraction of the movement at which the value enters the interval, negative infinity if it never leaves it and positive infinity if it never enters it.
+     */
+    static double sweepStart(double min, double max, double value, double speed) {
+        if (speed == 0) {
+            return value >= min && value <= max ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        return ((speed > 0 ? min : max) - value) / speed;
+    }
+
+    /**
+     * Internal method for the moment a value moving at a speed leaves an interval, see {@link TriggerShape#sweepStart(double, double, double, double)}.
+     * @return The fraction of the movement at which the value leaves the interval, positive infinity if it never leaves it and negative infinity if it never enters it.
+     */
+    static double sweepEnd(double min, double max, double value, double speed) {
+        if (speed == 0) {
+            return value >= min && value <= max ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        }
+        return ((speed > 0 ? max : min) - value) / speed;
+    }
+
+    /**
+     * Internal method for the smallest squared distance between a point and a moving box over a part of the movement, used by the swept checks of round shapes.
+     * The distance is convex in the movement, so a ternary search finds the closest moment.
+     * @param px Point x.
+     * @param py Point y.
+     * @param pz Point z.
+     * @param from The fraction of the movement to start searching at.
+     * @param to The fraction of the movement to stop searching at.
+     * @return The smallest squared distance.
+     */
+    static double sweepDistanceSquared(double px, double py, double pz, double cx, double cy, double cz, double hx, double hy, double hz, double dx, double dy, double dz, double from, double to) {
+        for (int i = 0; i < SWEEP_ITERATIONS; i++) {
+            final double third = (to - from) / 3;
+            if (distanceSquared(px, py, pz, cx, cy, cz, hx, hy, hz, dx, dy, dz, from + third) <= distanceSquared(px, py, pz, cx, cy, cz, hx, hy, hz, dx, dy, dz, to - third)) {
+                to -= third;
+            } else {
+                from += third;
+            }
+        }
+        return distanceSquared(px, py, pz, cx, cy, cz, hx, hy, hz, dx, dy, dz, (from + to) * 0.5);
+    }
+
+    private static double distanceSquared(double px, double py, double pz, double cx, double cy, double cz, double hx, double hy, double hz, double dx, double dy, double dz, double t) {
+        final double x = Math.max(0, Math.abs(px - cx - t * dx) - hx);
+        final double y = Math.max(0, Math.abs(py - cy - t * dy) - hy);
+        final double z = Math.max(0, Math.abs(pz - cz - t * dz) - hz);
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * Internal method for checking if the projection of a box overlaps the projection of the shape on every axis.
+     * The projection of the box onto an axis is its center projection plus or minus its projected half extents.
+     * @param axes The axes with world space intervals in the {@link TriggerShape#AXIS_STRIDE} layout.
+     * @return false if any axis separates the box from the shape, true if none does.
+     */
+    static boolean boxOverlapsAlong(double[] axes, double cx, double cy, double cz, double hx, double hy, double hz) {
+        for (int i = 0; i < axes.length; i += AXIS_STRIDE) {
+            final double ax = axes[i], ay = axes[i + 1], az = axes[i + 2];
+            final double center = ax * cx + ay * cy + az * cz;
+            final double radius = hx * Math.abs(ax) + hy * Math.abs(ay) + hz * Math.abs(az);
+            if (center - radius > axes[i + 4] || center + radius < axes[i + 3]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Internal method for checking if the projection of the points overlaps the projection of the shape on every axis.
+     * @param axes The axes with world space intervals in the {@link TriggerShape#AXIS_STRIDE} layout.
+     * @param points The points to project.
+     * @return false if any axis separates the points from the shape, true if none does.
+     */
+    static boolean pointsOverlapAlong(double[] axes, List<Vec> points) {
+        final int count = points.size();
+        for (int i = 0; i < axes.length; i += AXIS_STRIDE) {
+            final double ax = axes[i], ay = axes[i + 1], az = axes[i + 2];
+
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int j = 0; j < count; j++) {
+                Vec p = points.get(j);
+                double projection = ax * p.x() + ay * p.y() + az * p.z();
+                if (projection < min) min = projection;
+                if (projection > max) max = projection;
+            }
+            if (min > axes[i + 4] || max < axes[i + 3]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Internal method for moving local axis intervals to a position.
+     * A translation only shifts each interval by the projection of the position onto the axis, the axes themselves stay the same.
+     * @param local The axes with local intervals.
+     * @param position The position to move to.
+     * @return A copy of the axes with world space intervals.
+     */
+    static double[] translateIntervals(double[] local, Vec position) {
+        if (local.length == 0) return local;
+        final double[] world = local.clone();
+        final double px = position.x(), py = position.y(), pz = position.z();
+        for (int i = 0; i < local.length; i += AXIS_STRIDE) {
+            final double offset = local[i] * px + local[i + 1] * py + local[i + 2] * pz;
+            world[i + 3] = local[i + 3] + offset;
+            world[i + 4] = local[i + 4] + offset;
+        }
+        return world;
+    }
+
+    /**
+     * Internal method for storing a triangle and its normal in the {@link TriggerShape#TRIANGLE_STRIDE} layout.
+     * @param target The packed triangles.
+     * @param offset The index of the first double of the triangle.
+     */
+    static void putTriangle(double[] target, int offset, double ax, double ay, double az, double bx, double by, double bz, double cx, double cy, double cz) {
+        final double abX = bx - ax, abY = by - ay, abZ = bz - az;
+        final double acX = cx - ax, acY = cy - ay, acZ = cz - az;
+        final double nx = abY * acZ - abZ * acY;
+        final double ny = abZ * acX - abX * acZ;
+        final double nz = abX * acY - abY * acX;
+        final double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        target[offset] = ax;
+        target[offset + 1] = ay;
+        target[offset + 2] = az;
+        target[offset + 3] = bx;
+        target[offset + 4] = by;
+        target[offset + 5] = bz;
+        target[offset + 6] = cx;
+        target[offset + 7] = cy;
+        target[offset + 8] = cz;
+        target[offset + 9] = nx / length;
+        target[offset + 10] = ny / length;
+        target[offset + 11] = nz / length;
+    }
+
+    /**
+     * Internal method for storing a triangle of a convex mesh, flipped if needed so its normal points away from the center of the mesh.
+     * @param target The packed triangles.
+     * @param offset The index of the first double of the triangle.
+     * @param a First corner of the triangle.
+     * @param b Second corner of the triangle.
+     * @param c Third corner of the triangle.
+     * @param center Any point inside the mesh.
+     */
+    static void putOutwardTriangle(double[] target, int offset, Vec a, Vec b, Vec c, Vec center) {
+        final Vec normal = b.sub(a).cross(c.sub(a));
+        if (normal.dot(a.sub(center)) < 0) {
+            final Vec swap = b;
+            b = c;
+            c = swap;
+        }
+        putTriangle(target, offset, a.x(), a.y(), a.z(), b.x(), b.y(), b.z(), c.x(), c.y(), c.z());
+    }
+
+    /**
+     * Internal method for triangulating the six faces of a box.
+     * @param corners The 8 corners, bit 0 of the index picks the x side, bit 1 the y side and bit 2 the z side.
+     * @param center The center of the box.
+     * @return The 12 triangles in the {@link TriggerShape#TRIANGLE_STRIDE} layout.
+     */
+    static double[] boxMesh(Vec[] corners, Vec center) {
+        final int[][] faces = {{0, 2, 6, 4}, {1, 3, 7, 5}, {0, 1, 5, 4}, {2, 3, 7, 6}, {0, 1, 3, 2}, {4, 5, 7, 6}};
+        final double[] mesh = new double[12 * TRIANGLE_STRIDE];
+        int offset = 0;
+        for (int[] face : faces) {
+            putOutwardTriangle(mesh, offset, corners[face[0]], corners[face[1]], corners[face[2]], center);
+            putOutwardTriangle(mesh, offset + TRIANGLE_STRIDE, corners[face[0]], corners[face[2]], corners[face[3]], center);
+            offset += 2 * TRIANGLE_STRIDE;
+        }
+        return mesh;
+    }
+
+    /**
+     * Get the minimum corner of the bounds, relative to the position of a trigger.
+     * @return The minimum corner of the local bounds.
+     */
+    public Vec getBoundsMin() {
+        return localMin;
+    }
+
+    /**
+     * Get the maximum corner of the bounds, relative to the position of a trigger.
+     * @return The maximum corner of the local bounds.
+     */
+    public Vec getBoundsMax() {
+        return localMax;
+    }
+
+    /**
+     * Get how long computing this shape took. Shapes shared through the cache keep the time of their original computation.
+     * @return The computation time in milliseconds.
+     */
+    public double getComputationTime() {
+        return computationTime;
+    }
+
+    /**
+     * Get the face axes with local intervals, must not be modified.
+     * @return The face axes in the {@link TriggerShape#AXIS_STRIDE} layout.
+     */
+    double[] faceAxes() {
+        return faceAxes;
+    }
+
+    /**
+     * Get the edge axes with local intervals, must not be modified.
+     * @return The edge axes in the {@link TriggerShape#AXIS_STRIDE} layout.
+     */
+    double[] edgeAxes() {
+        return edgeAxes;
+    }
+
+    /**
+     * A read-only view of packed x, y, z triples.
+     */
+    static final class AnchorView extends AbstractList<Vec> implements RandomAccess {
+        private final double[] coords;
+
+        AnchorView(double[] coords) {
+            this.coords = coords;
+        }
+
+        @Override
+        public Vec get(int index) {
+            Objects.checkIndex(index, size());
+            int offset = index * 3;
+            return new Vec(coords[offset], coords[offset + 1], coords[offset + 2]);
+        }
+
+        @Override
+        public int size() {
+            return coords.length / 3;
+        }
+    }
+
+    /**
+     * A read-only view of packed triangles in the {@link TriggerShape#TRIANGLE_STRIDE} layout.
+     */
+    static final class TriangleView extends AbstractList<Trigger.Triangle> implements RandomAccess {
+        private final double[] coords;
+
+        TriangleView(double[] coords) {
+            this.coords = coords;
+        }
+
+        @Override
+        public Trigger.Triangle get(int index) {
+            Objects.checkIndex(index, size());
+            int o = index * TRIANGLE_STRIDE;
+            return new Trigger.Triangle(
+                    new Vec(coords[o], coords[o + 1], coords[o + 2]),
+                    new Vec(coords[o + 3], coords[o + 4], coords[o + 5]),
+                    new Vec(coords[o + 6], coords[o + 7], coords[o + 8]),
+                    new Vec(coords[o + 9], coords[o + 10], coords[o + 11]));
+        }
+
+        @Override
+        public int size() {
+            return coords.length / TRIANGLE_STRIDE;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Vec;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cache of computed {@link HullShape hulls} keyed by their anchors, so triggers with the same anchors share one hull instead of each computing and storing their own.
+ * <p>
+ * The key is canonical: the order of the anchors doesn't matter since the hull of a point set doesn't depend on it.
+ * A shared shape keeps the anchor order of whichever trigger computed it first.
+ * The least recently used shapes are evicted once the cache is full, triggers that still use them keep them alive.
+ * Thread safe, the hull is computed outside the lock.
+ */
+public final class TriggerShapeCache {
+
+    private static final Comparator<Vec> CANONICAL_ORDER = Comparator.comparingDouble(Vec::x).thenComparingDouble(Vec::y).thenComparingDouble(Vec::z);
+
+    private final int capacity;
+    private final Map<Key, TriggerShape> shapes;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Create a cache.
+     * @param capacity How many shapes to keep at most, 0 disables caching.
+     */
+    public TriggerShapeCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative");
+        }
+        this.capacity = capacity;
+        this.shapes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, TriggerShape> eldest) {
+                return size() > TriggerShapeCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Get the shape of a set of anchors, computing and caching it if no shape with the same anchors is cached.
+     * @param anchors The anchors, at least 4 and not coplanar.
+     * @return The cached or newly computed shape.
+     */
+    public TriggerShape get(List<Vec> anchors) {
+        if (capacity == 0) {
+            return HullShape.compute(anchors);
+        }
+        final Key key = Key.of(anchors);
+        synchronized (this) {
+            final TriggerShape cached = shapes.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        final TriggerShape computed = HullShape.compute(anchors);
+        synchronized (this) {
+            // Another thread may have computed the same shape in the meantime, keep the first one so they stay shared
+            final TriggerShape existing = shapes.putIfAbsent(key, computed);
+            return existing != null ? existing : computed;
+        }
+    }
+
+    /**
+     * Remove all cached shapes. Triggers keep the shapes they use.
+     */
+    public synchronized void clear() {
+        shapes.clear();
+    }
+
+    /**
+     * Get the amount of cached shapes.
+     * @return The amount of cached shapes.
+     */
+    public synchronized int size() {
+        return shapes.size();
+    }
+
+    /**
+     * Get how many shapes this cache can hold.
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get how many lookups found a cached shape.
+     * @return The amount of cache hits.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get how many lookups had to compute a new shape.
+     * @return The amount of cache misses.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * The anchors sorted into a canonical order and packed, compared by value.
+     */
+    private static final class Key {
+        private final double[] coords;
+        private final int hash;
+
+        private Key(double[] coords) {
+            this.coords = coords;
+            this.hash = Arrays.hashCode(coords);
+        }
+
+        static Key of(List<Vec> anchors) {
+            final Vec[] sorted = new Vec[anchors.size()];
+            for (int i = 0; i < sorted.length; i++) {
+                // + 0.0 turns -0.0 into 0.0, they are the same point but neither the same bits nor the same sort order
+                final Vec anchor = anchors.get(i);
+                sorted[i] = new Vec(anchor.x() + 0.0, anchor.y() + 0.0, anchor.z() + 0.0);
+            }
+            Arrays.sort(sorted, CANONICAL_ORDER);
+            final double[] coords = new double[sorted.length * 3];
+            for (int i = 0; i < sorted.length; i++) {
+                coords[i * 3] = sorted[i].x();
+                coords[i * 3 + 1] = sorted[i].y();
+                coords[i * 3 + 2] = sorted[i].z();
+            }
+            return new Key(coords);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && hash == key.hash && Arrays.equals(coords, key.coords);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
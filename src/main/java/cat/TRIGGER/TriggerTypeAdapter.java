@@ -24,10 +24,13 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 /**
  * A {@link TypeAdapter} for {@link Trigger} used for JSON serialization and deserialization.
+ * Hulls are written as their anchors, primitive shapes as their parameters and compounds as a "parts" array of such shapes.
+ * The "type" field tells them apart and defaults to a hull.
  */
 public class TriggerTypeAdapter extends TypeAdapter<Trigger> {
 
@@ -48,32 +51,115 @@ public class TriggerTypeAdapter extends TypeAdapter<Trigger> {
         out.name("z").value(trigger.getPosition().z());
         out.endObject();
 
-        out.name("anchors");
-        out.beginArray();
-        trigger.getAnchors().forEach(anchor -> {
-            try {
-                out.beginObject();
-                out.name("x").value(anchor.x());
-                out.name("y").value(anchor.y());
-                out.name("z").value(anchor.z());
-                out.endObject();
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
-        });
-        out.endArray();
+        writeShape(out, trigger.getShape());
         out.endObject();
     }
 
+    /**
+     * Internal method for writing the fields of a shape into the current object.
+     * @param out The writer inside a trigger or part object.
+     * @param shape The shape to write.
+     * @throws IOException If writing fails.
+     */
+    private void writeShape(JsonWriter out, TriggerShape shape) throws IOException {
+        out.name("type").value(shape.getType().name().toLowerCase(Locale.ROOT));
+
+        switch (shape.getType()) {
+            case HULL -> {
+                out.name("anchors");
+                out.beginArray();
+                for (Vec anchor : shape.getAnchors()) {
+                    out.beginObject();
+                    out.name("x").value(anchor.x());
+                    out.name("y").value(anchor.y());
+                    out.name("z").value(anchor.z());
+                    out.endObject();
+                }
+                out.endArray();
+            }
+            case COMPOUND -> {
+                out.name("parts");
+                out.beginArray();
+                for (TriggerShape part : ((CompoundShape) shape).getParts()) {
+                    out.beginObject();
+                    writeShape(out, part);
+                    out.endObject();
+                }
+                out.endArray();
+            }
+            default -> {
+                out.name("parameters");
+                out.beginArray();
+                for (double parameter : shape.parameters()) {
+                    out.value(parameter);
+                }
+                out.endArray();
+            }
+        }
+    }
+
     @Override
     public Trigger read(JsonReader in) throws IOException {
-        List<Vec> anchors = new ArrayList<>();
+        TriggerData data = readData(in);
+        return new Trigger(data.shape(), data.position(), UUID.randomUUID(), data.name(), NamedTextColor.RED, null);
+    }
+
+    /**
+     * The fields of a serialized shape, read without computing any hull.
+     * @param type The type of the shape.
+     * @param anchors The anchors of a hull, empty for other shapes.
+     * @param parameters The parameters of a primitive shape, empty for other shapes.
+     * @param parts The parts of a compound, empty for other shapes.
+     */
+    record ShapeData(TriggerShape.Type type, List<Vec> anchors, double[] parameters, List<ShapeData> parts) {
+
+        /**
+         * Create the shape, for hulls this computes the hull (or gets it from {@link TriggerGlobals#SHAPE_CACHE}).
+         * @return The shape.
+         * @throws IllegalArgumentException If the shape can't be created from the read fields.
+         */
+        TriggerShape create() {
+            return switch (type) {
+                case HULL -> TriggerShape.of(anchors);
+                case COMPOUND -> TriggerShape.compound(parts.stream().map(ShapeData::create).toList());
+                default -> TriggerShape.fromParameters(type, parameters);
+            };
+        }
+    }
+
+    /**
+     * The fields of a serialized trigger, read without computing its shape.
+     * @param shapeData The fields of the shape.
+     * @param position The position of the trigger.
+     * @param name The display name of the trigger.
+     */
+    record TriggerData(ShapeData shapeData, Vec position, Component name) {
+
+        /**
+         * Create the shape, see {@link ShapeData#create()}.
+         * @return The shape.
+         * @throws IllegalArgumentException If the shape can't be created from the read fields.
+         */
+        TriggerShape shape() {
+            return shapeData.create();
+        }
+    }
+
+    /**
+     * Internal method for reading a serialized trigger without computing its hull, so the hull can be computed elsewhere, e.g. by {@link TriggerManager#loadJSON(java.io.Reader, java.util.function.Consumer)}.
+     * @param in The reader positioned at the start of a trigger object.
+     * @return The fields of the trigger.
+     * @throws IOException If the JSON is malformed.
+     */
+    TriggerData readData(JsonReader in) throws IOException {
+        final ShapeReader shape = new ShapeReader();
         Vec position = Vec.ZERO;
         Component name = Component.text("unnamed");
 
         in.beginObject();
         while (in.hasNext()) {
-            switch (in.nextName()) {
+            final String field = in.nextName();
+            switch (field) {
                 case "name" -> {
                     String json = in.nextString();
                     name = JSONComponentSerializer.json().deserializeOr(json, Component.text("DeserializerError"));
@@ -91,6 +177,47 @@ public class TriggerTypeAdapter extends TypeAdapter<Trigger> {
                     in.endObject();
                     position = new Vec(x, y, z);
                 }
+                default -> shape.read(in, field);
+            }
+        }
+        in.endObject();
+        return new TriggerData(shape.data(), position, name);
+    }
+
+    /**
+     * Internal collector for the shape fields of a trigger or part object, which can come in any order.
+     */
+    private static final class ShapeReader {
+        private TriggerShape.Type type = TriggerShape.Type.HULL;
+        private final List<Vec> anchors = new ArrayList<>();
+        private double[] parameters = new double[0];
+        private final List<ShapeData> parts = new ArrayList<>();
+
+        /**
+         * Read one field, unknown fields are skipped.
+         * @param in The reader positioned at the value of the field.
+         * @param field The name of the field.
+         * @throws IOException If the JSON is malformed or the type is unknown.
+         */
+        void read(JsonReader in, String field) throws IOException {
+            switch (field) {
+                case "type" -> {
+                    String typeName = in.nextString();
+                    try {
+                        type = TriggerShape.Type.valueOf(typeName.toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException("Unknown trigger shape type " + typeName);
+                    }
+                }
+                case "parameters" -> {
+                    List<Double> values = new ArrayList<>();
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        values.add(in.nextDouble());
+                    }
+                    in.endArray();
+                    parameters = values.stream().mapToDouble(Double::doubleValue).toArray();
+                }
                 case "anchors" -> {
                     in.beginArray();
                     while (in.hasNext()) {
@@ -108,10 +235,25 @@ public class TriggerTypeAdapter extends TypeAdapter<Trigger> {
                     }
                     in.endArray();
                 }
+                case "parts" -> {
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        final ShapeReader part = new ShapeReader();
+                        in.beginObject();
+                        while (in.hasNext()) {
+                            part.read(in, in.nextName());
+                        }
+                        in.endObject();
+                        parts.add(part.data());
+                    }
+                    in.endArray();
+                }
                 default -> in.skipValue();
             }
         }
-        in.endObject();
-        return new Trigger(anchors, position, UUID.randomUUID(), name, NamedTextColor.RED, null);
+
+        ShapeData data() {
+            return new ShapeData(type, List.copyOf(anchors), parameters, List.copyOf(parts));
+        }
     }
 }
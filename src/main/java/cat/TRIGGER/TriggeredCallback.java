@@ -10,15 +10,26 @@
 
 package cat.TRIGGER;
 
+import net.minestom.server.entity.Entity;
 import net.minestom.server.entity.Player;
 
 /**
  * A record that contains the callback data.
- * @param player The player that triggered the trigger.
+ * @param entity The player or other entity that triggered the trigger, other entities only trigger for the {@link Trigger#setEntityTypes(java.util.Set) types} the trigger opted into.
  * @param trigger The trigger that was triggered.
  * @param type The {@link Type} of the callback.
  */
-public record TriggeredCallback(Player player, Trigger trigger, Type type) {
+public record TriggeredCallback(Entity entity, Trigger trigger, Type type) {
+
+    /**
+     * Get the player that triggered the trigger.
+     * Only non-null for triggers without {@link Trigger#setEntityTypes(java.util.Set) entity types}, callbacks of triggers with entity types have to null-check it or use {@link TriggeredCallback#entity()} instead.
+     * @return The player, or null if the trigger was triggered by another entity.
+     */
+    public Player player() {
+        return entity instanceof Player player ? player : null;
+    }
+
     /**
      * Represents what happened with a trigger. Names should be self-explanatory.
      */
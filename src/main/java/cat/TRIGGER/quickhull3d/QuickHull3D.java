@@ -32,10 +32,9 @@ package cat.TRIGGER.quickhull3d;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.*;
-import java.nio.charset.Charset;
-import java.util.Iterator;
-import java.util.Vector;
+import java.io.PrintStream;
+import java.util.Arrays;
+
 
 /**
  * Computes the convex hull of a set of three dimensional points.
@@ -125,16 +124,22 @@ import java.util.Vector;
  * thus the convex hull has a non-zero volume. If the input points are detected
  * to be degenerate within the {@link #getDistanceTolerance() distance
  * tolerance}, an IllegalArgumentException will be thrown.
+ * <h3>Storage</h3> Points, faces and half edges are not objects but indices
+ * into flat primitive arrays (struct-of-arrays). The arrays only grow and are
+ * reused by the next {@link #build(double[]) build} call, so building many
+ * hulls with the same QuickHull3D instance does not allocate anything once the
+ * buffers are large enough, apart from the arrays returned by
+ * {@link #getVertices()} and {@link #getFaces()}. An instance is not thread
+ * safe, use one per thread.
  * 
  * @author John E. Lloyd, Fall 2004
  */
-@SuppressWarnings({"unchecked", "deprecation"})
 public class QuickHull3D {
 
     /**
      * Logger to log to.
      */
-    private static Logger LOG = LoggerFactory.getLogger(QuickHull3D.class);
+    private static final Logger LOG = LoggerFactory.getLogger(QuickHull3D.class);
 
     /**
      * Specifies that (on output) vertex indices for a face should be listed in
@@ -166,30 +171,121 @@ public class QuickHull3D {
      */
     public static final double AUTOMATIC_TOLERANCE = -1;
 
+    /**
+     * Stands in for a null point, face or half edge reference.
+     */
+    private static final int NONE = -1;
+
+    private static final int VISIBLE = 1;
+
+    private static final int NON_CONVEX = 2;
+
+    private static final int DELETED = 3;
+
+    private static final int NONCONVEX_WRT_LARGER_FACE = 1;
+
+    private static final int NONCONVEX = 2;
+
+    // The two point lists, their heads and tails live in listHead/listTail
+    private static final int CLAIMED = 0;
+
+    private static final int UNCLAIMED = 1;
+
+    /**
+     * Precision of a double.
+     */
+    private static final double DOUBLE_PREC = 2.2204460492503131e-16;
+
     protected int findIndex = -1;
 
     // estimated size of the point set
     protected double charLength;
 
-    protected Vertex[] pointBuffer = new Vertex[0];
+    // Points, indexed by their position in the input
+    private double[] pointX = new double[0];
+
+    private double[] pointY = new double[0];
+
+    private double[] pointZ = new double[0];
+
+    // Scratch index of a point, the hull vertex index after the build
+    private int[] pointIndex = new int[0];
+
+    // The face whose outside set a point belongs to
+    private int[] pointFace = new int[0];
+
+    // Links of the claimed and unclaimed point lists
+    private int[] pointPrev = new int[0];
+
+    private int[] pointNext = new int[0];
 
     protected int[] vertexPointIndices = new int[0];
 
-    private Face[] discardedFaces = new Face[3];
+    // Faces, indexed in creation order
+    private int[] faceEdge = new int[0];
+
+    private int[] faceMark = new int[0];
+
+    private int[] faceNumVerts = new int[0];
+
+    private int[] faceOutside = new int[0];
+
+    // Link of the new faces list
+    private int[] faceNext = new int[0];
+
+    private double[] faceArea = new double[0];
+
+    private double[] faceOffset = new double[0];
+
+    private double[] faceNormalX = new double[0];
+
+    private double[] faceNormalY = new double[0];
+
+    private double[] faceNormalZ = new double[0];
+
+    private double[] faceCentroidX = new double[0];
+
+    private double[] faceCentroidY = new double[0];
+
+    private double[] faceCentroidZ = new double[0];
+
+    private int faceCount;
+
+    // Half edges, each one points to the vertex at its head
+    private int[] edgeHead = new int[0];
 
-    private Vertex[] maxVtxs = new Vertex[3];
+    private int[] edgeFace = new int[0];
 
-    private Vertex[] minVtxs = new Vertex[3];
+    private int[] edgePrev = new int[0];
 
-    protected Vector faces = new Vector(16);
+    private int[] edgeNext = new int[0];
 
-    protected Vector horizon = new Vector(16);
+    private int[] edgeOpposite = new int[0];
 
-    private FaceList newFaces = new FaceList();
+    private int edgeCount;
 
-    private VertexList unclaimed = new VertexList();
+    // The faces of the hull in the order they were added, includes deleted faces until the hull is reindexed
+    private int[] faces = new int[16];
 
-    private VertexList claimed = new VertexList();
+    private int faceListSize;
+
+    private int[] horizon = new int[16];
+
+    private int horizonSize;
+
+    private final int[] discardedFaces = new int[3];
+
+    private final int[] maxVtxs = new int[3];
+
+    private final int[] minVtxs = new int[3];
+
+    private final int[] listHead = new int[2];
+
+    private final int[] listTail = new int[2];
+
+    private int newFacesHead = NONE;
+
+    private int newFacesTail = NONE;
 
     protected int numVertices;
 
@@ -201,11 +297,6 @@ public class QuickHull3D {
 
     protected double tolerance;
 
-    /**
-     * Precision of a double.
-     */
-    private static final double DOUBLE_PREC = 2.2204460492503131e-16;
-
     /**
      * Returns the distance tolerance that was used for the most recently
      * computed hull. The distance tolerance is used to determine when faces are
@@ -214,7 +305,7 @@ public class QuickHull3D {
      * href=#distTol>numerical imprecision</a>. Normally, this tolerance is
      * computed automatically for each set of input points, but it can be set
      * explicitly by the application.
-     * 
+     *
      * @return distance tolerance
      * @see QuickHull3D#setExplicitDistanceTolerance
      */
@@ -227,7 +318,7 @@ public class QuickHull3D {
      * {@link #AUTOMATIC_TOLERANCE AUTOMATIC_TOLERANCE} is specified (the
      * default), then the tolerance will be computed automatically from the
      * point data.
-     * 
+     *
      * @param tol
      *            explicit tolerance
      * @see #getDistanceTolerance
@@ -238,7 +329,7 @@ public class QuickHull3D {
 
     /**
      * Returns the explicit distance tolerance.
-     * 
+     *
      * @return explicit tolerance
      * @see #setExplicitDistanceTolerance
      */
@@ -246,42 +337,6 @@ public class QuickHull3D {
         return explicitTolerance;
     }
 
-    private void addPointToFace(Vertex vtx, Face face) {
-        vtx.face = face;
-
-        if (face.outside == null) {
-            claimed.add(vtx);
-        } else {
-            claimed.insertBefore(vtx, face.outside);
-        }
-        face.outside = vtx;
-    }
-
-    private void removePointFromFace(Vertex vtx, Face face) {
-        if (vtx == face.outside) {
-            if (vtx.next != null && vtx.next.face == face) {
-                face.outside = vtx.next;
-            } else {
-                face.outside = null;
-            }
-        }
-        claimed.delete(vtx);
-    }
-
-    private Vertex removeAllPointsFromFace(Face face) {
-        if (face.outside != null) {
-            Vertex end = face.outside;
-            while (end.next != null && end.next.face == face) {
-                end = end.next;
-            }
-            claimed.delete(face.outside, end);
-            end.next = null;
-            return face.outside;
-        } else {
-            return null;
-        }
-    }
-
     /**
      * Creates an empty convex hull object.
      */
@@ -291,7 +346,7 @@ public class QuickHull3D {
     /**
      * Creates a convex hull object and initializes it to the convex hull of a
      * set of points whose coordinates are given by an array of doubles.
-     * 
+     *
      * @param coords
      *            x, y, and z coordinates of each input point. The length of
      *            this array will be three times the the number of input points.
@@ -306,7 +361,7 @@ public class QuickHull3D {
     /**
      * Creates a convex hull object and initializes it to the convex hull of a
      * set of points.
-     * 
+     *
      * @param points
      *            input points.
      * @throws IllegalArgumentException
@@ -317,120 +372,22 @@ public class QuickHull3D {
         build(points, points.length);
     }
 
-    private HalfEdge findHalfEdge(Vertex tail, Vertex head) {
-        // brute force ... OK, since setHull is not used much
-        for (Iterator it = faces.iterator(); it.hasNext();) {
-            HalfEdge he = ((Face) it.next()).findEdge(tail, head);
-            if (he != null) {
-                return he;
-            }
-        }
-        return null;
-    }
-
-    protected void setHull(double[] coords, int nump, int[][] faceIndices, int numf) {
-        initBuffers(nump);
-        setPoints(coords, nump);
-        computeMaxAndMin();
-        for (int i = 0; i < numf; i++) {
-            Face face = Face.create(pointBuffer, faceIndices[i]);
-            HalfEdge he = face.he0;
-            do {
-                HalfEdge heOpp = findHalfEdge(he.head(), he.tail());
-                if (heOpp != null) {
-                    he.setOpposite(heOpp);
-                }
-                he = he.next;
-            } while (he != face.he0);
-            faces.add(face);
-        }
-    }
-
-    private void printQhullErrors(Process proc) throws IOException {
-        boolean wrote = false;
-        InputStream es = proc.getErrorStream();
-        StringBuffer error = new StringBuffer();
-        while (es.available() > 0) {
-            error.append((char) es.read());
-            wrote = true;
-        }
-        if (wrote) {
-            error.append(" ");
-            LOG.error(error.toString());
-        }
-    }
-
-    protected void setFromQhull(double[] coords, int nump, boolean triangulate) {
-        String commandStr = "./qhull i";
-        if (triangulate) {
-            commandStr += " -Qt";
-        }
-        try {
-            Process proc = Runtime.getRuntime().exec(commandStr);
-            PrintStream ps = new PrintStream(proc.getOutputStream(), false, Charset.defaultCharset().name());
-            StreamTokenizer stok = new StreamTokenizer(new InputStreamReader(proc.getInputStream(), Charset.defaultCharset()));
-
-            ps.println("3 " + nump);
-            for (int i = 0; i < nump; i++) {
-                ps.println(coords[i * 3 + 0] + " " + coords[i * 3 + 1] + " " + coords[i * 3 + 2]);
-            }
-            ps.flush();
-            ps.close();
-            Vector indexList = new Vector(3);
-            stok.eolIsSignificant(true);
-            printQhullErrors(proc);
-
-            do {
-                stok.nextToken();
-            } while (stok.sval == null || !stok.sval.startsWith("MERGEexact"));
-            for (int i = 0; i < 4; i++) {
-                stok.nextToken();
-            }
-            if (stok.ttype != StreamTokenizer.TT_NUMBER) {
-                throw new IllegalArgumentException("Expecting number of faces");
-            }
-            int numf = (int) stok.nval;
-            stok.nextToken(); // clear EOL
-            int[][] faceIndices = new int[numf][];
-            for (int i = 0; i < numf; i++) {
-                indexList.clear();
-                while (stok.nextToken() != StreamTokenizer.TT_EOL) {
-                    if (stok.ttype != StreamTokenizer.TT_NUMBER) {
-                        throw new IllegalArgumentException("Expecting face index");
-                    }
-                    indexList.add(0, Integer.valueOf((int) stok.nval));
-                }
-                faceIndices[i] = new int[indexList.size()];
-                int k = 0;
-                for (Iterator it = indexList.iterator(); it.hasNext();) {
-                    faceIndices[i][k++] = ((Integer) it.next()).intValue();
-                }
-            }
-            setHull(coords, nump, faceIndices, numf);
-        } catch (IllegalArgumentException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new IllegalStateException("problem during hull calculation", e);
-        }
-    }
-
     /**
      * print all points to the print stream (very point a line)
-     * 
+     *
      * @param ps
      *            the print stream to write to
      */
     public void printPoints(PrintStream ps) {
         for (int i = 0; i < numPoints; i++) {
-            Point3d pnt = pointBuffer[i].pnt;
-            ps.println(pnt.x + ", " + pnt.y + ", " + pnt.z + ",");
+            ps.println(pointX[i] + ", " + pointY[i] + ", " + pointZ[i] + ",");
         }
     }
 
     /**
      * Constructs the convex hull of a set of points whose coordinates are given
      * by an array of doubles.
-     * 
+     *
      * @param coords
      *            x, y, and z coordinates of each input point. The length of
      *            this array will be three times the number of input points.
@@ -445,7 +402,7 @@ public class QuickHull3D {
     /**
      * Constructs the convex hull of a set of points whose coordinates are given
      * by an array of doubles.
-     * 
+     *
      * @param coords
      *            x, y, and z coordinates of each input point. The length of
      *            this array must be at least three times <code>nump</code>.
@@ -464,13 +421,15 @@ public class QuickHull3D {
             throw new IllegalArgumentException("Coordinate array too small for specified number of points");
         }
         initBuffers(nump);
-        setPoints(coords, nump);
+        for (int i = 0; i < nump; i++) {
+            setPoint(i, coords[i * 3 + 0], coords[i * 3 + 1], coords[i * 3 + 2]);
+        }
         buildHull();
     }
 
     /**
      * Constructs the convex hull of a set of points.
-     * 
+     *
      * @param points
      *            input points
      * @throws IllegalArgumentException
@@ -483,7 +442,7 @@ public class QuickHull3D {
 
     /**
      * Constructs the convex hull of a set of points.
-     * 
+     *
      * @param points
      *            input points
      * @param nump
@@ -501,7 +460,9 @@ public class QuickHull3D {
             throw new IllegalArgumentException("Point array too small for specified number of points");
         }
         initBuffers(nump);
-        setPoints(points, nump);
+        for (int i = 0; i < nump; i++) {
+            setPoint(i, points[i].x, points[i].y, points[i].z);
+        }
         buildHull();
     }
 
@@ -513,105 +474,102 @@ public class QuickHull3D {
      */
     public void triangulate() {
         double minArea = 1000 * charLength * DOUBLE_PREC;
-        newFaces.clear();
-        for (Iterator it = faces.iterator(); it.hasNext();) {
-            Face face = (Face) it.next();
-            if (face.mark == Face.VISIBLE) {
-                face.triangulate(newFaces, minArea);
-                // splitFace (face);
+        clearNewFaces();
+        final int size = faceListSize;
+        for (int i = 0; i < size; i++) {
+            int face = faces[i];
+            if (faceMark[face] == VISIBLE) {
+                triangulateFace(face, minArea);
             }
         }
-        for (Face face = newFaces.first(); face != null; face = face.next) {
-            faces.add(face);
+        for (int face = newFacesHead; face != NONE; face = faceNext[face]) {
+            addFace(face);
         }
     }
 
-    // private void splitFace (Face face)
-    // {
-    // Face newFace = face.split();
-    // if (newFace != null)
-    // { newFaces.add (newFace);
-    // splitFace (newFace);
-    // splitFace (face);
-    // }
-    // }
-
     protected void initBuffers(int nump) {
-        if (pointBuffer.length < nump) {
-            Vertex[] newBuffer = new Vertex[nump];
+        if (pointX.length < nump) {
+            pointX = new double[nump];
+            pointY = new double[nump];
+            pointZ = new double[nump];
+            pointIndex = new int[nump];
+            pointFace = new int[nump];
+            pointPrev = new int[nump];
+            pointNext = new int[nump];
             vertexPointIndices = new int[nump];
-            for (int i = 0; i < pointBuffer.length; i++) {
-                newBuffer[i] = pointBuffer[i];
-            }
-            for (int i = pointBuffer.length; i < nump; i++) {
-                newBuffer[i] = new Vertex();
-            }
-            pointBuffer = newBuffer;
         }
-        faces.clear();
-        claimed.clear();
+        faceCount = 0;
+        edgeCount = 0;
+        faceListSize = 0;
+        horizonSize = 0;
+        clearList(CLAIMED);
+        clearList(UNCLAIMED);
+        clearNewFaces();
         numFaces = 0;
         numPoints = nump;
     }
 
-    protected void setPoints(double[] coords, int nump) {
-        for (int i = 0; i < nump; i++) {
-            Vertex vtx = pointBuffer[i];
-            vtx.pnt.set(coords[i * 3 + 0], coords[i * 3 + 1], coords[i * 3 + 2]);
-            vtx.index = i;
-        }
+    private void setPoint(int i, double x, double y, double z) {
+        pointX[i] = x;
+        pointY[i] = y;
+        pointZ[i] = z;
+        pointIndex[i] = i;
+        pointFace[i] = NONE;
+        pointPrev[i] = NONE;
+        pointNext[i] = NONE;
     }
 
-    protected void setPoints(Point3d[] pnts, int nump) {
-        for (int i = 0; i < nump; i++) {
-            Vertex vtx = pointBuffer[i];
-            vtx.pnt.set(pnts[i]);
-            vtx.index = i;
+    private double coordinate(int point, int axis) {
+        switch (axis) {
+            case 0:
+                return pointX[point];
+            case 1:
+                return pointY[point];
+            case 2:
+                return pointZ[point];
+            default:
+                throw new ArrayIndexOutOfBoundsException(axis);
         }
     }
 
     protected void computeMaxAndMin() {
-        Vector3d max = new Vector3d();
-        Vector3d min = new Vector3d();
-
         for (int i = 0; i < 3; i++) {
-            maxVtxs[i] = minVtxs[i] = pointBuffer[0];
+            maxVtxs[i] = minVtxs[i] = 0;
         }
-        max.set(pointBuffer[0].pnt);
-        min.set(pointBuffer[0].pnt);
+        double maxX = pointX[0], maxY = pointY[0], maxZ = pointZ[0];
+        double minX = maxX, minY = maxY, minZ = maxZ;
 
         for (int i = 1; i < numPoints; i++) {
-            Point3d pnt = pointBuffer[i].pnt;
-            if (pnt.x > max.x) {
-                max.x = pnt.x;
-                maxVtxs[0] = pointBuffer[i];
-            } else if (pnt.x < min.x) {
-                min.x = pnt.x;
-                minVtxs[0] = pointBuffer[i];
+            double x = pointX[i], y = pointY[i], z = pointZ[i];
+            if (x > maxX) {
+                maxX = x;
+                maxVtxs[0] = i;
+            } else if (x < minX) {
+                minX = x;
+                minVtxs[0] = i;
             }
-            if (pnt.y > max.y) {
-                max.y = pnt.y;
-                maxVtxs[1] = pointBuffer[i];
-            } else if (pnt.y < min.y) {
-                min.y = pnt.y;
-                minVtxs[1] = pointBuffer[i];
+            if (y > maxY) {
+                maxY = y;
+                maxVtxs[1] = i;
+            } else if (y < minY) {
+                minY = y;
+                minVtxs[1] = i;
             }
-            if (pnt.z > max.z) {
-                max.z = pnt.z;
-                maxVtxs[2] = pointBuffer[i];
-            } else if (pnt.z < min.z) {
-                min.z = pnt.z;
-                minVtxs[2] = pointBuffer[i];
+            if (z > maxZ) {
+                maxZ = z;
+                maxVtxs[2] = i;
+            } else if (z < minZ) {
+                minZ = z;
+                minVtxs[2] = i;
             }
         }
 
         // this epsilon formula comes from QuickHull, and I'm
         // not about to quibble.
-        charLength = Math.max(max.x - min.x, max.y - min.y);
-        charLength = Math.max(max.z - min.z, charLength);
+        charLength = Math.max(maxX - minX, maxY - minY);
+        charLength = Math.max(maxZ - minZ, charLength);
         if (explicitTolerance == AUTOMATIC_TOLERANCE) {
-            tolerance =
-                    3 * DOUBLE_PREC * (Math.max(Math.abs(max.x), Math.abs(min.x)) + Math.max(Math.abs(max.y), Math.abs(min.y)) + Math.max(Math.abs(max.z), Math.abs(min.z)));
+            tolerance = 3 * DOUBLE_PREC * (Math.max(Math.abs(maxX), Math.abs(minX)) + Math.max(Math.abs(maxY), Math.abs(minY)) + Math.max(Math.abs(maxZ), Math.abs(minZ)));
         } else {
             tolerance = explicitTolerance;
         }
@@ -625,7 +583,7 @@ public class QuickHull3D {
         int imax = 0;
 
         for (int i = 0; i < 3; i++) {
-            double diff = maxVtxs[i].pnt.get(i) - minVtxs[i].pnt.get(i);
+            double diff = coordinate(maxVtxs[i], i) - coordinate(minVtxs[i], i);
             if (diff > max) {
                 max = diff;
                 imax = i;
@@ -635,46 +593,65 @@ public class QuickHull3D {
         if (max <= tolerance) {
             throw new IllegalArgumentException("Input points appear to be coincident");
         }
-        Vertex[] vtx = new Vertex[4];
         // set first two vertices to be those with the greatest
         // one dimensional separation
-
-        vtx[0] = maxVtxs[imax];
-        vtx[1] = minVtxs[imax];
+        final int vtx0 = maxVtxs[imax];
+        final int vtx1 = minVtxs[imax];
+        int vtx2 = NONE;
+        int vtx3 = NONE;
 
         // set third vertex to be the vertex farthest from
         // the line between vtx0 and vtx1
-        Vector3d u01 = new Vector3d();
-        Vector3d diff02 = new Vector3d();
-        Vector3d nrml = new Vector3d();
-        Vector3d xprod = new Vector3d();
+        double ux = pointX[vtx1] - pointX[vtx0];
+        double uy = pointY[vtx1] - pointY[vtx0];
+        double uz = pointZ[vtx1] - pointZ[vtx0];
+        double uLengthSqr = ux * ux + uy * uy + uz * uz;
+        double uErr = uLengthSqr - 1;
+        if (uErr > (2 * DOUBLE_PREC) || uErr < -(2 * DOUBLE_PREC)) {
+            double uLength = Math.sqrt(uLengthSqr);
+            ux /= uLength;
+            uy /= uLength;
+            uz /= uLength;
+        }
+        double nx = 0, ny = 0, nz = 0;
         double maxSqr = 0;
-        u01.sub(vtx[1].pnt, vtx[0].pnt);
-        u01.normalize();
         for (int i = 0; i < numPoints; i++) {
-            diff02.sub(pointBuffer[i].pnt, vtx[0].pnt);
-            xprod.cross(u01, diff02);
-            double lenSqr = xprod.normSquared();
-            if (lenSqr > maxSqr && pointBuffer[i] != vtx[0] && // paranoid
-                    pointBuffer[i] != vtx[1]) {
+            double dx = pointX[i] - pointX[vtx0];
+            double dy = pointY[i] - pointY[vtx0];
+            double dz = pointZ[i] - pointZ[vtx0];
+            double cx = uy * dz - uz * dy;
+            double cy = uz * dx - ux * dz;
+            double cz = ux * dy - uy * dx;
+            double lenSqr = cx * cx + cy * cy + cz * cz;
+            if (lenSqr > maxSqr && i != vtx0 && // paranoid
+                    i != vtx1) {
                 maxSqr = lenSqr;
-                vtx[2] = pointBuffer[i];
-                nrml.set(xprod);
+                vtx2 = i;
+                nx = cx;
+                ny = cy;
+                nz = cz;
             }
         }
         if (Math.sqrt(maxSqr) <= 100 * tolerance) {
             throw new IllegalArgumentException("Input points appear to be colinear");
         }
-        nrml.normalize();
+        double nLengthSqr = nx * nx + ny * ny + nz * nz;
+        double nErr = nLengthSqr - 1;
+        if (nErr > (2 * DOUBLE_PREC) || nErr < -(2 * DOUBLE_PREC)) {
+            double nLength = Math.sqrt(nLengthSqr);
+            nx /= nLength;
+            ny /= nLength;
+            nz /= nLength;
+        }
 
         double maxDist = 0;
-        double d0 = vtx[2].pnt.dot(nrml);
+        double d0 = pointX[vtx2] * nx + pointY[vtx2] * ny + pointZ[vtx2] * nz;
         for (int i = 0; i < numPoints; i++) {
-            double dist = Math.abs(pointBuffer[i].pnt.dot(nrml) - d0);
-            if (dist > maxDist && pointBuffer[i] != vtx[0] && // paranoid
-                    pointBuffer[i] != vtx[1] && pointBuffer[i] != vtx[2]) {
+            double dist = Math.abs(pointX[i] * nx + pointY[i] * ny + pointZ[i] * nz - d0);
+            if (dist > maxDist && i != vtx0 && // paranoid
+                    i != vtx1 && i != vtx2) {
                 maxDist = dist;
-                vtx[3] = pointBuffer[i];
+                vtx3 = i;
             }
         }
         if (Math.abs(maxDist) <= 100 * tolerance) {
@@ -683,67 +660,66 @@ public class QuickHull3D {
 
         if (LOG.isDebugEnabled()) {
             LOG.debug("initial vertices:");
-            LOG.debug(vtx[0].index + ": " + vtx[0].pnt);
-            LOG.debug(vtx[1].index + ": " + vtx[1].pnt);
-            LOG.debug(vtx[2].index + ": " + vtx[2].pnt);
-            LOG.debug(vtx[3].index + ": " + vtx[3].pnt);
+            LOG.debug(vtx0 + ": " + pointString(vtx0));
+            LOG.debug(vtx1 + ": " + pointString(vtx1));
+            LOG.debug(vtx2 + ": " + pointString(vtx2));
+            LOG.debug(vtx3 + ": " + pointString(vtx3));
         }
 
-        Face[] tris = new Face[4];
-
-        if (vtx[3].pnt.dot(nrml) - d0 < 0) {
-            tris[0] = Face.createTriangle(vtx[0], vtx[1], vtx[2]);
-            tris[1] = Face.createTriangle(vtx[3], vtx[1], vtx[0]);
-            tris[2] = Face.createTriangle(vtx[3], vtx[2], vtx[1]);
-            tris[3] = Face.createTriangle(vtx[3], vtx[0], vtx[2]);
+        final int tri0, tri1, tri2, tri3;
+        if (pointX[vtx3] * nx + pointY[vtx3] * ny + pointZ[vtx3] * nz - d0 < 0) {
+            tri0 = createTriangle(vtx0, vtx1, vtx2, 0);
+            tri1 = createTriangle(vtx3, vtx1, vtx0, 0);
+            tri2 = createTriangle(vtx3, vtx2, vtx1, 0);
+            tri3 = createTriangle(vtx3, vtx0, vtx2, 0);
 
+            // Triangles are created consecutively, so the sides are tri0 + 1 ... tri0 + 3
             for (int i = 0; i < 3; i++) {
                 int k = (i + 1) % 3;
-                tris[i + 1].getEdge(1).setOpposite(tris[k + 1].getEdge(0));
-                tris[i + 1].getEdge(2).setOpposite(tris[0].getEdge(k));
+                setOpposite(getEdge(tri0 + i + 1, 1), getEdge(tri0 + k + 1, 0));
+                setOpposite(getEdge(tri0 + i + 1, 2), getEdge(tri0, k));
             }
         } else {
-            tris[0] = Face.createTriangle(vtx[0], vtx[2], vtx[1]);
-            tris[1] = Face.createTriangle(vtx[3], vtx[0], vtx[1]);
-            tris[2] = Face.createTriangle(vtx[3], vtx[1], vtx[2]);
-            tris[3] = Face.createTriangle(vtx[3], vtx[2], vtx[0]);
+            tri0 = createTriangle(vtx0, vtx2, vtx1, 0);
+            tri1 = createTriangle(vtx3, vtx0, vtx1, 0);
+            tri2 = createTriangle(vtx3, vtx1, vtx2, 0);
+            tri3 = createTriangle(vtx3, vtx2, vtx0, 0);
 
             for (int i = 0; i < 3; i++) {
                 int k = (i + 1) % 3;
-                tris[i + 1].getEdge(0).setOpposite(tris[k + 1].getEdge(1));
-                tris[i + 1].getEdge(2).setOpposite(tris[0].getEdge((3 - i) % 3));
+                setOpposite(getEdge(tri0 + i + 1, 0), getEdge(tri0 + k + 1, 1));
+                setOpposite(getEdge(tri0 + i + 1, 2), getEdge(tri0, (3 - i) % 3));
             }
         }
 
-        for (int i = 0; i < 4; i++) {
-            faces.add(tris[i]);
-        }
+        addFace(tri0);
+        addFace(tri1);
+        addFace(tri2);
+        addFace(tri3);
 
         for (int i = 0; i < numPoints; i++) {
-            Vertex v = pointBuffer[i];
-
-            if (v == vtx[0] || v == vtx[1] || v == vtx[2] || v == vtx[3]) {
+            if (i == vtx0 || i == vtx1 || i == vtx2 || i == vtx3) {
                 continue;
             }
 
             maxDist = tolerance;
-            Face maxFace = null;
+            int maxFace = NONE;
             for (int k = 0; k < 4; k++) {
-                double dist = tris[k].distanceToPlane(v.pnt);
+                double dist = distanceToPlane(tri0 + k, pointX[i], pointY[i], pointZ[i]);
                 if (dist > maxDist) {
-                    maxFace = tris[k];
+                    maxFace = tri0 + k;
                     maxDist = dist;
                 }
             }
-            if (maxFace != null) {
-                addPointToFace(v, maxFace);
+            if (maxFace != NONE) {
+                addPointToFace(i, maxFace);
             }
         }
     }
 
     /**
      * Returns the number of vertices in this hull.
-     * 
+     *
      * @return number of vertices
      */
     public int getNumVertices() {
@@ -752,7 +728,7 @@ public class QuickHull3D {
 
     /**
      * Returns the vertex points in this hull.
-     * 
+     *
      * @return array of vertex points
      * @see QuickHull3D#getVertices(double[])
      * @see QuickHull3D#getFaces()
@@ -760,14 +736,15 @@ public class QuickHull3D {
     public Point3d[] getVertices() {
         Point3d[] vtxs = new Point3d[numVertices];
         for (int i = 0; i < numVertices; i++) {
-            vtxs[i] = pointBuffer[vertexPointIndices[i]].pnt;
+            int point = vertexPointIndices[i];
+            vtxs[i] = new Point3d(pointX[point], pointY[point], pointZ[point]);
         }
         return vtxs;
     }
 
     /**
      * Returns the coordinates of the vertex points of this hull.
-     * 
+     *
      * @param coords
      *            returns the x, y, z coordinates of each vertex. This length of
      *            this array must be at least three times the number of
@@ -778,10 +755,10 @@ public class QuickHull3D {
      */
     public int getVertices(double[] coords) {
         for (int i = 0; i < numVertices; i++) {
-            Point3d pnt = pointBuffer[vertexPointIndices[i]].pnt;
-            coords[i * 3 + 0] = pnt.x;
-            coords[i * 3 + 1] = pnt.y;
-            coords[i * 3 + 2] = pnt.z;
+            int point = vertexPointIndices[i];
+            coords[i * 3 + 0] = pointX[point];
+            coords[i * 3 + 1] = pointY[point];
+            coords[i * 3 + 2] = pointZ[point];
         }
         return numVertices;
     }
@@ -789,24 +766,49 @@ public class QuickHull3D {
     /**
      * Returns an array specifing the index of each hull vertex with respect to
      * the original input points.
-     * 
+     *
      * @return vertex indices with respect to the original points
      */
     public int[] getVertexPointIndices() {
-        int[] indices = new int[numVertices];
-        for (int i = 0; i < numVertices; i++) {
-            indices[i] = vertexPointIndices[i];
-        }
-        return indices;
+        return Arrays.copyOf(vertexPointIndices, numVertices);
     }
 
     /**
      * Returns the number of faces in this hull.
-     * 
+     *
      * @return number of faces
      */
     public int getNumFaces() {
-        return faces.size();
+        return faceListSize;
+    }
+
+    /**
+     * Returns the number of vertices of one face of this hull.
+     *
+     * @param face
+     *            index of the face, between 0 and {@link #getNumFaces()}
+     * @return number of vertices of the face
+     */
+    public int getNumFaceVertices(int face) {
+        return faceNumVerts[faces[face]];
+    }
+
+    /**
+     * Writes the vertex indices of one face into an existing array, the
+     * allocation free counterpart of {@link #getFaces(int)}.
+     *
+     * @param face
+     *            index of the face, between 0 and {@link #getNumFaces()}
+     * @param indices
+     *            receives the vertex indices, must hold at least
+     *            {@link #getNumFaceVertices(int)} entries
+     * @param indexFlags
+     *            specifies index characteristics (0 results in the default)
+     * @return number of vertices of the face
+     */
+    public int getFaceVertices(int face, int[] indices, int indexFlags) {
+        getFaceIndices(indices, faces[face], indexFlags);
+        return faceNumVerts[faces[face]];
     }
 
     /**
@@ -817,7 +819,7 @@ public class QuickHull3D {
      * are zero-based, and are arranged counter-clockwise. More control over the
      * index format can be obtained using {@link #getFaces(int)
      * getFaces(indexFlags)}.
-     * 
+     *
      * @return array of integer arrays, giving the vertex indices for each face.
      * @see QuickHull3D#getVertices()
      * @see QuickHull3D#getFaces(int)
@@ -836,20 +838,18 @@ public class QuickHull3D {
      * {@link #POINT_RELATIVE POINT_RELATIVE}, {@link #INDEXED_FROM_ONE
      * INDEXED_FROM_ONE}, or {@link #CLOCKWISE CLOCKWISE} in the indexFlags
      * parameter.
-     * 
+     *
      * @param indexFlags
      *            specifies index characteristics (0 results in the default)
      * @return array of integer arrays, giving the vertex indices for each face.
      * @see QuickHull3D#getVertices()
      */
     public int[][] getFaces(int indexFlags) {
-        int[][] allFaces = new int[faces.size()][];
-        int k = 0;
-        for (Iterator it = faces.iterator(); it.hasNext();) {
-            Face face = (Face) it.next();
-            allFaces[k] = new int[face.numVertices()];
+        int[][] allFaces = new int[faceListSize][];
+        for (int k = 0; k < faceListSize; k++) {
+            int face = faces[k];
+            allFaces[k] = new int[faceNumVerts[face]];
             getFaceIndices(allFaces[k], face, indexFlags);
-            k++;
         }
         return allFaces;
     }
@@ -866,7 +866,7 @@ public class QuickHull3D {
      * opposed to the input points), with a lowest index of 1, and are arranged
      * counter-clockwise. More control over the index format can be obtained
      * using {@link #print(PrintStream,int) print(ps,indexFlags)}.
-     * 
+     *
      * @param ps
      *            stream used for printing
      * @see QuickHull3D#print(PrintStream,int)
@@ -891,7 +891,7 @@ public class QuickHull3D {
      * {@link #POINT_RELATIVE POINT_RELATIVE}, {@link #INDEXED_FROM_ONE
      * INDEXED_FROM_ZERO}, or {@link #CLOCKWISE CLOCKWISE} in the indexFlags
      * parameter.
-     * 
+     *
      * @param ps
      *            stream used for printing
      * @param indexFlags
@@ -904,12 +904,11 @@ public class QuickHull3D {
             indexFlags |= INDEXED_FROM_ONE;
         }
         for (int i = 0; i < numVertices; i++) {
-            Point3d pnt = pointBuffer[vertexPointIndices[i]].pnt;
-            ps.println("v " + pnt.x + " " + pnt.y + " " + pnt.z);
+            ps.println("v " + pointString(vertexPointIndices[i]));
         }
-        for (Iterator fi = faces.iterator(); fi.hasNext();) {
-            Face face = (Face) fi.next();
-            int[] indices = new int[face.numVertices()];
+        for (int i = 0; i < faceListSize; i++) {
+            int face = faces[i];
+            int[] indices = new int[faceNumVerts[face]];
             getFaceIndices(indices, face, indexFlags);
 
             ps.print("f");
@@ -920,15 +919,16 @@ public class QuickHull3D {
         }
     }
 
-    private void getFaceIndices(int[] indices, Face face, int flags) {
+    private void getFaceIndices(int[] indices, int face, int flags) {
         boolean ccw = (flags & CLOCKWISE) == 0;
         boolean indexedFromOne = (flags & INDEXED_FROM_ONE) != 0;
         boolean pointRelative = (flags & POINT_RELATIVE) != 0;
 
-        HalfEdge hedge = face.he0;
+        int he0 = faceEdge[face];
+        int hedge = he0;
         int k = 0;
         do {
-            int idx = hedge.head().index;
+            int idx = pointIndex[edgeHead[hedge]];
             if (pointRelative) {
                 idx = vertexPointIndices[idx];
             }
@@ -936,20 +936,20 @@ public class QuickHull3D {
                 idx++;
             }
             indices[k++] = idx;
-            hedge = (ccw ? hedge.next : hedge.prev);
-        } while (hedge != face.he0);
+            hedge = (ccw ? edgeNext[hedge] : edgePrev[hedge]);
+        } while (hedge != he0);
     }
 
-    protected void resolveUnclaimedPoints(FaceList newFaces) {
-        Vertex vtxNext = unclaimed.first();
-        for (Vertex vtx = vtxNext; vtx != null; vtx = vtxNext) {
-            vtxNext = vtx.next;
+    protected void resolveUnclaimedPoints() {
+        int vtxNext = listHead[UNCLAIMED];
+        for (int vtx = vtxNext; vtx != NONE; vtx = vtxNext) {
+            vtxNext = pointNext[vtx];
 
             double maxDist = tolerance;
-            Face maxFace = null;
-            for (Face newFace = newFaces.first(); newFace != null; newFace = newFace.next) {
-                if (newFace.mark == Face.VISIBLE) {
-                    double dist = newFace.distanceToPlane(vtx.pnt);
+            int maxFace = NONE;
+            for (int newFace = newFacesHead; newFace != NONE; newFace = faceNext[newFace]) {
+                if (faceMark[newFace] == VISIBLE) {
+                    double dist = distanceToPlane(newFace, pointX[vtx], pointY[vtx], pointZ[vtx]);
                     if (dist > maxDist) {
                         maxDist = dist;
                         maxFace = newFace;
@@ -959,58 +959,58 @@ public class QuickHull3D {
                     }
                 }
             }
-            if (maxFace != null) {
+            if (maxFace != NONE) {
                 addPointToFace(vtx, maxFace);
-                if (LOG.isDebugEnabled() && vtx.index == findIndex) {
-                    LOG.debug(findIndex + " CLAIMED BY " + maxFace.getVertexString());
+                if (LOG.isDebugEnabled() && vtx == findIndex) {
+                    LOG.debug(findIndex + " CLAIMED BY " + faceVertexString(maxFace));
                 }
             } else {
-                if (LOG.isDebugEnabled() && vtx.index == findIndex) {
+                if (LOG.isDebugEnabled() && vtx == findIndex) {
                     LOG.debug(findIndex + " DISCARDED");
                 }
             }
         }
     }
 
-    protected void deleteFacePoints(Face face, Face absorbingFace) {
-        Vertex faceVtxs = removeAllPointsFromFace(face);
-        if (faceVtxs != null) {
-            if (absorbingFace == null) {
-                unclaimed.addAll(faceVtxs);
+    protected void deleteFacePoints(int face, int absorbingFace) {
+        int faceVtxs = removeAllPointsFromFace(face);
+        if (faceVtxs != NONE) {
+            if (absorbingFace == NONE) {
+                addAllToList(UNCLAIMED, faceVtxs);
             } else {
-                Vertex vtxNext = faceVtxs;
-                for (Vertex vtx = vtxNext; vtx != null; vtx = vtxNext) {
-                    vtxNext = vtx.next;
-                    double dist = absorbingFace.distanceToPlane(vtx.pnt);
+                int vtxNext = faceVtxs;
+                for (int vtx = vtxNext; vtx != NONE; vtx = vtxNext) {
+                    vtxNext = pointNext[vtx];
+                    double dist = distanceToPlane(absorbingFace, pointX[vtx], pointY[vtx], pointZ[vtx]);
                     if (dist > tolerance) {
                         addPointToFace(vtx, absorbingFace);
                     } else {
-                        unclaimed.add(vtx);
+                        addToList(UNCLAIMED, vtx);
                     }
                 }
             }
         }
     }
 
-    private static final int NONCONVEX_WRT_LARGER_FACE = 1;
-
-    private static final int NONCONVEX = 2;
-
-    protected double oppFaceDistance(HalfEdge he) {
-        return he.face.distanceToPlane(he.opposite.face.getCentroid());
+    /**
+     * Distance from the plane of the face of a half edge to the centroid of the face on the other side.
+     */
+    protected double oppFaceDistance(int he) {
+        int oppFace = edgeFace[edgeOpposite[he]];
+        return distanceToPlane(edgeFace[he], faceCentroidX[oppFace], faceCentroidY[oppFace], faceCentroidZ[oppFace]);
     }
 
-    private boolean doAdjacentMerge(Face face, int mergeType) {
-        HalfEdge hedge = face.he0;
+    private boolean doAdjacentMerge(int face, int mergeType) {
+        int hedge = faceEdge[face];
 
         boolean convex = true;
         do {
-            Face oppFace = hedge.oppositeFace();
+            int oppFace = oppositeFace(hedge);
             boolean merge = false;
 
             if (mergeType == NONCONVEX) { // then merge faces if they are
                                           // definitively non-convex
-                if (oppFaceDistance(hedge) > -tolerance || oppFaceDistance(hedge.opposite) > -tolerance) {
+                if (oppFaceDistance(hedge) > -tolerance || oppFaceDistance(edgeOpposite[hedge]) > -tolerance) {
                     merge = true;
                 }
             } else {
@@ -1018,14 +1018,14 @@ public class QuickHull3D {
                 // merge faces if they are parallel or non-convex
                 // wrt to the larger face; otherwise, just mark
                 // the face non-convex for the second pass.
-                if (face.area > oppFace.area) {
+                if (faceArea[face] > faceArea[oppFace]) {
                     if (oppFaceDistance(hedge) > -tolerance) {
                         merge = true;
-                    } else if (oppFaceDistance(hedge.opposite) > -tolerance) {
+                    } else if (oppFaceDistance(edgeOpposite[hedge]) > -tolerance) {
                         convex = false;
                     }
                 } else {
-                    if (oppFaceDistance(hedge.opposite) > -tolerance) {
+                    if (oppFaceDistance(edgeOpposite[hedge]) > -tolerance) {
                         merge = true;
                     } else if (oppFaceDistance(hedge) > -tolerance) {
                         convex = false;
@@ -1035,93 +1035,94 @@ public class QuickHull3D {
 
             if (merge) {
                 if (LOG.isDebugEnabled()) {
-                    LOG.debug("  merging " + face.getVertexString() + "  and  " + oppFace.getVertexString());
+                    LOG.debug("  merging " + faceVertexString(face) + "  and  " + faceVertexString(oppFace));
                 }
 
-                int numd = face.mergeAdjacentFace(hedge, discardedFaces);
+                int numd = mergeAdjacentFace(face, hedge, discardedFaces);
                 for (int i = 0; i < numd; i++) {
                     deleteFacePoints(discardedFaces[i], face);
                 }
                 if (LOG.isDebugEnabled()) {
-                    LOG.debug("  result: " + face.getVertexString());
+                    LOG.debug("  result: " + faceVertexString(face));
                 }
                 return true;
             }
-            hedge = hedge.next;
-        } while (hedge != face.he0);
+            hedge = edgeNext[hedge];
+        } while (hedge != faceEdge[face]);
         if (!convex) {
-            face.mark = Face.NON_CONVEX;
+            faceMark[face] = NON_CONVEX;
         }
         return false;
     }
 
-    protected void calculateHorizon(Point3d eyePnt, HalfEdge edge0, Face face, Vector horizon) {
-        // oldFaces.add (face);
-        deleteFacePoints(face, null);
-        face.mark = Face.DELETED;
+    protected void calculateHorizon(double eyeX, double eyeY, double eyeZ, int edge0, int face) {
+        deleteFacePoints(face, NONE);
+        faceMark[face] = DELETED;
         if (LOG.isDebugEnabled()) {
-            LOG.debug("  visiting face " + face.getVertexString());
+            LOG.debug("  visiting face " + faceVertexString(face));
         }
-        HalfEdge edge;
-        if (edge0 == null) {
-            edge0 = face.getEdge(0);
+        int edge;
+        if (edge0 == NONE) {
+            edge0 = getEdge(face, 0);
             edge = edge0;
         } else {
-            edge = edge0.getNext();
+            edge = edgeNext[edge0];
         }
         do {
-            Face oppFace = edge.oppositeFace();
-            if (oppFace.mark == Face.VISIBLE) {
-                if (oppFace.distanceToPlane(eyePnt) > tolerance) {
-                    calculateHorizon(eyePnt, edge.getOpposite(), oppFace, horizon);
+            int oppFace = oppositeFace(edge);
+            if (faceMark[oppFace] == VISIBLE) {
+                if (distanceToPlane(oppFace, eyeX, eyeY, eyeZ) > tolerance) {
+                    calculateHorizon(eyeX, eyeY, eyeZ, edgeOpposite[edge], oppFace);
                 } else {
-                    horizon.add(edge);
+                    if (horizonSize == horizon.length) {
+                        horizon = Arrays.copyOf(horizon, horizonSize * 2);
+                    }
+                    horizon[horizonSize++] = edge;
                     if (LOG.isDebugEnabled()) {
-                        LOG.debug("  adding horizon edge " + edge.getVertexString());
+                        LOG.debug("  adding horizon edge " + edgeVertexString(edge));
                     }
                 }
             }
-            edge = edge.getNext();
+            edge = edgeNext[edge];
         } while (edge != edge0);
     }
 
-    private HalfEdge addAdjoiningFace(Vertex eyeVtx, HalfEdge he) {
-        Face face = Face.createTriangle(eyeVtx, he.tail(), he.head());
-        faces.add(face);
-        face.getEdge(-1).setOpposite(he.getOpposite());
-        return face.getEdge(0);
+    private int addAdjoiningFace(int eyeVtx, int he) {
+        int face = createTriangle(eyeVtx, tail(he), edgeHead[he], 0);
+        addFace(face);
+        setOpposite(getEdge(face, -1), edgeOpposite[he]);
+        return getEdge(face, 0);
     }
 
-    protected void addNewFaces(FaceList newFaces, Vertex eyeVtx, Vector horizon) {
-        newFaces.clear();
+    protected void addNewFaces(int eyeVtx) {
+        clearNewFaces();
 
-        HalfEdge hedgeSidePrev = null;
-        HalfEdge hedgeSideBegin = null;
+        int hedgeSidePrev = NONE;
+        int hedgeSideBegin = NONE;
 
-        for (Iterator it = horizon.iterator(); it.hasNext();) {
-            HalfEdge horizonHe = (HalfEdge) it.next();
-            HalfEdge hedgeSide = addAdjoiningFace(eyeVtx, horizonHe);
+        for (int i = 0; i < horizonSize; i++) {
+            int hedgeSide = addAdjoiningFace(eyeVtx, horizon[i]);
             if (LOG.isDebugEnabled()) {
-                LOG.debug("new face: " + hedgeSide.face.getVertexString());
+                LOG.debug("new face: " + faceVertexString(edgeFace[hedgeSide]));
             }
-            if (hedgeSidePrev != null) {
-                hedgeSide.next.setOpposite(hedgeSidePrev);
+            if (hedgeSidePrev != NONE) {
+                setOpposite(edgeNext[hedgeSide], hedgeSidePrev);
             } else {
                 hedgeSideBegin = hedgeSide;
             }
-            newFaces.add(hedgeSide.getFace());
+            addNewFace(edgeFace[hedgeSide]);
             hedgeSidePrev = hedgeSide;
         }
-        hedgeSideBegin.next.setOpposite(hedgeSidePrev);
+        setOpposite(edgeNext[hedgeSideBegin], hedgeSidePrev);
     }
 
-    protected Vertex nextPointToAdd() {
-        if (!claimed.isEmpty()) {
-            Face eyeFace = claimed.first().face;
-            Vertex eyeVtx = null;
+    protected int nextPointToAdd() {
+        if (listHead[CLAIMED] != NONE) {
+            int eyeFace = pointFace[listHead[CLAIMED]];
+            int eyeVtx = NONE;
             double maxDist = 0;
-            for (Vertex vtx = eyeFace.outside; vtx != null && vtx.face == eyeFace; vtx = vtx.next) {
-                double dist = eyeFace.distanceToPlane(vtx.pnt);
+            for (int vtx = faceOutside[eyeFace]; vtx != NONE && pointFace[vtx] == eyeFace; vtx = pointNext[vtx]) {
+                double dist = distanceToPlane(eyeFace, pointX[vtx], pointY[vtx], pointZ[vtx]);
                 if (dist > maxDist) {
                     maxDist = dist;
                     eyeVtx = vtx;
@@ -1129,131 +1130,131 @@ public class QuickHull3D {
             }
             return eyeVtx;
         } else {
-            return null;
+            return NONE;
         }
     }
 
-    protected void addPointToHull(Vertex eyeVtx) {
-        horizon.clear();
-        unclaimed.clear();
+    protected void addPointToHull(int eyeVtx) {
+        horizonSize = 0;
+        clearList(UNCLAIMED);
 
         if (LOG.isDebugEnabled()) {
-            LOG.debug("Adding point: " + eyeVtx.index);
-            LOG.debug(" which is " + eyeVtx.face.distanceToPlane(eyeVtx.pnt) + " above face " + eyeVtx.face.getVertexString());
+            LOG.debug("Adding point: " + eyeVtx);
+            LOG.debug(" which is " + distanceToPlane(pointFace[eyeVtx], pointX[eyeVtx], pointY[eyeVtx], pointZ[eyeVtx]) + " above face " + faceVertexString(pointFace[eyeVtx]));
         }
-        removePointFromFace(eyeVtx, eyeVtx.face);
-        calculateHorizon(eyeVtx.pnt, null, eyeVtx.face, horizon);
-        newFaces.clear();
-        addNewFaces(newFaces, eyeVtx, horizon);
+        int eyeFace = pointFace[eyeVtx];
+        removePointFromFace(eyeVtx, eyeFace);
+        calculateHorizon(pointX[eyeVtx], pointY[eyeVtx], pointZ[eyeVtx], NONE, eyeFace);
+        addNewFaces(eyeVtx);
 
         // first merge pass ... merge faces which are non-convex
         // as determined by the larger face
 
-        for (Face face = newFaces.first(); face != null; face = face.next) {
-            if (face.mark == Face.VISIBLE) {
+        for (int face = newFacesHead; face != NONE; face = faceNext[face]) {
+            if (faceMark[face] == VISIBLE) {
                 while (doAdjacentMerge(face, NONCONVEX_WRT_LARGER_FACE))
                     ;
             }
         }
         // second merge pass ... merge faces which are non-convex
         // wrt either face
-        for (Face face = newFaces.first(); face != null; face = face.next) {
-            if (face.mark == Face.NON_CONVEX) {
-                face.mark = Face.VISIBLE;
+        for (int face = newFacesHead; face != NONE; face = faceNext[face]) {
+            if (faceMark[face] == NON_CONVEX) {
+                faceMark[face] = VISIBLE;
                 while (doAdjacentMerge(face, NONCONVEX))
                     ;
             }
         }
-        resolveUnclaimedPoints(newFaces);
+        resolveUnclaimedPoints();
     }
 
     protected void buildHull() {
         int cnt = 0;
-        Vertex eyeVtx;
+        int eyeVtx;
 
         computeMaxAndMin();
         createInitialSimplex();
-        while ((eyeVtx = nextPointToAdd()) != null) {
+        while ((eyeVtx = nextPointToAdd()) != NONE) {
             addPointToHull(eyeVtx);
             cnt++;
-            LOG.debug("iteration " + cnt + " done");
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("iteration " + cnt + " done");
+            }
         }
         reindexFacesAndVertices();
         LOG.debug("hull done");
     }
 
-    private void markFaceVertices(Face face, int mark) {
-        HalfEdge he0 = face.getFirstEdge();
-        HalfEdge he = he0;
+    private void markFaceVertices(int face, int mark) {
+        int he0 = faceEdge[face];
+        int he = he0;
         do {
-            he.head().index = mark;
-            he = he.next;
+            pointIndex[edgeHead[he]] = mark;
+            he = edgeNext[he];
         } while (he != he0);
     }
 
     protected void reindexFacesAndVertices() {
         for (int i = 0; i < numPoints; i++) {
-            pointBuffer[i].index = -1;
+            pointIndex[i] = -1;
         }
         // remove inactive faces and mark active vertices
         numFaces = 0;
-        for (Iterator it = faces.iterator(); it.hasNext();) {
-            Face face = (Face) it.next();
-            if (face.mark != Face.VISIBLE) {
-                it.remove();
-            } else {
+        for (int i = 0; i < faceListSize; i++) {
+            int face = faces[i];
+            if (faceMark[face] == VISIBLE) {
                 markFaceVertices(face, 0);
-                numFaces++;
+                faces[numFaces++] = face;
             }
         }
+        faceListSize = numFaces;
         // reindex vertices
         numVertices = 0;
         for (int i = 0; i < numPoints; i++) {
-            Vertex vtx = pointBuffer[i];
-            if (vtx.index == 0) {
+            if (pointIndex[i] == 0) {
                 vertexPointIndices[numVertices] = i;
-                vtx.index = numVertices++;
+                pointIndex[i] = numVertices++;
             }
         }
     }
 
-    protected boolean checkFaceConvexity(Face face, double tol, PrintStream ps) {
+    protected boolean checkFaceConvexity(int face, double tol, PrintStream ps) {
         double dist;
-        HalfEdge he = face.he0;
+        int he = faceEdge[face];
         do {
-            face.checkConsistency();
+            checkConsistency(face);
             // make sure edge is convex
             dist = oppFaceDistance(he);
             if (dist > tol) {
                 if (ps != null) {
-                    ps.println("Edge " + he.getVertexString() + " non-convex by " + dist);
+                    ps.println("Edge " + edgeVertexString(he) + " non-convex by " + dist);
                 }
                 return false;
             }
-            dist = oppFaceDistance(he.opposite);
+            dist = oppFaceDistance(edgeOpposite[he]);
             if (dist > tol) {
                 if (ps != null) {
-                    ps.println("Opposite edge " + he.opposite.getVertexString() + " non-convex by " + dist);
+                    ps.println("Opposite edge " + edgeVertexString(edgeOpposite[he]) + " non-convex by " + dist);
                 }
                 return false;
             }
-            if (he.next.oppositeFace() == he.oppositeFace()) {
+            if (oppositeFace(edgeNext[he]) == oppositeFace(he)) {
                 if (ps != null) {
-                    ps.println("Redundant vertex " + he.head().index + " in face " + face.getVertexString());
+                    ps.println("Redundant vertex " + pointIndex[edgeHead[he]] + " in face " + faceVertexString(face));
                 }
                 return false;
             }
-            he = he.next;
-        } while (he != face.he0);
+            he = edgeNext[he];
+        } while (he != faceEdge[face]);
         return true;
     }
 
     protected boolean checkFaces(double tol, PrintStream ps) {
         // check edge convexity
         boolean convex = true;
-        for (Iterator it = faces.iterator(); it.hasNext();) {
-            Face face = (Face) it.next();
-            if (face.mark == Face.VISIBLE && !checkFaceConvexity(face, tol, ps)) {
+        for (int i = 0; i < faceListSize; i++) {
+            int face = faces[i];
+            if (faceMark[face] == VISIBLE && !checkFaceConvexity(face, tol, ps)) {
                 convex = false;
             }
         }
@@ -1265,7 +1266,7 @@ public class QuickHull3D {
      * by {@link QuickHull3D#getDistanceTolerance getDistanceTolerance}; see
      * {@link QuickHull3D#check(PrintStream,double) check(PrintStream,double)}
      * for details.
-     * 
+     *
      * @param ps
      *            print stream for diagnostic messages; may be set to
      *            <code>null</code> if no messages are desired.
@@ -1288,7 +1289,7 @@ public class QuickHull3D {
      * <p>
      * If the hull has been {@link #triangulate triangulated}, then this routine
      * may fail if some of the resulting triangles are very small or thin.
-     * 
+     *
      * @param ps
      *            print stream for diagnostic messages; may be set to
      *            <code>null</code> if no messages are desired.
@@ -1297,9 +1298,7 @@ public class QuickHull3D {
      * @return true if the hull is valid
      * @see QuickHull3D#check(PrintStream)
      */
-    public boolean check(PrintStream ps, double tol)
-
-    {
+    public boolean check(PrintStream ps, double tol) {
         // check to make sure all edges are fully connected
         // and that the edges are convex
         double dist;
@@ -1312,14 +1311,13 @@ public class QuickHull3D {
         // check point inclusion
 
         for (int i = 0; i < numPoints; i++) {
-            Point3d pnt = pointBuffer[i].pnt;
-            for (Iterator it = faces.iterator(); it.hasNext();) {
-                Face face = (Face) it.next();
-                if (face.mark == Face.VISIBLE) {
-                    dist = face.distanceToPlane(pnt);
+            for (int k = 0; k < faceListSize; k++) {
+                int face = faces[k];
+                if (faceMark[face] == VISIBLE) {
+                    dist = distanceToPlane(face, pointX[i], pointY[i], pointZ[i]);
                     if (dist > pointTol) {
                         if (ps != null) {
-                            ps.println("Point " + i + " " + dist + " above face " + face.getVertexString());
+                            ps.println("Point " + i + " " + dist + " above face " + faceVertexString(face));
                         }
                         return false;
                     }
@@ -1328,4 +1326,544 @@ public class QuickHull3D {
         }
         return true;
     }
+
+    // ---------------------------------------------------------------------
+    // Point lists, the array counterpart of the old VertexList
+
+    private void clearList(int list) {
+        listHead[list] = listTail[list] = NONE;
+    }
+
+    private void addToList(int list, int vtx) {
+        if (listHead[list] == NONE) {
+            listHead[list] = vtx;
+        } else {
+            pointNext[listTail[list]] = vtx;
+        }
+        pointPrev[vtx] = listTail[list];
+        pointNext[vtx] = NONE;
+        listTail[list] = vtx;
+    }
+
+    private void addAllToList(int list, int vtx) {
+        if (listHead[list] == NONE) {
+            listHead[list] = vtx;
+        } else {
+            pointNext[listTail[list]] = vtx;
+        }
+        pointPrev[vtx] = listTail[list];
+        while (pointNext[vtx] != NONE) {
+            vtx = pointNext[vtx];
+        }
+        listTail[list] = vtx;
+    }
+
+    private void deleteFromList(int list, int vtx1, int vtx2) {
+        if (pointPrev[vtx1] == NONE) {
+            listHead[list] = pointNext[vtx2];
+        } else {
+            pointNext[pointPrev[vtx1]] = pointNext[vtx2];
+        }
+        if (pointNext[vtx2] == NONE) {
+            listTail[list] = pointPrev[vtx1];
+        } else {
+            pointPrev[pointNext[vtx2]] = pointPrev[vtx1];
+        }
+    }
+
+    private void insertBefore(int list, int vtx, int next) {
+        pointPrev[vtx] = pointPrev[next];
+        if (pointPrev[next] == NONE) {
+            listHead[list] = vtx;
+        } else {
+            pointNext[pointPrev[next]] = vtx;
+        }
+        pointNext[vtx] = next;
+        pointPrev[next] = vtx;
+    }
+
+    private void addPointToFace(int vtx, int face) {
+        pointFace[vtx] = face;
+
+        if (faceOutside[face] == NONE) {
+            addToList(CLAIMED, vtx);
+        } else {
+            insertBefore(CLAIMED, vtx, faceOutside[face]);
+        }
+        faceOutside[face] = vtx;
+    }
+
+    private void removePointFromFace(int vtx, int face) {
+        if (vtx == faceOutside[face]) {
+            int next = pointNext[vtx];
+            if (next != NONE && pointFace[next] == face) {
+                faceOutside[face] = next;
+            } else {
+                faceOutside[face] = NONE;
+            }
+        }
+        deleteFromList(CLAIMED, vtx, vtx);
+    }
+
+    private int removeAllPointsFromFace(int face) {
+        int outside = faceOutside[face];
+        if (outside != NONE) {
+            int end = outside;
+            while (pointNext[end] != NONE && pointFace[pointNext[end]] == face) {
+                end = pointNext[end];
+            }
+            deleteFromList(CLAIMED, outside, end);
+            pointNext[end] = NONE;
+            return outside;
+        } else {
+            return NONE;
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Faces and half edges, the array counterpart of the old Face and HalfEdge classes
+
+    private void addFace(int face) {
+        if (faceListSize == faces.length) {
+            faces = Arrays.copyOf(faces, faceListSize * 2);
+        }
+        faces[faceListSize++] = face;
+    }
+
+    private void clearNewFaces() {
+        newFacesHead = newFacesTail = NONE;
+    }
+
+    private void addNewFace(int face) {
+        if (newFacesHead == NONE) {
+            newFacesHead = face;
+        } else {
+            faceNext[newFacesTail] = face;
+        }
+        faceNext[face] = NONE;
+        newFacesTail = face;
+    }
+
+    private int newFace() {
+        if (faceCount == faceEdge.length) {
+            int capacity = Math.max(16, faceCount * 2);
+            faceEdge = Arrays.copyOf(faceEdge, capacity);
+            faceMark = Arrays.copyOf(faceMark, capacity);
+            faceNumVerts = Arrays.copyOf(faceNumVerts, capacity);
+            faceOutside = Arrays.copyOf(faceOutside, capacity);
+            faceNext = Arrays.copyOf(faceNext, capacity);
+            faceArea = Arrays.copyOf(faceArea, capacity);
+            faceOffset = Arrays.copyOf(faceOffset, capacity);
+            faceNormalX = Arrays.copyOf(faceNormalX, capacity);
+            faceNormalY = Arrays.copyOf(faceNormalY, capacity);
+            faceNormalZ = Arrays.copyOf(faceNormalZ, capacity);
+            faceCentroidX = Arrays.copyOf(faceCentroidX, capacity);
+            faceCentroidY = Arrays.copyOf(faceCentroidY, capacity);
+            faceCentroidZ = Arrays.copyOf(faceCentroidZ, capacity);
+        }
+        int face = faceCount++;
+        faceEdge[face] = NONE;
+        faceMark[face] = VISIBLE;
+        faceNumVerts[face] = 0;
+        faceOutside[face] = NONE;
+        faceNext[face] = NONE;
+        faceArea[face] = 0;
+        return face;
+    }
+
+    private int newEdge(int vertex, int face) {
+        if (edgeCount == edgeHead.length) {
+            int capacity = Math.max(64, edgeCount * 2);
+            edgeHead = Arrays.copyOf(edgeHead, capacity);
+            edgeFace = Arrays.copyOf(edgeFace, capacity);
+            edgePrev = Arrays.copyOf(edgePrev, capacity);
+            edgeNext = Arrays.copyOf(edgeNext, capacity);
+            edgeOpposite = Arrays.copyOf(edgeOpposite, capacity);
+        }
+        int edge = edgeCount++;
+        edgeHead[edge] = vertex;
+        edgeFace[edge] = face;
+        edgePrev[edge] = NONE;
+        edgeNext[edge] = NONE;
+        edgeOpposite[edge] = NONE;
+        return edge;
+    }
+
+    private int createTriangle(int v0, int v1, int v2, double minArea) {
+        int face = newFace();
+        int he0 = newEdge(v0, face);
+        int he1 = newEdge(v1, face);
+        int he2 = newEdge(v2, face);
+
+        edgePrev[he0] = he2;
+        edgeNext[he0] = he1;
+        edgePrev[he1] = he0;
+        edgeNext[he1] = he2;
+        edgePrev[he2] = he1;
+        edgeNext[he2] = he0;
+
+        faceEdge[face] = he0;
+
+        // compute the normal and offset
+        computeNormalAndCentroid(face, minArea);
+        return face;
+    }
+
+    private void setOpposite(int edge, int opposite) {
+        edgeOpposite[edge] = opposite;
+        edgeOpposite[opposite] = edge;
+    }
+
+    private int tail(int edge) {
+        return edgePrev[edge] != NONE ? edgeHead[edgePrev[edge]] : NONE;
+    }
+
+    private int oppositeFace(int edge) {
+        return edgeOpposite[edge] != NONE ? edgeFace[edgeOpposite[edge]] : NONE;
+    }
+
+    private int getEdge(int face, int i) {
+        int he = faceEdge[face];
+        while (i > 0) {
+            he = edgeNext[he];
+            i--;
+        }
+        while (i < 0) {
+            he = edgePrev[he];
+            i++;
+        }
+        return he;
+    }
+
+    private double distanceToPlane(int face, double x, double y, double z) {
+        return faceNormalX[face] * x + faceNormalY[face] * y + faceNormalZ[face] * z - faceOffset[face];
+    }
+
+    private void computeCentroid(int face) {
+        double cx = 0, cy = 0, cz = 0;
+        int he0 = faceEdge[face];
+        int he = he0;
+        do {
+            int head = edgeHead[he];
+            cx += pointX[head];
+            cy += pointY[head];
+            cz += pointZ[head];
+            he = edgeNext[he];
+        } while (he != he0);
+        double scale = 1 / (double) faceNumVerts[face];
+        faceCentroidX[face] = scale * cx;
+        faceCentroidY[face] = scale * cy;
+        faceCentroidZ[face] = scale * cz;
+    }
+
+    private void computeNormal(int face) {
+        int he0 = faceEdge[face];
+        int he1 = edgeNext[he0];
+        int he2 = edgeNext[he1];
+
+        int p0 = edgeHead[he0];
+        int p2 = edgeHead[he1];
+
+        double d2x = pointX[p2] - pointX[p0];
+        double d2y = pointY[p2] - pointY[p0];
+        double d2z = pointZ[p2] - pointZ[p0];
+
+        double nx = 0, ny = 0, nz = 0;
+
+        int numVerts = 2;
+
+        while (he2 != he0) {
+            double d1x = d2x;
+            double d1y = d2y;
+            double d1z = d2z;
+
+            p2 = edgeHead[he2];
+            d2x = pointX[p2] - pointX[p0];
+            d2y = pointY[p2] - pointY[p0];
+            d2z = pointZ[p2] - pointZ[p0];
+
+            nx += d1y * d2z - d1z * d2y;
+            ny += d1z * d2x - d1x * d2z;
+            nz += d1x * d2y - d1y * d2x;
+
+            he2 = edgeNext[he2];
+            numVerts++;
+        }
+        double area = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        double scale = 1 / area;
+        faceNumVerts[face] = numVerts;
+        faceArea[face] = area;
+        faceNormalX[face] = scale * nx;
+        faceNormalY[face] = scale * ny;
+        faceNormalZ[face] = scale * nz;
+    }
+
+    private void computeNormal(int face, double minArea) {
+        computeNormal(face);
+
+        if (faceArea[face] < minArea) {
+            // make the normal more robust by removing
+            // components parallel to the longest edge
+
+            int hedgeMax = NONE;
+            double lenSqrMax = 0;
+            int he0 = faceEdge[face];
+            int hedge = he0;
+            do {
+                int head = edgeHead[hedge];
+                int tail = tail(hedge);
+                double dx = pointX[head] - pointX[tail];
+                double dy = pointY[head] - pointY[tail];
+                double dz = pointZ[head] - pointZ[tail];
+                double lenSqr = dx * dx + dy * dy + dz * dz;
+                if (lenSqr > lenSqrMax) {
+                    hedgeMax = hedge;
+                    lenSqrMax = lenSqr;
+                }
+                hedge = edgeNext[hedge];
+            } while (hedge != he0);
+
+            int p2 = edgeHead[hedgeMax];
+            int p1 = tail(hedgeMax);
+            double lenMax = Math.sqrt(lenSqrMax);
+            double ux = (pointX[p2] - pointX[p1]) / lenMax;
+            double uy = (pointY[p2] - pointY[p1]) / lenMax;
+            double uz = (pointZ[p2] - pointZ[p1]) / lenMax;
+            double nx = faceNormalX[face], ny = faceNormalY[face], nz = faceNormalZ[face];
+            double dot = nx * ux + ny * uy + nz * uz;
+            nx -= dot * ux;
+            ny -= dot * uy;
+            nz -= dot * uz;
+
+            double lenSqr = nx * nx + ny * ny + nz * nz;
+            double err = lenSqr - 1;
+            if (err > (2 * DOUBLE_PREC) || err < -(2 * DOUBLE_PREC)) {
+                double len = Math.sqrt(lenSqr);
+                nx /= len;
+                ny /= len;
+                nz /= len;
+            }
+            faceNormalX[face] = nx;
+            faceNormalY[face] = ny;
+            faceNormalZ[face] = nz;
+        }
+    }
+
+    private void computeNormalAndCentroid(int face) {
+        computeNormal(face);
+        computeCentroid(face);
+        computeOffset(face);
+        int numv = 0;
+        int he0 = faceEdge[face];
+        int he = he0;
+        do {
+            numv++;
+            he = edgeNext[he];
+        } while (he != he0);
+        if (numv != faceNumVerts[face]) {
+            throw new QuickHullException("face " + faceVertexString(face) + " numVerts=" + faceNumVerts[face] + " should be " + numv);
+        }
+    }
+
+    private void computeNormalAndCentroid(int face, double minArea) {
+        computeNormal(face, minArea);
+        computeCentroid(face);
+        computeOffset(face);
+    }
+
+    private void computeOffset(int face) {
+        faceOffset[face] = faceNormalX[face] * faceCentroidX[face] + faceNormalY[face] * faceCentroidY[face] + faceNormalZ[face] * faceCentroidZ[face];
+    }
+
+    private int mergeAdjacentFace(int face, int hedgeAdj, int[] discarded) {
+        int oppFace = oppositeFace(hedgeAdj);
+        int numDiscarded = 0;
+
+        discarded[numDiscarded++] = oppFace;
+        faceMark[oppFace] = DELETED;
+
+        int hedgeOpp = edgeOpposite[hedgeAdj];
+
+        int hedgeAdjPrev = edgePrev[hedgeAdj];
+        int hedgeAdjNext = edgeNext[hedgeAdj];
+        int hedgeOppPrev = edgePrev[hedgeOpp];
+        int hedgeOppNext = edgeNext[hedgeOpp];
+
+        while (oppositeFace(hedgeAdjPrev) == oppFace) {
+            hedgeAdjPrev = edgePrev[hedgeAdjPrev];
+            hedgeOppNext = edgeNext[hedgeOppNext];
+        }
+
+        while (oppositeFace(hedgeAdjNext) == oppFace) {
+            hedgeOppPrev = edgePrev[hedgeOppPrev];
+            hedgeAdjNext = edgeNext[hedgeAdjNext];
+        }
+
+        for (int hedge = hedgeOppNext; hedge != edgeNext[hedgeOppPrev]; hedge = edgeNext[hedge]) {
+            edgeFace[hedge] = face;
+        }
+
+        if (hedgeAdj == faceEdge[face]) {
+            faceEdge[face] = hedgeAdjNext;
+        }
+
+        // handle the half edges at the head
+        int discardedFace;
+
+        discardedFace = connectHalfEdges(face, hedgeOppPrev, hedgeAdjNext);
+        if (discardedFace != NONE) {
+            discarded[numDiscarded++] = discardedFace;
+        }
+
+        // handle the half edges at the tail
+        discardedFace = connectHalfEdges(face, hedgeAdjPrev, hedgeOppNext);
+        if (discardedFace != NONE) {
+            discarded[numDiscarded++] = discardedFace;
+        }
+
+        computeNormalAndCentroid(face);
+        checkConsistency(face);
+
+        return numDiscarded;
+    }
+
+    private int connectHalfEdges(int face, int hedgePrev, int hedge) {
+        int discardedFace = NONE;
+
+        if (oppositeFace(hedgePrev) == oppositeFace(hedge)) {
+            // then there is a redundant edge that we can get rid off
+
+            int oppFace = oppositeFace(hedge);
+            int hedgeOpp;
+
+            if (hedgePrev == faceEdge[face]) {
+                faceEdge[face] = hedge;
+            }
+            if (faceNumVerts[oppFace] == 3) {
+                // then we can get rid of the opposite face altogether
+                hedgeOpp = edgeOpposite[edgePrev[edgeOpposite[hedge]]];
+
+                faceMark[oppFace] = DELETED;
+                discardedFace = oppFace;
+            } else {
+                hedgeOpp = edgeNext[edgeOpposite[hedge]];
+
+                if (faceEdge[oppFace] == edgePrev[hedgeOpp]) {
+                    faceEdge[oppFace] = hedgeOpp;
+                }
+                edgePrev[hedgeOpp] = edgePrev[edgePrev[hedgeOpp]];
+                edgeNext[edgePrev[hedgeOpp]] = hedgeOpp;
+            }
+            edgePrev[hedge] = edgePrev[hedgePrev];
+            edgeNext[edgePrev[hedge]] = hedge;
+
+            edgeOpposite[hedge] = hedgeOpp;
+            edgeOpposite[hedgeOpp] = hedge;
+
+            // oppFace was modified, so need to recompute
+            computeNormalAndCentroid(oppFace);
+        } else {
+            edgeNext[hedgePrev] = hedge;
+            edgePrev[hedge] = hedgePrev;
+        }
+        return discardedFace;
+    }
+
+    private void triangulateFace(int face, double minArea) {
+        if (faceNumVerts[face] < 4) {
+            return;
+        }
+
+        int he0 = faceEdge[face];
+        int v0 = edgeHead[he0];
+
+        int hedge = edgeNext[he0];
+        int oppPrev = edgeOpposite[hedge];
+        int face0 = NONE;
+
+        for (hedge = edgeNext[hedge]; hedge != edgePrev[he0]; hedge = edgeNext[hedge]) {
+            int triangle = createTriangle(v0, edgeHead[edgePrev[hedge]], edgeHead[hedge], minArea);
+            int triangleEdge = faceEdge[triangle];
+            setOpposite(edgeNext[triangleEdge], oppPrev);
+            setOpposite(edgePrev[triangleEdge], edgeOpposite[hedge]);
+            oppPrev = triangleEdge;
+            addNewFace(triangle);
+            if (face0 == NONE) {
+                face0 = triangle;
+            }
+        }
+        hedge = newEdge(edgeHead[edgePrev[edgePrev[he0]]], face);
+        setOpposite(hedge, oppPrev);
+
+        edgePrev[hedge] = he0;
+        edgeNext[he0] = hedge;
+
+        edgeNext[hedge] = edgePrev[he0];
+        edgePrev[edgeNext[hedge]] = hedge;
+
+        computeNormalAndCentroid(face, minArea);
+        checkConsistency(face);
+
+        for (int triangle = face0; triangle != NONE; triangle = faceNext[triangle]) {
+            checkConsistency(triangle);
+        }
+    }
+
+    private void checkConsistency(int face) {
+        // do a sanity check on the face
+        int he0 = faceEdge[face];
+        int hedge = he0;
+        int numv = 0;
+
+        if (faceNumVerts[face] < 3) {
+            throw new QuickHullException("degenerate face: " + faceVertexString(face));
+        }
+        do {
+            int hedgeOpp = edgeOpposite[hedge];
+            if (hedgeOpp == NONE) {
+                throw new QuickHullException("face " + faceVertexString(face) + ": " + "unreflected half edge " + edgeVertexString(hedge));
+            } else if (edgeOpposite[hedgeOpp] != hedge) {
+                throw new QuickHullException("face " + faceVertexString(face) + ": " + "opposite half edge " + edgeVertexString(hedgeOpp) + " has opposite "
+                        + edgeVertexString(edgeOpposite[hedgeOpp]));
+            }
+            if (edgeHead[hedgeOpp] != tail(hedge) || edgeHead[hedge] != tail(hedgeOpp)) {
+                throw new QuickHullException("face " + faceVertexString(face) + ": " + "half edge " + edgeVertexString(hedge) + " reflected by " + edgeVertexString(hedgeOpp));
+            }
+            int oppFace = edgeFace[hedgeOpp];
+            if (oppFace == NONE) {
+                throw new QuickHullException("face " + faceVertexString(face) + ": " + "no face on half edge " + edgeVertexString(hedgeOpp));
+            } else if (faceMark[oppFace] == DELETED) {
+                throw new QuickHullException("face " + faceVertexString(face) + ": " + "opposite face " + faceVertexString(oppFace) + " not on hull");
+            }
+            numv++;
+            hedge = edgeNext[hedge];
+        } while (hedge != he0);
+
+        if (numv != faceNumVerts[face]) {
+            throw new QuickHullException("face " + faceVertexString(face) + " numVerts=" + faceNumVerts[face] + " should be " + numv);
+        }
+    }
+
+    private String pointString(int point) {
+        return pointX[point] + " " + pointY[point] + " " + pointZ[point];
+    }
+
+    private String faceVertexString(int face) {
+        StringBuilder s = new StringBuilder();
+        int he0 = faceEdge[face];
+        int he = he0;
+        do {
+            if (s.length() > 0) {
+                s.append(' ');
+            }
+            s.append(pointIndex[edgeHead[he]]);
+            he = edgeNext[he];
+        } while (he != he0);
+        return s.toString();
+    }
+
+    private String edgeVertexString(int edge) {
+        int tail = tail(edge);
+        return (tail != NONE ? String.valueOf(pointIndex[tail]) : "?") + "-" + pointIndex[edgeHead[edge]];
+    }
 }
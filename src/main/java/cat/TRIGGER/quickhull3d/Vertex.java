@@ -1,80 +0,0 @@
-package cat.TRIGGER.quickhull3d;
-
-/*
- * #%L
- * A Robust 3D Convex Hull Algorithm in Java
- * %%
- * Copyright (C) 2004 - 2014 John E. Lloyd
- * %%
- * Redistribution and use in source and binary forms, with or without
- * modification, are permitted provided that the following conditions are met:
- * 
- * 1. Redistributions of source code must retain the above copyright notice,
- *    this list of conditions and the following disclaimer.
- * 2. Redistributions in binary form must reproduce the above copyright notice,
- *    this list of conditions and the following disclaimer in the documentation
- *    and/or other materials provided with the distribution.
- * 
- * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
- * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
- * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
- * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
- * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
- * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
- * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
- * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
- * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
- * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
- * POSSIBILITY OF SUCH DAMAGE.
- * #L%
- */
-
-/**
- * Represents vertices of the hull, as well as the points from which it is
- * formed.
- * 
- * @author John E. Lloyd, Fall 2004
- */
-class Vertex {
-
-    /**
-     * Spatial point associated with this vertex.
-     */
-    Point3d pnt;
-
-    /**
-     * Back index into an array.
-     */
-    int index;
-
-    /**
-     * List forward link.
-     */
-    Vertex prev;
-
-    /**
-     * List backward link.
-     */
-    Vertex next;
-
-    /**
-     * Current face that this vertex is outside of.
-     */
-    Face face;
-
-    /**
-     * Constructs a vertex and sets its coordinates to 0.
-     */
-    public Vertex() {
-        pnt = new Point3d();
-    }
-
-    /**
-     * Constructs a vertex with the specified coordinates and index.
-     */
-    public Vertex(double x, double y, double z, int idx) {
-        pnt = new Point3d(x, y, z);
-        index = idx;
-    }
-
-}
@@ -0,0 +1,46 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Vec;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoxShapeTest {
+
+    private static final Vec POSITION = new Vec(100, 64, -50);
+
+    @Test
+    void matchesReference() {
+        final Vec min = new Vec(-2, -1, -3), max = new Vec(3, 4, 1);
+        final Trigger trigger = TestTriggers.trigger(TriggerShape.box(min, max), POSITION);
+        final Vec center = POSITION.add(min.add(max).mul(0.5));
+        final Vec half = max.sub(min).mul(0.5);
+        TestTriggers.assertMatchesReference(trigger, (cx, cy, cz, hx, hy, hz, grow) ->
+                Math.abs(cx - center.x()) <= half.x() + hx + grow
+                        && Math.abs(cy - center.y()) <= half.y() + hy + grow
+                        && Math.abs(cz - center.z()) <= half.z() + hz + grow, center, 8, 1, 1);
+    }
+
+    @Test
+    void fastMovementThroughThinBoxIsSwept() {
+        final Trigger trigger = TestTriggers.trigger(TriggerShape.box(new Vec(0, 0, 0), new Vec(4, 4, 0.1)), POSITION);
+        final double x = POSITION.x() + 1.7, y = POSITION.y() + 1, z = POSITION.z() - 2;
+        assertFalse(trigger.contains(x, y, z, x + 0.6, y + 1.8, z + 0.6));
+        assertFalse(trigger.contains(x, y, z + 4, x + 0.6, y + 1.8, z + 4.6));
+        assertTrue(trigger.containsSwept(x, y, z, x + 0.6, y + 1.8, z + 0.6, 0, 0, 4));
+        // Parallel to the box, never reaching it
+        assertFalse(trigger.containsSwept(x, y, z, x + 0.6, y + 1.8, z + 0.6, 4, 0, 0));
+    }
+}
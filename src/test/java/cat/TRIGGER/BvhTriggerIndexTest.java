@@ -0,0 +1,127 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BvhTriggerIndexTest {
+
+    @Test
+    void bulkBuildMatchesLinearIndex() {
+        final Random random = new Random(1);
+        final List<Trigger> triggers = TestTriggers.randomBoxes(random, 2000);
+        final LinearTriggerIndex linear = new LinearTriggerIndex();
+        final BvhTriggerIndex bvh = new BvhTriggerIndex();
+        linear.insertAll(triggers);
+        bvh.insertAll(triggers);
+
+        TestTriggers.assertSameQueries(linear, bvh, random, 500);
+    }
+
+    @Test
+    void singleInsertsMatchLinearIndex() {
+        final Random random = new Random(2);
+        final List<Trigger> triggers = TestTriggers.randomBoxes(random, 2000);
+        final LinearTriggerIndex linear = new LinearTriggerIndex();
+        final BvhTriggerIndex bvh = new BvhTriggerIndex();
+        bvh.insertAll(triggers.subList(0, 1000));
+        linear.insertAll(triggers.subList(0, 1000));
+        for (Trigger trigger : triggers.subList(1000, 2000)) {
+            bvh.insert(trigger);
+            linear.insert(trigger);
+        }
+
+        TestTriggers.assertSameQueries(linear, bvh, random, 500);
+    }
+
+    @Test
+    void removeAndUpdateMatchLinearIndex() {
+        final Random random = new Random(3);
+        final List<Trigger> triggers = TestTriggers.randomBoxes(random, 1500);
+        final LinearTriggerIndex linear = new LinearTriggerIndex();
+        final BvhTriggerIndex bvh = new BvhTriggerIndex();
+        linear.insertAll(triggers);
+        bvh.insertAll(triggers);
+
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 200; i++) {
+                final Trigger trigger = triggers.get(random.nextInt(triggers.size()));
+                switch (random.nextInt(3)) {
+                    case 0 -> assertEquals(linear.remove(trigger), bvh.remove(trigger));
+                    case 1 -> {
+                        if (linear.remove(trigger)) {
+                            linear.insert(trigger);
+                        } else {
+                            linear.insert(trigger);
+                            bvh.insert(trigger);
+                        }
+                    }
+                    default -> {
+                        TestTriggers.moveRandomly(random, trigger);
+                        linear.update(trigger);
+                        bvh.update(trigger);
+                    }
+                }
+            }
+            TestTriggers.assertSameQueries(linear, bvh, random, 200);
+        }
+    }
+
+    @Test
+    void rotationsKeepTheTreeBalanced() {
+        final BvhTriggerIndex bvh = new BvhTriggerIndex();
+        // Inserting along a line one by one degenerates into a list without rebalancing
+        for (int i = 0; i < 1024; i++) {
+            bvh.insert(TestTriggers.box(i * 4, 0, 0, 2));
+        }
+        assertTrue(bvh.getHeight() <= 20, "height " + bvh.getHeight());
+    }
+
+    @Test
+    void copyIsIndependent() {
+        final Random random = new Random(4);
+        final List<Trigger> triggers = TestTriggers.randomBoxes(random, 1000);
+        final BvhTriggerIndex bvh = new BvhTriggerIndex();
+        bvh.insertAll(triggers);
+        final LinearTriggerIndex before = new LinearTriggerIndex();
+        before.insertAll(triggers);
+
+        final BvhTriggerIndex copy = bvh.copy();
+        final LinearTriggerIndex after = before.copy();
+        for (Trigger trigger : triggers.subList(0, 100)) {
+            copy.remove(trigger);
+            after.remove(trigger);
+        }
+        final Trigger added = TestTriggers.box(0, 0, 0, 5);
+        copy.insert(added);
+        after.insert(added);
+
+        TestTriggers.assertSameQueries(before, bvh, random, 200);
+        TestTriggers.assertSameQueries(after, copy, random, 200);
+        assertFalse(TestTriggers.all(bvh).contains(added));
+    }
+
+    @Test
+    void insertingTwiceFails() {
+        final BvhTriggerIndex bvh = new BvhTriggerIndex();
+        final Trigger trigger = TestTriggers.box(0, 0, 0, 1);
+        bvh.insert(trigger);
+        assertThrows(IllegalStateException.class, () -> bvh.insert(trigger));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Pos;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChunkTriggerIndexTest {
+
+    @Test
+    void removeAndUpdateMatchLinearIndex() {
+        final Random random = new Random(1);
+        final List<Trigger> triggers = TestTriggers.randomBoxes(random, 1500);
+        final LinearTriggerIndex linear = new LinearTriggerIndex();
+        final ChunkTriggerIndex chunks = new ChunkTriggerIndex();
+        linear.insertAll(triggers);
+        chunks.insertAll(triggers);
+        TestTriggers.assertSameQueries(linear, chunks, random, 200);
+
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 200; i++) {
+                final Trigger trigger = triggers.get(random.nextInt(triggers.size()));
+                if (random.nextBoolean()) {
+                    assertEquals(linear.remove(trigger), chunks.remove(trigger));
+                    if (random.nextBoolean()) {
+                        linear.insert(trigger);
+                        chunks.insert(trigger);
+                    }
+                } else {
+                    // Small moves keep most chunks, large ones replace all of them
+                    final double step = random.nextBoolean() ? 4 : 400;
+                    trigger.setPosition(Pos.fromPoint(trigger.getPosition().add(random.nextDouble() * step - step / 2, 0, random.nextDouble() * step - step / 2)));
+                    linear.update(trigger);
+                    chunks.update(trigger);
+                }
+            }
+            TestTriggers.assertSameQueries(linear, chunks, random, 200);
+        }
+    }
+
+    @Test
+    void copyIsIndependent() {
+        final Random random = new Random(2);
+        final List<Trigger> triggers = TestTriggers.randomBoxes(random, 1000);
+        final ChunkTriggerIndex chunks = new ChunkTriggerIndex();
+        chunks.insertAll(triggers);
+        final LinearTriggerIndex before = new LinearTriggerIndex();
+        before.insertAll(triggers);
+
+        final ChunkTriggerIndex copy = chunks.copy();
+        final LinearTriggerIndex after = before.copy();
+        for (Trigger trigger : triggers.subList(0, 100)) {
+            copy.remove(trigger);
+            after.remove(trigger);
+        }
+        final Trigger added = TestTriggers.box(0, 0, 0, 40);
+        copy.insert(added);
+        after.insert(added);
+        TestTriggers.assertSameQueries(before, chunks, random, 200);
+        TestTriggers.assertSameQueries(after, copy, random, 200);
+
+        // The original may still be changed without touching the copy
+        chunks.remove(triggers.get(500));
+        before.remove(triggers.get(500));
+        TestTriggers.assertSameQueries(before, chunks, random, 200);
+        TestTriggers.assertSameQueries(after, copy, random, 200);
+    }
+
+    @Test
+    void largeTriggersAreInAllTheirChunks() {
+        final ChunkTriggerIndex chunks = new ChunkTriggerIndex();
+        final Trigger trigger = TestTriggers.box(-20, 0, -20, 40);
+        chunks.insert(trigger);
+        for (int x = -2; x <= 1; x++) {
+            for (int z = -2; z <= 1; z++) {
+                assertEquals(List.of(trigger), chunks.getTriggers(x, z));
+            }
+        }
+        assertEquals(List.of(), chunks.getTriggers(2, 0));
+
+        trigger.setPosition(Pos.fromPoint(trigger.getPosition().add(16, 0, 0)));
+        chunks.update(trigger);
+        assertEquals(List.of(), chunks.getTriggers(-2, 0));
+        assertEquals(List.of(trigger), chunks.getTriggers(2, 0));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Vec;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompoundShapeTest {
+
+    private static final Vec POSITION = new Vec(10, 64, -20);
+
+    private static List<TriggerShape> parts() {
+        return List.of(
+                TriggerShape.box(Vec.ZERO, new Vec(6, 2, 2)),
+                TriggerShape.box(Vec.ZERO, new Vec(2, 2, 6)),
+                TriggerShape.orientedBox(new Vec(4, 1, 5), new Vec(1.5, 1, 0.5), 40),
+                TriggerShape.of(List.of(new Vec(-3, 0, -3), new Vec(-1, 0, -3), new Vec(-2, 0, -1), new Vec(-2, 3, -2))),
+                TriggerShape.sphere(new Vec(-3, 1, 4), 1.2),
+                TriggerShape.prism(List.of(new Vec(3, 0, 3), new Vec(5, 0, 3), new Vec(4, 0, 4)), 0, 1)
+        );
+    }
+
+    @Test
+    void compoundIsTheUnionOfItsParts() {
+        final Trigger compound = TestTriggers.trigger(TriggerShape.compound(parts()), POSITION);
+        final List<Trigger> separate = new ArrayList<>();
+        for (TriggerShape part : parts()) {
+            separate.add(TestTriggers.trigger(part, POSITION));
+        }
+
+        final Random random = new Random(1);
+        for (Trigger.ContainmentMode mode : Trigger.ContainmentMode.values()) {
+            compound.setContainmentMode(mode);
+            separate.forEach(trigger -> trigger.setContainmentMode(mode));
+            int hits = 0;
+            for (int i = 0; i < 20000; i++) {
+                final double x = POSITION.x() + random.nextDouble() * 14 - 6, y = POSITION.y() + random.nextDouble() * 6 - 3, z = POSITION.z() + random.nextDouble() * 14 - 6;
+                final double width = random.nextDouble() * 0.8, height = random.nextDouble() * 1.8;
+                boolean expected = false;
+                for (Trigger trigger : separate) {
+                    expected |= trigger.contains(x, y, z, x + width, y + height, z + width);
+                }
+                assertEquals(expected, compound.contains(x, y, z, x + width, y + height, z + width), mode + " box at " + x + " " + y + " " + z);
+                if (expected) hits++;
+            }
+            assertTrue(hits > 0, "no box overlapped");
+        }
+    }
+
+    @Test
+    void nestedCompoundsAreFlattened() {
+        final CompoundShape inner = TriggerShape.compound(parts());
+        final CompoundShape outer = TriggerShape.compound(inner, TriggerShape.box(Vec.ZERO, new Vec(1, 1, 1)));
+        assertEquals(parts().size() + 1, outer.getParts().size());
+    }
+
+    @Test
+    void decomposedMeshKeepsItsShape() {
+        // A U made out of unit voxels, concave around its opening
+        final boolean[][][] voxels = new boolean[6][3][4];
+        for (int x = 0; x < 6; x++) {
+            for (int y = 0; y < 3; y++) {
+                for (int z = 0; z < 4; z++) {
+                    voxels[x][y][z] = z == 0 || x == 0 || x == 5;
+                }
+            }
+        }
+        final CompoundShape shape = TriggerShape.decompose(mesh(voxels), 0.02, 16);
+        assertTrue(shape.getParts().size() > 1, "a concave mesh needs more than one part");
+
+        final Trigger trigger = TestTriggers.trigger(shape, Vec.ZERO);
+        final Random random = new Random(2);
+        for (int i = 0; i < 20000; i++) {
+            final double x = random.nextDouble() * 6, y = random.nextDouble() * 3, z = random.nextDouble() * 4;
+            assertEquals(voxels[(int) x][(int) y][(int) z], trigger.contains(x, y, z, x, y, z), "point " + x + " " + y + " " + z);
+        }
+    }
+
+    @Test
+    void emptyCompoundFails() {
+        assertThrows(IllegalArgumentException.class, () -> TriggerShape.compound(List.of()));
+    }
+
+    /**
+     * Build the outward facing surface of solid voxels.
+     */
+    private static List<Trigger.Triangle> mesh(boolean[][][] voxels) {
+        final List<Trigger.Triangle> mesh = new ArrayList<>();
+        for (int x = 0; x < voxels.length; x++) {
+            for (int y = 0; y < voxels[0].length; y++) {
+                for (int z = 0; z < voxels[0][0].length; z++) {
+                    if (!voxels[x][y][z]) continue;
+                    if (!solid(voxels, x + 1, y, z)) quad(mesh, new Vec(x + 1, y, z), new Vec(x + 1, y + 1, z), new Vec(x + 1, y + 1, z + 1), new Vec(x + 1, y, z + 1));
+                    if (!solid(voxels, x - 1, y, z)) quad(mesh, new Vec(x, y, z), new Vec(x, y, z + 1), new Vec(x, y + 1, z + 1), new Vec(x, y + 1, z));
+                    if (!solid(voxels, x, y + 1, z)) quad(mesh, new Vec(x, y + 1, z), new Vec(x, y + 1, z + 1), new Vec(x + 1, y + 1, z + 1), new Vec(x + 1, y + 1, z));
+                    if (!solid(voxels, x, y - 1, z)) quad(mesh, new Vec(x, y, z), new Vec(x + 1, y, z), new Vec(x + 1, y, z + 1), new Vec(x, y, z + 1));
+                    if (!solid(voxels, x, y, z + 1)) quad(mesh, new Vec(x, y, z + 1), new Vec(x + 1, y, z + 1), new Vec(x + 1, y + 1, z + 1), new Vec(x, y + 1, z + 1));
+                    if (!solid(voxels, x, y, z - 1)) quad(mesh, new Vec(x, y, z), new Vec(x, y + 1, z), new Vec(x + 1, y + 1, z), new Vec(x + 1, y, z));
+                }
+            }
+        }
+        return mesh;
+    }
+
+    private static boolean solid(boolean[][][] voxels, int x, int y, int z) {
+        return x >= 0 && y >= 0 && z >= 0 && x < voxels.length && y < voxels[0].length && z < voxels[0][0].length && voxels[x][y][z];
+    }
+
+    private static void quad(List<Trigger.Triangle> mesh, Vec a, Vec b, Vec c, Vec d) {
+        mesh.add(new Trigger.Triangle(a, b, c, Vec.ZERO));
+        mesh.add(new Trigger.Triangle(a, c, d, Vec.ZERO));
+    }
+}
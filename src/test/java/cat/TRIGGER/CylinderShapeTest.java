@@ -0,0 +1,49 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Vec;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CylinderShapeTest {
+
+    private static final Vec POSITION = new Vec(100, 64, -50);
+
+    @Test
+    void matchesReference() {
+        final double radius = 2, height = 3;
+        final Trigger trigger = TestTriggers.trigger(TriggerShape.cylinder(new Vec(0.5, -1, 0.5), radius, height), POSITION);
+        final Vec base = POSITION.add(0.5, -1, 0.5);
+        TestTriggers.assertMatchesReference(trigger, (cx, cy, cz, hx, hy, hz, grow) -> {
+            if (cy + hy < base.y() - grow || cy - hy > base.y() + height + grow) return false;
+            // Distance from the axis to the closest point of the box on the x/z plane
+            final double x = Math.max(0, Math.abs(cx - base.x()) - hx);
+            final double z = Math.max(0, Math.abs(cz - base.z()) - hz);
+            return Math.sqrt(x * x + z * z) <= radius + grow;
+        }, base.add(0, height / 2, 0), 6, 1, 3);
+    }
+
+    @Test
+    void capsAreFlat() {
+        final Trigger trigger = TestTriggers.trigger(TriggerShape.cylinder(Vec.ZERO, 2, 3), POSITION);
+        // Just above the top, right over the rim
+        assertFalse(trigger.contains(POSITION.x() + 1.9, POSITION.y() + 3.1, POSITION.z(), POSITION.x() + 1.9, POSITION.y() + 3.1, POSITION.z()));
+        assertTrue(trigger.contains(POSITION.x() + 1.9, POSITION.y() + 2.9, POSITION.z(), POSITION.x() + 1.9, POSITION.y() + 2.9, POSITION.z()));
+        // Falling past the rim, outside of the radius
+        assertFalse(trigger.containsSwept(POSITION.x() + 2.1, POSITION.y() + 5, POSITION.z(), POSITION.x() + 2.1, POSITION.y() + 5, POSITION.z(), 0, -10, 0));
+        // Falling through the whole cylinder in one step
+        assertTrue(trigger.containsSwept(POSITION.x() + 1.9, POSITION.y() + 5, POSITION.z(), POSITION.x() + 1.9, POSITION.y() + 5, POSITION.z(), 0, -10, 0));
+    }
+}
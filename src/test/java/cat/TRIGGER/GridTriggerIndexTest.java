@@ -0,0 +1,87 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Pos;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GridTriggerIndexTest {
+
+    @Test
+    void removeAndUpdateMatchLinearIndex() {
+        final Random random = new Random(1);
+        final List<Trigger> triggers = TestTriggers.randomBoxes(random, 1500);
+        final LinearTriggerIndex linear = new LinearTriggerIndex();
+        final GridTriggerIndex grid = new GridTriggerIndex(16);
+        linear.insertAll(triggers);
+        grid.insertAll(triggers);
+        TestTriggers.assertSameQueries(linear, grid, random, 200);
+
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 200; i++) {
+                final Trigger trigger = triggers.get(random.nextInt(triggers.size()));
+                if (random.nextBoolean()) {
+                    assertEquals(linear.remove(trigger), grid.remove(trigger));
+                    if (random.nextBoolean()) {
+                        linear.insert(trigger);
+                        grid.insert(trigger);
+                    }
+                } else {
+                    // Small moves keep most cells, large ones replace all of them
+                    final double step = random.nextBoolean() ? 4 : 400;
+                    trigger.setPosition(Pos.fromPoint(trigger.getPosition().add(random.nextDouble() * step - step / 2, 0, random.nextDouble() * step - step / 2)));
+                    linear.update(trigger);
+                    grid.update(trigger);
+                }
+            }
+            TestTriggers.assertSameQueries(linear, grid, random, 200);
+        }
+    }
+
+    @Test
+    void copyIsIndependent() {
+        final Random random = new Random(2);
+        final List<Trigger> triggers = TestTriggers.randomBoxes(random, 1000);
+        final GridTriggerIndex grid = new GridTriggerIndex(16);
+        grid.insertAll(triggers);
+        final LinearTriggerIndex before = new LinearTriggerIndex();
+        before.insertAll(triggers);
+
+        final GridTriggerIndex copy = grid.copy();
+        final LinearTriggerIndex after = before.copy();
+        for (Trigger trigger : triggers.subList(0, 100)) {
+            copy.remove(trigger);
+            after.remove(trigger);
+        }
+        final Trigger added = TestTriggers.box(0, 0, 0, 40);
+        copy.insert(added);
+        after.insert(added);
+        TestTriggers.assertSameQueries(before, grid, random, 200);
+        TestTriggers.assertSameQueries(after, copy, random, 200);
+
+        // The original may still be changed without touching the copy
+        grid.remove(triggers.get(500));
+        before.remove(triggers.get(500));
+        TestTriggers.assertSameQueries(before, grid, random, 200);
+        TestTriggers.assertSameQueries(after, copy, random, 200);
+    }
+
+    @Test
+    void invalidCellSizeFails() {
+        assertThrows(IllegalArgumentException.class, () -> new GridTriggerIndex(0));
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package cat.TRIGGER;
+
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.coordinate.Vec;
+import net.minestom.server.entity.EntityType;
+import net.minestom.server.entity.Player;
+import net.minestom.server.instance.Instance;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedTriggerStoreTest {
+
+    /**
+     * Triggers of every shape type around the origin, where an unspawned player stands.
+     */
+    private static List<Trigger> near() {
+        final List<Vec> anchors = List.of(new Vec(0, 0, 0), new Vec(6, 0, 0), new Vec(0, 5, 0), new Vec(0, 0, 4), new Vec(5, 4, 3));
+        final List<Vec> footprint = List.of(new Vec(0, 0, 0), new Vec(8, 0, 0), new Vec(8, 0, 8), new Vec(4, 0, 3), new Vec(0, 0, 8));
+        return List.of(
+                TestTriggers.trigger(TriggerShape.of(anchors), new Vec(2, -1, -3)),
+                TestTriggers.trigger(TriggerShape.box(new Vec(-1, 0, -2), new Vec(3, 4, 5)), new Vec(-4, 0, 0)),
+                TestTriggers.trigger(TriggerShape.sphere(new Vec(1, 2, 3), 4), new Vec(-6, 0, 5)),
+                TestTriggers.trigger(TriggerShape.cylinder(Vec.ZERO, 3, 6), new Vec(7, -2, 7)),
+                TestTriggers.trigger(TriggerShape.orientedBox(Vec.ZERO, new Vec(4, 2, 1), 30), new Vec(-5, 1, -9)),
+                TestTriggers.trigger(TriggerShape.prism(footprint, 0, 5), new Vec(-8, -1, -8)),
+                TestTriggers.trigger(TriggerShape.compound(TriggerShape.box(Vec.ZERO, new Vec(2, 2, 2)), TriggerShape.sphere(new Vec(4, 1, 1), 1.5)), new Vec(1, 1, 1))
+        );
+    }
+
+    /**
+     * Triggers far away from the origin, spread over many columns.
+     */
+    private static List<Trigger> far() {
+        final List<Trigger> triggers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            triggers.add(TestTriggers.box(1000 + (i % 20) * 40, 64, -1000 + (i / 20) * 40, 8));
+        }
+        // One large trigger that spans a lot of columns
+        triggers.add(TestTriggers.box(2000, 0, 2000, 500));
+        return triggers;
+    }
+
+    private static List<Trigger> all() {
+        final List<Trigger> triggers = new ArrayList<>(near());
+        triggers.addAll(far());
+        return triggers;
+    }
+
+    private static void assertSameTrigger(Trigger expected, Trigger actual) {
+        assertEquals(expected.getUuid(), actual.getUuid());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getPosition(), actual.getPosition());
+        assertEquals(expected.getShape().getType(), actual.getShape().getType());
+        assertEquals(expected.getBoundsMin(), actual.getBoundsMin());
+        assertEquals(expected.getBoundsMax(), actual.getBoundsMax());
+        assertEquals(expected.getShape().getAnchors(), actual.getShape().getAnchors());
+        assertEquals(expected.getShape().getTriangles(), actual.getShape().getTriangles());
+    }
+
+    @Test
+    void roundTripKeepsShapesAndPositions(@TempDir Path directory) throws IOException {
+        final Path file = directory.resolve("triggers.trgm");
+        final List<Trigger> written = all();
+        MappedTriggerStore.write(file, written, 32);
+        final MappedTriggerStore store = MappedTriggerStore.open(file, callback -> {});
+
+        assertEquals(written.size(), store.size());
+        assertEquals(0, store.getMaterializedCount());
+        for (int slot = 0; slot < written.size(); slot++) {
+            assertFalse(store.isMaterialized(slot));
+            final Trigger trigger = store.get(slot);
+            assertSameTrigger(written.get(slot), trigger);
+            assertSame(trigger, store.get(slot), "materialized twice");
+        }
+        assertEquals(written.size(), store.getMaterializedCount());
+    }
+
+    @Test
+    void queryOnlyMaterializesOverlappingTriggers(@TempDir Path directory) throws IOException {
+        final Path file = directory.resolve("triggers.trgm");
+        final List<Trigger> written = all();
+        MappedTriggerStore.write(file, written);
+        final MappedTriggerStore store = MappedTriggerStore.open(file, callback -> {});
+
+        final Vec min = new Vec(1030, 60, -1000), max = new Vec(1100, 70, -950);
+        final List<Trigger> found = new ArrayList<>();
+        store.query(min.x(), min.y(), min.z(), max.x(), max.y(), max.z(), found);
+
+        final Set<UUID> expected = new HashSet<>();
+        for (Trigger trigger : written) {
+            if (trigger.boundsOverlap(min.x(), min.y(), min.z(), max.x(), max.y(), max.z())) {
+                expected.add(trigger.getUuid());
+            }
+        }
+        final Set<UUID> actual = new HashSet<>();
+        found.forEach(trigger -> actual.add(trigger.getUuid()));
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+        assertEquals(found.size(), actual.size(), "duplicates");
+        assertEquals(found.size(), store.getMaterializedCount());
+
+        // Every column of the large trigger reports it once
+        found.clear();
+        store.query(1900, 0, 1900, 2600, 600, 2600, found);
+        assertEquals(1, found.size());
+    }
+
+    @Test
+    void streamEvictsAndRematerializes(@TempDir Path directory) throws IOException {
+        final Path file = directory.resolve("triggers.trgm");
+        final List<Trigger> written = all();
+        final int nearCount = near().size();
+        MappedTriggerStore.write(file, written);
+        final MappedTriggerStore store = MappedTriggerStore.open(file, callback -> {});
+        store.setEvictAfterTicks(5);
+        final TriggerManager manager = new TriggerManager(false);
+        final Player player = TestTriggers.player("store");
+
+        store.stream(manager, List.of(player), 32);
+        assertEquals(nearCount, store.getMaterializedCount());
+        assertEquals(nearCount, manager.getTriggers().size());
+        final List<Trigger> first = new ArrayList<>(manager.getTriggers());
+
+        // Nobody near for more than 5 ticks evicts everything
+        for (int tick = 0; tick < 6; tick++) {
+            store.stream(manager, List.of(), 32);
+        }
+        assertEquals(0, store.getMaterializedCount());
+        assertTrue(manager.getTriggers().isEmpty());
+
+        store.stream(manager, List.of(player), 32);
+        assertEquals(nearCount, manager.getTriggers().size());
+        for (int slot = 0; slot < nearCount; slot++) {
+            final Trigger trigger = store.get(slot);
+            assertTrue(manager.contains(trigger));
+            assertFalse(first.contains(trigger), "evicted trigger came back as the same object");
+            assertSameTrigger(written.get(slot), trigger);
+        }
+    }
+
+    @Test
+    void instanceAndEntityTypesSurviveEviction(@TempDir Path directory) throws IOException {
+        final Instance first = TestTriggers.instance();
+        final Instance second = TestTriggers.instance();
+        final Path file = directory.resolve("triggers.trgm");
+        final List<Trigger> written = near();
+        written.get(0).setInstance(first);
+        written.get(0).setEntityTypes(EntityType.ZOMBIE);
+        written.get(1).setEntityTypes(EntityType.ITEM, EntityType.ARROW);
+        MappedTriggerStore.write(file, written);
+        final MappedTriggerStore store = MappedTriggerStore.open(file, callback -> {});
+        store.setEvictAfterTicks(0);
+
+        assertSame(first, store.get(0).getInstance());
+        assertEquals(Set.of(EntityType.ZOMBIE), store.get(0).getEntityTypes());
+        assertEquals(Set.of(EntityType.ITEM, EntityType.ARROW), store.get(1).getEntityTypes());
+        assertNull(store.get(2).getInstance());
+        assertTrue(store.get(2).getEntityTypes().isEmpty());
+
+        final Trigger changed = store.get(2);
+        changed.setInstance(second);
+        changed.setEntityTypes(EntityType.ZOMBIE);
+        store.get(0).setInstance(null);
+        store.stream(new TriggerManager(false), List.of(), 32);
+        assertEquals(0, store.getMaterializedCount());
+
+        final Trigger rematerialized = store.get(2);
+        assertNotSame(changed, rematerialized);
+        assertSame(second, rematerialized.getInstance());
+        assertEquals(Set.of(EntityType.ZOMBIE), rematerialized.getEntityTypes());
+        assertNull(store.get(0).getInstance());
+        assertEquals(Set.of(EntityType.ZOMBIE), store.get(0).getEntityTypes());
+        assertEquals(Set.of(EntityType.ITEM, EntityType.ARROW), store.get(1).getEntityTypes());
+    }
+
+    @Test
+    void streamSkipsTriggersInOtherInstances(@TempDir Path directory) throws IOException {
+        final Instance instance = TestTriggers.instance();
+        final Path file = directory.resolve("triggers.trgm");
+        final List<Trigger> written = near();
+        written.get(0).setInstance(instance);
+        MappedTriggerStore.write(file, written);
+        final MappedTriggerStore store = MappedTriggerStore.open(file, callback -> {});
+        final TriggerManager manager = new TriggerManager(false);
+
+        // The player is not in any instance, so only triggers in every instance are near it
+        store.stream(manager, List.of(TestTriggers.player("instance")), 32);
+        assertEquals(written.size() - 1, manager.getTriggers().size());
+        assertFalse(store.isMaterialized(0));
+    }
+
+    @Test
+    void unregisteredInstanceFails(@TempDir Path directory) throws IOException {
+        final Instance instance = TestTriggers.instance();
+        final Path file = directory.resolve("triggers.trgm");
+        final List<Trigger> written = near();
+        written.get(0).setInstance(instance);
+        MappedTriggerStore.write(file, written);
+        MinecraftServer.getInstanceManager().unregisterInstance(instance);
+        final MappedTriggerStore store = MappedTriggerStore.open(file, callback -> {});
+
+        assertThrows(IllegalStateException.class, () -> store.get(0));
+    }
+
+    @Test
+    void otherFilesAreRejected(@TempDir Path directory) throws IOException {
+        final Path file = directory.resolve("triggers.trg");
+        Files.write(file, TriggerBinaryFormat.write(near()).array());
+        assertThrows(IllegalArgumentException.class, () -> MappedTriggerStore.open(file, callback -> {}));
+    }
+}
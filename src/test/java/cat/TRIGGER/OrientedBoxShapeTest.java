@@ -0,0 +1,74 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Vec;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrientedBoxShapeTest {
+
+    private static final Vec POSITION = new Vec(100, 64, -50);
+
+    /**
+     * Reference check if a box overlaps a box that is only turned around y: the y ranges overlap and the rectangles on the x/z plane are not separated by any of their four edge directions.
+     */
+    private static boolean overlapsYawed(Vec center, Vec half, double yaw, double cx, double cy, double cz, double hx, double hy, double hz, double grow) {
+        if (Math.abs(cy - center.y()) > half.y() + hy + grow) return false;
+        final double radians = Math.toRadians(yaw);
+        final double ux = Math.cos(radians), uz = Math.sin(radians);
+        final double[][] axes = {{1, 0}, {0, 1}, {ux, uz}, {-uz, ux}};
+        for (double[] axis : axes) {
+            final double distance = Math.abs(axis[0] * (cx - center.x()) + axis[1] * (cz - center.z()));
+            final double shape = (half.x() + grow) * Math.abs(axis[0] * ux + axis[1] * uz) + (half.z() + grow) * Math.abs(-axis[0] * uz + axis[1] * ux);
+            final double box = hx * Math.abs(axis[0]) + hz * Math.abs(axis[1]);
+            if (distance > shape + box) return false;
+        }
+        return true;
+    }
+
+    @Test
+    void yawedMatchesReference() {
+        for (double yaw : new double[]{0, 30, 45, 90, 137}) {
+            final Vec center = new Vec(0, 1, 0), half = new Vec(3, 1, 0.5);
+            final Trigger trigger = TestTriggers.trigger(TriggerShape.orientedBox(center, half, yaw), POSITION);
+            final Vec world = POSITION.add(center);
+            TestTriggers.assertMatchesReference(trigger, (cx, cy, cz, hx, hy, hz, grow) -> overlapsYawed(world, half, yaw, cx, cy, cz, hx, hy, hz, grow), world, 6, 1, 4);
+        }
+    }
+
+    @Test
+    void tiltedMatchesReferenceForPoints() {
+        final Vec axisX = new Vec(1, 1, 0).normalize(), axisY = new Vec(-1, 1, 0).normalize(), axisZ = axisX.cross(axisY);
+        final Vec center = new Vec(0, 2, 0), half = new Vec(3, 0.5, 1);
+        final Trigger trigger = TestTriggers.trigger(TriggerShape.orientedBox(center, half, axisX, axisY), POSITION);
+        final Vec world = POSITION.add(center);
+        TestTriggers.assertMatchesReference(trigger, (cx, cy, cz, hx, hy, hz, grow) -> {
+            final Vec offset = new Vec(cx, cy, cz).sub(world);
+            return Math.abs(offset.dot(axisX)) <= half.x() + grow && Math.abs(offset.dot(axisY)) <= half.y() + grow && Math.abs(offset.dot(axisZ)) <= half.z() + grow;
+        }, world, 5, 0, 5);
+    }
+
+    @Test
+    void cornerOfTheBoundsIsOutside() {
+        final Trigger trigger = TestTriggers.trigger(TriggerShape.orientedBox(new Vec(0, 1, 0), new Vec(3, 1, 0.5), 45), POSITION);
+        // Inside the world bounds of the turned box, but beside it
+        final double x = POSITION.x() + 2, y = POSITION.y() + 1, z = POSITION.z() - 2;
+        assertFalse(trigger.contains(x, y, z, x + 0.2, y + 0.2, z + 0.2));
+        // Moving across the middle of the thin side
+        assertTrue(trigger.containsSwept(x, y, z, x + 0.2, y + 0.2, z + 0.2, -4, 0, 4));
+        // Moving along the long side without touching it
+        assertFalse(trigger.containsSwept(x, y, z, x + 0.2, y + 0.2, z + 0.2, -1.5, 0, -1.5));
+    }
+}
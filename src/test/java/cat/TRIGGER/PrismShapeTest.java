@@ -0,0 +1,118 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Vec;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrismShapeTest {
+
+    private static final Vec POSITION = new Vec(100, 64, -50);
+    private static final List<Vec> L_SHAPE = List.of(new Vec(0, 0, 0), new Vec(6, 0, 0), new Vec(6, 0, 2), new Vec(2, 0, 2), new Vec(2, 0, 6), new Vec(0, 0, 6));
+
+    /**
+     * Reference check if a rectangle overlaps a polygon: either the center of the rectangle is inside the polygon or an edge of the polygon crosses the rectangle.
+     */
+    private static boolean overlaps(List<Vec> polygon, double x0, double z0, double x1, double z1) {
+        final double cx = (x0 + x1) / 2, cz = (z0 + z1) / 2;
+        boolean inside = false;
+        for (int i = 0; i < polygon.size(); i++) {
+            final Vec a = polygon.get(i), b = polygon.get((i + 1) % polygon.size());
+            if ((a.z() > cz) != (b.z() > cz) && cx < a.x() + (cz - a.z()) / (b.z() - a.z()) * (b.x() - a.x())) inside = !inside;
+        }
+        if (inside) return true;
+
+        for (int i = 0; i < polygon.size(); i++) {
+            final Vec a = polygon.get(i), b = polygon.get((i + 1) % polygon.size());
+            // Liang-Barsky clipping of the edge against the rectangle
+            final double dx = b.x() - a.x(), dz = b.z() - a.z();
+            final double[] p = {-dx, dx, -dz, dz};
+            final double[] q = {a.x() - x0, x1 - a.x(), a.z() - z0, z1 - a.z()};
+            double t0 = 0, t1 = 1;
+            boolean crosses = true;
+            for (int k = 0; k < 4 && crosses; k++) {
+                if (p[k] == 0) {
+                    crosses = q[k] >= 0;
+                } else if (p[k] < 0) {
+                    t0 = Math.max(t0, q[k] / p[k]);
+                } else {
+                    t1 = Math.min(t1, q[k] / p[k]);
+                }
+                crosses &= t0 <= t1;
+            }
+            if (crosses) return true;
+        }
+        return false;
+    }
+
+    private static void assertMatchesReference(List<Vec> footprint, long seed) {
+        final Trigger trigger = TestTriggers.trigger(TriggerShape.prism(footprint, -1, 3), POSITION);
+        final Random random = new Random(seed);
+        int hits = 0;
+        for (int i = 0; i < 20000; i++) {
+            final double x = POSITION.x() + random.nextDouble() * 20 - 10, y = POSITION.y() + random.nextDouble() * 8 - 4, z = POSITION.z() + random.nextDouble() * 20 - 10;
+            final double width = random.nextDouble() * 1.2, depth = random.nextDouble() * 1.2, height = 1.8;
+            final boolean expected = y + height >= POSITION.y() - 1 && y <= POSITION.y() + 3
+                    && overlaps(footprint, x - POSITION.x(), z - POSITION.z(), x + width - POSITION.x(), z + depth - POSITION.z());
+            assertEquals(expected, trigger.contains(x, y, z, x + width, y + height, z + depth), "box at " + x + " " + y + " " + z);
+            if (expected) hits++;
+        }
+        assertTrue(hits > 0, "no box overlapped");
+    }
+
+    @Test
+    void concaveFootprintMatchesReference() {
+        assertMatchesReference(L_SHAPE, 1);
+    }
+
+    @Test
+    void windingDoesNotMatter() {
+        final List<Vec> clockwise = new ArrayList<>(L_SHAPE);
+        Collections.reverse(clockwise);
+        assertMatchesReference(clockwise, 2);
+    }
+
+    @Test
+    void manyVerticesMatchReference() {
+        final Random random = new Random(3);
+        final List<Vec> star = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            final double angle = 2 * Math.PI * i / 300, radius = i % 2 == 0 ? 8 : 3 + random.nextDouble();
+            star.add(new Vec(radius * Math.cos(angle), 0, radius * Math.sin(angle)));
+        }
+        assertMatchesReference(star, 4);
+    }
+
+    @Test
+    void notchOfTheFootprintIsOutside() {
+        final Trigger trigger = TestTriggers.trigger(TriggerShape.prism(L_SHAPE, 0, 2), POSITION);
+        assertTrue(trigger.contains(POSITION.x() + 0.5, POSITION.y(), POSITION.z() + 5, POSITION.x() + 1, POSITION.y() + 1, POSITION.z() + 5.5));
+        assertFalse(trigger.contains(POSITION.x() + 4, POSITION.y(), POSITION.z() + 4, POSITION.x() + 4.6, POSITION.y() + 1.8, POSITION.z() + 4.6));
+        // Above the top
+        assertFalse(trigger.contains(POSITION.x() + 0.5, POSITION.y() + 2.5, POSITION.z() + 0.5, POSITION.x() + 1, POSITION.y() + 4, POSITION.z() + 1));
+    }
+
+    @Test
+    void invalidPrismsFail() {
+        assertThrows(IllegalArgumentException.class, () -> TriggerShape.prism(List.of(new Vec(0, 0, 0), new Vec(1, 0, 0)), 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> TriggerShape.prism(L_SHAPE, 2, 2));
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Vec;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SphereShapeTest {
+
+    private static final Vec POSITION = new Vec(100, 64, -50);
+
+    @Test
+    void matchesReference() {
+        final double radius = 2.5;
+        final Trigger trigger = TestTriggers.trigger(TriggerShape.sphere(new Vec(1, 2, 3), radius), POSITION);
+        final Vec center = POSITION.add(1, 2, 3);
+        TestTriggers.assertMatchesReference(trigger, (cx, cy, cz, hx, hy, hz, grow) -> {
+            // Distance from the center of the sphere to the closest point of the box
+            final double x = Math.max(0, Math.abs(cx - center.x()) - hx);
+            final double y = Math.max(0, Math.abs(cy - center.y()) - hy);
+            final double z = Math.max(0, Math.abs(cz - center.z()) - hz);
+            return Math.sqrt(x * x + y * y + z * z) <= radius + grow;
+        }, center, 6, 1, 2);
+    }
+
+    @Test
+    void cornerOfTheBoundsIsOutside() {
+        final Trigger trigger = TestTriggers.trigger(TriggerShape.sphere(2), POSITION);
+        final double x = POSITION.x() + 1.6, y = POSITION.y() + 1.6, z = POSITION.z() + 1.6;
+        assertFalse(trigger.contains(x, y, z, x + 0.3, y + 0.3, z + 0.3));
+        // Grazing the sphere diagonally without ever entering it
+        assertFalse(trigger.containsSwept(x, y, z, x, y, z, -3.2, 0, 0));
+        assertTrue(trigger.containsSwept(x, y - 1.6, z - 1.6, x, y - 1.6, z - 1.6, -3.2, 0, 0));
+    }
+}
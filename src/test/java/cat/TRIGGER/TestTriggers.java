@@ -0,0 +1,250 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.coordinate.Pos;
+import net.minestom.server.coordinate.Vec;
+import net.minestom.server.entity.Player;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.network.packet.server.SendablePacket;
+import net.minestom.server.network.player.GameProfile;
+import net.minestom.server.network.player.PlayerConnection;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Shared helpers for creating triggers and comparing indices in tests.
+ */
+final class TestTriggers {
+
+    private static final double MARGIN = 1e-6;
+    private static final int SWEEP_STEPS = 256;
+
+    private static boolean initialized = false;
+
+    private TestTriggers() {}
+
+    /**
+     * Create a box trigger.
+     * @param x The x of the minimum corner.
+     * @param y The y of the minimum corner.
+     * @param z The z of the minimum corner.
+     * @param size The edge length of the box.
+     * @return The trigger.
+     */
+    static Trigger box(double x, double y, double z, double size) {
+        return trigger(TriggerShape.box(Vec.ZERO, new Vec(size, size, size)), new Vec(x, y, z));
+    }
+
+    /**
+     * Create a trigger with a shape.
+     * @param shape The shape.
+     * @param position The position of the trigger.
+     * @return The trigger.
+     */
+    static Trigger trigger(TriggerShape shape, Vec position) {
+        return new Trigger(shape, position, UUID.randomUUID(), Component.text("test"), NamedTextColor.RED, callback -> {});
+    }
+
+    /**
+     * Create a player that is not spawned in any instance, so it stays at {@link Pos#ZERO} until it is moved through events.
+     * Initializes the server the first time.
+     * @param name The name of the player.
+     * @return The player.
+     */
+    static Player player(String name) {
+        init();
+        return new Player(new TestConnection(), new GameProfile(UUID.randomUUID(), name));
+    }
+
+    /**
+     * Create and register an empty instance.
+     * Initializes the server the first time.
+     * @return The instance.
+     */
+    static Instance instance() {
+        init();
+        return MinecraftServer.getInstanceManager().createInstanceContainer();
+    }
+
+    private static synchronized void init() {
+        if (!initialized) {
+            MinecraftServer.init();
+            initialized = true;
+        }
+    }
+
+    /**
+     * Create box triggers of random size scattered over a square area.
+     * @param random The random source.
+     * @param count The amount of triggers.
+     * @return The triggers.
+     */
+    static List<Trigger> randomBoxes(Random random, int count) {
+        final List<Trigger> triggers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            triggers.add(box(random.nextDouble() * 1000 - 500, random.nextDouble() * 100, random.nextDouble() * 1000 - 500, 1 + random.nextDouble() * 20));
+        }
+        return triggers;
+    }
+
+    /**
+     * Move a trigger to a random spot of the area used by {@link TestTriggers#randomBoxes(Random, int)}.
+     * @param random The random source.
+     * @param trigger The trigger.
+     */
+    static void moveRandomly(Random random, Trigger trigger) {
+        trigger.setPosition(new Pos(random.nextDouble() * 1000 - 500, random.nextDouble() * 100, random.nextDouble() * 1000 - 500));
+    }
+
+    /**
+     * Collect every trigger of an index that lies in the area used by {@link TestTriggers#randomBoxes(Random, int)}.
+     * @param index The index, may be null.
+     * @return The triggers.
+     */
+    static Set<Trigger> all(TriggerIndex index) {
+        final Set<Trigger> triggers = new HashSet<>();
+        if (index != null) {
+            index.query(-600, -50, -600, 600, 200, 600, triggers);
+        }
+        return triggers;
+    }
+
+    /**
+     * Run random box queries against two indices and check that they find the same triggers, each of them exactly once.
+     * @param expected The reference index.
+     * @param actual The index to check.
+     * @param random The random source.
+     * @param queries The amount of queries.
+     */
+    static void assertSameQueries(TriggerIndex expected, TriggerIndex actual, Random random, int queries) {
+        assertEquals(expected.size(), actual.size(), "size");
+        for (int i = 0; i < queries; i++) {
+            final double x = random.nextDouble() * 1000 - 500, y = random.nextDouble() * 100, z = random.nextDouble() * 1000 - 500;
+            final double size = random.nextDouble() * 40;
+            final List<Trigger> want = new ArrayList<>();
+            final List<Trigger> got = new ArrayList<>();
+            expected.query(x, y, z, x + size, y + size, z + size, want);
+            actual.query(x, y, z, x + size, y + size, z + size, got);
+            assertEquals(got.size(), new HashSet<>(got).size(), "duplicate candidates");
+            assertEquals(new HashSet<>(want), new HashSet<>(got), "candidates");
+        }
+    }
+
+    /**
+     * Sample random boxes and movements around a trigger and check {@link Trigger#contains(double, double, double, double, double, double)},
+     * {@link Trigger#contains(List)} with the corners and {@link Trigger#containsSwept(double, double, double, double, double, double, double, double, double)} against a reference in both {@link Trigger.ContainmentMode}s.
+     * Samples that touch the surface of the shape within {@link TestTriggers#MARGIN} are skipped, the reference is asked once with the shape shrunk and once with it grown.
+     * The reference of the sweep tests the box at evenly spaced moments of the movement, the shape is grown by the step so a sweep that slips between two moments counts as undecided.
+     * @param trigger The trigger.
+     * @param reference The reference check.
+     * @param center The center of the sampled area.
+     * @param spread The distance from the center that boxes and movements reach on each axis.
+     * @param maxHalfSize The largest half extent of a box, 0 to only sample points.
+     * @param seed The seed of the random source.
+     */
+    static void assertMatchesReference(Trigger trigger, ShapeReference reference, Vec center, double spread, double maxHalfSize, long seed) {
+        for (Trigger.ContainmentMode mode : Trigger.ContainmentMode.values()) {
+            trigger.setContainmentMode(mode);
+            final Random random = new Random(seed);
+            int inside = 0, outside = 0, tunneled = 0;
+            for (int i = 0; i < 5000; i++) {
+                final double cx = center.x() + (random.nextDouble() * 2 - 1) * spread, cy = center.y() + (random.nextDouble() * 2 - 1) * spread, cz = center.z() + (random.nextDouble() * 2 - 1) * spread;
+                final boolean point = i % 3 == 0;
+                final double hx = point ? 0 : random.nextDouble() * maxHalfSize, hy = point ? 0 : random.nextDouble() * maxHalfSize, hz = point ? 0 : random.nextDouble() * maxHalfSize;
+                final boolean still = i % 4 == 0;
+                final double dx = still ? 0 : (random.nextDouble() * 2 - 1) * spread, dy = still ? 0 : (random.nextDouble() * 2 - 1) * spread, dz = still ? 0 : (random.nextDouble() * 2 - 1) * spread;
+                final String sample = mode + " box at " + cx + " " + cy + " " + cz + " half " + hx + " " + hy + " " + hz;
+
+                final boolean startInside = reference.overlaps(cx, cy, cz, hx, hy, hz, -MARGIN);
+                if (startInside || !reference.overlaps(cx, cy, cz, hx, hy, hz, MARGIN)) {
+                    assertEquals(startInside, trigger.contains(cx - hx, cy - hy, cz - hz, cx + hx, cy + hy, cz + hz), sample);
+                    assertEquals(startInside, trigger.contains(corners(cx, cy, cz, hx, hy, hz)), sample + " as corners");
+                    if (startInside) inside++; else outside++;
+                }
+
+                final double grow = MARGIN + Math.sqrt(dx * dx + dy * dy + dz * dz) / SWEEP_STEPS;
+                boolean hit = false, near = false;
+                for (int step = 0; step <= SWEEP_STEPS && !hit; step++) {
+                    final double t = (double) step / SWEEP_STEPS;
+                    hit = reference.overlaps(cx + t * dx, cy + t * dy, cz + t * dz, hx, hy, hz, -MARGIN);
+                    near |= reference.overlaps(cx + t * dx, cy + t * dy, cz + t * dz, hx, hy, hz, grow);
+                }
+                if (hit || !near) {
+                    assertEquals(hit, trigger.containsSwept(cx - hx, cy - hy, cz - hz, cx + hx, cy + hy, cz + hz, dx, dy, dz), sample + " moving " + dx + " " + dy + " " + dz);
+                    if (hit && !trigger.contains(cx - hx, cy - hy, cz - hz, cx + hx, cy + hy, cz + hz)
+                            && !trigger.contains(cx + dx - hx, cy + dy - hy, cz + dz - hz, cx + dx + hx, cy + dy + hy, cz + dz + hz)) {
+                        tunneled++;
+                    }
+                }
+            }
+            assertTrue(inside > 0, mode + ": no box was inside");
+            assertTrue(outside > 0, mode + ": no box was outside");
+            assertTrue(tunneled > 0, mode + ": no movement passed through the shape");
+        }
+    }
+
+    private static List<Vec> corners(double cx, double cy, double cz, double hx, double hy, double hz) {
+        final List<Vec> corners = new ArrayList<>(8);
+        for (int i = 0; i < 8; i++) {
+            corners.add(new Vec((i & 1) == 0 ? cx - hx : cx + hx, (i & 2) == 0 ? cy - hy : cy + hy, (i & 4) == 0 ? cz - hz : cz + hz));
+        }
+        return corners;
+    }
+
+    /**
+     * An analytic check if a box overlaps a shape, used by {@link TestTriggers#assertMatchesReference(Trigger, ShapeReference, Vec, double, double, long)}.
+     */
+    @FunctionalInterface
+    interface ShapeReference {
+        /**
+         * Check if a box overlaps the shape.
+         * @param cx Center x of the box.
+         * @param cy Center y of the box.
+         * @param cz Center z of the box.
+         * @param hx Half extent of the box along x.
+         * @param hy Half extent of the box along y.
+         * @param hz Half extent of the box along z.
+         * @param grow How far to grow the shape in every direction before checking, negative to shrink it.
+         * @return true if the box overlaps the grown shape.
+         */
+        boolean overlaps(double cx, double cy, double cz, double hx, double hy, double hz, double grow);
+    }
+
+    /**
+     * A connection that drops every packet.
+     */
+    private static final class TestConnection extends PlayerConnection {
+        private static final SocketAddress ADDRESS = new InetSocketAddress("localhost", 25565);
+
+        @Override
+        public void sendPacket(SendablePacket packet) {
+        }
+
+        @Override
+        public SocketAddress getRemoteAddress() {
+            return ADDRESS;
+        }
+    }
+}
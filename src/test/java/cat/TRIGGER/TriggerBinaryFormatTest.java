@@ -0,0 +1,93 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.minestom.server.coordinate.Vec;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TriggerBinaryFormatTest {
+
+    private static List<Trigger> allShapes() {
+        final List<Vec> anchors = List.of(new Vec(0, 0, 0), new Vec(6, 0, 0), new Vec(0, 5, 0), new Vec(0, 0, 4), new Vec(5, 4, 3));
+        final List<Vec> footprint = List.of(new Vec(0, 0, 0), new Vec(8, 0, 0), new Vec(8, 0, 8), new Vec(4, 0, 3), new Vec(0, 0, 8));
+        return List.of(
+                TestTriggers.trigger(TriggerShape.of(anchors), new Vec(10, 64, -3)),
+                TestTriggers.trigger(TriggerShape.box(new Vec(-1, 0, -2), new Vec(3, 4, 5)), new Vec(0, 64, 0)),
+                TestTriggers.trigger(TriggerShape.sphere(new Vec(1, 2, 3), 4), new Vec(-20, 70, 5)),
+                TestTriggers.trigger(TriggerShape.cylinder(Vec.ZERO, 3, 6), new Vec(7, 60, 7)),
+                TestTriggers.trigger(TriggerShape.orientedBox(Vec.ZERO, new Vec(4, 2, 1), 30), new Vec(-5, 64, 9)),
+                TestTriggers.trigger(TriggerShape.prism(footprint, 0, 5), new Vec(30, 64, 30)),
+                TestTriggers.trigger(TriggerShape.compound(TriggerShape.box(Vec.ZERO, new Vec(2, 2, 2)), TriggerShape.sphere(new Vec(4, 1, 1), 1.5)), new Vec(1, 1, 1))
+        );
+    }
+
+    @Test
+    void roundTripKeepsEveryShape() {
+        final List<Trigger> written = allShapes();
+        final List<Trigger> read = TriggerBinaryFormat.read(TriggerBinaryFormat.write(written), callback -> {});
+
+        assertEquals(written.size(), read.size());
+        final Random random = new Random(1);
+        for (int i = 0; i < written.size(); i++) {
+            final Trigger expected = written.get(i);
+            final Trigger actual = read.get(i);
+            assertEquals(expected.getUuid(), actual.getUuid());
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getPosition(), actual.getPosition());
+            assertEquals(expected.getShape().getType(), actual.getShape().getType());
+            assertEquals(expected.getBoundsMin(), actual.getBoundsMin());
+            assertEquals(expected.getBoundsMax(), actual.getBoundsMax());
+            assertEquals(expected.getShape().getTriangleCount(), actual.getShape().getTriangleCount());
+
+            // Boxes around the trigger, some inside, some touching and some outside
+            final Vec min = expected.getBoundsMin().sub(2, 2, 2);
+            final Vec size = expected.getBoundsMax().sub(expected.getBoundsMin()).add(4, 4, 4);
+            for (int sample = 0; sample < 500; sample++) {
+                final double x = min.x() + random.nextDouble() * size.x(), y = min.y() + random.nextDouble() * size.y(), z = min.z() + random.nextDouble() * size.z();
+                assertEquals(expected.contains(x, y, z, x + 0.6, y + 1.8, z + 0.6), actual.contains(x, y, z, x + 0.6, y + 1.8, z + 0.6),
+                        expected.getShape().getType() + " at " + x + " " + y + " " + z);
+            }
+        }
+    }
+
+    @Test
+    void otherVersionsAreRejected() {
+        final ByteBuffer buffer = TriggerBinaryFormat.write(allShapes());
+        for (short version : new short[]{1, 2, TriggerBinaryFormat.VERSION + 1}) {
+            buffer.putShort(Integer.BYTES, version);
+            assertThrows(IllegalArgumentException.class, () -> TriggerBinaryFormat.read(buffer.duplicate(), callback -> {}));
+        }
+    }
+
+    @Test
+    void otherDataIsRejected() {
+        final ByteBuffer buffer = TriggerBinaryFormat.write(allShapes());
+        assertThrows(IllegalArgumentException.class, () -> TriggerBinaryFormat.read(buffer.duplicate().limit(10), callback -> {}));
+
+        final ByteBuffer wrongMagic = TriggerBinaryFormat.write(allShapes());
+        wrongMagic.putInt(0, 0x12345678);
+        assertThrows(IllegalArgumentException.class, () -> TriggerBinaryFormat.read(wrongMagic, callback -> {}));
+    }
+
+    @Test
+    void emptyRoundTrip() {
+        final ByteBuffer buffer = TriggerBinaryFormat.write(List.of());
+        assertFalse(TriggerBinaryFormat.read(buffer, callback -> {}).iterator().hasNext());
+    }
+}
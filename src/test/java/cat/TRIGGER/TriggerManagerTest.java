@@ -0,0 +1,463 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package cat.TRIGGER;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.minestom.server.coordinate.Pos;
+import net.minestom.server.coordinate.Vec;
+import net.minestom.server.entity.EntityType;
+import net.minestom.server.entity.Player;
+import net.minestom.server.event.entity.EntityTeleportEvent;
+import net.minestom.server.event.player.PlayerMoveEvent;
+import net.minestom.server.event.player.PlayerTickEvent;
+import net.minestom.server.instance.Instance;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TriggerManagerTest {
+
+    private static final List<Supplier<TriggerIndex>> FACTORIES = List.of(LinearTriggerIndex::new, BvhTriggerIndex::new, () -> new GridTriggerIndex(16), ChunkTriggerIndex::new);
+
+    /**
+     * Create a box trigger that records its callbacks as the name of the trigger followed by the type.
+     */
+    private static Trigger recording(String name, Vec min, Vec max, List<String> events) {
+        return new Trigger(TriggerShape.box(min, max), Vec.ZERO, UUID.randomUUID(), Component.text(name), NamedTextColor.RED,
+                callback -> events.add(name + " " + callback.type()));
+    }
+
+    /**
+     * An index that counts its queries, every evaluation of a player without an instance queries it once.
+     * It can't be copied, so the counter stays shared with the indices built for later snapshots.
+     */
+    private static final class CountingTriggerIndex implements TriggerIndex {
+        private final LinearTriggerIndex index = new LinearTriggerIndex();
+        private final AtomicInteger queries;
+
+        CountingTriggerIndex(AtomicInteger queries) {
+            this.queries = queries;
+        }
+
+        @Override
+        public void insert(Trigger trigger) {
+            index.insert(trigger);
+        }
+
+        @Override
+        public boolean remove(Trigger trigger) {
+            return index.remove(trigger);
+        }
+
+        @Override
+        public void query(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Collection<? super Trigger> out) {
+            queries.incrementAndGet();
+            index.query(minX, minY, minZ, maxX, maxY, maxZ, out);
+        }
+
+        @Override
+        public void clear() {
+            index.clear();
+        }
+
+        @Override
+        public int size() {
+            return index.size();
+        }
+    }
+
+    @Test
+    void readersOnlySeeWholeBatches() throws InterruptedException {
+        final TriggerManager manager = new TriggerManager(false, BvhTriggerIndex::new);
+        final Random random = new Random(1);
+        final List<List<Trigger>> batches = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            batches.add(TestTriggers.randomBoxes(random, 10));
+        }
+
+        final AtomicBoolean stop = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            final Thread reader = new Thread(() -> {
+                try {
+                    while (!stop.get()) {
+                        final List<Trigger> triggers = manager.getTriggers();
+                        final Set<Trigger> unique = new HashSet<>();
+                        triggers.forEach(unique::add);
+                        assertEquals(0, triggers.size() % 10, "partial batch in the trigger list");
+                        assertEquals(triggers.size(), unique.size(), "duplicate triggers");
+
+                        final TriggerIndex index = manager.getIndex();
+                        final Set<Trigger> indexed = TestTriggers.all(index);
+                        assertEquals(0, indexed.size() % 10, "partial batch in the index");
+                        assertEquals(index == null ? 0 : index.size(), indexed.size(), "index size");
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        for (int round = 0; round < 300; round++) {
+            final List<Trigger> batch = batches.get(random.nextInt(batches.size()));
+            if (!manager.removeAll(batch)) {
+                manager.addAll(batch);
+            }
+        }
+        stop.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get(), () -> "reader failed: " + failure.get());
+    }
+
+    @Test
+    void publishedSnapshotsNeverChange() {
+        for (Supplier<TriggerIndex> factory : FACTORIES) {
+            final Random random = new Random(2);
+            final List<Trigger> triggers = TestTriggers.randomBoxes(random, 300);
+            final TriggerManager manager = new TriggerManager(false, factory);
+            manager.addAll(triggers.subList(0, 200));
+
+            for (int round = 0; round < 50; round++) {
+                final TriggerIndex index = manager.getIndex();
+                final List<Trigger> list = manager.getTriggers();
+                final Set<Trigger> indexed = TestTriggers.all(index);
+                final List<Trigger> listed = new ArrayList<>(list);
+
+                final Trigger trigger = triggers.get(random.nextInt(triggers.size()));
+                switch (random.nextInt(3)) {
+                    case 0 -> manager.add(trigger);
+                    case 1 -> manager.remove(trigger);
+                    default -> TestTriggers.moveRandomly(random, trigger);
+                }
+
+                assertEquals(indexed, TestTriggers.all(index), "published index changed");
+                assertEquals(listed, list, "published trigger list changed");
+            }
+        }
+    }
+
+    @Test
+    void indexFollowsRandomChanges() {
+        for (Supplier<TriggerIndex> factory : FACTORIES) {
+            final Random random = new Random(3);
+            final List<Trigger> triggers = TestTriggers.randomBoxes(random, 400);
+            final TriggerManager manager = new TriggerManager(false, factory);
+            final Set<Trigger> live = new HashSet<>(triggers.subList(0, 300));
+            manager.addAll(live);
+
+            for (int round = 0; round < 100; round++) {
+                for (int i = 0; i < 5; i++) {
+                    final Trigger trigger = triggers.get(random.nextInt(triggers.size()));
+                    switch (random.nextInt(4)) {
+                        case 0 -> {
+                            if (live.add(trigger)) manager.add(trigger);
+                        }
+                        case 1 -> {
+                            if (live.remove(trigger)) manager.remove(trigger);
+                        }
+                        case 2 -> TestTriggers.moveRandomly(random, trigger);
+                        default -> trigger.setEntityTypes(random.nextBoolean() ? Set.of() : Set.of(EntityType.ZOMBIE));
+                    }
+                }
+
+                final TriggerIndex index = manager.getIndex();
+                assertEquals(live, TestTriggers.all(index), "index contents");
+                assertEquals(live, new HashSet<>(manager.getTriggers()), "trigger list");
+
+                final LinearTriggerIndex linear = new LinearTriggerIndex();
+                linear.insertAll(live);
+                TestTriggers.assertSameQueries(linear, index, random, 20);
+            }
+        }
+    }
+
+    @Test
+    void removeAllOnlyRemovesRegisteredTriggers() {
+        final Random random = new Random(4);
+        final List<Trigger> triggers = TestTriggers.randomBoxes(random, 20);
+        final TriggerManager manager = new TriggerManager(false);
+        manager.addAll(triggers.subList(0, 10));
+
+        assertFalse(manager.removeAll(triggers.subList(10, 20)));
+        assertTrue(manager.removeAll(triggers.subList(5, 15)));
+        assertEquals(new HashSet<>(triggers.subList(0, 5)), new HashSet<>(manager.getTriggers()));
+        for (Trigger trigger : triggers.subList(5, 10)) {
+            assertFalse(manager.contains(trigger));
+            assertFalse(trigger.getManagers().contains(manager));
+        }
+        assertEquals(5 * triggers.get(0).getShape().getTriangleCount(), manager.getTotalTriangles());
+    }
+
+    @Test
+    void fastMoveThroughThinTriggerIsSwept() {
+        final List<String> events = new ArrayList<>();
+        final Trigger start = recording("start", new Vec(-1, 0, -1), new Vec(1, 2, 1), events);
+        final Trigger thin = recording("thin", new Vec(5, 0, -2), new Vec(5.1, 3, 2), events);
+        final Trigger end = recording("end", new Vec(9, 0, -1), new Vec(11, 2, 1), events);
+        final TriggerManager manager = new TriggerManager(false);
+        manager.addAll(List.of(start, thin, end));
+        manager.setContinuousCollision(true);
+
+        // The player is not spawned, so every movement starts at the origin
+        final Player player = TestTriggers.player("sweep");
+        assertEquals(Pos.ZERO, player.getPosition());
+        assertFalse(thin.contains(-0.3, 0, -0.3, 0.3, 1.8, 0.3));
+        assertFalse(thin.contains(9.7, 0, -0.3, 10.3, 1.8, 0.3));
+        assertTrue(thin.containsSwept(-0.3, 0, -0.3, 0.3, 1.8, 0.3, 10, 0, 0));
+
+        manager.entityTeleportEvent(new EntityTeleportEvent(player, Pos.ZERO, 0));
+        assertEquals(List.of("start ENTERED"), events);
+        events.clear();
+
+        manager.playerMoveEvent(new PlayerMoveEvent(player, new Pos(10, 0, 0), true));
+        assertEquals(List.of("start EXITED", "thin ENTERED", "thin EXITED", "end ENTERED"), events);
+        assertEquals(Set.of(end), manager.getTriggersInside(player));
+    }
+
+    @Test
+    void moveIsOnlySweptWithContinuousCollision() {
+        final List<String> events = new ArrayList<>();
+        final TriggerManager manager = new TriggerManager(false);
+        manager.add(recording("thin", new Vec(5, 0, -2), new Vec(5.1, 3, 2), events));
+
+        manager.playerMoveEvent(new PlayerMoveEvent(TestTriggers.player("discrete"), new Pos(10, 0, 0), true));
+        assertEquals(List.of(), events);
+    }
+
+    @Test
+    void teleportIsNotSwept() {
+        final List<String> events = new ArrayList<>();
+        final TriggerManager manager = new TriggerManager(false);
+        manager.addAll(List.of(recording("thin", new Vec(5, 0, -2), new Vec(5.1, 3, 2), events), recording("end", new Vec(9, 0, -1), new Vec(11, 2, 1), events)));
+        manager.setContinuousCollision(true);
+
+        // A teleport is a jump, the player never was anywhere near the thin trigger
+        manager.entityTeleportEvent(new EntityTeleportEvent(TestTriggers.player("teleport"), new Pos(10, 0, 0), 0));
+        assertEquals(List.of("end ENTERED"), events);
+    }
+
+    @Test
+    void triggersOnlyShowUpInTheirInstance() {
+        final Instance first = TestTriggers.instance(), second = TestTriggers.instance();
+        final Trigger trigger = TestTriggers.box(0, 0, 0, 4);
+        final Trigger everywhere = TestTriggers.box(1, 1, 1, 4);
+        trigger.setInstance(first);
+        final TriggerManager manager = new TriggerManager(false);
+        manager.addAll(List.of(trigger, everywhere));
+        final Vec min = new Vec(-10, -10, -10), max = new Vec(10, 10, 10);
+
+        assertEquals(Set.of(trigger, everywhere), new HashSet<>(manager.query(first, min, max)));
+        assertEquals(Set.of(everywhere), new HashSet<>(manager.query(second, min, max)));
+        assertEquals(Set.of(trigger, everywhere), new HashSet<>(manager.query(min, max)));
+        final TriggerIndex firstIndex = manager.getIndex(first);
+        assertEquals(Set.of(trigger), TestTriggers.all(firstIndex));
+        assertNull(manager.getIndex(second));
+
+        // Before the server ticks, changes are published right away
+        trigger.setInstance(second);
+        assertEquals(Set.of(everywhere), new HashSet<>(manager.query(first, min, max)));
+        assertEquals(Set.of(trigger, everywhere), new HashSet<>(manager.query(second, min, max)));
+        assertNull(manager.getIndex(first));
+        assertEquals(Set.of(trigger), TestTriggers.all(manager.getIndex(second)));
+        // The index published before is not changed
+        assertEquals(Set.of(trigger), TestTriggers.all(firstIndex));
+
+        trigger.setInstance(null);
+        assertEquals(Set.of(trigger, everywhere), new HashSet<>(manager.query(first, min, max)));
+        assertNull(manager.getIndex(second));
+    }
+
+    @Test
+    void movesInOneTickAreEvaluatedOnce() {
+        final List<String> events = new ArrayList<>();
+        final AtomicInteger queries = new AtomicInteger();
+        final TriggerManager manager = new TriggerManager(false, () -> new CountingTriggerIndex(queries));
+        manager.add(recording("box", new Vec(4, 0, -1), new Vec(6, 2, 1), events));
+        final Player player = TestTriggers.player("coalesced");
+
+        // Right away, every move is evaluated and leaving in between is seen
+        for (double x : new double[]{5, 20, 5.5}) {
+            manager.playerMoveEvent(new PlayerMoveEvent(player, new Pos(x, 0, 0), true));
+        }
+        assertEquals(3, queries.get());
+        assertEquals(List.of("box ENTERED", "box EXITED", "box ENTERED"), events);
+
+        final Player other = TestTriggers.player("coalesced");
+        manager.setCoalescedEvaluation(true);
+        queries.set(0);
+        events.clear();
+        // The player is not spawned, so its tick sees the origin, it goes first so the moves decide the latest position
+        manager.playerTickEvent(new PlayerTickEvent(other));
+        for (double x : new double[]{5, 20, 5.5}) {
+            manager.playerMoveEvent(new PlayerMoveEvent(other, new Pos(x, 0, 0), true));
+        }
+        assertEquals(0, queries.get());
+        assertEquals(List.of(), events);
+
+        manager.flush();
+        assertEquals(1, queries.get());
+        assertEquals(List.of("box ENTERED", "box TICK"), events);
+
+        // Nothing queued, nothing evaluated
+        manager.flush();
+        assertEquals(1, queries.get());
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    void parallelEvaluationMatchesSequential() {
+        final List<String> events = new ArrayList<>();
+        final Thread tick = Thread.currentThread();
+        final Random random = new Random(5);
+        final List<Trigger> triggers = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            final String name = "trigger" + i;
+            final Vec min = new Vec(random.nextDouble() * 30, 0, random.nextDouble() * 30);
+            triggers.add(new Trigger(TriggerShape.box(min, min.add(2 + random.nextDouble() * 8, 3, 2 + random.nextDouble() * 8)), Vec.ZERO, UUID.randomUUID(), Component.text(name), NamedTextColor.RED,
+                    callback -> events.add(callback.entity().getUuid() + " " + name + " " + callback.type() + (Thread.currentThread() == tick ? "" : " on " + Thread.currentThread().getName()))));
+        }
+        final TriggerManager sequential = new TriggerManager(false);
+        final TriggerManager parallel = new TriggerManager(false);
+        sequential.addAll(triggers);
+        parallel.addAll(triggers);
+        sequential.setCoalescedEvaluation(true);
+        parallel.setParallelEvaluation(true);
+
+        final List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            players.add(TestTriggers.player("parallel" + i));
+        }
+        for (int round = 0; round < 5; round++) {
+            final List<Pos> positions = new ArrayList<>();
+            for (int i = 0; i < players.size(); i++) {
+                positions.add(new Pos(random.nextDouble() * 40, 0, random.nextDouble() * 40));
+            }
+            final List<List<String>> results = new ArrayList<>();
+            for (TriggerManager manager : List.of(sequential, parallel)) {
+                events.clear();
+                for (int i = 0; i < players.size(); i++) {
+                    manager.playerMoveEvent(new PlayerMoveEvent(players.get(i), positions.get(i), true));
+                }
+                manager.flush();
+                results.add(new ArrayList<>(events));
+            }
+            assertFalse(results.get(0).isEmpty(), "no callbacks in round " + round);
+            assertEquals(results.get(0), results.get(1), "round " + round);
+
+            // Every callback ran on the calling thread, players in the order of their uuid
+            final List<String> sorted = new ArrayList<>(results.get(1));
+            sorted.sort(Comparator.comparing(event -> UUID.fromString(event.substring(0, event.indexOf(' ')))));
+            assertEquals(sorted, results.get(1), "order in round " + round);
+        }
+    }
+
+    @Test
+    void membershipFiresEnteredTickAndExited() {
+        final List<String> events = new ArrayList<>();
+        final Trigger outer = recording("outer", new Vec(-2, 0, -2), new Vec(4, 2, 2), events);
+        final Trigger inner = recording("inner", new Vec(2, 0, -1), new Vec(4, 2, 1), events);
+        final TriggerManager manager = new TriggerManager(false);
+        manager.addAll(List.of(outer, inner));
+        // The player is not spawned, so its ticks and moves start at the origin
+        final Player player = TestTriggers.player("membership");
+
+        manager.entityTeleportEvent(new EntityTeleportEvent(player, Pos.ZERO, 0));
+        manager.playerTickEvent(new PlayerTickEvent(player));
+        manager.playerTickEvent(new PlayerTickEvent(player));
+        assertEquals(List.of("outer ENTERED", "outer TICK", "outer TICK"), events);
+
+        // Moving inside of a trigger does not enter it again
+        events.clear();
+        manager.playerMoveEvent(new PlayerMoveEvent(player, new Pos(1, 0, 0), true));
+        assertEquals(List.of(), events);
+        manager.playerMoveEvent(new PlayerMoveEvent(player, new Pos(3, 0, 0), true));
+        assertEquals(List.of("inner ENTERED"), events);
+        assertEquals(Set.of(outer, inner), manager.getTriggersInside(player));
+
+        events.clear();
+        manager.playerMoveEvent(new PlayerMoveEvent(player, new Pos(10, 0, 0), true));
+        assertEquals(List.of("outer EXITED", "inner EXITED"), events);
+        assertEquals(Set.of(), manager.getTriggersInside(player));
+        events.clear();
+        manager.playerMoveEvent(new PlayerMoveEvent(player, new Pos(10, 0, 0), true));
+        assertEquals(List.of(), events);
+    }
+
+    @Test
+    void removedTriggerIsForgottenWithoutExited() {
+        final List<String> events = new ArrayList<>();
+        final Trigger trigger = recording("box", new Vec(-2, 0, -2), new Vec(2, 2, 2), events);
+        final TriggerManager manager = new TriggerManager(false);
+        manager.add(trigger);
+        final Player player = TestTriggers.player("removed");
+
+        manager.entityTeleportEvent(new EntityTeleportEvent(player, Pos.ZERO, 0));
+        assertEquals(Set.of(trigger), manager.getTriggersInside(player));
+
+        assertTrue(manager.remove(trigger));
+        assertEquals(Set.of(), manager.getTriggersInside(player));
+        // Leaving the removed trigger does not fire anything either
+        manager.playerMoveEvent(new PlayerMoveEvent(player, new Pos(10, 0, 0), true));
+        manager.playerTickEvent(new PlayerTickEvent(player));
+        assertEquals(List.of("box ENTERED"), events);
+
+        // Added again, it is entered again
+        manager.add(trigger);
+        manager.entityTeleportEvent(new EntityTeleportEvent(player, Pos.ZERO, 0));
+        assertEquals(List.of("box ENTERED", "box ENTERED"), events);
+        assertEquals(Set.of(trigger), manager.getTriggersInside(player));
+    }
+
+    @Test
+    void addingTwiceRegistersOnce() {
+        for (Supplier<TriggerIndex> factory : FACTORIES) {
+            final Trigger trigger = TestTriggers.box(0, 0, 0, 4);
+            final Trigger other = TestTriggers.box(10, 0, 0, 4);
+            final TriggerManager manager = new TriggerManager(false, List.of(trigger, trigger), factory);
+            manager.add(trigger);
+            manager.addAll(List.of(trigger, other, other));
+
+            assertEquals(List.of(trigger, other), manager.getTriggers());
+            assertEquals(2, manager.getIndex().size());
+            assertEquals(List.of(trigger), manager.query(new Vec(-1, -1, -1), new Vec(5, 5, 5)));
+            assertEquals(2 * trigger.getShape().getTriangleCount(), manager.getTotalTriangles());
+
+            assertTrue(manager.remove(trigger));
+            assertFalse(manager.remove(trigger));
+            assertFalse(manager.contains(trigger));
+            assertEquals(List.of(other), manager.getTriggers());
+            assertEquals(Set.of(other), TestTriggers.all(manager.getIndex()));
+            assertEquals(other.getShape().getTriangleCount(), manager.getTotalTriangles());
+        }
+    }
+}
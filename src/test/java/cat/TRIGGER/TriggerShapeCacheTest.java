@@ -0,0 +1,133 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package cat.TRIGGER;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.minestom.server.coordinate.Vec;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TriggerShapeCacheTest {
+
+    private static final List<Vec> CUBE = List.of(new Vec(0, 0, 0), new Vec(2, 0, 0), new Vec(0, 2, 0), new Vec(2, 2, 0),
+            new Vec(0, 0, 2), new Vec(2, 0, 2), new Vec(0, 2, 2), new Vec(2, 2, 2));
+
+    private static List<Vec> tetrahedron(double size) {
+        return List.of(new Vec(0, 0, 0), new Vec(size, 0, 0), new Vec(0, size, 0), new Vec(0, 0, size));
+    }
+
+    private static Trigger trigger(List<Vec> anchors, Vec position) {
+        return new Trigger(anchors, position, UUID.randomUUID(), Component.text("test"), NamedTextColor.RED, callback -> {});
+    }
+
+    @Test
+    void orderOfTheAnchorsDoesNotMatter() {
+        final TriggerShapeCache cache = new TriggerShapeCache(16);
+        final TriggerShape shape = cache.get(CUBE);
+        final List<Vec> shuffled = new ArrayList<>(CUBE);
+        Collections.shuffle(shuffled, new Random(1));
+        assertSame(shape, cache.get(shuffled));
+        Collections.reverse(shuffled);
+        assertSame(shape, cache.get(shuffled));
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void negativeZeroIsTheSameAnchor() {
+        final TriggerShapeCache cache = new TriggerShapeCache(16);
+        final TriggerShape shape = cache.get(List.of(new Vec(0, 1, 0), new Vec(0, 0, 0), new Vec(1, 0, 0), new Vec(0, 0, 1)));
+        // -0.0 sorts before 0.0, so it must be normalized before the anchors are put in order
+        assertSame(shape, cache.get(List.of(new Vec(-0.0, 1, 0), new Vec(0, 0, 0), new Vec(1, -0.0, 0), new Vec(0, 0, 1))));
+        assertSame(shape, cache.get(List.of(new Vec(-0.0, 1, -0.0), new Vec(-0.0, -0.0, -0.0), new Vec(1, 0, -0.0), new Vec(-0.0, 0, 1))));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void leastRecentlyUsedShapeIsEvicted() {
+        final TriggerShapeCache cache = new TriggerShapeCache(2);
+        final TriggerShape first = cache.get(tetrahedron(1));
+        final TriggerShape second = cache.get(tetrahedron(2));
+        // Touch the first shape so the second one is the oldest
+        assertSame(first, cache.get(tetrahedron(1)));
+        cache.get(tetrahedron(3));
+        assertEquals(2, cache.size());
+        assertSame(first, cache.get(tetrahedron(1)));
+        final long misses = cache.getMisses();
+        assertNotSame(second, cache.get(tetrahedron(2)));
+        assertEquals(misses + 1, cache.getMisses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void zeroCapacityDoesNotCache() {
+        final TriggerShapeCache cache = new TriggerShapeCache(0);
+        assertNotSame(cache.get(CUBE), cache.get(CUBE));
+        assertEquals(0, cache.size());
+        assertThrows(IllegalArgumentException.class, () -> new TriggerShapeCache(-1));
+    }
+
+    @Test
+    void triggersWithTheSameAnchorsShareTheirHull() {
+        final TriggerShapeCache previous = TriggerGlobals.SHAPE_CACHE;
+        TriggerGlobals.SHAPE_CACHE = new TriggerShapeCache(16);
+        try {
+            final Trigger first = trigger(CUBE, new Vec(10, 64, 10));
+            final Trigger second = trigger(List.of(CUBE.get(7), CUBE.get(3), CUBE.get(0), CUBE.get(5), CUBE.get(1), CUBE.get(6), CUBE.get(2), CUBE.get(4)), new Vec(-30, 70, 5));
+            assertSame(first.getShape(), second.getShape());
+            assertEquals(HullShape.class, first.getShape().getClass());
+            assertEquals(1, TriggerGlobals.SHAPE_CACHE.size());
+        } finally {
+            TriggerGlobals.SHAPE_CACHE = previous;
+        }
+    }
+
+    @Test
+    void replacingTheHullLeavesTheSharedOneAlone() {
+        final TriggerShapeCache previous = TriggerGlobals.SHAPE_CACHE;
+        TriggerGlobals.SHAPE_CACHE = new TriggerShapeCache(16);
+        try {
+            final Trigger first = trigger(CUBE, new Vec(10, 64, 10));
+            final Trigger second = trigger(CUBE, new Vec(-30, 70, 5));
+            final TriggerShape shared = first.getShape();
+            final List<Vec> anchors = List.copyOf(shared.getAnchors());
+            final int triangles = shared.getTriangleCount();
+
+            first.recompute();
+            assertNotSame(shared, first.getShape());
+            assertEquals(anchors, first.getAnchors());
+
+            // New anchors, the way recomputeAsync(List) swaps them in
+            first.setShape(TriggerGlobals.SHAPE_CACHE.get(tetrahedron(3)));
+            assertEquals(4, first.getAnchors().size());
+
+            assertSame(shared, second.getShape());
+            assertEquals(anchors, shared.getAnchors());
+            assertEquals(triangles, shared.getTriangleCount());
+            assertSame(shared, TriggerGlobals.SHAPE_CACHE.get(CUBE));
+        } finally {
+            TriggerGlobals.SHAPE_CACHE = previous;
+        }
+    }
+}
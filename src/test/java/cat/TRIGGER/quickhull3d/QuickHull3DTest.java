@@ -0,0 +1,194 @@
+/*
+ *     This file is part of TRIGGER by @catkillsreality.
+ *
+ *     TRIGGER is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ *     TRIGGER is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License along with TRIGGER. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package cat.TRIGGER.quickhull3d;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuickHull3DTest {
+
+    private static final double[] CUBE = {0, 0, 0, 1, 0, 0, 0, 1, 0, 1, 1, 0, 0, 0, 1, 1, 0, 1, 0, 1, 1, 1, 1, 1};
+
+    private static double[] randomCloud(Random random, int count) {
+        final double[] coords = new double[count * 3];
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] = random.nextDouble() * 20 - 10;
+        }
+        return coords;
+    }
+
+    private static double[] randomSphere(Random random, int count) {
+        final double[] coords = new double[count * 3];
+        for (int i = 0; i < count; i++) {
+            final double z = random.nextDouble() * 2 - 1, angle = random.nextDouble() * 2 * Math.PI, r = Math.sqrt(1 - z * z);
+            coords[i * 3] = r * Math.cos(angle);
+            coords[i * 3 + 1] = r * Math.sin(angle);
+            coords[i * 3 + 2] = z;
+        }
+        return coords;
+    }
+
+    /**
+     * Check that a hull is a closed convex polyhedron made of input points that contains every input point,
+     * and that it reaches as far as the input points in every direction, which only the convex hull does.
+     */
+    private static void assertValidHull(QuickHull3D hull, double[] coords, Random random) {
+        final Point3d[] vertices = hull.getVertices();
+        final int[] pointIndices = hull.getVertexPointIndices();
+        assertEquals(vertices.length, hull.getNumVertices());
+        for (int i = 0; i < vertices.length; i++) {
+            final int point = pointIndices[i];
+            assertArrayEquals(new double[]{coords[point * 3], coords[point * 3 + 1], coords[point * 3 + 2]}, new double[]{vertices[i].x, vertices[i].y, vertices[i].z}, "vertex " + i);
+        }
+
+        final double tolerance = 10 * hull.getDistanceTolerance();
+        final int[][] faces = hull.getFaces();
+        final Set<Long> edges = new HashSet<>();
+        for (int[] face : faces) {
+            assertTrue(face.length >= 3, "face with " + face.length + " vertices");
+            // Newell's method, the faces are counter-clockwise so the normal points outwards
+            double nx = 0, ny = 0, nz = 0, cx = 0, cy = 0, cz = 0;
+            for (int i = 0; i < face.length; i++) {
+                final Point3d a = vertices[face[i]], b = vertices[face[(i + 1) % face.length]];
+                nx += (a.y - b.y) * (a.z + b.z);
+                ny += (a.z - b.z) * (a.x + b.x);
+                nz += (a.x - b.x) * (a.y + b.y);
+                cx += a.x / face.length;
+                cy += a.y / face.length;
+                cz += a.z / face.length;
+                assertTrue(edges.add((long) face[i] << 32 | face[(i + 1) % face.length]), "edge used twice in the same direction");
+            }
+            final double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            assertTrue(length > 0, "face without area");
+            for (int i = 0; i < coords.length; i += 3) {
+                final double distance = (nx * (coords[i] - cx) + ny * (coords[i + 1] - cy) + nz * (coords[i + 2] - cz)) / length;
+                assertTrue(distance <= tolerance, "point " + i / 3 + " is " + distance + " outside of a face");
+            }
+        }
+        for (long edge : edges) {
+            assertTrue(edges.contains((edge & 0xFFFFFFFFL) << 32 | edge >>> 32), "open edge");
+        }
+        // Euler characteristic of a closed convex polyhedron
+        assertEquals(2, vertices.length - edges.size() / 2 + faces.length);
+
+        for (int i = 0; i < 64; i++) {
+            final double dx = random.nextGaussian(), dy = random.nextGaussian(), dz = random.nextGaussian();
+            double points = Double.NEGATIVE_INFINITY, hullVertices = Double.NEGATIVE_INFINITY;
+            for (int j = 0; j < coords.length; j += 3) {
+                points = Math.max(points, dx * coords[j] + dy * coords[j + 1] + dz * coords[j + 2]);
+            }
+            for (Point3d vertex : vertices) {
+                hullVertices = Math.max(hullVertices, dx * vertex.x + dy * vertex.y + dz * vertex.z);
+            }
+            assertEquals(points, hullVertices, 1e-9, "extent along " + dx + " " + dy + " " + dz);
+        }
+        assertTrue(hull.check(null), "check");
+    }
+
+    @Test
+    void randomCloudsGiveValidHulls() {
+        final Random random = new Random(1);
+        final QuickHull3D hull = new QuickHull3D();
+        for (int count : new int[]{4, 5, 10, 50, 200, 1000}) {
+            final double[] coords = randomCloud(random, count);
+            hull.build(coords);
+            assertValidHull(hull, coords, random);
+        }
+    }
+
+    @Test
+    void everyPointOnASphereIsAVertex() {
+        final Random random = new Random(2);
+        final double[] coords = randomSphere(random, 300);
+        final QuickHull3D hull = new QuickHull3D(coords);
+        assertEquals(300, hull.getNumVertices());
+        assertValidHull(hull, coords, random);
+    }
+
+    @Test
+    void pointsOnFacesAndInsideAreNotVertices() {
+        final Random random = new Random(3);
+        final double[] coords = Arrays.copyOf(CUBE, CUBE.length + 3 * 300);
+        for (int i = CUBE.length; i < coords.length; i += 3) {
+            coords[i] = random.nextDouble();
+            coords[i + 1] = random.nextDouble();
+            coords[i + 2] = random.nextDouble();
+            // Put two thirds of the points on a face or an edge of the cube, coplanar with the hull
+            if (i % 9 != 0) coords[i + (i / 3) % 3] = Math.round(coords[i + (i / 3) % 3]);
+            if (i % 9 == 3) coords[i + (i / 3 + 1) % 3] = Math.round(coords[i + (i / 3 + 1) % 3]);
+        }
+        final QuickHull3D hull = new QuickHull3D(coords);
+        assertEquals(8, hull.getNumVertices());
+        for (int point : hull.getVertexPointIndices()) {
+            assertTrue(point < 8, "point " + point + " is not a corner");
+        }
+        // The coplanar triangles are merged into one face per side
+        assertEquals(6, hull.getNumFaces());
+        for (int[] face : hull.getFaces()) {
+            assertEquals(4, face.length);
+        }
+        assertValidHull(hull, coords, random);
+    }
+
+    @Test
+    void thinSlabGivesValidHull() {
+        final Random random = new Random(4);
+        final double[] coords = randomCloud(random, 200);
+        for (int i = 2; i < coords.length; i += 3) {
+            coords[i] *= 1e-4;
+        }
+        final QuickHull3D hull = new QuickHull3D(coords);
+        assertValidHull(hull, coords, random);
+    }
+
+    @Test
+    void degenerateInputsFail() {
+        final QuickHull3D hull = new QuickHull3D();
+        assertThrows(IllegalArgumentException.class, () -> hull.build(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}));
+        assertThrows(IllegalArgumentException.class, () -> hull.build(new double[]{1, 2, 3, 1, 2, 3, 1, 2, 3, 1, 2, 3, 1, 2, 3}));
+        assertThrows(IllegalArgumentException.class, () -> hull.build(new double[]{0, 0, 0, 1, 1, 1, 2, 2, 2, 3, 3, 3, -4, -4, -4}));
+        final double[] plane = new double[3 * 25];
+        for (int i = 0; i < 25; i++) {
+            plane[i * 3] = i % 5;
+            plane[i * 3 + 1] = 7;
+            plane[i * 3 + 2] = i / 5;
+        }
+        assertThrows(IllegalArgumentException.class, () -> hull.build(plane));
+    }
+
+    @Test
+    void reusedInstanceMatchesFreshOnes() {
+        final Random random = new Random(5);
+        final QuickHull3D reused = new QuickHull3D();
+        final double[][] inputs = {randomCloud(random, 1000), CUBE, randomSphere(random, 50), randomCloud(random, 6)};
+        for (int round = 0; round < 2; round++) {
+            for (double[] coords : inputs) {
+                reused.build(coords);
+                final QuickHull3D fresh = new QuickHull3D(coords);
+                assertArrayEquals(fresh.getVertexPointIndices(), reused.getVertexPointIndices());
+                assertArrayEquals(fresh.getFaces(), reused.getFaces());
+                assertValidHull(reused, coords, random);
+            }
+            // A failed build must not leave anything behind for the next one
+            assertThrows(IllegalArgumentException.class, () -> reused.build(new double[]{0, 0, 0, 1, 0, 0, 2, 0, 0, 3, 0, 0}));
+        }
+    }
+}